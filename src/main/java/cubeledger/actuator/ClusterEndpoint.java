@@ -0,0 +1,64 @@
+package cubeledger.actuator;
+
+import cubeledger.cluster.AccountLeases;
+import cubeledger.cluster.ClusterMembership;
+import cubeledger.cluster.ClusterStatus;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint showing the cluster members and account ownership, and changing the membership at runtime.
+ */
+@Component
+@Endpoint(id = "cluster")
+public class ClusterEndpoint {
+
+    private final ClusterMembership clusterMembership;
+    private final AccountLeases accountLeases;
+
+    public ClusterEndpoint(ClusterMembership clusterMembership, AccountLeases accountLeases) {
+        this.clusterMembership = clusterMembership;
+        this.accountLeases = accountLeases;
+    }
+
+    /**
+     * Get the members, the members owning accounts and the leases granted.
+     *
+     * @return the cluster as seen by this instance
+     */
+    @ReadOperation
+    public ClusterStatus status() {
+        return new ClusterStatus(
+                clusterMembership.isEnabled(),
+                clusterMembership.getNodeId(),
+                clusterMembership.getMembers(),
+                clusterMembership.getRing().getMembers(),
+                accountLeases.size());
+    }
+
+    /**
+     * Change the membership. Every member must be told, since each keeps its own member list.
+     *
+     * @param action "join" to add a member or change its URL, or "leave" to remove a member
+     * @param memberId the member id
+     * @param url the base URL of the member for "join"
+     * @return the cluster after the change
+     */
+    @WriteOperation
+    public ClusterStatus control(String action, String memberId, @Nullable String url) {
+        switch (action) {
+            case "join" -> {
+                if (url == null) {
+                    throw new IllegalArgumentException("A joining member needs a url");
+                }
+                clusterMembership.join(memberId, url);
+            }
+            case "leave" -> clusterMembership.leave(memberId);
+            default -> throw new IllegalArgumentException("Unknown cluster action: " + action);
+        }
+        return status();
+    }
+}
@@ -1,36 +1,155 @@
 package cubeledger.actuator;
 
-import cubeledger.repository.AccountRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Custom health indicator that checks if the database is accessible
- * by counting the number of accounts.
+ * Custom health indicator that checks if the database is accessible and the connection pool has room.
+ * <p>
+ * The database is checked by validating a pooled connection with a timeout, which is a trivial round
+ * trip instead of a query over the data. The result is reused for a short time, so frequent probes
+ * add almost no load. The pool figures and the recent lock-wait and commit latencies are read from
+ * memory on every call. When the pool is saturated the status is DEGRADED rather than DOWN, and no
+ * new validation is attempted, since it would only queue behind the requests already waiting.
  */
 @Component
 public class DatabaseHealthIndicator implements HealthIndicator {
 
-    private final AccountRepository accountRepository;
+    public static final Status DEGRADED = new Status("DEGRADED", "Connection pool is saturated");
+
+    private final DataSource dataSource;
+    private final DatabaseHealthProperties properties;
+    private final MeterRegistry registry;
+    private volatile Validation validation;
 
-    public DatabaseHealthIndicator(AccountRepository accountRepository) {
-        this.accountRepository = accountRepository;
+    public DatabaseHealthIndicator(DataSource dataSource, DatabaseHealthProperties properties, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.registry = registry;
     }
 
     @Override
     public Health health() {
+        Map<String, Object> pool = poolDetails();
+        boolean saturated = pool != null && (boolean) pool.get("saturated");
+        Validation result = validate(saturated);
+
+        Health.Builder builder;
+        if (!result.valid()) {
+            builder = Health.down().withDetail("status", "Database is not accessible");
+            if (result.error() != null) {
+                builder.withDetail("error", result.error());
+            }
+        } else if (saturated) {
+            builder = Health.status(DEGRADED).withDetail("status", "Connection pool is saturated");
+        } else {
+            builder = Health.up().withDetail("status", "Database is accessible");
+        }
+        builder.withDetail("validatedAt", result.validatedAt())
+                .withDetail("validationMillis", result.millis());
+        if (pool != null) {
+            builder.withDetail("pool", pool);
+        }
+        builder.withDetail("lockWait", latencyDetails("cubeledger.account.lock.wait"))
+                .withDetail("commit", latencyDetails("cubeledger.transactions.commit"));
+        return builder.build();
+    }
+
+    private Validation validate(boolean saturated) {
+        Validation cached = validation;
+        if (cached != null && (saturated || !cached.isExpired(properties.getCacheTtl().toNanos()))) {
+            return cached;
+        }
+        synchronized (this) {
+            // Another probe may have refreshed the result while this one waited
+            cached = validation;
+            if (cached != null && !cached.isExpired(properties.getCacheTtl().toNanos())) {
+                return cached;
+            }
+            validation = runValidation();
+            return validation;
+        }
+    }
+
+    private Validation runValidation() {
+        int timeoutSeconds = (int) Math.max(1, properties.getValidationTimeout().toSeconds());
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean valid = connection.isValid(timeoutSeconds);
+            return new Validation(valid, valid ? null : "Connection validation timed out", start);
+        } catch (SQLException e) {
+            return new Validation(false, e.getMessage(), start);
+        }
+    }
+
+    private Map<String, Object> poolDetails() {
+        HikariDataSource hikari;
         try {
-            long accountCount = accountRepository.count();
-            return Health.up()
-                    .withDetail("accountCount", accountCount)
-                    .withDetail("status", "Database is accessible")
-                    .build();
-        } catch (Exception e) {
-            return Health.down()
-                    .withDetail("error", e.getMessage())
-                    .withDetail("status", "Database is not accessible")
-                    .build();
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            return null;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return null;
+        }
+
+        int active = pool.getActiveConnections();
+        int idle = pool.getIdleConnections();
+        int pending = pool.getThreadsAwaitingConnection();
+        int max = hikari.getMaximumPoolSize();
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("active", active);
+        details.put("idle", idle);
+        details.put("pending", pending);
+        details.put("max", max);
+        details.put("saturated", pending > 0 || (idle == 0 && active >= max * properties.getSaturationThreshold()));
+        return details;
+    }
+
+    private Map<String, Object> latencyDetails(String timerName) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        Timer timer = registry.find(timerName).timer();
+        if (timer == null) {
+            return details;
+        }
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            details.put("p" + Math.round(percentile.percentile() * 100) + "Millis", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        details.put("maxMillis", timer.max(TimeUnit.MILLISECONDS));
+        return details;
+    }
+
+    private record Validation(boolean valid, String error, LocalDateTime validatedAt, long startNanos, long endNanos) {
+
+        private Validation(boolean valid, String error, long startNanos) {
+            this(valid, error, LocalDateTime.now(), startNanos, System.nanoTime());
+        }
+
+        private long millis() {
+            return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+        }
+
+        private boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - endNanos >= ttlNanos;
         }
     }
 }
@@ -0,0 +1,51 @@
+package cubeledger.actuator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the database health indicator.
+ */
+@ConfigurationProperties(prefix = "cubeledger.health.database")
+public class DatabaseHealthProperties {
+
+    /**
+     * Maximum time the connection validation may take before the database is reported down.
+     */
+    private Duration validationTimeout = Duration.ofSeconds(1);
+
+    /**
+     * How long a validation result is reused, so frequent probes do not each reach the database.
+     */
+    private Duration cacheTtl = Duration.ofSeconds(5);
+
+    /**
+     * Share of the maximum pool size in use at which the database is reported degraded.
+     */
+    private double saturationThreshold = 0.9;
+
+    public Duration getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(Duration validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public double getSaturationThreshold() {
+        return saturationThreshold;
+    }
+
+    public void setSaturationThreshold(double saturationThreshold) {
+        this.saturationThreshold = saturationThreshold;
+    }
+}
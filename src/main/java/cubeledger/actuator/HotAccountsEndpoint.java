@@ -0,0 +1,38 @@
+package cubeledger.actuator;
+
+import cubeledger.hotaccount.HotAccountReport;
+import cubeledger.hotaccount.HotAccountTracker;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the accounts with the most operations and the most lock wait recently.
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+public class HotAccountsEndpoint {
+
+    private final HotAccountTracker hotAccountTracker;
+
+    public HotAccountsEndpoint(HotAccountTracker hotAccountTracker) {
+        this.hotAccountTracker = hotAccountTracker;
+    }
+
+    /**
+     * Get the busiest accounts over the last slot, the last five slots and all kept slots.
+     *
+     * @param top the number of accounts per window, or the configured default
+     * @return the report
+     * @throws InvalidEndpointRequestException if top is less than 1
+     */
+    @ReadOperation
+    public HotAccountReport hotAccounts(@Nullable Integer top) {
+        if (top != null && top < 1) {
+            throw new InvalidEndpointRequestException("Invalid top: " + top, "top must be at least 1");
+        }
+        return top != null ? hotAccountTracker.report(top) : hotAccountTracker.report();
+    }
+}
@@ -0,0 +1,48 @@
+package cubeledger.actuator;
+
+import cubeledger.audit.LedgerIntegrityStatus;
+import cubeledger.audit.LedgerVerifier;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the state of the tamper-evident transaction log.
+ * The latest Merkle root can be recorded externally to prove later that sealed blocks were not rewritten.
+ */
+@Component
+@Endpoint(id = "ledgerintegrity")
+public class LedgerIntegrityEndpoint {
+
+    private final LedgerVerifier ledgerVerifier;
+
+    public LedgerIntegrityEndpoint(LedgerVerifier ledgerVerifier) {
+        this.ledgerVerifier = ledgerVerifier;
+    }
+
+    /**
+     * Get the chain length, the latest Merkle root and the verification state.
+     *
+     * @return the state of the log
+     */
+    @ReadOperation
+    public LedgerIntegrityStatus status() {
+        return ledgerVerifier.getStatus();
+    }
+
+    /**
+     * Verify the log.
+     *
+     * @param action "verify" to verify the blocks sealed since the last verification, or "verify-all" to verify the whole chain
+     * @return the state of the log after verification
+     */
+    @WriteOperation
+    public LedgerIntegrityStatus verify(String action) {
+        return switch (action) {
+            case "verify" -> ledgerVerifier.verifyPending();
+            case "verify-all" -> ledgerVerifier.verifyAll();
+            default -> throw new IllegalArgumentException("Unknown ledger integrity action: " + action);
+        };
+    }
+}
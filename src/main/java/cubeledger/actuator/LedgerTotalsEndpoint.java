@@ -0,0 +1,55 @@
+package cubeledger.actuator;
+
+import cubeledger.totals.LedgerTotals;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for inspecting the ledger-wide totals and flushing or rebuilding them.
+ */
+@Component
+@Endpoint(id = "ledgertotals")
+public class LedgerTotalsEndpoint {
+
+    private final LedgerTotals ledgerTotals;
+
+    public LedgerTotalsEndpoint(LedgerTotals ledgerTotals) {
+        this.ledgerTotals = ledgerTotals;
+    }
+
+    /**
+     * Get today's totals and when they were last flushed.
+     *
+     * @return the totals
+     */
+    @ReadOperation
+    public Map<String, Object> totals() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lastFlush", ledgerTotals.getLastFlush());
+        result.put("unflushedTotals", ledgerTotals.getUnflushedCount());
+        result.put("totals", ledgerTotals.getTotals(LocalDate.now()));
+        return result;
+    }
+
+    /**
+     * Flush or rebuild the totals.
+     *
+     * @param action "flush" to persist the postings not flushed yet, or "rebuild" to recompute the totals from the accounts and transactions
+     * @return the totals
+     */
+    @WriteOperation
+    public Map<String, Object> control(String action) {
+        switch (action) {
+            case "flush" -> ledgerTotals.flush();
+            case "rebuild" -> ledgerTotals.rebuild();
+            default -> throw new IllegalArgumentException("Unknown ledger totals action: " + action);
+        }
+        return totals();
+    }
+}
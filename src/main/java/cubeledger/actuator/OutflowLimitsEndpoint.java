@@ -0,0 +1,72 @@
+package cubeledger.actuator;
+
+import cubeledger.limits.OutflowLimits;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for inspecting the outflow limits and changing them without a restart.
+ */
+@Component
+@Endpoint(id = "outflowlimits")
+public class OutflowLimitsEndpoint {
+
+    private final OutflowLimits outflowLimits;
+
+    public OutflowLimitsEndpoint(OutflowLimits outflowLimits) {
+        this.outflowLimits = outflowLimits;
+    }
+
+    /**
+     * Get the limited windows and the number of accounts with outflow in them.
+     *
+     * @return the limits
+     */
+    @ReadOperation
+    public Map<String, Object> limits() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", outflowLimits.isEnabled());
+        result.put("currency", outflowLimits.getLimitCurrency());
+        result.put("windows", outflowLimits.getWindows());
+        result.put("trackedAccounts", outflowLimits.getTrackedAccounts());
+        return result;
+    }
+
+    /**
+     * Get the outflow of an account in each window, in the account currency.
+     *
+     * @param accountNumber the account number
+     * @return the outflow by window name
+     */
+    @ReadOperation
+    public Map<String, BigDecimal> usage(@Selector String accountNumber) {
+        return outflowLimits.getUsage(accountNumber);
+    }
+
+    /**
+     * Change the outflow limits.
+     *
+     * @param action "set" to change a window's maximum outflow, "enable" to check the limits, or "disable" to stop
+     * @param window the window to change, required for "set"
+     * @param maxOutflow the new maximum outflow in the limit currency, required for "set"
+     * @return the limits
+     */
+    @WriteOperation
+    public Map<String, Object> control(String action, @Nullable String window, @Nullable BigDecimal maxOutflow) {
+        switch (action) {
+            case "set" -> outflowLimits.setMaxOutflow(window, maxOutflow);
+            case "enable" -> outflowLimits.setEnabled(true);
+            case "disable" -> outflowLimits.setEnabled(false);
+            default -> throw new IllegalArgumentException("Unknown outflow limits action: " + action);
+        }
+        return limits();
+    }
+}
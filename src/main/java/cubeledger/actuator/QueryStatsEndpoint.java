@@ -0,0 +1,108 @@
+package cubeledger.actuator;
+
+import cubeledger.querystats.HibernateStatisticsMetrics;
+import cubeledger.querystats.QueryStats;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for inspecting which queries the application runs and how long they take:
+ * Hibernate's statistics, the SQL statements that took the most time and the slowest recent statements.
+ */
+@Component
+@Endpoint(id = "querystats")
+public class QueryStatsEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final QueryStats queryStats;
+    private final Statistics statistics;
+
+    public QueryStatsEndpoint(QueryStats queryStats, HibernateStatisticsMetrics hibernateStatisticsMetrics) {
+        this.queryStats = queryStats;
+        this.statistics = hibernateStatisticsMetrics.getStatistics();
+    }
+
+    /**
+     * Get the query statistics.
+     *
+     * @param top the number of queries and statements to list, 20 if not given
+     * @return the statistics
+     */
+    @ReadOperation
+    public Map<String, Object> stats(@Nullable Integer top) {
+        int limit = top == null ? DEFAULT_TOP : top;
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        hibernate.put("queries", statistics.getQueryExecutionCount());
+        hibernate.put("queryMaxMillis", statistics.getQueryExecutionMaxTime());
+        hibernate.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        hibernate.put("planCacheHits", statistics.getQueryPlanCacheHitCount());
+        hibernate.put("planCacheMisses", statistics.getQueryPlanCacheMissCount());
+        hibernate.put("planCacheHitRatio", HibernateStatisticsMetrics.planCacheHitRatio(statistics));
+        hibernate.put("entitiesLoaded", statistics.getEntityLoadCount());
+        hibernate.put("entitiesFetched", statistics.getEntityFetchCount());
+        hibernate.put("statementsPrepared", statistics.getPrepareStatementCount());
+        hibernate.put("flushes", statistics.getFlushCount());
+        hibernate.put("transactions", statistics.getTransactionCount());
+        hibernate.put("topQueries", topQueries(limit));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hibernate", hibernate);
+        result.put("topStatements", queryStats.topStatements(limit));
+        result.put("slowStatements", queryStats.slowStatements());
+        return result;
+    }
+
+    private List<Map<String, Object>> topQueries(int top) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> entry) -> entry.getValue().getExecutionTotalTime()).reversed())
+                .limit(top)
+                .map(entry -> {
+                    QueryStatistics query = entry.getValue();
+                    Map<String, Object> summary = new LinkedHashMap<>();
+                    summary.put("query", entry.getKey());
+                    summary.put("executions", query.getExecutionCount());
+                    summary.put("rows", query.getExecutionRowCount());
+                    summary.put("totalMillis", query.getExecutionTotalTime());
+                    summary.put("meanMillis", query.getExecutionAvgTimeAsDouble());
+                    summary.put("maxMillis", query.getExecutionMaxTime());
+                    summary.put("planCacheHits", query.getPlanCacheHitCount());
+                    summary.put("planCacheMisses", query.getPlanCacheMissCount());
+                    return summary;
+                })
+                .toList();
+    }
+
+    /**
+     * Control the query statistics.
+     *
+     * @param action "reset" to clear all statistics, "enable-statistics" or "disable-statistics" to switch Hibernate's statistics
+     * @return the statistics
+     */
+    @WriteOperation
+    public Map<String, Object> control(String action) {
+        switch (action) {
+            case "reset" -> {
+                statistics.clear();
+                queryStats.reset();
+            }
+            case "enable-statistics" -> statistics.setStatisticsEnabled(true);
+            case "disable-statistics" -> statistics.setStatisticsEnabled(false);
+            default -> throw new IllegalArgumentException("Unknown query stats action: " + action);
+        }
+        return stats(null);
+    }
+}
@@ -0,0 +1,59 @@
+package cubeledger.actuator;
+
+import cubeledger.reconciliation.ReconciliationProgress;
+import cubeledger.reconciliation.ReconciliationService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for starting, pausing and monitoring balance reconciliation runs.
+ */
+@Component
+@Endpoint(id = "reconciliation")
+public class ReconciliationEndpoint {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationEndpoint(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    /**
+     * Get the progress of the current or latest run.
+     *
+     * @return the progress and the current rate limit
+     */
+    @ReadOperation
+    public Map<String, Object> progress() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("run", reconciliationService.getProgress());
+        result.put("maxChunksPerSecond", reconciliationService.getMaxChunksPerSecond());
+        return result;
+    }
+
+    /**
+     * Control the reconciliation job.
+     *
+     * @param action "start" to start or resume a run, "pause" to pause the current run, or "throttle" to change the rate limit
+     * @param maxChunksPerSecond the new rate limit for "throttle", 0 for no limit
+     * @return the progress of the affected run
+     */
+    @WriteOperation
+    public ReconciliationProgress control(String action, @Nullable Double maxChunksPerSecond) {
+        return switch (action) {
+            case "start" -> reconciliationService.start();
+            case "pause" -> reconciliationService.pause();
+            case "throttle" -> {
+                reconciliationService.setMaxChunksPerSecond(maxChunksPerSecond != null ? maxChunksPerSecond : 0);
+                yield reconciliationService.getProgress();
+            }
+            default -> throw new IllegalArgumentException("Unknown reconciliation action: " + action);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package cubeledger.actuator;
+
+import cubeledger.profiling.RequestProfiler;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for switching per-request allocation and CPU accounting on and off at runtime.
+ * The figures themselves are the cubeledger.request.allocated and cubeledger.request.cpu metrics.
+ */
+@Component
+@Endpoint(id = "requestprofiling")
+public class RequestProfilingEndpoint {
+
+    private final RequestProfiler requestProfiler;
+
+    public RequestProfilingEndpoint(RequestProfiler requestProfiler) {
+        this.requestProfiler = requestProfiler;
+    }
+
+    /**
+     * Get whether request profiling is on.
+     *
+     * @return the profiling state
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", requestProfiler.isEnabled());
+        result.put("supported", requestProfiler.isSupported());
+        return result;
+    }
+
+    /**
+     * Switch request profiling.
+     *
+     * @param action "enable" to start profiling requests, or "disable" to stop
+     * @return the profiling state
+     * @throws InvalidEndpointRequestException if profiling is switched on but the JVM cannot measure threads
+     */
+    @WriteOperation
+    public Map<String, Object> control(String action) {
+        switch (action) {
+            case "enable" -> {
+                if (!requestProfiler.isSupported()) {
+                    throw new InvalidEndpointRequestException("Request profiling is not supported by this JVM",
+                            "The JVM does not support per-thread allocation and CPU time measurement");
+                }
+                requestProfiler.setEnabled(true);
+            }
+            case "disable" -> requestProfiler.setEnabled(false);
+            default -> throw new IllegalArgumentException("Unknown request profiling action: " + action);
+        }
+        return status();
+    }
+}
@@ -0,0 +1,68 @@
+package cubeledger.actuator;
+
+import cubeledger.capture.TrafficRecorder;
+import cubeledger.ratelimit.TransactionRateLimiter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for starting and stopping traffic capture and listing the capture files. It also
+ * tells a replay client whether this instance limits replayed traffic per captured client.
+ */
+@Component
+@Endpoint(id = "trafficcapture")
+public class TrafficCaptureEndpoint {
+
+    private final TrafficRecorder trafficRecorder;
+    private final TransactionRateLimiter rateLimiter;
+
+    public TrafficCaptureEndpoint(TrafficRecorder trafficRecorder, TransactionRateLimiter rateLimiter) {
+        this.trafficRecorder = trafficRecorder;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Get the capture state and files.
+     *
+     * @return the capture state
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", trafficRecorder.isEnabled());
+        result.put("sampleRate", trafficRecorder.getSampleRate());
+        result.put("directory", trafficRecorder.getDirectory().toAbsolutePath().toString());
+        result.put("requests", trafficRecorder.getCounts());
+        result.put("files", trafficRecorder.getFiles());
+        result.put("limitsPerCapturedClient", rateLimiter.limitsPerCapturedClient());
+        return result;
+    }
+
+    /**
+     * Start or stop capturing traffic.
+     *
+     * @param action "enable" to start capturing, or "disable" to stop
+     * @param sampleRate the share of requests to capture, between 0 and 1, optional for "enable"
+     * @return the capture state
+     */
+    @WriteOperation
+    public Map<String, Object> control(String action, @Nullable Double sampleRate) {
+        switch (action) {
+            case "enable" -> {
+                if (sampleRate != null) {
+                    trafficRecorder.setSampleRate(sampleRate);
+                }
+                trafficRecorder.setEnabled(true);
+            }
+            case "disable" -> trafficRecorder.setEnabled(false);
+            default -> throw new IllegalArgumentException("Unknown traffic capture action: " + action);
+        }
+        return status();
+    }
+}
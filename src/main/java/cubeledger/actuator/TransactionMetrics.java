@@ -2,10 +2,16 @@ package cubeledger.actuator;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
 
 /**
- * Custom metrics for tracking transaction operations.
+ * Custom metrics for tracking transaction operations. Inside a transaction, the counters are only
+ * incremented once it commits, so rolled-back operations are not counted.
  */
 @Component
 public class TransactionMetrics {
@@ -13,6 +19,7 @@ public class TransactionMetrics {
     private final Counter depositCounter;
     private final Counter withdrawalCounter;
     private final Counter transferCounter;
+    private final Timer commitTimer;
 
     public TransactionMetrics(MeterRegistry registry) {
         this.depositCounter = Counter.builder("cubeledger.transactions.deposit")
@@ -26,26 +33,64 @@ public class TransactionMetrics {
         this.transferCounter = Counter.builder("cubeledger.transactions.transfer")
                 .description("Number of transfer transactions processed")
                 .register(registry);
+
+        this.commitTimer = Timer.builder("cubeledger.transactions.commit")
+                .description("Time taken to flush and commit write transactions")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
     }
 
     /**
      * Increment the deposit counter.
      */
     public void incrementDepositCounter() {
-        depositCounter.increment();
+        afterCommit(depositCounter);
     }
 
     /**
      * Increment the withdrawal counter.
      */
     public void incrementWithdrawalCounter() {
-        withdrawalCounter.increment();
+        afterCommit(withdrawalCounter);
     }
 
     /**
      * Increment the transfer counter.
      */
     public void incrementTransferCounter() {
-        transferCounter.increment();
+        afterCommit(transferCounter);
+    }
+
+    /**
+     * Time the commit of the current transaction, from the flush before it to its completion.
+     * Must be called inside an active transaction.
+     */
+    public void timeCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private static void afterCommit(Counter counter) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
     }
 }
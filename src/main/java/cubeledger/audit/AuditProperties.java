@@ -0,0 +1,79 @@
+package cubeledger.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the tamper-evident transaction log.
+ */
+@ConfigurationProperties(prefix = "cubeledger.audit")
+public class AuditProperties {
+
+    /**
+     * Whether transactions are hashed and blocks verified in the background.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of transactions hashed per database transaction.
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * Number of chain entries covered by one Merkle root.
+     */
+    private int blockSize = 1_024;
+
+    /**
+     * How old a transaction must be before it is hashed. Transaction ids are assigned before commit,
+     * so the hasher waits this long for lower ids to become visible before moving past them.
+     */
+    private Duration settleDelay = Duration.ofSeconds(30);
+
+    /**
+     * How long after its timestamp a transaction that commits after higher ids were hashed is still
+     * appended to the chain. Later ones are left out and counted as unchained in the integrity status.
+     */
+    private Duration lateCommitWindow = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public Duration getSettleDelay() {
+        return settleDelay;
+    }
+
+    public void setSettleDelay(Duration settleDelay) {
+        this.settleDelay = settleDelay;
+    }
+
+    public Duration getLateCommitWindow() {
+        return lateCommitWindow;
+    }
+
+    public void setLateCommitWindow(Duration lateCommitWindow) {
+        this.lateCommitWindow = lateCommitWindow;
+    }
+}
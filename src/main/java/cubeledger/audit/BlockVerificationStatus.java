@@ -0,0 +1,21 @@
+package cubeledger.audit;
+
+/**
+ * Enum representing the verification state of a ledger block.
+ */
+public enum BlockVerificationStatus {
+    /**
+     * The block has been sealed but not verified yet
+     */
+    UNVERIFIED,
+
+    /**
+     * The block's transactions, chain hashes and Merkle root were recomputed and matched
+     */
+    VERIFIED,
+
+    /**
+     * The block does not match the transactions it covers
+     */
+    FAILED
+}
@@ -0,0 +1,60 @@
+package cubeledger.audit;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * The fields of a transaction covered by its hash, as stored in the {@code transactions} table.
+ *
+ * @param transactionId the transaction id
+ * @param sourceAccountId the source account id, or null for deposits
+ * @param targetAccountId the target account id, or null for withdrawals
+ * @param amount the amount
+ * @param currency the currency code
+ * @param timestamp the transaction timestamp
+ * @param description the description, or null
+ * @param type the transaction type
+ * @param sourceAmount the amount debited from the source account, or null
+ * @param targetAmount the amount credited to the target account, or null
+ * @param exchangeRate the applied exchange rate, or null
+ */
+public record LedgerEntry(
+        long transactionId,
+        Long sourceAccountId,
+        Long targetAccountId,
+        BigDecimal amount,
+        String currency,
+        LocalDateTime timestamp,
+        String description,
+        String type,
+        BigDecimal sourceAmount,
+        BigDecimal targetAmount,
+        BigDecimal exchangeRate) {
+
+    /**
+     * Columns to select, in order, to build an entry with {@link #map(ResultSet)}.
+     */
+    static final String COLUMNS = "t.id, t.source_account_id, t.target_account_id, t.amount, t.currency, t.timestamp, t.description, t.type, " +
+            "t.source_amount, t.target_amount, t.exchange_rate";
+
+    static LedgerEntry map(ResultSet rs) throws SQLException {
+        long sourceAccountId = rs.getLong(2);
+        Long source = rs.wasNull() ? null : sourceAccountId;
+        long targetAccountId = rs.getLong(3);
+        Long target = rs.wasNull() ? null : targetAccountId;
+        return new LedgerEntry(
+                rs.getLong(1),
+                source,
+                target,
+                rs.getBigDecimal(4),
+                rs.getString(5),
+                rs.getTimestamp(6).toLocalDateTime(),
+                rs.getString(7),
+                rs.getString(8),
+                rs.getBigDecimal(9),
+                rs.getBigDecimal(10),
+                rs.getBigDecimal(11));
+    }
+}
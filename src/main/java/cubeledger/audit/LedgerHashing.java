@@ -0,0 +1,118 @@
+package cubeledger.audit;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Hash functions of the tamper-evident transaction log.
+ * <p>
+ * The chain hash of an entry is {@code SHA-256(previousHash + "\n" + canonicalForm(entry))}, starting
+ * from {@link #GENESIS_HASH}. A block's Merkle root is built pairwise over the raw chain hashes of its
+ * entries, duplicating the last node of odd levels. Hashes are lowercase hex strings.
+ */
+public final class LedgerHashing {
+
+    /**
+     * The previous hash of the first entry in the chain.
+     */
+    public static final String GENESIS_HASH = "0".repeat(64);
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private LedgerHashing() {
+    }
+
+    /**
+     * Encode an entry unambiguously. Every field is written as its length followed by its value,
+     * so that no choice of description can make two different entries encode the same way.
+     *
+     * @param entry the entry
+     * @return the canonical form
+     */
+    public static String canonicalForm(LedgerEntry entry) {
+        StringBuilder builder = new StringBuilder(128);
+        appendField(builder, Long.toString(entry.transactionId()));
+        appendField(builder, entry.sourceAccountId() != null ? entry.sourceAccountId().toString() : null);
+        appendField(builder, entry.targetAccountId() != null ? entry.targetAccountId().toString() : null);
+        appendField(builder, plain(entry.amount()));
+        appendField(builder, entry.currency());
+        appendField(builder, entry.timestamp().toString());
+        appendField(builder, entry.description());
+        appendField(builder, entry.type());
+        appendField(builder, plain(entry.sourceAmount()));
+        appendField(builder, plain(entry.targetAmount()));
+        appendField(builder, plain(entry.exchangeRate()));
+        return builder.toString();
+    }
+
+    /**
+     * Compute the chain hash of an entry.
+     *
+     * @param previousHash the chain hash of the previous entry, or {@link #GENESIS_HASH}
+     * @param entry the entry
+     * @return the chain hash
+     */
+    public static String chainHash(String previousHash, LedgerEntry entry) {
+        MessageDigest digest = sha256();
+        digest.update(previousHash.getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) '\n');
+        digest.update(canonicalForm(entry).getBytes(StandardCharsets.UTF_8));
+        return HEX.formatHex(digest.digest());
+    }
+
+    /**
+     * Compute the Merkle root over a block of chain hashes.
+     *
+     * @param hashes the chain hashes of the block, in chain order
+     * @return the Merkle root, or {@link #GENESIS_HASH} for an empty block
+     */
+    public static String merkleRoot(List<String> hashes) {
+        if (hashes.isEmpty()) {
+            return GENESIS_HASH;
+        }
+        List<byte[]> level = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            level.add(HEX.parseHex(hash));
+        }
+
+        MessageDigest digest = sha256();
+        while (level.size() > 1) {
+            List<byte[]> parents = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                byte[] left = level.get(i);
+                byte[] right = i + 1 < level.size() ? level.get(i + 1) : left;
+                digest.update(left);
+                digest.update(right);
+                parents.add(digest.digest());
+            }
+            level = parents;
+        }
+        return HEX.formatHex(level.get(0));
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : null;
+    }
+
+    private static void appendField(StringBuilder builder, String value) {
+        if (value == null) {
+            builder.append("-1:");
+        } else {
+            builder.append(value.length()).append(':').append(value);
+        }
+        builder.append('|');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
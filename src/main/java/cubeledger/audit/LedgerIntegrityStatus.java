@@ -0,0 +1,33 @@
+package cubeledger.audit;
+
+import java.util.List;
+
+/**
+ * Snapshot of the state of the tamper-evident transaction log.
+ *
+ * @param chainLength the number of hashed transactions
+ * @param headHash the chain hash of the latest hashed transaction
+ * @param unchainedTransactions the number of transactions that committed too late to be appended to the chain
+ * @param blocks the number of sealed blocks
+ * @param verifiedBlocks the number of verified blocks
+ * @param latestMerkleRoot the Merkle root of the latest sealed block, or null
+ * @param failedBlocks the blocks that failed verification
+ */
+public record LedgerIntegrityStatus(
+        long chainLength,
+        String headHash,
+        long unchainedTransactions,
+        long blocks,
+        long verifiedBlocks,
+        String latestMerkleRoot,
+        List<FailedBlock> failedBlocks) {
+
+    /**
+     * A block that failed verification.
+     *
+     * @param blockNumber the block number
+     * @param detail the first problem found
+     */
+    public record FailedBlock(long blockNumber, String detail) {
+    }
+}
@@ -0,0 +1,173 @@
+package cubeledger.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies sealed ledger blocks against the transactions they cover.
+ * <p>
+ * Verification is incremental: only blocks that have not been verified yet are checked, each against
+ * the last hash of the block before it. For a block the verifier re-reads the transactions at its chain
+ * positions, recomputes every chain hash and the Merkle root, and checks that no transaction was changed
+ * or removed. Transactions left out of the chain are counted in the status. A full re-verification can
+ * be requested through the actuator endpoint.
+ */
+@Service
+public class LedgerVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerVerifier.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditProperties properties;
+
+    public LedgerVerifier(DataSource dataSource, AuditProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${cubeledger.audit.verify-interval:PT10M}", initialDelayString = "${cubeledger.audit.verify-interval:PT10M}")
+    public void scheduledVerify() {
+        if (properties.isEnabled()) {
+            verifyPending();
+        }
+    }
+
+    /**
+     * Verify all blocks sealed since the last verification.
+     *
+     * @return the state of the log after verification
+     */
+    public synchronized LedgerIntegrityStatus verifyPending() {
+        List<Block> blocks = jdbcTemplate.query(
+                "SELECT block_number, first_seq, last_seq, prev_hash, last_hash, merkle_root " +
+                "FROM ledger_blocks WHERE verification_status = ? ORDER BY block_number",
+                (rs, rowNum) -> new Block(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4), rs.getString(5), rs.getString(6)),
+                BlockVerificationStatus.UNVERIFIED.name());
+
+        for (Block block : blocks) {
+            String problem = verifyBlock(block);
+            BlockVerificationStatus status = problem == null ? BlockVerificationStatus.VERIFIED : BlockVerificationStatus.FAILED;
+            jdbcTemplate.update(
+                    "UPDATE ledger_blocks SET verification_status = ?, verified_at = ?, verification_detail = ? WHERE block_number = ?",
+                    status.name(), Timestamp.valueOf(LocalDateTime.now()), problem, block.number());
+            if (problem != null) {
+                logger.error("Ledger block {} failed verification: {}", block.number(), problem);
+            }
+        }
+        return getStatus();
+    }
+
+    /**
+     * Mark every block as unverified and verify the whole chain again.
+     *
+     * @return the state of the log after verification
+     */
+    public synchronized LedgerIntegrityStatus verifyAll() {
+        jdbcTemplate.update("UPDATE ledger_blocks SET verification_status = ?, verified_at = NULL, verification_detail = NULL",
+                BlockVerificationStatus.UNVERIFIED.name());
+        return verifyPending();
+    }
+
+    /**
+     * Get the current state of the log.
+     *
+     * @return the state of the log
+     */
+    public LedgerIntegrityStatus getStatus() {
+        Map<String, Object> head = jdbcTemplate.queryForMap(
+                "SELECT count(*) AS chain_length, max(seq) AS head_seq FROM transaction_hashes");
+        String headHash = head.get("head_seq") != null
+                ? jdbcTemplate.queryForObject("SELECT hash FROM transaction_hashes WHERE seq = ?", String.class, head.get("head_seq"))
+                : LedgerHashing.GENESIS_HASH;
+
+        Long unchained = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions t WHERE t.id < (SELECT max(transaction_id) FROM transaction_hashes) " +
+                "AND t.timestamp < ? AND NOT EXISTS (SELECT 1 FROM transaction_hashes h WHERE h.transaction_id = t.id)",
+                Long.class, Timestamp.valueOf(LocalDateTime.now().minus(properties.getLateCommitWindow())));
+
+        Map<String, Object> blocks = jdbcTemplate.queryForMap(
+                "SELECT count(*) AS blocks, max(block_number) AS last_block, " +
+                "sum(CASE WHEN verification_status = 'VERIFIED' THEN 1 ELSE 0 END) AS verified FROM ledger_blocks");
+        String latestMerkleRoot = blocks.get("last_block") != null
+                ? jdbcTemplate.queryForObject("SELECT merkle_root FROM ledger_blocks WHERE block_number = ?", String.class, blocks.get("last_block"))
+                : null;
+
+        List<LedgerIntegrityStatus.FailedBlock> failed = jdbcTemplate.query(
+                "SELECT block_number, verification_detail FROM ledger_blocks WHERE verification_status = ? ORDER BY block_number",
+                (rs, rowNum) -> new LedgerIntegrityStatus.FailedBlock(rs.getLong(1), rs.getString(2)),
+                BlockVerificationStatus.FAILED.name());
+
+        return new LedgerIntegrityStatus(
+                ((Number) head.get("chain_length")).longValue(),
+                headHash,
+                unchained != null ? unchained : 0,
+                ((Number) blocks.get("blocks")).longValue(),
+                blocks.get("verified") != null ? ((Number) blocks.get("verified")).longValue() : 0,
+                latestMerkleRoot,
+                failed);
+    }
+
+    /**
+     * Recompute a block from the transactions it covers.
+     *
+     * @return a description of the first problem found, or null if the block is intact
+     */
+    private String verifyBlock(Block block) {
+        String expectedPrevHash = block.number() == 0
+                ? LedgerHashing.GENESIS_HASH
+                : jdbcTemplate.query("SELECT last_hash FROM ledger_blocks WHERE block_number = ?",
+                        rs -> rs.next() ? rs.getString(1) : null, block.number() - 1);
+        if (!block.prevHash().equals(expectedPrevHash)) {
+            return "Block does not link to block " + (block.number() - 1);
+        }
+
+        List<ChainedEntry> entries = jdbcTemplate.query(
+                "SELECT " + LedgerEntry.COLUMNS + ", h.seq, h.hash FROM transaction_hashes h " +
+                "JOIN transactions t ON t.id = h.transaction_id WHERE h.seq BETWEEN ? AND ? ORDER BY h.seq",
+                (rs, rowNum) -> new ChainedEntry(LedgerEntry.map(rs), rs.getLong(12), rs.getString(13)),
+                block.firstSeq(), block.lastSeq());
+
+        List<String> hashes = new ArrayList<>(entries.size());
+        String hash = block.prevHash();
+        long expectedSeq = block.firstSeq();
+        for (ChainedEntry chained : entries) {
+            long transactionId = chained.entry().transactionId();
+            if (chained.seq() != expectedSeq) {
+                return "Chain entry " + expectedSeq + " is missing before transaction " + transactionId;
+            }
+            hash = LedgerHashing.chainHash(hash, chained.entry());
+            if (!hash.equals(chained.hash())) {
+                return "Transaction " + transactionId + " does not match its chain hash";
+            }
+            hashes.add(hash);
+            expectedSeq++;
+        }
+
+        if (expectedSeq != block.lastSeq() + 1) {
+            return "Block covers " + hashes.size() + " transactions, expected " + (block.lastSeq() - block.firstSeq() + 1);
+        }
+        if (!hash.equals(block.lastHash())) {
+            return "Last chain hash does not match";
+        }
+        if (!LedgerHashing.merkleRoot(hashes).equals(block.merkleRoot())) {
+            return "Merkle root does not match";
+        }
+        return null;
+    }
+
+    private record Block(long number, long firstSeq, long lastSeq, String prevHash, String lastHash, String merkleRoot) {
+    }
+
+    private record ChainedEntry(LedgerEntry entry, long seq, String hash) {
+    }
+}
@@ -0,0 +1,158 @@
+package cubeledger.audit;
+
+import cubeledger.cluster.ClusterMembership;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends committed transactions to the ledger-wide hash chain and seals full blocks with a Merkle root.
+ * <p>
+ * Hashing runs in the background in batches, so it adds nothing to the latency of posting a transaction.
+ * Transactions are chained in the order they become visible. Because ids are assigned before commit, new
+ * transactions are taken in id order once they are older than the settle delay, which keeps the chain in
+ * id order as long as no transaction commits later than that. A lower id that still commits afterwards is
+ * appended at the head of the chain, up to the late commit window, and logged. Each batch locks the chain
+ * first, so members that briefly both own the job during a membership change extend it one at a time.
+ */
+@Service
+public class TransactionHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionHasher.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate batchJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditProperties properties;
+    private final ClusterMembership clusterMembership;
+
+    public TransactionHasher(DataSource dataSource, PlatformTransactionManager transactionManager, AuditProperties properties,
+                             ClusterMembership clusterMembership) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchJdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchJdbcTemplate.setMaxRows(properties.getBatchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clusterMembership = clusterMembership;
+    }
+
+    /**
+     * Hash all settled transactions that are not in the chain yet, one batch per database transaction.
+     * In cluster mode, only one member hashes.
+     */
+    @Scheduled(fixedDelayString = "${cubeledger.audit.hash-interval:PT1S}")
+    public void hashPending() {
+        if (!properties.isEnabled() || !clusterMembership.runsJob("audit-hasher")) {
+            return;
+        }
+        int hashed;
+        do {
+            Integer count = transactionTemplate.execute(status -> hashBatch());
+            hashed = count != null ? count : 0;
+        } while (hashed >= properties.getBatchSize());
+    }
+
+    /**
+     * Append the next batch of settled transactions to the chain and seal the blocks it completes.
+     *
+     * @return the number of transactions hashed
+     */
+    private int hashBatch() {
+        // Held until the batch commits; the head is read after it is acquired
+        jdbcTemplate.queryForObject("SELECT id FROM hash_chain_lock WHERE id = 1 FOR UPDATE", Integer.class);
+        ChainHead head = findHead();
+        Long lastChainedId = jdbcTemplate.queryForObject("SELECT max(transaction_id) FROM transaction_hashes", Long.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settledBefore = now.minus(properties.getSettleDelay());
+        Timestamp hashedAt = Timestamp.valueOf(now);
+
+        List<LedgerEntry> late = lastChainedId == null ? List.of() : batchJdbcTemplate.query(
+                "SELECT " + LedgerEntry.COLUMNS + " FROM transactions t WHERE t.id < ? AND t.timestamp >= ? " +
+                "AND NOT EXISTS (SELECT 1 FROM transaction_hashes h WHERE h.transaction_id = t.id) ORDER BY t.id",
+                (rs, rowNum) -> LedgerEntry.map(rs), lastChainedId, Timestamp.valueOf(now.minus(properties.getLateCommitWindow())));
+        List<LedgerEntry> entries = batchJdbcTemplate.query(
+                "SELECT " + LedgerEntry.COLUMNS + " FROM transactions t WHERE t.id > ? ORDER BY t.id",
+                (rs, rowNum) -> LedgerEntry.map(rs), lastChainedId != null ? lastChainedId : 0L);
+
+        List<Object[]> rows = new ArrayList<>(late.size() + entries.size());
+        long seq = head.seq();
+        String hash = head.hash();
+        for (LedgerEntry entry : late) {
+            logger.warn("Transaction {} became visible after higher ids were hashed and is appended at chain position {}",
+                    entry.transactionId(), seq + 1);
+            hash = LedgerHashing.chainHash(hash, entry);
+            rows.add(new Object[]{++seq, entry.transactionId(), hash, hashedAt});
+        }
+        for (LedgerEntry entry : entries) {
+            if (entry.timestamp().isAfter(settledBefore)) {
+                // A transaction holding a lower id may still commit
+                break;
+            }
+            hash = LedgerHashing.chainHash(hash, entry);
+            rows.add(new Object[]{++seq, entry.transactionId(), hash, hashedAt});
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO transaction_hashes (seq, transaction_id, hash, hashed_at) VALUES (?, ?, ?, ?)", rows);
+            logger.debug("Hashed {} transactions, chain length is now {}", rows.size(), seq);
+        }
+        sealBlocks(seq);
+        return rows.size();
+    }
+
+    private void sealBlocks(long headSeq) {
+        List<Object[]> lastBlock = jdbcTemplate.query(
+                "SELECT block_number, last_seq, last_hash FROM ledger_blocks " +
+                "WHERE block_number = (SELECT max(block_number) FROM ledger_blocks)",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getString(3)});
+
+        long blockNumber = lastBlock.isEmpty() ? 0 : (long) lastBlock.get(0)[0] + 1;
+        long firstSeq = lastBlock.isEmpty() ? 1 : (long) lastBlock.get(0)[1] + 1;
+        String prevHash = lastBlock.isEmpty() ? LedgerHashing.GENESIS_HASH : (String) lastBlock.get(0)[2];
+        int blockSize = properties.getBlockSize();
+
+        while (headSeq - firstSeq + 1 >= blockSize) {
+            long lastSeq = firstSeq + blockSize - 1;
+            List<Long> transactionIds = new ArrayList<>(blockSize);
+            List<String> hashes = new ArrayList<>(blockSize);
+            jdbcTemplate.query("SELECT transaction_id, hash FROM transaction_hashes WHERE seq BETWEEN ? AND ? ORDER BY seq", rs -> {
+                transactionIds.add(rs.getLong(1));
+                hashes.add(rs.getString(2));
+            }, firstSeq, lastSeq);
+
+            String merkleRoot = LedgerHashing.merkleRoot(hashes);
+            jdbcTemplate.update(
+                    "INSERT INTO ledger_blocks (block_number, first_seq, last_seq, first_transaction_id, last_transaction_id, " +
+                    "prev_hash, last_hash, merkle_root, created_at, verification_status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    blockNumber, firstSeq, lastSeq, transactionIds.get(0), transactionIds.get(transactionIds.size() - 1),
+                    prevHash, hashes.get(hashes.size() - 1), merkleRoot, Timestamp.valueOf(LocalDateTime.now()),
+                    BlockVerificationStatus.UNVERIFIED.name());
+            logger.info("Sealed ledger block {} with Merkle root {}", blockNumber, merkleRoot);
+
+            prevHash = hashes.get(hashes.size() - 1);
+            firstSeq = lastSeq + 1;
+            blockNumber++;
+        }
+    }
+
+    private ChainHead findHead() {
+        List<ChainHead> head = jdbcTemplate.query(
+                "SELECT seq, hash FROM transaction_hashes WHERE seq = (SELECT max(seq) FROM transaction_hashes)",
+                (rs, rowNum) -> new ChainHead(rs.getLong(1), rs.getString(2)));
+        return head.isEmpty() ? new ChainHead(0, LedgerHashing.GENESIS_HASH) : head.get(0);
+    }
+
+    private record ChainHead(long seq, String hash) {
+    }
+}
@@ -0,0 +1,128 @@
+package cubeledger.capture;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The binary layout of capture files.
+ * <p>
+ * A file starts with the magic number "CLTR", a version byte and the capture start time as a long
+ * in microseconds since the epoch. Each record follows as:
+ * <pre>
+ * varlong  timestamp delta from the previous record (the start time for the first), zig-zag encoded
+ * byte     method, an index into {@link #METHODS}
+ * varint   path length, then the UTF-8 path and query string
+ * varint   client id length, then the UTF-8 client id (length 0 when there was none)
+ * varint   body length, then the body
+ * varint   response status
+ * varlong  latency in microseconds
+ * </pre>
+ * Varints use seven bits per byte, least significant group first, with the high bit marking that
+ * more bytes follow. A typical transfer takes well under 200 bytes.
+ */
+final class CaptureFormat {
+
+    static final int MAGIC = 0x434C5452;
+    static final byte VERSION = 1;
+    static final List<String> METHODS = List.of("GET", "POST", "PUT", "DELETE", "PATCH");
+    static final String FILE_PREFIX = "traffic-";
+    static final String FILE_SUFFIX = ".cap";
+
+    private CaptureFormat() {
+    }
+
+    /**
+     * Get the name of a capture file started at a given time. Names sort in the order the files were started.
+     */
+    static String fileName(long startMillis) {
+        return FILE_PREFIX + String.format("%013d", startMillis) + FILE_SUFFIX;
+    }
+
+    /**
+     * Get the capture files to read.
+     *
+     * @param input a capture file, or a directory of capture files
+     * @return the file itself, or the capture files in the directory in the order they were written
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Path> files(Path input) throws IOException {
+        if (!Files.isDirectory(input)) {
+            return List.of(input);
+        }
+        try (Stream<Path> files = Files.list(input)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream input) throws IOException {
+        return readVarLong(input, input.readUnsignedByte());
+    }
+
+    /**
+     * Read a varint whose first byte was already read.
+     */
+    static long readVarLong(DataInputStream input, int firstByte) throws IOException {
+        long value = firstByte & 0x7F;
+        int b = firstByte;
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            if (shift >= 64) {
+                throw new IOException("Malformed varint in capture file");
+            }
+            b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    static byte[] readBytes(DataInputStream input, int maxLength) throws IOException {
+        long length = readVarLong(input);
+        if (length > maxLength) {
+            throw new IOException("Field of " + length + " bytes exceeds the limit of " + maxLength);
+        }
+        byte[] bytes = new byte[(int) length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    static void writeString(DataOutputStream output, String value) throws IOException {
+        writeBytes(output, value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String readString(DataInputStream input, int maxLength) throws IOException {
+        byte[] bytes = readBytes(input, maxLength);
+        return bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+}
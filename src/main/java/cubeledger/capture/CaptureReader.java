@@ -0,0 +1,74 @@
+package cubeledger.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static cubeledger.capture.CaptureFormat.*;
+
+/**
+ * Reads captured requests in the {@link CaptureFormat capture format}. Not thread-safe.
+ */
+class CaptureReader implements Closeable {
+
+    private static final int MAX_FIELD_LENGTH = 16 * 1024 * 1024;
+
+    private final DataInputStream input;
+    private final long startMicros;
+    private long previousTimestamp;
+
+    CaptureReader(InputStream input) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(input, 64 * 1024));
+        if (this.input.readInt() != MAGIC) {
+            throw new IOException("Not a capture file");
+        }
+        byte version = this.input.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported capture file version " + version);
+        }
+        this.startMicros = this.input.readLong();
+        this.previousTimestamp = startMicros;
+    }
+
+    long getStartMicros() {
+        return startMicros;
+    }
+
+    /**
+     * Read the next request.
+     *
+     * @return the request, or null at the end of the file
+     * @throws EOFException if the file ends in the middle of a request, as after a crash
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    CapturedRequest read() throws IOException {
+        int first = input.read();
+        if (first < 0) {
+            return null;
+        }
+        try {
+            long timestamp = previousTimestamp + unZigZag(readVarLong(input, first));
+            int method = input.readUnsignedByte();
+            if (method >= METHODS.size()) {
+                throw new IOException("Unknown HTTP method code " + method);
+            }
+            String path = readString(input, MAX_FIELD_LENGTH);
+            String clientId = readString(input, MAX_FIELD_LENGTH);
+            byte[] body = readBytes(input, MAX_FIELD_LENGTH);
+            int status = (int) readVarLong(input);
+            long latencyMicros = readVarLong(input);
+            previousTimestamp = timestamp;
+            return new CapturedRequest(timestamp, METHODS.get(method), path, clientId, body, status, latencyMicros);
+        } catch (EOFException e) {
+            throw new EOFException("Capture file ends in the middle of a request");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
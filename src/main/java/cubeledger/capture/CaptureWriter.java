@@ -0,0 +1,59 @@
+package cubeledger.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static cubeledger.capture.CaptureFormat.*;
+
+/**
+ * Writes captured requests in the {@link CaptureFormat capture format}. Not thread-safe.
+ */
+class CaptureWriter implements Closeable {
+
+    private final DataOutputStream output;
+    private long previousTimestamp;
+
+    CaptureWriter(OutputStream output, long startMicros) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(output, 64 * 1024));
+        this.output.writeInt(MAGIC);
+        this.output.writeByte(VERSION);
+        this.output.writeLong(startMicros);
+        this.previousTimestamp = startMicros;
+    }
+
+    void write(CapturedRequest request) throws IOException {
+        int method = METHODS.indexOf(request.method());
+        if (method < 0) {
+            throw new IllegalArgumentException("Cannot capture HTTP method " + request.method());
+        }
+        writeVarLong(output, zigZag(request.timestampMicros() - previousTimestamp));
+        output.writeByte(method);
+        writeString(output, request.path());
+        writeString(output, request.clientId());
+        writeBytes(output, request.body());
+        writeVarLong(output, request.status());
+        writeVarLong(output, request.latencyMicros());
+        previousTimestamp = request.timestampMicros();
+    }
+
+    /**
+     * Get the number of bytes written so far, including those still buffered.
+     *
+     * @return the file size once flushed
+     */
+    long size() {
+        return output.size();
+    }
+
+    void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
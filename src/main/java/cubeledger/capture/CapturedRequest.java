@@ -0,0 +1,16 @@
+package cubeledger.capture;
+
+/**
+ * A captured API request and its outcome.
+ *
+ * @param timestampMicros when the request arrived, in microseconds since the epoch
+ * @param method the HTTP method
+ * @param path the request path and query string
+ * @param clientId the key the client was rate limited by, or null if it is not known
+ * @param body the request body
+ * @param status the response status
+ * @param latencyMicros the time taken to handle the request
+ */
+public record CapturedRequest(long timestampMicros, String method, String path, String clientId, byte[] body, int status,
+                              long latencyMicros) {
+}
@@ -0,0 +1,54 @@
+package cubeledger.capture;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The result of replaying captured traffic.
+ *
+ * @param requests the number of requests replayed
+ * @param matched the number of replayed requests answered with the captured status
+ * @param mismatched the number of replayed requests answered with another status, by captured and replayed status, such as "201 -> 422"
+ * @param failed the number of replayed requests that got no response
+ * @param durationMillis how long the replay took
+ * @param requestsPerSecond the replay throughput
+ * @param maxLagMillis how far the replay fell behind the captured timing at most, 0 when replaying as fast as possible
+ * @param captured the latency distribution of the captured requests
+ * @param replayed the latency distribution of the replayed requests
+ */
+public record ReplayReport(long requests, long matched, Map<String, Long> mismatched, long failed, long durationMillis,
+                           double requestsPerSecond, double maxLagMillis, Latencies captured, Latencies replayed) {
+
+    /**
+     * A latency distribution, in milliseconds.
+     *
+     * @param p50 the median
+     * @param p90 the 90th percentile
+     * @param p99 the 99th percentile
+     * @param p999 the 99.9th percentile
+     * @param max the longest latency
+     */
+    public record Latencies(double p50, double p90, double p99, double p999, double max) {
+
+        /**
+         * Summarize latencies.
+         *
+         * @param micros the latencies in microseconds; sorted in place
+         * @param count the number of latencies in the array
+         * @return the distribution, all zero if there are no latencies
+         */
+        static Latencies of(long[] micros, int count) {
+            if (count == 0) {
+                return new Latencies(0, 0, 0, 0, 0);
+            }
+            Arrays.sort(micros, 0, count);
+            return new Latencies(percentile(micros, count, 0.5), percentile(micros, count, 0.9), percentile(micros, count, 0.99),
+                    percentile(micros, count, 0.999), micros[count - 1] / 1000.0);
+        }
+
+        private static double percentile(long[] sorted, int count, double quantile) {
+            int index = (int) Math.ceil(quantile * count) - 1;
+            return sorted[Math.max(0, index)] / 1000.0;
+        }
+    }
+}
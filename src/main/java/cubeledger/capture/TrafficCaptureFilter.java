@@ -0,0 +1,110 @@
+package cubeledger.capture;
+
+import cubeledger.cluster.ClusterClient;
+import cubeledger.ratelimit.TransactionRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Captures a sample of the API requests, with their bodies, status and latency, for later replay.
+ * <p>
+ * Runs before every other filter, so the latency covers rate limiting, load shedding and cluster
+ * forwarding as a client sees them. Requests forwarded by another cluster member were already
+ * captured there and are skipped. The client is recorded under the key the rate limiter knows it by,
+ * so a replay can limit each captured client separately. Event streams are not captured, since they do not end in a single
+ * response. Bodies hold account numbers and amounts, so they are only captured when enabled; the
+ * body is then cached as the controller reads it, and whatever it did not read, for example when
+ * the request was rejected before reaching the controller, is read after the response.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/";
+
+    private final TrafficRecorder trafficRecorder;
+    private final TransactionRateLimiter rateLimiter;
+    private final boolean captureBodies;
+    private final int maxBodySize;
+
+    public TrafficCaptureFilter(TrafficRecorder trafficRecorder, TrafficCaptureProperties properties,
+                                TransactionRateLimiter rateLimiter) {
+        this.trafficRecorder = trafficRecorder;
+        this.rateLimiter = rateLimiter;
+        this.captureBodies = properties.isCaptureBodies();
+        this.maxBodySize = (int) Math.min(Integer.MAX_VALUE, properties.getMaxBodySize().toBytes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX)
+                || !CaptureFormat.METHODS.contains(request.getMethod())
+                || request.getHeader(ClusterClient.FORWARDED_BY_HEADER) != null
+                || captureBodies && request.getContentLengthLong() > maxBodySize
+                || !trafficRecorder.sample();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long timestamp = TrafficRecorder.nowMicros();
+        long start = System.nanoTime();
+        HttpServletRequest capturedRequest = captureBodies ? new BodyCachingRequest(request, maxBodySize) : request;
+        boolean completed = false;
+        try {
+            filterChain.doFilter(capturedRequest, response);
+            completed = true;
+        } finally {
+            if (!request.isAsyncStarted()) {
+                capture(capturedRequest, completed ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                        timestamp, (System.nanoTime() - start) / 1000);
+            }
+        }
+    }
+
+    private void capture(HttpServletRequest request, int status, long timestamp, long latencyMicros) {
+        byte[] body = new byte[0];
+        if (request instanceof BodyCachingRequest cachingRequest) {
+            try {
+                // Read whatever the handler left unread, so the captured body is complete
+                cachingRequest.getInputStream().transferTo(OutputStream.nullOutputStream());
+            } catch (IOException | IllegalStateException e) {
+                return;
+            }
+            if (cachingRequest.overflowed) {
+                return;
+            }
+            body = cachingRequest.getContentAsByteArray();
+        }
+        String path = request.getQueryString() != null ? request.getRequestURI() + "?" + request.getQueryString() : request.getRequestURI();
+        trafficRecorder.record(new CapturedRequest(timestamp, request.getMethod(), path, rateLimiter.clientOf(request),
+                body, status, latencyMicros));
+    }
+
+    /**
+     * Request caching its body, noting when the body is larger than can be captured.
+     */
+    private static final class BodyCachingRequest extends ContentCachingRequestWrapper {
+
+        private boolean overflowed;
+
+        private BodyCachingRequest(HttpServletRequest request, int contentCacheLimit) {
+            super(request, contentCacheLimit);
+        }
+
+        @Override
+        protected void handleContentOverflow(int contentCacheLimit) {
+            overflowed = true;
+        }
+    }
+}
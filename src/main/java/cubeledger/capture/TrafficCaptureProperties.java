@@ -0,0 +1,119 @@
+package cubeledger.capture;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration properties for capturing API traffic to files for later replay.
+ */
+@ConfigurationProperties(prefix = "cubeledger.capture")
+public class TrafficCaptureProperties {
+
+    /**
+     * Whether traffic is captured at startup. It can be switched at runtime through /actuator/trafficcapture.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Share of API requests captured, between 0 and 1.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Directory the capture files are written to.
+     */
+    private Path directory = Path.of("capture");
+
+    /**
+     * Size at which a capture file is closed and the next one started.
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Number of capture files kept. The oldest file is deleted when a new one would exceed it.
+     */
+    private int maxFiles = 20;
+
+    /**
+     * Number of captured requests waiting to be written. Requests arriving while it is full are not captured.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Whether request bodies are captured. They contain account numbers and amounts, so capture files
+     * written with bodies must be kept as carefully as the database. Without bodies, replayed writes
+     * are rejected as invalid and only the read traffic is reproduced.
+     */
+    private boolean captureBodies = false;
+
+    /**
+     * Largest request body captured. When bodies are captured, requests with larger bodies are not captured.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    public void setMaxFiles(int maxFiles) {
+        this.maxFiles = maxFiles;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public boolean isCaptureBodies() {
+        return captureBodies;
+    }
+
+    public void setCaptureBodies(boolean captureBodies) {
+        this.captureBodies = captureBodies;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+}
@@ -0,0 +1,278 @@
+package cubeledger.capture;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes captured requests to rotating capture files.
+ * <p>
+ * Request threads only put the request on a bounded queue; a single background thread writes the
+ * files, so capturing adds no disk I/O to request handling. When the queue is full the request is
+ * dropped and counted rather than slowing the API down. A file is closed and the next one started
+ * when it reaches the maximum file size, and the oldest files are deleted beyond the maximum number
+ * of files. Files are also closed while capture is off and the queue is empty, so a stopped capture
+ * leaves only complete files behind.
+ */
+@Component
+public class TrafficRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficRecorder.class);
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final BlockingQueue<CapturedRequest> queue;
+    private final ExecutorService writerThread;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile boolean enabled;
+    private volatile double sampleRate;
+    private volatile boolean stopped;
+    private CaptureWriter writer;
+    private Path currentFile;
+
+    public TrafficRecorder(TrafficCaptureProperties properties, MeterRegistry registry) {
+        this.directory = properties.getDirectory();
+        this.maxFileSize = properties.getMaxFileSize().toBytes();
+        this.maxFiles = Math.max(1, properties.getMaxFiles());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.written = counter(registry, "written");
+        this.dropped = counter(registry, "dropped");
+        this.failed = counter(registry, "failed");
+        setSampleRate(properties.getSampleRate());
+        this.enabled = properties.isEnabled();
+
+        this.writerThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cubeledger-traffic-capture");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writerThread.execute(this::writeLoop);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("cubeledger.capture.requests")
+                .description("Number of API requests captured, by whether they were written to a capture file")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Decide whether to capture a request, according to the sample rate.
+     *
+     * @return true if capture is on and the request is sampled
+     */
+    public boolean sample() {
+        if (!enabled) {
+            return false;
+        }
+        double rate = sampleRate;
+        return rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Queue a captured request for writing, dropping it if the queue is full.
+     *
+     * @param request the request
+     */
+    public void record(CapturedRequest request) {
+        if (!queue.offer(request)) {
+            dropped.increment();
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Change the share of requests captured, taking effect immediately.
+     *
+     * @param sampleRate the share, between 0 and 1
+     */
+    public void setSampleRate(double sampleRate) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the capture counts.
+     *
+     * @return the number of requests written, dropped because the queue was full, and lost to write errors
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("written", (long) written.count());
+        counts.put("dropped", (long) dropped.count());
+        counts.put("failed", (long) failed.count());
+        counts.put("queued", (long) queue.size());
+        return counts;
+    }
+
+    /**
+     * Get the capture files in the directory and their sizes.
+     *
+     * @return the file sizes in bytes by file name, oldest first
+     */
+    public Map<String, Long> getFiles() {
+        Map<String, Long> files = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try {
+            for (Path file : CaptureFormat.files(directory)) {
+                files.put(file.getFileName().toString(), Files.size(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private void writeLoop() {
+        try {
+            while (!stopped) {
+                CapturedRequest request = queue.poll(1, TimeUnit.SECONDS);
+                if (request != null) {
+                    write(request);
+                } else {
+                    idle();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        CapturedRequest request;
+        while ((request = queue.poll()) != null) {
+            write(request);
+        }
+        closeFile();
+    }
+
+    private void write(CapturedRequest request) {
+        try {
+            if (writer == null) {
+                openFile(request.timestampMicros());
+            }
+            writer.write(request);
+            written.increment();
+            if (writer.size() >= maxFileSize) {
+                closeFile();
+            }
+        } catch (IOException e) {
+            failed.increment();
+            logger.warn("Failed to write captured request to {}", currentFile != null ? currentFile : directory, e);
+            closeFile();
+        }
+    }
+
+    private void idle() {
+        if (writer == null) {
+            return;
+        }
+        if (!enabled) {
+            closeFile();
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn("Failed to flush capture file {}", currentFile, e);
+            closeFile();
+        }
+    }
+
+    private void openFile(long startMicros) throws IOException {
+        Files.createDirectories(directory);
+        long startMillis = Math.floorDiv(startMicros, 1000);
+        while (true) {
+            Path file = directory.resolve(CaptureFormat.fileName(startMillis));
+            try {
+                writer = new CaptureWriter(Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), startMicros);
+                currentFile = file;
+                break;
+            } catch (FileAlreadyExistsException e) {
+                startMillis++;
+            }
+        }
+        logger.info("Capturing API traffic to {}", currentFile);
+        deleteOldFiles();
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files = CaptureFormat.files(directory);
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void closeFile() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close capture file {}", currentFile, e);
+        }
+        writer = null;
+        currentFile = null;
+    }
+
+    /**
+     * Get the current time in microseconds since the epoch, as captured requests are stamped.
+     *
+     * @return the time
+     */
+    static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        writerThread.shutdown();
+        try {
+            writerThread.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package cubeledger.capture;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for replaying captured traffic against a running instance.
+ */
+@ConfigurationProperties(prefix = "cubeledger.replay")
+public class TrafficReplayProperties {
+
+    /**
+     * Whether captured traffic is replayed at startup. Meant for test environments only.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Capture file, or directory of capture files, to replay.
+     */
+    private Path input = Path.of("capture");
+
+    /**
+     * Base URL of the instance the traffic is sent to.
+     */
+    private String targetUrl = "http://localhost:8080";
+
+    /**
+     * Replay speed relative to the captured timing: 1 replays in real time, 10 ten times faster, and 0 as fast as possible.
+     */
+    private double speed = 1.0;
+
+    /**
+     * Maximum number of replayed requests in flight. Replay falls behind the captured timing when it is reached.
+     */
+    private int concurrency = 64;
+
+    /**
+     * Time to wait for each replayed request.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Whether the application exits once the replay is done.
+     */
+    private boolean exitWhenDone = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getInput() {
+        return input;
+    }
+
+    public void setInput(Path input) {
+        this.input = input;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    public void setTargetUrl(String targetUrl) {
+        this.targetUrl = targetUrl;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public boolean isExitWhenDone() {
+        return exitWhenDone;
+    }
+
+    public void setExitWhenDone(boolean exitWhenDone) {
+        this.exitWhenDone = exitWhenDone;
+    }
+}
@@ -0,0 +1,104 @@
+package cubeledger.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cubeledger.ratelimit.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Replays captured traffic against another instance at startup when cubeledger.replay.enabled is
+ * set, logs how the outcomes and latencies compare with the capture, then exits unless told to keep
+ * running. For example, to replay a capture ten times faster than it was recorded:
+ * <pre>
+ * java -jar cubeledger.jar --spring.main.web-application-type=none --cubeledger.replay.enabled=true \
+ *     --cubeledger.replay.input=capture --cubeledger.replay.target-url=http://localhost:8080 --cubeledger.replay.speed=10
+ * </pre>
+ * All replayed requests come from this one client, so the target must either run with
+ * {@code cubeledger.rate-limit.trust-client-header=true}, to limit each captured client separately, or
+ * with rate limiting off. The replay checks this through the target's /actuator/trafficcapture and
+ * refuses to start otherwise.
+ */
+@Component
+public class TrafficReplayRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficReplayRunner.class);
+
+    private final TrafficReplayProperties properties;
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext applicationContext;
+
+    public TrafficReplayRunner(TrafficReplayProperties properties, RateLimitProperties rateLimitProperties,
+                               ObjectMapper objectMapper, ConfigurableApplicationContext applicationContext) {
+        this.properties = properties;
+        this.rateLimitProperties = rateLimitProperties;
+        this.objectMapper = objectMapper;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        List<Path> files = CaptureFormat.files(properties.getInput());
+        logger.info("Replaying {} capture files from {} to {} at speed {}", files.size(), properties.getInput(),
+                properties.getTargetUrl(), properties.getSpeed() > 0 ? properties.getSpeed() + "x" : "max");
+        ReplayReport report;
+        try (HttpClient httpClient = HttpClient.newBuilder().connectTimeout(properties.getRequestTimeout()).build()) {
+            checkTarget(httpClient);
+            TrafficReplayer replayer = new TrafficReplayer(httpClient, properties.getTargetUrl(), properties.getSpeed(),
+                    properties.getConcurrency(), properties.getRequestTimeout(), rateLimitProperties.getClientHeader());
+            report = replayer.replay(files);
+        }
+        logger.info("Replayed {} requests in {} ms, {} requests per second, at most {} ms behind the captured timing",
+                report.requests(), report.durationMillis(), Math.round(report.requestsPerSecond()), Math.round(report.maxLagMillis()));
+        logger.info("Outcomes: {} matched, {} failed, mismatched {}", report.matched(), report.failed(), report.mismatched());
+        logger.info("Captured latency: {}", report.captured());
+        logger.info("Replayed latency: {}", report.replayed());
+
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    /**
+     * Check that the target limits replayed traffic per captured client, since otherwise all of it
+     * would share the replay client's limit and be rejected in a way the captured traffic never was.
+     *
+     * @param httpClient the client the traffic is replayed with
+     * @throws IllegalStateException if the target does not limit per captured client or cannot tell
+     */
+    void checkTarget(HttpClient httpClient) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(properties.getTargetUrl() + "/actuator/trafficcapture"))
+                .timeout(properties.getRequestTimeout())
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Cannot check rate limiting of replay target " + properties.getTargetUrl()
+                    + ": /actuator/trafficcapture answered " + response.statusCode());
+        }
+        JsonNode limitsPerCapturedClient = objectMapper.readTree(response.body()).get("limitsPerCapturedClient");
+        if (limitsPerCapturedClient == null || !limitsPerCapturedClient.asBoolean()) {
+            throw new IllegalStateException("Replay target " + properties.getTargetUrl() + " would rate limit all replayed "
+                    + "traffic as one client; run it with cubeledger.rate-limit.trust-client-header=true "
+                    + "or cubeledger.rate-limit.enabled=false");
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package cubeledger.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends captured requests to an instance again and compares the outcomes and latencies.
+ * <p>
+ * Requests are sent in the order they were captured, spaced as they were captured divided by the
+ * speed, or back to back at speed 0. Responses are awaited asynchronously, so a slow response does
+ * not delay the requests after it, up to the concurrency limit; at that limit the replay falls
+ * behind the captured timing and reports by how much. With a concurrency of 1 every request waits
+ * for the previous one, so the instance sees the requests in exactly the captured order. Outcomes
+ * only match when the instance starts from the data the captured instance had when capture began,
+ * for example a restored database snapshot.
+ */
+public class TrafficReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficReplayer.class);
+
+    private final HttpClient httpClient;
+    private final String targetUrl;
+    private final double speed;
+    private final int concurrency;
+    private final Duration requestTimeout;
+    private final String clientHeader;
+
+    public TrafficReplayer(HttpClient httpClient, String targetUrl, double speed, int concurrency, Duration requestTimeout,
+                           String clientHeader) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("Replay speed must not be negative");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Replay concurrency must be at least 1");
+        }
+        this.httpClient = httpClient;
+        this.targetUrl = targetUrl.endsWith("/") ? targetUrl.substring(0, targetUrl.length() - 1) : targetUrl;
+        this.speed = speed;
+        this.concurrency = concurrency;
+        this.requestTimeout = requestTimeout;
+        this.clientHeader = clientHeader;
+    }
+
+    /**
+     * Replay capture files one after the other, as one continuous capture.
+     *
+     * @param files the capture files, in the order they were written
+     * @return the comparison of the replay with the capture
+     * @throws IOException if a file cannot be read or is not a capture file
+     * @throws InterruptedException if interrupted while replaying
+     */
+    public ReplayReport replay(List<Path> files) throws IOException, InterruptedException {
+        Results results = new Results();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long replayStart = System.nanoTime();
+        long firstTimestamp = 0;
+        boolean first = true;
+        long maxLagNanos = 0;
+
+        for (Path file : files) {
+            try (CaptureReader reader = new CaptureReader(Files.newInputStream(file))) {
+                CapturedRequest request;
+                while ((request = reader.read()) != null) {
+                    if (first) {
+                        firstTimestamp = request.timestampMicros();
+                        first = false;
+                    }
+                    long dueNanos = 0;
+                    if (speed > 0) {
+                        dueNanos = replayStart + (long) ((request.timestampMicros() - firstTimestamp) * 1000 / speed);
+                        long waitNanos;
+                        while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(waitNanos);
+                            if (Thread.interrupted()) {
+                                throw new InterruptedException();
+                            }
+                        }
+                    }
+                    inFlight.acquire();
+                    if (speed > 0) {
+                        maxLagNanos = Math.max(maxLagNanos, System.nanoTime() - dueNanos);
+                    }
+                    send(request, inFlight, results);
+                }
+            } catch (EOFException e) {
+                logger.warn("Capture file {} is truncated, replaying the next file", file);
+            }
+        }
+        inFlight.acquire(concurrency);
+
+        return results.report(Math.max(1, System.nanoTime() - replayStart), maxLagNanos);
+    }
+
+    private void send(CapturedRequest request, Semaphore inFlight, Results results) {
+        try {
+            submit(request, inFlight, results);
+        } catch (RuntimeException e) {
+            // Nothing was submitted, so no callback will release the permit
+            logger.debug("Could not replay {} {}", request.method(), request.path(), e);
+            results.add(request, -1, 0);
+            inFlight.release();
+        }
+    }
+
+    private void submit(CapturedRequest request, Semaphore inFlight, Results results) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(targetUrl + request.path()))
+                .timeout(requestTimeout)
+                .method(request.method(), request.body().length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(request.body())
+                        : HttpRequest.BodyPublishers.noBody());
+        if (request.body().length > 0) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (request.clientId() != null) {
+            builder.header(clientHeader, request.clientId());
+        }
+
+        long start = System.nanoTime();
+        httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latencyMicros = (System.nanoTime() - start) / 1000;
+                    results.add(request, response != null ? response.statusCode() : -1, latencyMicros);
+                    inFlight.release();
+                });
+    }
+
+    /**
+     * Outcomes and latencies collected from the response callbacks.
+     */
+    private static final class Results {
+
+        private long requests;
+        private long matched;
+        private long failed;
+        private final Map<String, Long> mismatched = new TreeMap<>();
+        private long[] capturedLatencies = new long[1024];
+        private long[] replayedLatencies = new long[1024];
+        private int latencyCount;
+
+        private synchronized void add(CapturedRequest request, int status, long latencyMicros) {
+            requests++;
+            if (status < 0) {
+                failed++;
+                return;
+            }
+            if (status == request.status()) {
+                matched++;
+            } else {
+                mismatched.merge(request.status() + " -> " + status, 1L, Long::sum);
+            }
+            if (latencyCount == capturedLatencies.length) {
+                capturedLatencies = Arrays.copyOf(capturedLatencies, latencyCount * 2);
+                replayedLatencies = Arrays.copyOf(replayedLatencies, latencyCount * 2);
+            }
+            capturedLatencies[latencyCount] = request.latencyMicros();
+            replayedLatencies[latencyCount] = latencyMicros;
+            latencyCount++;
+        }
+
+        private synchronized ReplayReport report(long durationNanos, long maxLagNanos) {
+            return new ReplayReport(requests, matched, new TreeMap<>(mismatched), failed, TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                    requests * 1e9 / durationNanos, maxLagNanos / 1e6,
+                    ReplayReport.Latencies.of(capturedLatencies, latencyCount), ReplayReport.Latencies.of(replayedLatencies, latencyCount));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cubeledger.cluster;
+
+import cubeledger.concurrency.AccountLocks;
+import cubeledger.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grants other members the locks of accounts this instance owns.
+ * <p>
+ * Account locks belong to the thread that takes them, so each lease is held by its own virtual
+ * thread, which takes the locks, waits for the release or the lease TTL, and then unlocks. Local
+ * operations on a leased account queue behind the lease as they would behind any other operation.
+ */
+@Component
+public class AccountLeases {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountLeases.class);
+
+    private final AccountLocks accountLocks;
+    private final ClusterProperties properties;
+    private final Map<String, CountDownLatch> leases = new ConcurrentHashMap<>();
+    private final Counter expired;
+
+    public AccountLeases(AccountLocks accountLocks, ClusterProperties properties, MeterRegistry registry) {
+        this.accountLocks = accountLocks;
+        this.properties = properties;
+        this.expired = Counter.builder("cubeledger.cluster.leases.expired")
+                .description("Number of account leases that expired before the holder released them")
+                .register(registry);
+        Gauge.builder("cubeledger.cluster.leases", leases, Map::size)
+                .description("Number of account leases granted to other members")
+                .register(registry);
+    }
+
+    /**
+     * Lock accounts on behalf of another member.
+     *
+     * @param accountNumbers the accounts to lock
+     * @param wait the maximum time to wait for the locks
+     * @return the lease id
+     * @throws ServiceOverloadedException if the accounts could not be locked in time
+     */
+    public String acquire(List<String> accountNumbers, Duration wait) {
+        String leaseId = UUID.randomUUID().toString();
+        CountDownLatch released = new CountDownLatch(1);
+        CompletableFuture<Void> acquired = new CompletableFuture<>();
+
+        Thread.ofVirtual().name("cubeledger-lease-" + leaseId).start(() -> {
+            try {
+                accountLocks.withLocalLocks(() -> {
+                    leases.put(leaseId, released);
+                    acquired.complete(null);
+                    awaitRelease(leaseId, released);
+                    return null;
+                }, wait, accountNumbers.toArray(String[]::new));
+            } catch (RuntimeException e) {
+                acquired.completeExceptionally(e);
+            } finally {
+                leases.remove(leaseId);
+            }
+        });
+
+        try {
+            acquired.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return leaseId;
+    }
+
+    /**
+     * Release a lease.
+     *
+     * @param leaseId the lease id
+     * @return false if the lease is unknown, for example because it expired
+     */
+    public boolean release(String leaseId) {
+        CountDownLatch released = leases.remove(leaseId);
+        if (released == null) {
+            return false;
+        }
+        released.countDown();
+        return true;
+    }
+
+    /**
+     * Get the number of leases currently held.
+     *
+     * @return the number of active leases
+     */
+    public int size() {
+        return leases.size();
+    }
+
+    private void awaitRelease(String leaseId, CountDownLatch released) {
+        try {
+            // Removed before the locks are released, so a late release reports the lease as unknown
+            if (!released.await(properties.getLeaseTtl().toMillis(), TimeUnit.MILLISECONDS) && leases.remove(leaseId, released)) {
+                expired.increment();
+                logger.warn("Account lease {} expired after {} without being released", leaseId, properties.getLeaseTtl());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
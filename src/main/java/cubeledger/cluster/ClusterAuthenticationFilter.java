@@ -0,0 +1,62 @@
+package cubeledger.cluster;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Only lets other cluster members call /internal/cluster and send forwarded requests.
+ * <p>
+ * Such requests must carry the shared cluster secret. A forwarded request that does is marked with
+ * the {@link #MEMBER_ATTRIBUTE}, so later filters can trust what the forwarding member passed on
+ * about the original client.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "cubeledger.cluster", name = "enabled", havingValue = "true")
+public class ClusterAuthenticationFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute holding the id of the member that forwarded an authenticated request.
+     */
+    public static final String MEMBER_ATTRIBUTE = ClusterAuthenticationFilter.class.getName() + ".member";
+
+    private static final String INTERNAL_PREFIX = "/internal/cluster/";
+
+    private final byte[] secret;
+
+    public ClusterAuthenticationFilter(ClusterProperties properties) {
+        this.secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(INTERNAL_PREFIX)
+                && request.getHeader(ClusterClient.FORWARDED_BY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String presented = request.getHeader(ClusterClient.SECRET_HEADER);
+        if (presented == null || !MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        String member = request.getHeader(ClusterClient.FORWARDED_BY_HEADER);
+        if (member != null) {
+            request.setAttribute(MEMBER_ATTRIBUTE, member);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
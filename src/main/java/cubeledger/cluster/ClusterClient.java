@@ -0,0 +1,149 @@
+package cubeledger.cluster;
+
+import cubeledger.concurrency.AccountLockProperties;
+import cubeledger.exception.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HTTP client for calls between cluster members.
+ */
+@Component
+public class ClusterClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterClient.class);
+
+    /**
+     * Header marking a request forwarded by another member, so it is never forwarded again.
+     */
+    public static final String FORWARDED_BY_HEADER = "X-CubeLedger-Forwarded-By";
+
+    /**
+     * Header carrying the shared cluster secret on every call between members.
+     */
+    public static final String SECRET_HEADER = "X-CubeLedger-Cluster-Secret";
+
+    private final ClusterProperties properties;
+    private final RestClient restClient;
+
+    public ClusterClient(ClusterProperties properties, AccountLockProperties lockProperties) {
+        this.properties = properties;
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(properties.getRequestTimeout()).build());
+        // A lease or forwarded request may wait for account locks on the other member
+        requestFactory.setReadTimeout(properties.getRequestTimeout().plus(lockProperties.getWaitTimeout()));
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    /**
+     * Check whether a member is up.
+     *
+     * @param member the member
+     * @return true if the member answered
+     */
+    public boolean ping(ClusterMember member) {
+        try {
+            restClient.get()
+                    .uri(member.url() + "/internal/cluster/ping")
+                    .header(SECRET_HEADER, properties.getSecret())
+                    .retrieve()
+                    .toBodilessEntity();
+            return true;
+        } catch (RestClientException e) {
+            logger.debug("Heartbeat to cluster member {} failed", member.id(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Lock accounts on the member that owns them. This is the first phase of an operation on accounts
+     * owned by different members; the second phase is {@link #releaseLease(ClusterMember, String)}
+     * once the operation has committed or failed.
+     *
+     * @param owner the owning member
+     * @param accountNumbers the accounts to lock
+     * @param wait the maximum time to wait for the locks
+     * @return the lease id
+     * @throws ServiceOverloadedException if the owner could not lock the accounts in time or could not be reached
+     */
+    public String acquireLease(ClusterMember owner, List<String> accountNumbers, Duration wait) {
+        try {
+            LeaseResponse lease = restClient.post()
+                    .uri(owner.url() + "/internal/cluster/leases")
+                    .header(FORWARDED_BY_HEADER, properties.getNodeId())
+                    .header(SECRET_HEADER, properties.getSecret())
+                    .body(new LeaseRequest(accountNumbers, wait.toMillis()))
+                    .retrieve()
+                    .body(LeaseResponse.class);
+            if (lease == null) {
+                throw new ServiceOverloadedException("Cluster member " + owner.id() + " did not grant the account lease");
+            }
+            return lease.leaseId();
+        } catch (HttpStatusCodeException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)) {
+                throw new ServiceOverloadedException("Too many operations are queued for the account. Retry later.");
+            }
+            throw new ServiceOverloadedException("Cluster member " + owner.id() + " refused the account lease: " + e.getStatusCode());
+        } catch (RestClientException e) {
+            throw new ServiceOverloadedException("Cluster member " + owner.id() + " is unreachable");
+        }
+    }
+
+    /**
+     * Release a lease. A lease that cannot be released expires after the lease TTL.
+     *
+     * @param owner the member that granted the lease
+     * @param leaseId the lease id
+     */
+    public void releaseLease(ClusterMember owner, String leaseId) {
+        try {
+            restClient.delete()
+                    .uri(owner.url() + "/internal/cluster/leases/{leaseId}", leaseId)
+                    .header(FORWARDED_BY_HEADER, properties.getNodeId())
+                    .header(SECRET_HEADER, properties.getSecret())
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            logger.warn("Failed to release lease {} on cluster member {}, it expires after {}",
+                    leaseId, owner.id(), properties.getLeaseTtl(), e);
+        }
+    }
+
+    /**
+     * Forward an API request to another member.
+     *
+     * @param owner the member to forward to
+     * @param method the request method
+     * @param pathAndQuery the request path with its query string
+     * @param headers the request headers to pass on
+     * @param body the request body
+     * @return the member's response
+     * @throws RestClientException if the member could not be reached
+     */
+    public ResponseEntity<byte[]> forward(ClusterMember owner, HttpMethod method, String pathAndQuery, HttpHeaders headers, byte[] body) {
+        return restClient.method(method)
+                .uri(owner.url() + pathAndQuery)
+                .headers(target -> {
+                    target.addAll(headers);
+                    target.set(FORWARDED_BY_HEADER, properties.getNodeId());
+                    target.set(SECRET_HEADER, properties.getSecret());
+                })
+                .body(body)
+                .exchange((request, response) -> ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders())
+                        .body(response.getBody().readAllBytes()));
+    }
+}
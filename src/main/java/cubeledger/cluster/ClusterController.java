@@ -0,0 +1,66 @@
+package cubeledger.cluster;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Endpoints other cluster members call on this instance. Not part of the public API; calls without
+ * the cluster secret are rejected by the {@link ClusterAuthenticationFilter}.
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/cluster")
+@ConditionalOnProperty(prefix = "cubeledger.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterMembership clusterMembership;
+    private final AccountLeases accountLeases;
+
+    public ClusterController(ClusterMembership clusterMembership, AccountLeases accountLeases) {
+        this.clusterMembership = clusterMembership;
+        this.accountLeases = accountLeases;
+    }
+
+    /**
+     * Answer a heartbeat.
+     *
+     * @return the id of this instance
+     */
+    @GetMapping("/ping")
+    public Map<String, String> ping() {
+        return Map.of("nodeId", clusterMembership.getNodeId());
+    }
+
+    /**
+     * Lock accounts for another member.
+     *
+     * @param request the accounts and the maximum wait
+     * @return the lease
+     */
+    @PostMapping("/leases")
+    public LeaseResponse acquireLease(@RequestBody LeaseRequest request) {
+        return new LeaseResponse(accountLeases.acquire(request.accountNumbers(), Duration.ofMillis(request.waitMillis())));
+    }
+
+    /**
+     * Release a lease.
+     *
+     * @param leaseId the lease id
+     * @return 204 if released, 404 if the lease is unknown or expired
+     */
+    @DeleteMapping("/leases/{leaseId}")
+    public ResponseEntity<Void> releaseLease(@PathVariable String leaseId) {
+        return accountLeases.release(leaseId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,200 @@
+package cubeledger.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cubeledger.ratelimit.RateLimitProperties;
+import cubeledger.ratelimit.TransactionRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forwards write requests to the member owning their account.
+ * <p>
+ * The owner of the account named in the request body (the source account of a transfer) handles the
+ * request, so its operations queue on that member without a lease round trip. Reads are served
+ * locally, since every member reads the same database. A request is forwarded at most once, and is
+ * handled locally if the owner cannot be reached; locking then falls back to a lease on the owner.
+ * Bodies are read into memory to find the account, so bodies larger than
+ * {@code max-forwarded-body-size} are rejected.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cubeledger.cluster", name = "enabled", havingValue = "true")
+public class ClusterForwardingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterForwardingFilter.class);
+
+    /**
+     * Forwarded paths and the request body field naming the account that decides the owner.
+     */
+    private static final Map<String, String> ROUTED_PATHS = Map.of(
+            "/api/accounts", "accountNumber",
+            "/api/transactions/transfer", "sourceAccountNumber",
+            "/api/transactions/deposit", "accountNumber",
+            "/api/transactions/withdraw", "accountNumber",
+            "/api/holds", "accountNumber");
+
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT);
+
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER);
+
+    private final ClusterMembership clusterMembership;
+    private final ClusterClient clusterClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionRateLimiter rateLimiter;
+    private final String clientHeader;
+    private final int maxBodySize;
+
+    public ClusterForwardingFilter(ClusterMembership clusterMembership, ClusterClient clusterClient, ObjectMapper objectMapper,
+                                   TransactionRateLimiter rateLimiter, RateLimitProperties rateLimitProperties,
+                                   ClusterProperties properties) {
+        this.clusterMembership = clusterMembership;
+        this.clusterClient = clusterClient;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.clientHeader = rateLimitProperties.getClientHeader();
+        this.maxBodySize = (int) Math.min(Integer.MAX_VALUE - 1, properties.getMaxForwardedBodySize().toBytes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !ROUTED_PATHS.containsKey(request.getRequestURI())
+                || request.getHeader(ClusterClient.FORWARDED_BY_HEADER) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (request.getContentLengthLong() > maxBodySize) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body.length > maxBodySize) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        ClusterMember owner = clusterMembership.remoteOwnerOf(accountNumber(body, ROUTED_PATHS.get(request.getRequestURI())));
+        if (owner != null) {
+            try {
+                copy(forward(owner, request, body), response);
+                return;
+            } catch (RestClientException e) {
+                logger.warn("Failed to forward {} to cluster member {}, handling it locally", request.getRequestURI(), owner.id(), e);
+            }
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private String accountNumber(byte[] body, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            return value != null && value.isTextual() ? value.asText() : null;
+        } catch (IOException e) {
+            // Let the controller report the malformed body
+            return null;
+        }
+    }
+
+    private ResponseEntity<byte[]> forward(ClusterMember owner, HttpServletRequest request, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.set(name, value);
+            }
+        }
+        // Keep rate limiting per client on the owner instead of per forwarding member
+        headers.set(clientHeader, rateLimiter.clientOf(request));
+        String pathAndQuery = request.getRequestURI() + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        return clusterClient.forward(owner, HttpMethod.POST, pathAndQuery, headers, body);
+    }
+
+    private void copy(ResponseEntity<byte[]> forwarded, HttpServletResponse response) throws IOException {
+        response.setStatus(forwarded.getStatusCode().value());
+        for (String name : FORWARDED_RESPONSE_HEADERS) {
+            String value = forwarded.getHeaders().getFirst(name);
+            if (value != null) {
+                response.setHeader(name, value);
+            }
+        }
+        if (forwarded.getBody() != null) {
+            response.getOutputStream().write(forwarded.getBody());
+        }
+    }
+
+    /**
+     * Request whose body was already read by the filter.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), charset));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package cubeledger.cluster;
+
+/**
+ * A member of the cluster.
+ *
+ * @param id the member id
+ * @param url the base URL of the member's API
+ * @param up whether the member answers heartbeats and owns accounts
+ */
+public record ClusterMember(String id, String url, boolean up) {
+}
@@ -0,0 +1,195 @@
+package cubeledger.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Knows the cluster members and which of them owns each account.
+ * <p>
+ * Members come from static configuration and can be added or removed at runtime through
+ * /actuator/cluster. Every member sends heartbeats to the others; a member that misses
+ * {@code failure-threshold} heartbeats in a row is taken off the hash ring, so its accounts move to
+ * the remaining members, and is put back once it answers again. Members may briefly disagree about
+ * an owner while they notice a change. That only affects where operations queue, not correctness,
+ * since every operation still locks its rows in the shared database.
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final ClusterProperties properties;
+    private final ClusterClient clusterClient;
+    private final Map<String, MemberState> members = new TreeMap<>();
+    private volatile ConsistentHashRing ring;
+
+    public ClusterMembership(ClusterProperties properties, ClusterClient clusterClient) {
+        this.properties = properties;
+        this.clusterClient = clusterClient;
+        if (properties.isEnabled() && !properties.getMembers().containsKey(properties.getNodeId())) {
+            throw new IllegalStateException("Cluster node id " + properties.getNodeId() + " is not one of the configured members");
+        }
+        if (properties.isEnabled() && (properties.getSecret() == null || properties.getSecret().isBlank())) {
+            throw new IllegalStateException("cubeledger.cluster.secret must be set in cluster mode");
+        }
+        properties.getMembers().forEach((id, url) -> members.put(id, new MemberState(id, url)));
+        rebuildRing();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String getNodeId() {
+        return properties.getNodeId();
+    }
+
+    /**
+     * Get the member owning an account.
+     *
+     * @param accountNumber the account number
+     * @return the owning member, or null if cluster mode is off or this instance owns the account
+     */
+    public ClusterMember remoteOwnerOf(String accountNumber) {
+        if (!properties.isEnabled() || accountNumber == null) {
+            return null;
+        }
+        String owner = ring.ownerOf(accountNumber);
+        if (owner == null || owner.equals(properties.getNodeId())) {
+            return null;
+        }
+        synchronized (this) {
+            MemberState member = members.get(owner);
+            return member != null ? member.toMember() : null;
+        }
+    }
+
+    /**
+     * Check whether this instance runs a background job that only one member should run at a time.
+     * A job belongs to the member owning its name on the hash ring, so it moves to another member
+     * when its owner goes down. Members may briefly disagree about the owner after a change, so a
+     * job must still be safe to run twice.
+     *
+     * @param job the job name
+     * @return true if cluster mode is off or this instance owns the job
+     */
+    public boolean runsJob(String job) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        return properties.getNodeId().equals(ring.ownerOf(job));
+    }
+
+    /**
+     * Add a member, or change its URL.
+     *
+     * @param id the member id
+     * @param url the base URL of the member
+     */
+    public synchronized void join(String id, String url) {
+        members.put(id, new MemberState(id, url));
+        rebuildRing();
+        logger.info("Cluster member {} joined at {}", id, url);
+    }
+
+    /**
+     * Remove a member. Its accounts move to the remaining members.
+     *
+     * @param id the member id
+     */
+    public synchronized void leave(String id) {
+        if (id.equals(properties.getNodeId())) {
+            throw new IllegalArgumentException("This instance cannot remove itself from the cluster");
+        }
+        if (members.remove(id) != null) {
+            rebuildRing();
+            logger.info("Cluster member {} left", id);
+        }
+    }
+
+    /**
+     * Get the known members.
+     *
+     * @return the members, ordered by id
+     */
+    public synchronized List<ClusterMember> getMembers() {
+        return members.values().stream().map(MemberState::toMember).toList();
+    }
+
+    /**
+     * Get the current hash ring.
+     *
+     * @return the ring of the members currently owning accounts
+     */
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    @Scheduled(fixedDelayString = "${cubeledger.cluster.heartbeat-interval:PT2S}")
+    public void heartbeat() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        List<ClusterMember> peers;
+        synchronized (this) {
+            peers = new ArrayList<>();
+            for (MemberState member : members.values()) {
+                if (!member.id.equals(properties.getNodeId())) {
+                    peers.add(member.toMember());
+                }
+            }
+        }
+
+        // Ping outside the lock so a slow member does not block ownership lookups
+        for (ClusterMember peer : peers) {
+            boolean reachable = clusterClient.ping(peer);
+            synchronized (this) {
+                MemberState member = members.get(peer.id());
+                if (member == null || !member.url.equals(peer.url())) {
+                    continue;
+                }
+                member.failures = reachable ? 0 : member.failures + 1;
+                boolean up = member.failures < properties.getFailureThreshold();
+                if (up != member.up) {
+                    member.up = up;
+                    rebuildRing();
+                    logger.warn("Cluster member {} is {}, its accounts moved", peer.id(), up ? "back up" : "down");
+                }
+            }
+        }
+    }
+
+    private synchronized void rebuildRing() {
+        List<String> owners = new ArrayList<>();
+        for (MemberState member : members.values()) {
+            if (member.up) {
+                owners.add(member.id);
+            }
+        }
+        ring = new ConsistentHashRing(owners, properties.getVirtualNodes());
+    }
+
+    private static final class MemberState {
+        private final String id;
+        private final String url;
+        private int failures;
+        private boolean up = true;
+
+        private MemberState(String id, String url) {
+            this.id = id;
+            this.url = url;
+        }
+
+        private ClusterMember toMember() {
+            return new ClusterMember(id, url, up);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package cubeledger.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for running several instances that share account ownership.
+ */
+@ConfigurationProperties(prefix = "cubeledger.cluster")
+public class ClusterProperties {
+
+    /**
+     * Whether accounts are owned by instances of a cluster. Off by default; a single instance owns every account.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Id of this instance, which must be one of the members.
+     */
+    private String nodeId = "node-1";
+
+    /**
+     * Base URLs of the cluster members by member id, including this instance. All members must use the same
+     * member list and the same cubeledger.account-locks.stripes.
+     */
+    private Map<String, String> members = new LinkedHashMap<>();
+
+    /**
+     * Secret shared by the members and sent with every call between them. Calls to /internal/cluster
+     * and forwarded requests without it are rejected. Required in cluster mode.
+     */
+    private String secret;
+
+    /**
+     * Largest request body forwarded to another member. Larger requests are rejected.
+     */
+    private DataSize maxForwardedBodySize = DataSize.ofKilobytes(64);
+
+    /**
+     * Number of points each member gets on the hash ring. More points give a more even share.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Connect and response timeout for calls to other members, on top of any lock wait.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum time a member holds the account locks it granted to another member. Protects against
+     * a member that fails before releasing them.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(10);
+
+    /**
+     * Number of consecutive failed heartbeats after which a member's accounts move to the other members.
+     */
+    private int failureThreshold = 3;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Map<String, String> getMembers() {
+        return members;
+    }
+
+    public void setMembers(Map<String, String> members) {
+        this.members = members;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public DataSize getMaxForwardedBodySize() {
+        return maxForwardedBodySize;
+    }
+
+    public void setMaxForwardedBodySize(DataSize maxForwardedBodySize) {
+        this.maxForwardedBodySize = maxForwardedBodySize;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Duration getLeaseTtl() {
+        return leaseTtl;
+    }
+
+    public void setLeaseTtl(Duration leaseTtl) {
+        this.leaseTtl = leaseTtl;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+}
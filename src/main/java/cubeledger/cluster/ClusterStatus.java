@@ -0,0 +1,16 @@
+package cubeledger.cluster;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The cluster as seen by this instance.
+ *
+ * @param enabled whether cluster mode is on
+ * @param nodeId the id of this instance
+ * @param members all known members
+ * @param owners the members currently on the hash ring
+ * @param activeLeases the number of account lock leases this instance currently grants to other members
+ */
+public record ClusterStatus(boolean enabled, String nodeId, List<ClusterMember> members, Set<String> owners, int activeLeases) {
+}
@@ -0,0 +1,79 @@
+package cubeledger.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent-hash ring assigning keys to members.
+ * <p>
+ * Each member is placed on the ring at many points (virtual nodes), and a key belongs to the first
+ * member point at or after the key's hash. Adding or removing a member therefore only moves the keys
+ * next to that member's points, about 1/n of all keys, and the virtual nodes keep the share of each
+ * member close to even. Every instance building a ring from the same members gets the same owners.
+ * <p>
+ * Immutable; membership changes build a new ring.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final Set<String> members;
+
+    /**
+     * Create a ring.
+     *
+     * @param members the member ids
+     * @param virtualNodes the number of points per member
+     */
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive, was " + virtualNodes);
+        }
+        this.members = Set.copyOf(new TreeSet<>(members));
+        for (String member : new TreeSet<>(members)) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the rare collision the lowest member id wins, so all instances agree
+                points.putIfAbsent(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Get the owner of a key.
+     *
+     * @param key the key
+     * @return the owning member id, or null if the ring is empty
+     */
+    public String ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * Hash a string to a ring position with 64-bit FNV-1a followed by a finalizer that spreads similar inputs.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,12 @@
+package cubeledger.cluster;
+
+import java.util.List;
+
+/**
+ * Request from one member to another to lock accounts the other member owns.
+ *
+ * @param accountNumbers the accounts to lock
+ * @param waitMillis the maximum time to wait for the locks
+ */
+public record LeaseRequest(List<String> accountNumbers, long waitMillis) {
+}
@@ -0,0 +1,9 @@
+package cubeledger.cluster;
+
+/**
+ * A granted account lock lease.
+ *
+ * @param leaseId the id to release the lease with
+ */
+public record LeaseResponse(String leaseId) {
+}
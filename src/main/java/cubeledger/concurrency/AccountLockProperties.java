@@ -0,0 +1,51 @@
+package cubeledger.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for serializing operations per account within a node.
+ */
+@ConfigurationProperties(prefix = "cubeledger.account-locks")
+public class AccountLockProperties {
+
+    /**
+     * Whether operations on the same account are queued in memory before they open a transaction.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of lock stripes accounts are spread over, a power of two.
+     */
+    private int stripes = 1024;
+
+    /**
+     * Maximum time an operation waits for its accounts before it is rejected as overloaded.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout(Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+}
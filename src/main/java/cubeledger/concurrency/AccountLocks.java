@@ -0,0 +1,178 @@
+package cubeledger.concurrency;
+
+import cubeledger.cluster.ClusterClient;
+import cubeledger.cluster.ClusterMember;
+import cubeledger.cluster.ClusterMembership;
+import cubeledger.exception.ServiceOverloadedException;
+import cubeledger.hotaccount.HotAccountTracker;
+import cubeledger.warmup.WarmupContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Serializes operations on the same account within this node before they reach the database.
+ * <p>
+ * Every operation on an account locks its row, so concurrent operations on one hot account queue
+ * on that row lock, each holding a pooled connection and an open transaction while it waits. Taking
+ * an in-memory lock per account first lets only one of them reach the database at a time while the
+ * others wait without a connection. Operations touching several accounts lock them in a fixed order,
+ * which also keeps opposite transfers between the same two accounts from deadlocking in the database.
+ * <p>
+ * In cluster mode, accounts owned by another member are locked on that member through a lease, so
+ * an account is queued in one place however many instances serve it. Lock groups are taken in
+ * order of stripe and then member id on every member, so members locking each other's accounts
+ * cannot deadlock. Members must therefore use the same number of stripes.
+ */
+@Component
+public class AccountLocks {
+
+    private final AccountLockProperties properties;
+    private final StripedLocks locks;
+    private final HotAccountTracker hotAccountTracker;
+    private final ClusterMembership clusterMembership;
+    private final ClusterClient clusterClient;
+    private final Counter timeouts;
+    private final Timer waits;
+
+    public AccountLocks(AccountLockProperties properties, HotAccountTracker hotAccountTracker, ClusterMembership clusterMembership,
+                        ClusterClient clusterClient, MeterRegistry registry) {
+        this.properties = properties;
+        this.hotAccountTracker = hotAccountTracker;
+        this.clusterMembership = clusterMembership;
+        this.clusterClient = clusterClient;
+        this.locks = new StripedLocks(properties.getStripes());
+        this.timeouts = Counter.builder("cubeledger.account.lock.timeouts")
+                .description("Number of operations rejected after waiting too long for an account")
+                .register(registry);
+        this.waits = Timer.builder("cubeledger.account.lock.wait")
+                .description("Time operations waited for the locks of their accounts")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * Run an operation while holding the locks of the accounts it touches.
+     *
+     * @param operation the operation, which should open its transaction only once it runs
+     * @param accountNumbers the accounts the operation touches; null entries are ignored
+     * @param <T> the result type
+     * @return the result of the operation
+     * @throws ServiceOverloadedException if the accounts could not be locked within the wait timeout
+     */
+    public <T> T withLocks(Supplier<T> operation, String... accountNumbers) {
+        if (!properties.isEnabled()) {
+            if (!WarmupContext.isActive()) {
+                hotAccountTracker.record(0, accountNumbers);
+            }
+            return operation.get();
+        }
+
+        Map<String, LockGroup> groups = new LinkedHashMap<>();
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber != null) {
+                ClusterMember owner = clusterMembership.remoteOwnerOf(accountNumber);
+                String ownerId = owner != null ? owner.id() : clusterMembership.getNodeId();
+                groups.computeIfAbsent(ownerId, id -> new LockGroup(id, owner, new ArrayList<>())).accountNumbers().add(accountNumber);
+            }
+        }
+        if (groups.size() <= 1 && groups.values().stream().allMatch(group -> group.owner() == null)) {
+            return withLocalLocks(operation, properties.getWaitTimeout(), accountNumbers);
+        }
+        return withClusterLocks(operation, new ArrayList<>(groups.values()), accountNumbers);
+    }
+
+    /**
+     * Run an operation while holding the locks of accounts on this node, regardless of which member owns them.
+     *
+     * @param operation the operation
+     * @param waitTimeout the maximum time to wait for the locks
+     * @param accountNumbers the accounts to lock; null entries are ignored
+     * @param <T> the result type
+     * @return the result of the operation
+     * @throws ServiceOverloadedException if the accounts could not be locked within the wait timeout
+     */
+    public <T> T withLocalLocks(Supplier<T> operation, Duration waitTimeout, String... accountNumbers) {
+        int[] stripes = locks.stripesFor(accountNumbers);
+        long start = System.nanoTime();
+        try {
+            boolean locked = locks.tryLock(stripes, waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            recordWait(start, accountNumbers);
+            if (!locked) {
+                throw timeout();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for the account");
+        }
+        try {
+            return operation.get();
+        } finally {
+            locks.unlock(stripes);
+        }
+    }
+
+    private <T> T withClusterLocks(Supplier<T> operation, List<LockGroup> groups, String... accountNumbers) {
+        groups.sort(Comparator.comparingInt((LockGroup group) -> locks.stripesFor(group.accountNumbers().toArray(String[]::new))[0])
+                .thenComparing(LockGroup::ownerId));
+
+        long start = System.nanoTime();
+        long deadline = start + properties.getWaitTimeout().toNanos();
+        Deque<Runnable> releases = new ArrayDeque<>();
+        try {
+            for (LockGroup group : groups) {
+                if (group.owner() == null) {
+                    int[] stripes = locks.stripesFor(group.accountNumbers().toArray(String[]::new));
+                    if (!locks.tryLock(stripes, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        recordWait(start, accountNumbers);
+                        throw timeout();
+                    }
+                    releases.push(() -> locks.unlock(stripes));
+                } else {
+                    Duration wait = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+                    String leaseId = clusterClient.acquireLease(group.owner(), group.accountNumbers(), wait);
+                    releases.push(() -> clusterClient.releaseLease(group.owner(), leaseId));
+                }
+            }
+            recordWait(start, accountNumbers);
+            return operation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for the account");
+        } finally {
+            releases.forEach(Runnable::run);
+        }
+    }
+
+    private void recordWait(long start, String... accountNumbers) {
+        if (WarmupContext.isActive()) {
+            return;
+        }
+        long waitNanos = System.nanoTime() - start;
+        waits.record(waitNanos, TimeUnit.NANOSECONDS);
+        hotAccountTracker.record(waitNanos, accountNumbers);
+    }
+
+    private ServiceOverloadedException timeout() {
+        timeouts.increment();
+        return new ServiceOverloadedException("Too many operations are queued for the account. Retry later.");
+    }
+
+    /**
+     * Accounts locked together, either here or on the member that owns them.
+     */
+    private record LockGroup(String ownerId, ClusterMember owner, List<String> accountNumbers) {
+    }
+}
@@ -0,0 +1,83 @@
+package cubeledger.concurrency;
+
+import cubeledger.model.Account;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent reads of the same account share one database query.
+ * <p>
+ * Only reads in read-only transactions are coalesced; a read inside a write transaction must see
+ * that transaction's own changes. Every write forgets the account's query in flight once it
+ * completes, so a client never reads a balance older than its own last write. The shared account is
+ * only read, never modified or lazily loaded, so handing one instance to several threads is safe.
+ */
+@Component
+public class AccountReadCoalescer {
+
+    private final ReadCoalescingProperties properties;
+    private final SingleFlight<String, Account> reads;
+
+    public AccountReadCoalescer(ReadCoalescingProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.reads = new SingleFlight<>(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+
+        FunctionCounter.builder("cubeledger.account.reads", reads, SingleFlight::getLoads)
+                .description("Number of account reads that queried the database")
+                .tag("outcome", "queried")
+                .register(registry);
+        FunctionCounter.builder("cubeledger.account.reads", reads, SingleFlight::getShared)
+                .description("Number of account reads served by a concurrent read's query")
+                .tag("outcome", "shared")
+                .register(registry);
+        FunctionCounter.builder("cubeledger.account.reads.timeouts", reads, SingleFlight::getTimeouts)
+                .description("Number of account reads that stopped waiting for a concurrent query")
+                .register(registry);
+    }
+
+    /**
+     * Read an account, sharing the query with concurrent reads of the same account.
+     *
+     * @param accountNumber the account number
+     * @param loader queries the account
+     * @return the account
+     */
+    public Account read(String accountNumber, Supplier<Account> loader) {
+        if (!properties.isEnabled() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.get();
+        }
+        return reads.load(accountNumber, loader);
+    }
+
+    /**
+     * Forget the queries in flight for accounts being written, once the current transaction completes.
+     *
+     * @param accountNumbers the written accounts; null entries are ignored
+     */
+    public void invalidate(String... accountNumbers) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget(accountNumbers);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                forget(accountNumbers);
+            }
+        });
+    }
+
+    private void forget(String... accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber != null) {
+                reads.forget(accountNumber);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package cubeledger.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for coalescing concurrent account reads.
+ */
+@ConfigurationProperties(prefix = "cubeledger.read-coalescing")
+public class ReadCoalescingProperties {
+
+    /**
+     * Whether concurrent reads of the same account share one database query.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum time a read waits for a query started by another read before running its own.
+     */
+    private Duration maxWait = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
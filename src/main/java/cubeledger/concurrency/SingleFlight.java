@@ -0,0 +1,125 @@
+package cubeledger.concurrency;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key into one.
+ * <p>
+ * The first caller for a key runs the load; callers arriving while it is in flight wait for its
+ * result, or its exception, instead of loading again. A waiter that gives up after the maximum wait
+ * runs the load itself, so a slow leader delays its followers by at most that long. Nothing is
+ * cached: once the load completes, the next caller starts a new one.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Create a single-flight group.
+     *
+     * @param maxWait the maximum time a caller waits for another caller's load
+     * @param unit the unit of the maximum wait
+     */
+    public SingleFlight(long maxWait, TimeUnit unit) {
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * Load a value, sharing the load with concurrent callers for the same key.
+     *
+     * @param key the key
+     * @param loader loads the value
+     * @return the value
+     */
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return lead(key, flight, loader);
+        }
+
+        try {
+            V value = existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            shared.increment();
+            return value;
+        } catch (ExecutionException e) {
+            shared.increment();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            timeouts.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        loads.increment();
+        return loader.get();
+    }
+
+    /**
+     * Stop sharing the load in flight for a key, so later callers see changes made after it started.
+     *
+     * @param key the key
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Get the number of loads run.
+     *
+     * @return the number of callers that ran the load themselves
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * Get the number of callers served by another caller's load.
+     *
+     * @return the number of shared results
+     */
+    public long getShared() {
+        return shared.sum();
+    }
+
+    /**
+     * Get the number of callers that stopped waiting and ran the load themselves.
+     *
+     * @return the number of timeouts
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package cubeledger.concurrency;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of fair locks shared by an unbounded set of keys.
+ * <p>
+ * Each key maps to one stripe by its hash. Keys on different stripes can be locked concurrently;
+ * keys that collide are serialized, which is harmless apart from the extra waiting. Several keys are
+ * always locked in ascending stripe order, so two callers locking overlapping sets of keys can never
+ * deadlock on each other. Locks are reentrant and fair, so waiters get the lock in arrival order.
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    /**
+     * Create striped locks.
+     *
+     * @param stripes the number of stripes, a power of two
+     */
+    public StripedLocks(int stripes) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two, was " + stripes);
+        }
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.locks[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Get the stripes of a set of keys in locking order.
+     *
+     * @param keys the keys; null keys are ignored
+     * @return the distinct stripe indexes, ascending
+     */
+    public int[] stripesFor(String... keys) {
+        int[] stripes = new int[keys.length];
+        int count = 0;
+        for (String key : keys) {
+            if (key != null) {
+                int hash = key.hashCode();
+                stripes[count++] = (hash ^ (hash >>> 16)) & (locks.length - 1);
+            }
+        }
+        return Arrays.stream(stripes, 0, count).sorted().distinct().toArray();
+    }
+
+    /**
+     * Lock stripes in order, giving up if all of them cannot be locked in time.
+     *
+     * @param stripes the stripes, as returned by {@link #stripesFor(String...)}
+     * @param timeout the maximum time to wait for all stripes
+     * @param unit the unit of the timeout
+     * @return true if all stripes were locked, false if none are held because the timeout elapsed
+     * @throws InterruptedException if the thread is interrupted while waiting; no stripes are held
+     */
+    public boolean tryLock(int[] stripes, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int locked = 0;
+        try {
+            for (int stripe : stripes) {
+                if (!locks[stripe].tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                locked++;
+            }
+        } finally {
+            if (locked < stripes.length) {
+                unlock(stripes, locked);
+            }
+        }
+        return locked == stripes.length;
+    }
+
+    /**
+     * Unlock stripes locked by {@link #tryLock(int[], long, TimeUnit)}.
+     *
+     * @param stripes the locked stripes
+     */
+    public void unlock(int[] stripes) {
+        unlock(stripes, stripes.length);
+    }
+
+    /**
+     * Get the number of threads waiting for a stripe.
+     *
+     * @param stripe the stripe
+     * @return an estimate of the number of waiting threads
+     */
+    public int getQueueLength(int stripe) {
+        return locks[stripe].getQueueLength();
+    }
+
+    private void unlock(int[] stripes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+}
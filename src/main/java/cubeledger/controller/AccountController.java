@@ -1,7 +1,9 @@
 package cubeledger.controller;
 
 import cubeledger.dto.AccountDTO;
+import cubeledger.dto.BalanceEventDTO;
 import cubeledger.dto.CreateAccountRequest;
+import cubeledger.event.BalanceEventBroadcaster;
 import cubeledger.model.Account;
 import cubeledger.service.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,8 +15,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 
@@ -27,9 +31,11 @@ import java.math.BigDecimal;
 public class AccountController {
 
     private final AccountService accountService;
+    private final BalanceEventBroadcaster balanceEventBroadcaster;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, BalanceEventBroadcaster balanceEventBroadcaster) {
         this.accountService = accountService;
+        this.balanceEventBroadcaster = balanceEventBroadcaster;
     }
 
     /**
@@ -91,6 +97,51 @@ public class AccountController {
         return ResponseEntity.ok(accountDTO);
     }
 
+    /**
+     * Stream balance changes of an account as Server-Sent Events.
+     *
+     * @param accountNumber the account number
+     * @param lastEventId the id of the last event received before reconnecting, if any
+     * @return the event stream
+     */
+    @Operation(
+        summary = "Stream balance changes",
+        description = "Opens a Server-Sent Events stream that starts with a balance snapshot and then pushes the new balance " +
+                      "after every committed transaction on the account. Reconnecting clients send Last-Event-ID to resume."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Stream opened",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = BalanceEventDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Account not found",
+            content = @Content
+        )
+    })
+    @GetMapping(path = "/{accountNumber}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @Parameter(description = "Account number", required = true) @PathVariable String accountNumber,
+            @Parameter(description = "Last seen transaction id") @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return balanceEventBroadcaster.subscribe(accountNumber, lastEventId, () -> {
+            Account account = accountService.getAccount(accountNumber);
+            return new BalanceEventDTO(
+                    account.getAccountNumber(),
+                    account.getBalance(),
+                    account.getCurrency(),
+                    null,
+                    account.getLastSeq(),
+                    null,
+                    null,
+                    null,
+                    null,
+                    account.getUpdatedAt()
+            );
+        });
+    }
+
     /**
      * Create a new account.
      *
@@ -129,12 +180,15 @@ public class AccountController {
      * @return the account DTO
      */
     private AccountDTO convertToDTO(Account account) {
-        return new AccountDTO(
+        AccountDTO accountDTO = new AccountDTO(
                 account.getAccountNumber(),
                 account.getBalance(),
                 account.getCurrency(),
                 account.getCreatedAt(),
                 account.getUpdatedAt()
         );
+        accountDTO.setHeldAmount(account.getHeldAmount());
+        accountDTO.setAvailableBalance(account.getAvailableBalance());
+        return accountDTO;
     }
 }
@@ -0,0 +1,64 @@
+package cubeledger.controller;
+
+import cubeledger.dto.ChangeBatchDTO;
+import cubeledger.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the ledger-wide change feed.
+ */
+@RestController
+@RequestMapping("/api/changes")
+@Tag(name = "Change Feed", description = "Incremental change feed across all accounts")
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * Get the changes after a watermark.
+     *
+     * @param after the watermark returned by the previous request
+     * @param limit the maximum number of changes
+     * @return a batch of changes
+     */
+    @Operation(
+        summary = "Get ledger changes",
+        description = "Returns the transactions recorded after the given watermark across all accounts, in order. " +
+                      "Pass the returned watermark as 'after' in the next request; batches never skip a change."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Changes retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ChangeBatchDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid watermark or limit",
+            content = @Content
+        )
+    })
+    @GetMapping
+    public ResponseEntity<ChangeBatchDTO> getChanges(
+            @Parameter(description = "Watermark from the previous batch, 0 to start from the oldest retained change")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of changes to return")
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(after, limit));
+    }
+}
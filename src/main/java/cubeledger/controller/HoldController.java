@@ -0,0 +1,234 @@
+package cubeledger.controller;
+
+import cubeledger.dto.CaptureHoldRequest;
+import cubeledger.dto.CreateHoldRequest;
+import cubeledger.dto.HoldDTO;
+import cubeledger.dto.TransactionDTO;
+import cubeledger.model.Hold;
+import cubeledger.model.Transaction;
+import cubeledger.service.AccountService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+/**
+ * REST controller for funds holds.
+ */
+@RestController
+@RequestMapping("/api/holds")
+@Tag(name = "Hold", description = "Funds holds and authorizations API")
+public class HoldController {
+
+    private final AccountService accountService;
+
+    public HoldController(AccountService accountService) {
+        this.accountService = accountService;
+    }
+
+    /**
+     * Reserve funds on an account.
+     *
+     * @param request the hold request
+     * @return the created hold
+     */
+    @Operation(
+        summary = "Create a hold",
+        description = "Reserves funds on an account. The funds stay in the balance but are not available " +
+                      "until the hold is captured, released or expires."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Hold created successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = HoldDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request (e.g., insufficient available funds)",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Account not found",
+            content = @Content
+        )
+    })
+    @PostMapping
+    public ResponseEntity<HoldDTO> createHold(
+            @Parameter(description = "Hold request details", required = true)
+            @Valid @RequestBody CreateHoldRequest request) {
+        Hold hold = accountService.createHold(
+                request.getAccountNumber(),
+                request.getAmount(),
+                request.getCurrency(),
+                Duration.ofSeconds(request.getTtlSeconds()),
+                request.getDescription()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(hold));
+    }
+
+    /**
+     * Get a hold.
+     *
+     * @param holdId the hold id
+     * @return the hold
+     */
+    @Operation(
+        summary = "Get a hold",
+        description = "Retrieves a hold by its id"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Hold retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = HoldDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Hold not found",
+            content = @Content
+        )
+    })
+    @GetMapping("/{holdId}")
+    public ResponseEntity<HoldDTO> getHold(
+            @Parameter(description = "Hold id", required = true) @PathVariable Long holdId) {
+        return ResponseEntity.ok(convertToDTO(accountService.getHold(holdId)));
+    }
+
+    /**
+     * Settle a hold.
+     *
+     * @param holdId the hold id
+     * @param request the capture request
+     * @return the created transaction
+     */
+    @Operation(
+        summary = "Capture a hold",
+        description = "Debits all or part of the held funds, either as a withdrawal or as a transfer to a target account, " +
+                      "and releases the rest"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Hold captured successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request (e.g., amount exceeds the held amount)",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Hold or target account not found",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Hold is already closed or has expired",
+            content = @Content
+        )
+    })
+    @PostMapping("/{holdId}/capture")
+    public ResponseEntity<TransactionDTO> captureHold(
+            @Parameter(description = "Hold id", required = true) @PathVariable Long holdId,
+            @Parameter(description = "Capture request details")
+            @Valid @RequestBody(required = false) CaptureHoldRequest request) {
+        CaptureHoldRequest capture = request != null ? request : new CaptureHoldRequest();
+        Transaction transaction = accountService.captureHold(
+                holdId,
+                capture.getAmount(),
+                capture.getTargetAccountNumber(),
+                capture.getDescription()
+        );
+        return ResponseEntity.ok(convertToDTO(transaction));
+    }
+
+    /**
+     * Release a hold.
+     *
+     * @param holdId the hold id
+     * @return the released hold
+     */
+    @Operation(
+        summary = "Release a hold",
+        description = "Cancels a hold and makes the held funds available again"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Hold released successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = HoldDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Hold not found",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Hold is already closed",
+            content = @Content
+        )
+    })
+    @PostMapping("/{holdId}/release")
+    public ResponseEntity<HoldDTO> releaseHold(
+            @Parameter(description = "Hold id", required = true) @PathVariable Long holdId) {
+        return ResponseEntity.ok(convertToDTO(accountService.releaseHold(holdId)));
+    }
+
+    /**
+     * Convert a Hold entity to a HoldDTO.
+     *
+     * @param hold the hold entity
+     * @return the hold DTO
+     */
+    private HoldDTO convertToDTO(Hold hold) {
+        return new HoldDTO(
+                hold.getId(),
+                hold.getAccountNumber(),
+                hold.getAmount(),
+                hold.getCurrency(),
+                hold.getStatus(),
+                hold.getDescription(),
+                hold.getCreatedAt(),
+                hold.getExpiresAt(),
+                hold.getClosedAt(),
+                hold.getCapturedAmount(),
+                hold.getTransactionId()
+        );
+    }
+
+    /**
+     * Convert a Transaction entity to a TransactionDTO.
+     *
+     * @param transaction the transaction entity
+     * @return the transaction DTO
+     */
+    private TransactionDTO convertToDTO(Transaction transaction) {
+        TransactionDTO dto = new TransactionDTO(
+                transaction.getId(),
+                transaction.getSourceAccount() != null ? transaction.getSourceAccount().getAccountNumber() : null,
+                transaction.getTargetAccount() != null ? transaction.getTargetAccount().getAccountNumber() : null,
+                transaction.getAmount(),
+                transaction.getCurrency(),
+                transaction.getTimestamp(),
+                transaction.getDescription(),
+                transaction.getType()
+        );
+        dto.setSourceAmount(transaction.getSourceAmount());
+        dto.setTargetAmount(transaction.getTargetAmount());
+        dto.setExchangeRate(transaction.getExchangeRate());
+        return dto;
+    }
+}
@@ -0,0 +1,65 @@
+package cubeledger.controller;
+
+import cubeledger.dto.LedgerTotalsDTO;
+import cubeledger.totals.LedgerTotals;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller for the ledger-wide totals.
+ */
+@RestController
+@RequestMapping("/api/ledger")
+@Tag(name = "Ledger Totals", description = "Ledger-wide balances and volumes per currency")
+public class LedgerTotalsController {
+
+    private final LedgerTotals ledgerTotals;
+
+    public LedgerTotalsController(LedgerTotals ledgerTotals) {
+        this.ledgerTotals = ledgerTotals;
+    }
+
+    /**
+     * Get the ledger-wide totals.
+     *
+     * @param date the day to get the volumes of, today if not given
+     * @return the totals per currency
+     */
+    @Operation(
+        summary = "Get ledger totals",
+        description = "Returns the sum of all account balances in each currency, and the number and volume of the " +
+                      "deposits, withdrawals and transfers of a day. The totals are kept up to date as transactions " +
+                      "are posted, so no accounts are summed."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Totals retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = LedgerTotalsDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid date",
+            content = @Content
+        )
+    })
+    @GetMapping("/totals")
+    public ResponseEntity<LedgerTotalsDTO> getTotals(
+            @Parameter(description = "Day to get the volumes of (yyyy-MM-dd), today if not given")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(ledgerTotals.getTotals(date != null ? date : LocalDate.now()));
+    }
+}
@@ -0,0 +1,215 @@
+package cubeledger.controller;
+
+import cubeledger.dto.CreateScheduledTransferRequest;
+import cubeledger.dto.ScheduledTransferDTO;
+import cubeledger.dto.ScheduledTransferRunDTO;
+import cubeledger.model.ScheduledTransfer;
+import cubeledger.model.ScheduledTransferRun;
+import cubeledger.service.ScheduledTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for scheduled transfers.
+ */
+@RestController
+@RequestMapping("/api/scheduled-transfers")
+@Tag(name = "Scheduled Transfer", description = "One-off and recurring transfer API")
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService scheduledTransferService;
+
+    public ScheduledTransferController(ScheduledTransferService scheduledTransferService) {
+        this.scheduledTransferService = scheduledTransferService;
+    }
+
+    /**
+     * Schedule a transfer.
+     *
+     * @param request the schedule request
+     * @return the created schedule
+     */
+    @Operation(
+        summary = "Schedule a transfer",
+        description = "Schedules a one-off transfer or a daily, weekly or monthly recurring transfer"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Transfer scheduled successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduledTransferDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request (e.g., end time before the first run)",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Account not found",
+            content = @Content
+        )
+    })
+    @PostMapping
+    public ResponseEntity<ScheduledTransferDTO> createScheduledTransfer(
+            @Parameter(description = "Schedule request details", required = true)
+            @Valid @RequestBody CreateScheduledTransferRequest request) {
+        ScheduledTransfer schedule = scheduledTransferService.create(
+                request.getSourceAccountNumber(),
+                request.getTargetAccountNumber(),
+                request.getAmount(),
+                request.getCurrency(),
+                request.getDescription(),
+                request.getFrequency(),
+                request.getFirstRunAt(),
+                request.getEndAt()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(schedule));
+    }
+
+    /**
+     * Get a scheduled transfer.
+     *
+     * @param id the schedule id
+     * @return the schedule
+     */
+    @Operation(
+        summary = "Get a scheduled transfer",
+        description = "Retrieves a scheduled transfer with its next run and the outcome of its last run"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Scheduled transfer retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduledTransferDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Scheduled transfer not found",
+            content = @Content
+        )
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ScheduledTransferDTO> getScheduledTransfer(
+            @Parameter(description = "Scheduled transfer id", required = true) @PathVariable Long id) {
+        return ResponseEntity.ok(convertToDTO(scheduledTransferService.get(id)));
+    }
+
+    /**
+     * List the runs of a scheduled transfer.
+     *
+     * @param id the schedule id
+     * @param pageable pagination information
+     * @return a page of runs, newest first
+     */
+    @Operation(
+        summary = "List the runs of a scheduled transfer",
+        description = "Retrieves the outcome of every attempt of a scheduled transfer, newest first"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Runs retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduledTransferRunDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Scheduled transfer not found",
+            content = @Content
+        )
+    })
+    @GetMapping("/{id}/runs")
+    public ResponseEntity<Page<ScheduledTransferRunDTO>> listRuns(
+            @Parameter(description = "Scheduled transfer id", required = true) @PathVariable Long id,
+            @Parameter(description = "Pagination information")
+            Pageable pageable) {
+        return ResponseEntity.ok(scheduledTransferService.listRuns(id, pageable).map(this::convertToDTO));
+    }
+
+    /**
+     * Cancel a scheduled transfer.
+     *
+     * @param id the schedule id
+     * @return the cancelled schedule
+     */
+    @Operation(
+        summary = "Cancel a scheduled transfer",
+        description = "Stops a scheduled transfer from running again"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Scheduled transfer cancelled successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduledTransferDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Scheduled transfer is no longer active",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Scheduled transfer not found",
+            content = @Content
+        )
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ScheduledTransferDTO> cancelScheduledTransfer(
+            @Parameter(description = "Scheduled transfer id", required = true) @PathVariable Long id) {
+        return ResponseEntity.ok(convertToDTO(scheduledTransferService.cancel(id)));
+    }
+
+    /**
+     * Convert a ScheduledTransfer entity to a ScheduledTransferDTO.
+     *
+     * @param schedule the schedule entity
+     * @return the schedule DTO
+     */
+    private ScheduledTransferDTO convertToDTO(ScheduledTransfer schedule) {
+        return new ScheduledTransferDTO(
+                schedule.getId(),
+                schedule.getSourceAccountNumber(),
+                schedule.getTargetAccountNumber(),
+                schedule.getAmount(),
+                schedule.getCurrency(),
+                schedule.getDescription(),
+                schedule.getFrequency(),
+                schedule.getFirstRunAt(),
+                schedule.getEndAt(),
+                schedule.getStatus(),
+                schedule.getNextRunAt(),
+                schedule.getDueAt(),
+                schedule.getLastRunAt(),
+                schedule.getLastOutcome()
+        );
+    }
+
+    /**
+     * Convert a ScheduledTransferRun entity to a ScheduledTransferRunDTO.
+     *
+     * @param run the run entity
+     * @return the run DTO
+     */
+    private ScheduledTransferRunDTO convertToDTO(ScheduledTransferRun run) {
+        return new ScheduledTransferRunDTO(
+                run.getOccurrence(),
+                run.getAttempt(),
+                run.getScheduledFor(),
+                run.getExecutedAt(),
+                run.getOutcome(),
+                run.getTransactionId(),
+                run.getError()
+        );
+    }
+}
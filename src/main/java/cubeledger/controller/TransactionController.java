@@ -2,10 +2,14 @@ package cubeledger.controller;
 
 import cubeledger.dto.DepositRequest;
 import cubeledger.dto.TransactionDTO;
+import cubeledger.dto.TransactionSummary;
 import cubeledger.dto.TransferRequest;
 import cubeledger.dto.WithdrawRequest;
+import cubeledger.exception.GlobalExceptionHandler;
 import cubeledger.model.Transaction;
+import cubeledger.ratelimit.TransactionRateLimiter;
 import cubeledger.service.AccountService;
+import cubeledger.service.TransactionResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,14 +17,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST controller for transaction-related operations.
@@ -31,9 +37,11 @@ import java.util.stream.Collectors;
 public class TransactionController {
 
     private final AccountService accountService;
+    private final TransactionRateLimiter rateLimiter;
 
-    public TransactionController(AccountService accountService) {
+    public TransactionController(AccountService accountService, TransactionRateLimiter rateLimiter) {
         this.accountService = accountService;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
@@ -61,20 +69,32 @@ public class TransactionController {
             responseCode = "404",
             description = "Account not found",
             content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Outflow limit of the source account exceeded",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many requests for the client or account",
+            content = @Content
         )
     })
     @PostMapping("/transfer")
-    public ResponseEntity<TransactionDTO> transfer(
+    public ResponseEntity<?> transfer(
             @Parameter(description = "Transfer request details", required = true)
-            @Valid @RequestBody TransferRequest request) {
-        Transaction transaction = accountService.transfer(
+            @Valid @RequestBody TransferRequest request,
+            @Parameter(hidden = true) HttpServletRequest httpRequest) {
+        rateLimiter.check(httpRequest, request.getSourceAccountNumber(), request.getTargetAccountNumber());
+        TransactionResult result = accountService.tryTransfer(
                 request.getSourceAccountNumber(),
                 request.getTargetAccountNumber(),
                 request.getAmount(),
                 request.getCurrency(),
                 request.getDescription()
         );
-        return ResponseEntity.ok(convertToDTO(transaction));
+        return toResponse(result);
     }
 
     /**
@@ -102,19 +122,26 @@ public class TransactionController {
             responseCode = "404",
             description = "Account not found",
             content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many requests for the client or account",
+            content = @Content
         )
     })
     @PostMapping("/deposit")
-    public ResponseEntity<TransactionDTO> deposit(
+    public ResponseEntity<?> deposit(
             @Parameter(description = "Deposit request details", required = true)
-            @Valid @RequestBody DepositRequest request) {
-        Transaction transaction = accountService.deposit(
+            @Valid @RequestBody DepositRequest request,
+            @Parameter(hidden = true) HttpServletRequest httpRequest) {
+        rateLimiter.check(httpRequest, request.getAccountNumber());
+        TransactionResult result = accountService.tryDeposit(
                 request.getAccountNumber(),
                 request.getAmount(),
                 request.getCurrency(),
                 request.getDescription()
         );
-        return ResponseEntity.ok(convertToDTO(transaction));
+        return toResponse(result);
     }
 
     /**
@@ -142,52 +169,83 @@ public class TransactionController {
             responseCode = "404",
             description = "Account not found",
             content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Outflow limit of the source account exceeded",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many requests for the client or account",
+            content = @Content
         )
     })
     @PostMapping("/withdraw")
-    public ResponseEntity<TransactionDTO> withdraw(
+    public ResponseEntity<?> withdraw(
             @Parameter(description = "Withdrawal request details", required = true)
-            @Valid @RequestBody WithdrawRequest request) {
-        Transaction transaction = accountService.withdraw(
+            @Valid @RequestBody WithdrawRequest request,
+            @Parameter(hidden = true) HttpServletRequest httpRequest) {
+        rateLimiter.check(httpRequest, request.getAccountNumber());
+        TransactionResult result = accountService.tryWithdraw(
                 request.getAccountNumber(),
                 request.getAmount(),
                 request.getCurrency(),
                 request.getDescription()
         );
-        return ResponseEntity.ok(convertToDTO(transaction));
+        return toResponse(result);
     }
 
     /**
-     * List all transactions for an account.
+     * List all transactions for an account, or only those after a sequence number.
      *
      * @param accountNumber the account number
+     * @param sinceSeq the last sequence number the client has, or null for the whole history
+     * @param limit the maximum number of transactions after the sequence number
      * @return a list of transactions
      */
     @Operation(
         summary = "List all transactions for an account",
-        description = "Retrieves all transactions associated with the specified account"
+        description = "Retrieves all transactions associated with the specified account, newest first. " +
+                      "With sinceSeq, retrieves only the transactions after that sequence number, oldest first, " +
+                      "so a client can fetch what changed since its last sync"
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
             description = "Transactions retrieved successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionSummary.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid sequence number or limit",
+            content = @Content
         ),
         @ApiResponse(
             responseCode = "404",
             description = "Account not found",
             content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many requests from the client",
+            content = @Content
         )
     })
     @GetMapping("/account/{accountNumber}")
-    public ResponseEntity<List<TransactionDTO>> listTransactions(
+    public ResponseEntity<List<TransactionSummary>> listTransactions(
             @Parameter(description = "Account number", required = true)
-            @PathVariable String accountNumber) {
-        List<Transaction> transactions = accountService.listTransactions(accountNumber);
-        List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(transactionDTOs);
+            @PathVariable String accountNumber,
+            @Parameter(description = "Last sequence number the client has; 0 for all transactions in sequence order")
+            @RequestParam(required = false) Long sinceSeq,
+            @Parameter(description = "Maximum number of transactions after sinceSeq, at most 1000")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(hidden = true) HttpServletRequest httpRequest) {
+        rateLimiter.check(httpRequest);
+        if (sinceSeq != null) {
+            return ResponseEntity.ok(accountService.listTransactionSummariesSince(accountNumber, sinceSeq, limit));
+        }
+        return ResponseEntity.ok(accountService.listTransactionSummaries(accountNumber));
     }
 
     /**
@@ -205,14 +263,50 @@ public class TransactionController {
         @ApiResponse(
             responseCode = "200",
             description = "Transactions retrieved successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionSummary.class))
         ),
         @ApiResponse(
             responseCode = "404",
             description = "Account not found",
             content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many requests from the client",
+            content = @Content
         )
     })
+    @GetMapping("/account/{accountNumber}/paged")
+    public ResponseEntity<Page<TransactionSummary>> listTransactionsPaged(
+            @Parameter(description = "Account number", required = true)
+            @PathVariable String accountNumber,
+            @Parameter(description = "Pagination information")
+            Pageable pageable,
+            @Parameter(hidden = true) HttpServletRequest httpRequest) {
+        rateLimiter.check(httpRequest);
+        return ResponseEntity.ok(accountService.listTransactionSummaries(accountNumber, pageable));
+    }
+
+    /**
+     * Map the outcome of a transaction to a response without going through the exception handlers.
+     * The error bodies match those of {@link GlobalExceptionHandler}.
+     *
+     * @param result the outcome
+     * @return the transaction, or the error response for a rejection
+     */
+    private ResponseEntity<?> toResponse(TransactionResult result) {
+        return switch (result) {
+            case TransactionResult.Completed completed -> ResponseEntity.ok(convertToDTO(completed.transaction()));
+            case TransactionResult.InsufficientFunds rejection -> errorResponse(HttpStatus.BAD_REQUEST, rejection.message());
+            case TransactionResult.AccountNotFound rejection -> errorResponse(HttpStatus.NOT_FOUND, rejection.message());
+            case TransactionResult.OutflowLimitExceeded rejection -> errorResponse(HttpStatus.UNPROCESSABLE_ENTITY, rejection.message());
+        };
+    }
+
+    private ResponseEntity<GlobalExceptionHandler.ErrorResponse> errorResponse(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .body(new GlobalExceptionHandler.ErrorResponse(status.value(), message, LocalDateTime.now()));
+    }
 
     /**
      * Convert a Transaction entity to a TransactionDTO.
@@ -221,7 +315,7 @@ public class TransactionController {
      * @return the transaction DTO
      */
     private TransactionDTO convertToDTO(Transaction transaction) {
-        return new TransactionDTO(
+        TransactionDTO dto = new TransactionDTO(
                 transaction.getId(),
                 transaction.getSourceAccount() != null ? transaction.getSourceAccount().getAccountNumber() : null,
                 transaction.getTargetAccount() != null ? transaction.getTargetAccount().getAccountNumber() : null,
@@ -231,5 +325,9 @@ public class TransactionController {
                 transaction.getDescription(),
                 transaction.getType()
         );
+        dto.setSourceAmount(transaction.getSourceAmount());
+        dto.setTargetAmount(transaction.getTargetAmount());
+        dto.setExchangeRate(transaction.getExchangeRate());
+        return dto;
     }
 }
@@ -0,0 +1,104 @@
+package cubeledger.datagen;
+
+import cubeledger.model.Currency;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a generated ledger to accounts.csv and transactions.csv, referring to accounts by account
+ * number so the files can be loaded into any database, for example with PostgreSQL's COPY, or
+ * replayed through the API.
+ */
+class CsvLedgerSink implements LedgerSink {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private final Path directory;
+    private final BufferedWriter transactions;
+    private String prefix;
+    private String currency;
+    private String createdAt;
+
+    CsvLedgerSink(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            this.transactions = Files.newBufferedWriter(directory.resolve("transactions.csv"));
+            transactions.write("type,source_account_number,target_account_number,amount,currency,timestamp,description,source_seq,target_seq\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void accounts(String prefix, int count, Currency currency, LocalDateTime createdAt) {
+        this.prefix = prefix;
+        this.currency = currency.name();
+        this.createdAt = TIMESTAMP_FORMAT.format(createdAt);
+    }
+
+    @Override
+    public void transaction(GeneratedTransaction transaction) {
+        boolean hasSource = transaction.source() >= 0;
+        boolean hasTarget = transaction.target() >= 0;
+        try {
+            transactions.write(transaction.type().name());
+            transactions.write(',');
+            transactions.write(hasSource ? LedgerDataGenerator.accountNumber(prefix, transaction.source()) : "");
+            transactions.write(',');
+            transactions.write(hasTarget ? LedgerDataGenerator.accountNumber(prefix, transaction.target()) : "");
+            transactions.write(',');
+            transactions.write(BigDecimal.valueOf(transaction.amount(), 2).toPlainString());
+            transactions.write(',');
+            transactions.write(currency);
+            transactions.write(',');
+            transactions.write(TIMESTAMP_FORMAT.format(transaction.timestamp()));
+            transactions.write(",Generated ");
+            transactions.write(transaction.type().name().toLowerCase());
+            transactions.write(',');
+            transactions.write(hasSource ? Long.toString(transaction.sourceSeq()) : "");
+            transactions.write(',');
+            transactions.write(hasTarget ? Long.toString(transaction.targetSeq()) : "");
+            transactions.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void balances(long[] balances, long[] lastSeqs) {
+        try (BufferedWriter accounts = Files.newBufferedWriter(directory.resolve("accounts.csv"))) {
+            accounts.write("account_number,balance,currency,created_at,last_seq\n");
+            for (int i = 0; i < balances.length; i++) {
+                accounts.write(LedgerDataGenerator.accountNumber(prefix, i));
+                accounts.write(',');
+                accounts.write(BigDecimal.valueOf(balances[i], 2).toPlainString());
+                accounts.write(',');
+                accounts.write(currency);
+                accounts.write(',');
+                accounts.write(createdAt);
+                accounts.write(',');
+                accounts.write(Long.toString(lastSeqs[i]));
+                accounts.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            transactions.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
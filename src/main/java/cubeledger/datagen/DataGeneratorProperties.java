@@ -0,0 +1,237 @@
+package cubeledger.datagen;
+
+import cubeledger.model.Currency;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for generating a large synthetic ledger for scale testing.
+ */
+@ConfigurationProperties(prefix = "cubeledger.datagen")
+public class DataGeneratorProperties {
+
+    /**
+     * Whether a synthetic ledger is generated at startup. Meant for scale-test environments only.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of accounts to create.
+     */
+    private int accounts = 10_000;
+
+    /**
+     * Number of transactions to create.
+     */
+    private long transactions = 1_000_000;
+
+    /**
+     * Zipf exponent of how often each account is picked. 0 picks accounts uniformly; higher values concentrate
+     * activity on fewer accounts.
+     */
+    private double skew = 1.1;
+
+    /**
+     * Length of the history, ending when generation starts.
+     */
+    private Duration period = Duration.ofDays(90);
+
+    /**
+     * Ratio between the busiest and the quietest time of day. Activity peaks in the evening.
+     */
+    private double dailyPeakRatio = 4;
+
+    /**
+     * Median transaction amount. Amounts follow a log-normal distribution.
+     */
+    private BigDecimal medianAmount = new BigDecimal("100");
+
+    /**
+     * Standard deviation of the logarithm of the amounts.
+     */
+    private double amountSpread = 1.0;
+
+    /**
+     * Share of transactions that are deposits. Withdrawals and transfers the source account cannot cover become deposits too.
+     */
+    private double depositShare = 0.25;
+
+    /**
+     * Share of transactions that are withdrawals; the rest are transfers.
+     */
+    private double withdrawalShare = 0.15;
+
+    /**
+     * Currency of the generated accounts and transactions.
+     */
+    private Currency currency = Currency.SEK;
+
+    /**
+     * Prefix of the generated account numbers. Generation fails if accounts with this prefix already exist.
+     */
+    private String accountPrefix = "GEN-";
+
+    /**
+     * Seed of the random generator, so runs with the same settings produce the same ledger.
+     */
+    private long seed = 42;
+
+    /**
+     * Whether the ledger is written to the application's database.
+     */
+    private boolean writeDatabase = true;
+
+    /**
+     * Number of rows per JDBC batch and per database transaction.
+     */
+    private int batchSize = 5_000;
+
+    /**
+     * Directory to write accounts.csv and transactions.csv to, or unset for no files.
+     */
+    private Path outputDirectory;
+
+    /**
+     * Whether the application exits once the ledger has been generated.
+     */
+    private boolean exitWhenDone = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(int accounts) {
+        this.accounts = accounts;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(long transactions) {
+        this.transactions = transactions;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public void setSkew(double skew) {
+        this.skew = skew;
+    }
+
+    public Duration getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(Duration period) {
+        this.period = period;
+    }
+
+    public double getDailyPeakRatio() {
+        return dailyPeakRatio;
+    }
+
+    public void setDailyPeakRatio(double dailyPeakRatio) {
+        this.dailyPeakRatio = dailyPeakRatio;
+    }
+
+    public BigDecimal getMedianAmount() {
+        return medianAmount;
+    }
+
+    public void setMedianAmount(BigDecimal medianAmount) {
+        this.medianAmount = medianAmount;
+    }
+
+    public double getAmountSpread() {
+        return amountSpread;
+    }
+
+    public void setAmountSpread(double amountSpread) {
+        this.amountSpread = amountSpread;
+    }
+
+    public double getDepositShare() {
+        return depositShare;
+    }
+
+    public void setDepositShare(double depositShare) {
+        this.depositShare = depositShare;
+    }
+
+    public double getWithdrawalShare() {
+        return withdrawalShare;
+    }
+
+    public void setWithdrawalShare(double withdrawalShare) {
+        this.withdrawalShare = withdrawalShare;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    public String getAccountPrefix() {
+        return accountPrefix;
+    }
+
+    public void setAccountPrefix(String accountPrefix) {
+        this.accountPrefix = accountPrefix;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public boolean isWriteDatabase() {
+        return writeDatabase;
+    }
+
+    public void setWriteDatabase(boolean writeDatabase) {
+        this.writeDatabase = writeDatabase;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public void setOutputDirectory(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public boolean isExitWhenDone() {
+        return exitWhenDone;
+    }
+
+    public void setExitWhenDone(boolean exitWhenDone) {
+        this.exitWhenDone = exitWhenDone;
+    }
+}
@@ -0,0 +1,86 @@
+package cubeledger.datagen;
+
+import cubeledger.totals.LedgerTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a synthetic ledger at startup when cubeledger.datagen.enabled is set, before any
+ * other runner, then exits unless told to keep running. For example, to fill a database with
+ * a million accounts and fifty million transactions:
+ * <pre>
+ * java -jar cubeledger.jar --spring.main.web-application-type=none --cubeledger.datagen.enabled=true \
+ *     --cubeledger.datagen.accounts=1000000 --cubeledger.datagen.transactions=50000000
+ * </pre>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataGeneratorRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorRunner.class);
+
+    private final DataGeneratorProperties properties;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final LedgerTotals ledgerTotals;
+    private final ConfigurableApplicationContext applicationContext;
+
+    public DataGeneratorRunner(DataGeneratorProperties properties, DataSource dataSource, PlatformTransactionManager transactionManager,
+                               LedgerTotals ledgerTotals, ConfigurableApplicationContext applicationContext) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.transactionManager = transactionManager;
+        this.ledgerTotals = ledgerTotals;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        List<LedgerSink> sinks = new ArrayList<>();
+        if (properties.isWriteDatabase()) {
+            sinks.add(new JdbcLedgerSink(dataSource, transactionManager, properties.getBatchSize()));
+        }
+        if (properties.getOutputDirectory() != null) {
+            sinks.add(new CsvLedgerSink(properties.getOutputDirectory()));
+        }
+
+        logger.info("Generating {} accounts and {} transactions", properties.getAccounts(), properties.getTransactions());
+        long start = System.nanoTime();
+        LedgerDataGenerator.Summary summary;
+        try (LedgerSink sink = LedgerSink.all(sinks)) {
+            summary = new LedgerDataGenerator(properties).generate(sink, LocalDateTime.now());
+        }
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Generated {} accounts and {} transactions ({} deposits, {} withdrawals, {} transfers, total balance {}) "
+                        + "in {} ms, {} transactions per second",
+                summary.accounts(), summary.transactions(), summary.deposits(), summary.withdrawals(), summary.transfers(),
+                summary.totalBalance(), millis, summary.transactions() * 1000 / millis);
+
+        if (properties.isWriteDatabase()) {
+            // The ledger was written past the service, so the totals have to be recomputed
+            ledgerTotals.rebuild();
+        }
+
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package cubeledger.datagen;
+
+import cubeledger.model.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A generated transaction. Accounts are referred to by their index among the generated accounts.
+ *
+ * @param type the transaction type
+ * @param source the index of the source account, or -1 for a deposit
+ * @param target the index of the target account, or -1 for a withdrawal
+ * @param amount the amount in minor units
+ * @param timestamp the time of the transaction
+ * @param sourceSeq the sequence number in the source account, or 0 for a deposit
+ * @param targetSeq the sequence number in the target account, or 0 for a withdrawal
+ */
+public record GeneratedTransaction(TransactionType type, int source, int target, long amount, LocalDateTime timestamp,
+                                   long sourceSeq, long targetSeq) {
+}
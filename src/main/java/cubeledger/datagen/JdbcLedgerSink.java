@@ -0,0 +1,120 @@
+package cubeledger.datagen;
+
+import cubeledger.model.Currency;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a generated ledger to the database with JDBC batches, one database transaction per batch.
+ * <p>
+ * The accounts are inserted with zero balances and their ids read back, the transactions are
+ * inserted as they come, and the final balances and sequence numbers are set at the end. Batched
+ * inserts are turned into multi-row inserts by the PostgreSQL driver with
+ * {@code reWriteBatchedInserts=true} on the JDBC URL.
+ */
+class JdbcLedgerSink implements LedgerSink {
+
+    private static final String INSERT_ACCOUNT = "INSERT INTO accounts "
+            + "(account_number, balance, held_amount, currency, created_at, updated_at, version, last_seq) "
+            + "VALUES (?, 0, 0, ?, ?, ?, 0, 0)";
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions "
+            + "(source_account_id, target_account_id, amount, timestamp, description, type, currency, "
+            + "source_amount, target_amount, exchange_rate, source_seq, target_seq) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 1, ?, ?)";
+
+    private static final String UPDATE_BALANCE = "UPDATE accounts SET balance = ?, last_seq = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final List<Object[]> batch = new ArrayList<>();
+    private long[] accountIds;
+    private String currency;
+
+    JdbcLedgerSink(DataSource dataSource, PlatformTransactionManager transactionManager, int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void accounts(String prefix, int count, Currency currency, LocalDateTime createdAt) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts WHERE account_number LIKE ?", Long.class, prefix + "%");
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException(existing + " accounts with prefix " + prefix + " already exist");
+        }
+        this.currency = currency.name();
+
+        Timestamp created = Timestamp.valueOf(createdAt);
+        for (int i = 0; i < count; i++) {
+            add(new Object[]{LedgerDataGenerator.accountNumber(prefix, i), this.currency, created, created}, INSERT_ACCOUNT);
+        }
+        flush(INSERT_ACCOUNT);
+
+        accountIds = new long[count];
+        jdbcTemplate.query("SELECT id, account_number FROM accounts WHERE account_number LIKE ?",
+                rs -> {
+                    accountIds[LedgerDataGenerator.accountIndex(prefix, rs.getString(2))] = rs.getLong(1);
+                },
+                prefix + "%");
+    }
+
+    @Override
+    public void transaction(GeneratedTransaction transaction) {
+        BigDecimal amount = BigDecimal.valueOf(transaction.amount(), 2);
+        boolean hasSource = transaction.source() >= 0;
+        boolean hasTarget = transaction.target() >= 0;
+        add(new Object[]{
+                hasSource ? accountIds[transaction.source()] : null,
+                hasTarget ? accountIds[transaction.target()] : null,
+                amount,
+                Timestamp.valueOf(transaction.timestamp()),
+                "Generated " + transaction.type().name().toLowerCase(),
+                transaction.type().name(),
+                currency,
+                hasSource ? amount : null,
+                hasTarget ? amount : null,
+                hasSource ? transaction.sourceSeq() : null,
+                hasTarget ? transaction.targetSeq() : null
+        }, INSERT_TRANSACTION);
+    }
+
+    @Override
+    public void balances(long[] balances, long[] lastSeqs) {
+        flush(INSERT_TRANSACTION);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < balances.length; i++) {
+            add(new Object[]{BigDecimal.valueOf(balances[i], 2), lastSeqs[i], now, accountIds[i]}, UPDATE_BALANCE);
+        }
+        flush(UPDATE_BALANCE);
+    }
+
+    @Override
+    public void close() {
+        batch.clear();
+    }
+
+    private void add(Object[] row, String sql) {
+        batch.add(row);
+        if (batch.size() >= batchSize) {
+            flush(sql);
+        }
+    }
+
+    private void flush(String sql) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        batch.clear();
+    }
+}
@@ -0,0 +1,166 @@
+package cubeledger.datagen;
+
+import cubeledger.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a synthetic ledger: accounts and a history of deposits, withdrawals and transfers
+ * between them.
+ * <p>
+ * Accounts are picked from a Zipf distribution, so a few accounts see most of the activity.
+ * Transactions are spread evenly over the days of the period and within each day follow a daily
+ * cycle peaking in the evening, and their amounts are log-normal. Balances are tracked while
+ * generating: a withdrawal or transfer the source account cannot cover becomes a deposit instead,
+ * so no balance goes negative and the balances are exactly what the transactions add up to. Every
+ * transaction gets the next sequence number of each account it touches. The same settings and seed
+ * always produce the same ledger.
+ */
+public class LedgerDataGenerator {
+
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+    private static final double PEAK_TIME_OF_DAY = 20.0 / 24;
+    private static final long MAX_AMOUNT = 10_000_000_000L;
+    private static final int ACCOUNT_NUMBER_DIGITS = 10;
+
+    private final DataGeneratorProperties properties;
+
+    public LedgerDataGenerator(DataGeneratorProperties properties) {
+        if (properties.getAccounts() < 1 || properties.getTransactions() < 0) {
+            throw new IllegalArgumentException("At least one account and a non-negative number of transactions are needed");
+        }
+        if (properties.getDepositShare() + properties.getWithdrawalShare() > 1) {
+            throw new IllegalArgumentException("Deposit and withdrawal shares must add up to at most 1");
+        }
+        if (properties.getDailyPeakRatio() < 1) {
+            throw new IllegalArgumentException("Daily peak ratio must be at least 1");
+        }
+        this.properties = properties;
+    }
+
+    /**
+     * Get the account number of a generated account.
+     *
+     * @param prefix the account number prefix
+     * @param index the index of the account
+     * @return the account number
+     */
+    public static String accountNumber(String prefix, int index) {
+        String digits = Integer.toString(index + 1);
+        return prefix + "0".repeat(Math.max(0, ACCOUNT_NUMBER_DIGITS - digits.length())) + digits;
+    }
+
+    /**
+     * Get the index of a generated account from its account number.
+     *
+     * @param prefix the account number prefix
+     * @param accountNumber the account number
+     * @return the index of the account
+     */
+    public static int accountIndex(String prefix, String accountNumber) {
+        return Integer.parseInt(accountNumber.substring(prefix.length())) - 1;
+    }
+
+    /**
+     * Generate the ledger into a sink.
+     *
+     * @param sink the sink
+     * @param end the end of the history; the first transaction is one period before it
+     * @return what was generated
+     */
+    public Summary generate(LedgerSink sink, LocalDateTime end) {
+        int accounts = properties.getAccounts();
+        long count = properties.getTransactions();
+        LocalDateTime start = end.minus(properties.getPeriod());
+        double days = (double) properties.getPeriod().toMillis() / DAY_MILLIS;
+        double ratio = properties.getDailyPeakRatio();
+        double dailySwing = (ratio - 1) / (ratio + 1);
+        double logMedian = Math.log(properties.getMedianAmount().movePointRight(2).doubleValue());
+
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+        ZipfSampler accountSampler = new ZipfSampler(accounts, properties.getSkew());
+        long[] balances = new long[accounts];
+        long[] lastSeqs = new long[accounts];
+        long deposits = 0;
+        long withdrawals = 0;
+        long transfers = 0;
+
+        sink.accounts(properties.getAccountPrefix(), accounts, properties.getCurrency(), start);
+        for (long i = 0; i < count; i++) {
+            LocalDateTime timestamp = timestamp(start, days, dailySwing, (i + 0.5) / count);
+            long amount = Math.min(MAX_AMOUNT, Math.max(1, Math.round(Math.exp(logMedian + properties.getAmountSpread() * random.nextGaussian()))));
+            int source = accountSampler.sample(random) - 1;
+            double kind = random.nextDouble();
+
+            GeneratedTransaction transaction;
+            if (kind < properties.getDepositShare() || balances[source] < amount) {
+                balances[source] += amount;
+                transaction = new GeneratedTransaction(TransactionType.DEPOSIT, -1, source, amount, timestamp, 0, ++lastSeqs[source]);
+                deposits++;
+            } else if (kind < properties.getDepositShare() + properties.getWithdrawalShare() || accounts == 1) {
+                balances[source] -= amount;
+                transaction = new GeneratedTransaction(TransactionType.WITHDRAWAL, source, -1, amount, timestamp, ++lastSeqs[source], 0);
+                withdrawals++;
+            } else {
+                int target = accountSampler.sample(random) - 1;
+                if (target == source) {
+                    target = (source + 1 + random.nextInt(accounts - 1)) % accounts;
+                }
+                balances[source] -= amount;
+                balances[target] += amount;
+                transaction = new GeneratedTransaction(TransactionType.TRANSFER, source, target, amount, timestamp,
+                        ++lastSeqs[source], ++lastSeqs[target]);
+                transfers++;
+            }
+            sink.transaction(transaction);
+        }
+        sink.balances(balances, lastSeqs);
+        return new Summary(accounts, count, deposits, withdrawals, transfers, totalBalance(balances));
+    }
+
+    /**
+     * Place a transaction in the period. The position is spread evenly over the days, and within a
+     * day it is mapped through the inverse of the cumulative daily activity, whose density is
+     * 1 + swing * cos(2 pi (t - peak)).
+     */
+    private static LocalDateTime timestamp(LocalDateTime start, double days, double dailySwing, double position) {
+        double dayPosition = position * days;
+        double day = Math.floor(dayPosition);
+        double fraction = dayPosition - day;
+
+        // Newton's method converges in a few steps since the density stays between 1 - swing and 1 + swing
+        double timeOfDay = fraction;
+        for (int step = 0; step < 6; step++) {
+            double cumulative = timeOfDay + dailySwing / (2 * Math.PI)
+                    * (Math.sin(2 * Math.PI * (timeOfDay - PEAK_TIME_OF_DAY)) + Math.sin(2 * Math.PI * PEAK_TIME_OF_DAY));
+            double density = 1 + dailySwing * Math.cos(2 * Math.PI * (timeOfDay - PEAK_TIME_OF_DAY));
+            timeOfDay = Math.min(1, Math.max(0, timeOfDay - (cumulative - fraction) / density));
+        }
+        return start.plus((long) ((day + timeOfDay) * DAY_MILLIS), ChronoUnit.MILLIS);
+    }
+
+    private static BigDecimal totalBalance(long[] balances) {
+        long total = 0;
+        for (long balance : balances) {
+            total += balance;
+        }
+        return BigDecimal.valueOf(total, 2);
+    }
+
+    /**
+     * What a generation run produced.
+     *
+     * @param accounts the number of accounts
+     * @param transactions the number of transactions
+     * @param deposits the number of deposits
+     * @param withdrawals the number of withdrawals
+     * @param transfers the number of transfers
+     * @param totalBalance the sum of all balances
+     */
+    public record Summary(int accounts, long transactions, long deposits, long withdrawals, long transfers, BigDecimal totalBalance) {
+    }
+}
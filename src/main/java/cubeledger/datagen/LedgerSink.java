@@ -0,0 +1,76 @@
+package cubeledger.datagen;
+
+import cubeledger.model.Currency;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Destination of a generated ledger. Accounts come first, then the transactions in order, then the
+ * resulting balances.
+ */
+public interface LedgerSink extends AutoCloseable {
+
+    /**
+     * Write the accounts, all with a zero balance.
+     *
+     * @param prefix the account number prefix; see {@link LedgerDataGenerator#accountNumber(String, int)}
+     * @param count the number of accounts
+     * @param currency the account currency
+     * @param createdAt the creation time of the accounts
+     */
+    void accounts(String prefix, int count, Currency currency, LocalDateTime createdAt);
+
+    /**
+     * Write a transaction.
+     *
+     * @param transaction the transaction
+     */
+    void transaction(GeneratedTransaction transaction);
+
+    /**
+     * Write the balances the transactions add up to.
+     *
+     * @param balances the balance of each account in minor units, by account index
+     * @param lastSeqs the sequence number of each account's latest transaction, by account index
+     */
+    void balances(long[] balances, long[] lastSeqs);
+
+    /**
+     * Flush anything still buffered.
+     */
+    @Override
+    void close();
+
+    /**
+     * Combine sinks into one that writes to each of them.
+     *
+     * @param sinks the sinks
+     * @return the combined sink
+     */
+    static LedgerSink all(List<LedgerSink> sinks) {
+        return new LedgerSink() {
+            @Override
+            public void accounts(String prefix, int count, Currency currency, LocalDateTime createdAt) {
+                sinks.forEach(sink -> sink.accounts(prefix, count, currency, createdAt));
+            }
+
+            @Override
+            public void transaction(GeneratedTransaction transaction) {
+                for (LedgerSink sink : sinks) {
+                    sink.transaction(transaction);
+                }
+            }
+
+            @Override
+            public void balances(long[] balances, long[] lastSeqs) {
+                sinks.forEach(sink -> sink.balances(balances, lastSeqs));
+            }
+
+            @Override
+            public void close() {
+                sinks.forEach(LedgerSink::close);
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package cubeledger.datagen;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws ranks from a Zipf distribution over 1..n in constant time, by rejection-inversion
+ * (Hörmann and Derflinger, 1996). Rank k is drawn with a probability proportional to 1/k^exponent,
+ * so a few ranks get most of the draws, as a few accounts get most of the activity.
+ */
+public final class ZipfSampler {
+
+    private final int n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    /**
+     * Create a sampler.
+     *
+     * @param n the number of ranks
+     * @param exponent the exponent, 0 for a uniform distribution
+     */
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1 || exponent < 0) {
+            throw new IllegalArgumentException("Zipf sampler needs at least one rank and a non-negative exponent");
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * Draw a rank.
+     *
+     * @param random the source of randomness
+     * @return a rank between 1 and n
+     */
+    public int sample(RandomGenerator random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) Math.min(n, Math.max(1, (long) (x + 0.5)));
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(-1, x * (1 - exponent));
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x * (1.0 / 3) * (1 + 0.25 * x));
+    }
+}
@@ -10,6 +10,8 @@ import java.time.LocalDateTime;
 public class AccountDTO {
     private String accountNumber;
     private BigDecimal balance;
+    private BigDecimal heldAmount;
+    private BigDecimal availableBalance;
     private Currency currency;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -49,6 +51,22 @@ public class AccountDTO {
         this.balance = balance;
     }
 
+    public BigDecimal getHeldAmount() {
+        return heldAmount;
+    }
+
+    public void setHeldAmount(BigDecimal heldAmount) {
+        this.heldAmount = heldAmount;
+    }
+
+    public BigDecimal getAvailableBalance() {
+        return availableBalance;
+    }
+
+    public void setAvailableBalance(BigDecimal availableBalance) {
+        this.availableBalance = availableBalance;
+    }
+
     public Currency getCurrency() {
         return currency;
     }
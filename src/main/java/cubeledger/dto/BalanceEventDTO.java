@@ -0,0 +1,35 @@
+package cubeledger.dto;
+
+import cubeledger.model.Currency;
+import cubeledger.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object pushed to balance event stream subscribers.
+ * A snapshot (sent when a stream is opened) has no transaction fields set other than the sequence number.
+ *
+ * @param accountNumber the account number
+ * @param balance the account balance after the change
+ * @param currency the account currency
+ * @param transactionId the id of the transaction that changed the balance
+ * @param seq the sequence number of the change among the account's transactions; for a snapshot, that of the latest included change
+ * @param type the type of that transaction
+ * @param amount the signed amount of the change, negative when the account was debited
+ * @param counterpartyAccountNumber the other account of a transfer
+ * @param description the transaction description
+ * @param timestamp the transaction timestamp
+ */
+public record BalanceEventDTO(
+        String accountNumber,
+        BigDecimal balance,
+        Currency currency,
+        Long transactionId,
+        Long seq,
+        TransactionType type,
+        BigDecimal amount,
+        String counterpartyAccountNumber,
+        String description,
+        LocalDateTime timestamp) {
+}
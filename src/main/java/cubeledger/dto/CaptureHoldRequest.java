@@ -0,0 +1,58 @@
+package cubeledger.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+
+import java.math.BigDecimal;
+
+/**
+ * Request DTO for settling a hold.
+ */
+public class CaptureHoldRequest {
+
+    // Amount to debit in the hold currency, the full held amount if not specified
+    @DecimalMin(value = "0.01", message = "Amount must be greater than zero")
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most two decimals")
+    private BigDecimal amount;
+
+    // Account to credit, the funds are withdrawn if not specified
+    private String targetAccountNumber;
+
+    private String description;
+
+    // Default constructor
+    public CaptureHoldRequest() {
+    }
+
+    // Constructor with all fields
+    public CaptureHoldRequest(BigDecimal amount, String targetAccountNumber, String description) {
+        this.amount = amount;
+        this.targetAccountNumber = targetAccountNumber;
+        this.description = description;
+    }
+
+    // Getters and setters
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getTargetAccountNumber() {
+        return targetAccountNumber;
+    }
+
+    public void setTargetAccountNumber(String targetAccountNumber) {
+        this.targetAccountNumber = targetAccountNumber;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
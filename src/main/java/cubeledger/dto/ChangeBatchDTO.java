@@ -0,0 +1,13 @@
+package cubeledger.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a batch of the change feed.
+ *
+ * @param changes the changes, in feed order
+ * @param watermark the watermark to pass as {@code after} in the next request
+ * @param hasMore whether more changes may be available immediately
+ */
+public record ChangeBatchDTO(List<ChangeDTO> changes, long watermark, boolean hasMore) {
+}
@@ -0,0 +1,32 @@
+package cubeledger.dto;
+
+import cubeledger.model.Currency;
+import cubeledger.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for one entry of the change feed.
+ *
+ * @param id the position of the change in the feed
+ * @param transactionId the id of the transaction
+ * @param type the transaction type
+ * @param sourceAccountNumber the debited account, or null for deposits
+ * @param targetAccountNumber the credited account, or null for withdrawals
+ * @param amount the transaction amount
+ * @param currency the transaction currency
+ * @param description the transaction description
+ * @param timestamp the transaction timestamp
+ */
+public record ChangeDTO(
+        Long id,
+        Long transactionId,
+        TransactionType type,
+        String sourceAccountNumber,
+        String targetAccountNumber,
+        BigDecimal amount,
+        Currency currency,
+        String description,
+        LocalDateTime timestamp) {
+}
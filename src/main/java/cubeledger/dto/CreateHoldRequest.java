@@ -0,0 +1,85 @@
+package cubeledger.dto;
+
+import cubeledger.model.Currency;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/**
+ * Request DTO for reserving funds on an account.
+ */
+public class CreateHoldRequest {
+
+    @NotBlank(message = "Account number is required")
+    private String accountNumber;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than zero")
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most two decimals")
+    private BigDecimal amount;
+
+    private Currency currency = Currency.SEK; // Default to SEK if not specified
+
+    @Min(value = 1, message = "Time to live must be at least one second")
+    private long ttlSeconds = 300;
+
+    private String description;
+
+    // Default constructor
+    public CreateHoldRequest() {
+    }
+
+    // Constructor with all fields
+    public CreateHoldRequest(String accountNumber, BigDecimal amount, Currency currency, long ttlSeconds, String description) {
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+        this.currency = currency;
+        this.ttlSeconds = ttlSeconds;
+        this.description = description;
+    }
+
+    // Getters and setters
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,109 @@
+package cubeledger.dto;
+
+import cubeledger.model.Currency;
+import cubeledger.model.ScheduleFrequency;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Request DTO for scheduling a one-off or recurring transfer.
+ */
+public class CreateScheduledTransferRequest {
+
+    @NotBlank(message = "Source account number is required")
+    private String sourceAccountNumber;
+
+    @NotBlank(message = "Target account number is required")
+    private String targetAccountNumber;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than zero")
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most two decimals")
+    private BigDecimal amount;
+
+    private Currency currency = Currency.SEK; // Default to SEK if not specified
+
+    private String description;
+
+    @NotNull(message = "Frequency is required")
+    private ScheduleFrequency frequency = ScheduleFrequency.ONCE;
+
+    @NotNull(message = "First run time is required")
+    private LocalDateTime firstRunAt;
+
+    private LocalDateTime endAt;
+
+    // Default constructor
+    public CreateScheduledTransferRequest() {
+    }
+
+    // Getters and setters
+    public String getSourceAccountNumber() {
+        return sourceAccountNumber;
+    }
+
+    public void setSourceAccountNumber(String sourceAccountNumber) {
+        this.sourceAccountNumber = sourceAccountNumber;
+    }
+
+    public String getTargetAccountNumber() {
+        return targetAccountNumber;
+    }
+
+    public void setTargetAccountNumber(String targetAccountNumber) {
+        this.targetAccountNumber = targetAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ScheduleFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(ScheduleFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public LocalDateTime getFirstRunAt() {
+        return firstRunAt;
+    }
+
+    public void setFirstRunAt(LocalDateTime firstRunAt) {
+        this.firstRunAt = firstRunAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+}
@@ -0,0 +1,36 @@
+package cubeledger.dto;
+
+import cubeledger.model.Currency;
+import cubeledger.model.HoldStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for funds hold information.
+ *
+ * @param id the hold id
+ * @param accountNumber the account holding the funds
+ * @param amount the held amount, in the account currency
+ * @param currency the account currency
+ * @param status the hold status
+ * @param description the hold description
+ * @param createdAt when the hold was created
+ * @param expiresAt when the hold expires if it is not captured or released
+ * @param closedAt when the hold was captured, released or expired, or null
+ * @param capturedAmount the amount debited on capture, or null
+ * @param transactionId the transaction created on capture, or null
+ */
+public record HoldDTO(
+        Long id,
+        String accountNumber,
+        BigDecimal amount,
+        Currency currency,
+        HoldStatus status,
+        String description,
+        LocalDateTime createdAt,
+        LocalDateTime expiresAt,
+        LocalDateTime closedAt,
+        BigDecimal capturedAmount,
+        Long transactionId) {
+}
@@ -0,0 +1,37 @@
+package cubeledger.dto;
+
+import cubeledger.model.Currency;
+import cubeledger.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the ledger-wide totals.
+ *
+ * @param date the day the volumes are for
+ * @param currencies the totals of each currency
+ */
+public record LedgerTotalsDTO(LocalDate date, List<CurrencyTotals> currencies) {
+
+    /**
+     * The totals of one currency.
+     *
+     * @param currency the currency
+     * @param totalBalance the sum of the balances of all accounts in the currency
+     * @param volumes the transactions of each type in the currency on the day
+     */
+    public record CurrencyTotals(Currency currency, BigDecimal totalBalance, Map<TransactionType, Volume> volumes) {
+    }
+
+    /**
+     * The number and sum of a day's transactions.
+     *
+     * @param count the number of transactions
+     * @param amount the sum of the transaction amounts
+     */
+    public record Volume(long count, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,44 @@
+package cubeledger.dto;
+
+import cubeledger.model.Currency;
+import cubeledger.model.ScheduleFrequency;
+import cubeledger.model.ScheduledRunOutcome;
+import cubeledger.model.ScheduledTransferStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for scheduled transfer information.
+ *
+ * @param id the schedule id
+ * @param sourceAccountNumber the source account number
+ * @param targetAccountNumber the target account number
+ * @param amount the amount transferred on every run
+ * @param currency the currency of the amount
+ * @param description the description of the transfers
+ * @param frequency how often the transfer runs
+ * @param firstRunAt the time of the first run
+ * @param endAt the time after which the transfer no longer runs, or null
+ * @param status the schedule status
+ * @param nextRunAt the time of the next occurrence
+ * @param dueAt when the next attempt is made, later than nextRunAt while a run is being retried
+ * @param lastRunAt when the last attempt was made, or null
+ * @param lastOutcome the outcome of the last attempt, or null
+ */
+public record ScheduledTransferDTO(
+        Long id,
+        String sourceAccountNumber,
+        String targetAccountNumber,
+        BigDecimal amount,
+        Currency currency,
+        String description,
+        ScheduleFrequency frequency,
+        LocalDateTime firstRunAt,
+        LocalDateTime endAt,
+        ScheduledTransferStatus status,
+        LocalDateTime nextRunAt,
+        LocalDateTime dueAt,
+        LocalDateTime lastRunAt,
+        ScheduledRunOutcome lastOutcome) {
+}
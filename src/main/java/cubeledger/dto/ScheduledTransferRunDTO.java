@@ -0,0 +1,26 @@
+package cubeledger.dto;
+
+import cubeledger.model.ScheduledRunOutcome;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for one attempt of a scheduled transfer.
+ *
+ * @param occurrence the number of the occurrence, 0 for the first run
+ * @param attempt the number of the attempt of the occurrence, starting at 1
+ * @param scheduledFor the time of the occurrence
+ * @param executedAt when the attempt was made
+ * @param outcome the outcome of the attempt
+ * @param transactionId the posted transaction, or null
+ * @param error the reason the transfer was rejected, or null
+ */
+public record ScheduledTransferRunDTO(
+        int occurrence,
+        int attempt,
+        LocalDateTime scheduledFor,
+        LocalDateTime executedAt,
+        ScheduledRunOutcome outcome,
+        Long transactionId,
+        String error) {
+}
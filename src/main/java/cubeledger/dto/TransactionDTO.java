@@ -18,6 +18,9 @@ public class TransactionDTO {
     private LocalDateTime timestamp;
     private String description;
     private TransactionType type;
+    private BigDecimal sourceAmount;
+    private BigDecimal targetAmount;
+    private BigDecimal exchangeRate;
 
     // Default constructor
     public TransactionDTO() {
@@ -108,4 +111,28 @@ public class TransactionDTO {
     public void setType(TransactionType type) {
         this.type = type;
     }
+
+    public BigDecimal getSourceAmount() {
+        return sourceAmount;
+    }
+
+    public void setSourceAmount(BigDecimal sourceAmount) {
+        this.sourceAmount = sourceAmount;
+    }
+
+    public BigDecimal getTargetAmount() {
+        return targetAmount;
+    }
+
+    public void setTargetAmount(BigDecimal targetAmount) {
+        this.targetAmount = targetAmount;
+    }
+
+    public BigDecimal getExchangeRate() {
+        return exchangeRate;
+    }
+
+    public void setExchangeRate(BigDecimal exchangeRate) {
+        this.exchangeRate = exchangeRate;
+    }
 }
@@ -0,0 +1,25 @@
+package cubeledger.dto;
+
+import cubeledger.model.Currency;
+import cubeledger.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a transaction used by the history endpoints.
+ * Instances are created directly by JPQL constructor expressions, so no managed
+ * Transaction or Account entities are loaded when listing history. The sequence number
+ * is the transaction's position among the transactions of the account being listed.
+ */
+public record TransactionSummary(
+        Long id,
+        String sourceAccountNumber,
+        String targetAccountNumber,
+        BigDecimal amount,
+        Currency currency,
+        LocalDateTime timestamp,
+        String description,
+        TransactionType type,
+        Long seq) {
+}
@@ -2,6 +2,7 @@ package cubeledger.dto;
 
 import cubeledger.model.Currency;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -17,6 +18,7 @@ public class WithdrawRequest {
 
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than zero")
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most two decimals")
     private BigDecimal amount;
 
     private Currency currency = Currency.SEK; // Default to SEK if not specified
@@ -0,0 +1,322 @@
+package cubeledger.event;
+
+import cubeledger.dto.BalanceEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fans committed balance changes out to Server-Sent Events subscribers.
+ * <p>
+ * Subscribers are grouped per account. Publishing only appends to each subscriber's bounded
+ * queue, so the committing thread never blocks on a slow client; a small pool of delivery threads
+ * drains the queues. A subscriber whose queue is full is disconnected and can resume with the
+ * SSE {@code Last-Event-ID}, which is replayed from a short per-account history when possible
+ * and otherwise answered with a fresh balance snapshot. The history is kept while an account has
+ * no subscribers, so a disconnected client can resume, and dropped once the account has had no
+ * events for the replay time to live.
+ * <p>
+ * A new subscriber is registered before its snapshot is read, so no event committed in between is
+ * missed; events already included in the snapshot are skipped by their account sequence number.
+ */
+@Component
+public class BalanceEventBroadcaster {
+
+    private static final int MAX_EVENTS_PER_DRAIN = 64;
+
+    private final BalanceEventProperties properties;
+    private final ConcurrentHashMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor;
+
+    public BalanceEventBroadcaster(BalanceEventProperties properties) {
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(properties.getDeliveryThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "cubeledger-sse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open an event stream for an account.
+     *
+     * @param accountNumber the account number
+     * @param lastEventId the last transaction id seen by a reconnecting client, or null
+     * @param snapshot reads the current state of the account, sent first unless the stream can be resumed
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(String accountNumber, Long lastEventId, Supplier<BalanceEventDTO> snapshot) {
+        SseEmitter emitter = createEmitter(properties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(accountNumber, emitter, properties.getSubscriberBufferSize());
+        long now = System.currentTimeMillis();
+
+        // Register before reading the snapshot, so events committed meanwhile are queued rather than lost
+        boolean[] resumed = new boolean[1];
+        channels.compute(accountNumber, (key, channel) -> {
+            if (channel == null) {
+                channel = new Channel(properties.getReplaySize(), now);
+            }
+            resumed[0] = lastEventId != null && channel.replayAfter(lastEventId, subscriber);
+            channel.subscribers.add(subscriber);
+            return channel;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        if (resumed[0]) {
+            subscriber.start(null);
+        } else {
+            try {
+                subscriber.start(snapshot.get());
+            } catch (RuntimeException e) {
+                unsubscribe(subscriber);
+                throw e;
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Publish a committed transaction to the subscribers of the accounts it touched.
+     *
+     * @param event the posted transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        TransactionPostedEvent.Leg source = event.source();
+        TransactionPostedEvent.Leg target = event.target();
+        if (source != null) {
+            publish(toDTO(event, source, (source.amount() != null ? source.amount() : event.amount()).negate(), target));
+        }
+        if (target != null) {
+            publish(toDTO(event, target, target.amount() != null ? target.amount() : event.amount(), source));
+        }
+    }
+
+    /**
+     * Drop the history of accounts without subscribers that have had no events for the replay time to live.
+     */
+    @Scheduled(fixedDelayString = "${cubeledger.events.eviction-interval:PT1M}")
+    public void evictIdle() {
+        long idleSince = System.currentTimeMillis() - properties.getReplayTtl().toMillis();
+        for (String accountNumber : channels.keySet()) {
+            channels.computeIfPresent(accountNumber,
+                    (key, channel) -> channel.subscribers.isEmpty() && channel.lastEventAt < idleSince ? null : channel);
+        }
+    }
+
+    /**
+     * Get the number of open streams.
+     *
+     * @return the number of subscribers across all accounts
+     */
+    public int getSubscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    /**
+     * Get the number of accounts whose recent events are kept.
+     *
+     * @return the number of accounts with a history, with or without subscribers
+     */
+    public int getRetainedAccountCount() {
+        return channels.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    private void publish(BalanceEventDTO event) {
+        List<Subscriber> slowSubscribers = new ArrayList<>(0);
+        long now = System.currentTimeMillis();
+        channels.compute(event.accountNumber(), (accountNumber, channel) -> {
+            if (channel == null) {
+                // Keep no history for further accounts until idle ones have been evicted
+                if (channels.size() >= properties.getMaxReplayAccounts()) {
+                    return null;
+                }
+                channel = new Channel(properties.getReplaySize(), now);
+            }
+            channel.append(event, now);
+            for (Subscriber subscriber : channel.subscribers) {
+                if (!subscriber.offer(event)) {
+                    slowSubscribers.add(subscriber);
+                }
+            }
+            channel.subscribers.removeAll(slowSubscribers);
+            return channel;
+        });
+
+        // Complete outside of compute, since completion callbacks unsubscribe through the map
+        for (Subscriber subscriber : slowSubscribers) {
+            subscriber.close();
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        channels.computeIfPresent(subscriber.accountNumber, (accountNumber, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel;
+        });
+    }
+
+    private static BalanceEventDTO toDTO(TransactionPostedEvent event, TransactionPostedEvent.Leg leg,
+                                         BigDecimal signedAmount, TransactionPostedEvent.Leg counterparty) {
+        return new BalanceEventDTO(
+                leg.accountNumber(),
+                leg.balance(),
+                leg.currency(),
+                event.transactionId(),
+                leg.seq(),
+                event.type(),
+                signedAmount,
+                counterparty != null ? counterparty.accountNumber() : null,
+                event.description(),
+                event.timestamp()
+        );
+    }
+
+    /**
+     * Subscribers and recent events of one account. Only accessed inside map compute calls.
+     */
+    private static final class Channel {
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private final Deque<BalanceEventDTO> recentEvents;
+        private final int replaySize;
+        private long lastEventAt;
+
+        private Channel(int replaySize, long now) {
+            this.replaySize = replaySize;
+            this.recentEvents = new ArrayDeque<>(replaySize);
+            this.lastEventAt = now;
+        }
+
+        private void append(BalanceEventDTO event, long now) {
+            if (recentEvents.size() == replaySize) {
+                recentEvents.removeFirst();
+            }
+            recentEvents.addLast(event);
+            lastEventAt = now;
+        }
+
+        /**
+         * Queue the events after the given id, if the retained history reaches back that far.
+         */
+        private boolean replayAfter(long lastEventId, Subscriber subscriber) {
+            BalanceEventDTO oldest = recentEvents.peekFirst();
+            if (oldest == null || oldest.transactionId() > lastEventId) {
+                return false;
+            }
+            for (BalanceEventDTO event : recentEvents) {
+                if (event.transactionId() > lastEventId) {
+                    subscriber.offer(event);
+                }
+            }
+            return true;
+        }
+    }
+
+    private final class Subscriber {
+        private final String accountNumber;
+        private final SseEmitter emitter;
+        private final BlockingQueue<BalanceEventDTO> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean started;
+        private volatile BalanceEventDTO snapshot;
+        private volatile long snapshotSeq;
+
+        private Subscriber(String accountNumber, SseEmitter emitter, int bufferSize) {
+            this.accountNumber = accountNumber;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean offer(BalanceEventDTO event) {
+            if (!queue.offer(event)) {
+                return false;
+            }
+            signal();
+            return true;
+        }
+
+        /**
+         * Start delivering, with the snapshot first if one is given. Queued events that the
+         * snapshot already includes are skipped.
+         */
+        private void start(BalanceEventDTO snapshot) {
+            if (snapshot != null) {
+                this.snapshotSeq = snapshot.seq() != null ? snapshot.seq() : 0;
+                this.snapshot = snapshot;
+            }
+            started = true;
+            signal();
+        }
+
+        private void signal() {
+            if (started && !closed.get() && scheduled.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                BalanceEventDTO event = snapshot;
+                if (event != null) {
+                    snapshot = null;
+                    emitter.send(SseEmitter.event().data(event).name("snapshot"));
+                }
+                int delivered = 0;
+                while (!closed.get() && delivered < MAX_EVENTS_PER_DRAIN && (event = queue.poll()) != null) {
+                    if (event.seq() != null && event.seq() <= snapshotSeq) {
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event().data(event).id(event.transactionId().toString()).name("balance"));
+                    delivered++;
+                }
+            } catch (IOException | IllegalStateException e) {
+                closed.set(true);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                signal();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package cubeledger.event;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the balance event streams.
+ */
+@ConfigurationProperties(prefix = "cubeledger.events")
+public class BalanceEventProperties {
+
+    /**
+     * Maximum number of undelivered events per subscriber. A subscriber that falls further
+     * behind is disconnected and expected to reconnect with its last seen event id.
+     */
+    private int subscriberBufferSize = 256;
+
+    /**
+     * Number of recent events kept per streamed account for resuming subscribers.
+     */
+    private int replaySize = 128;
+
+    /**
+     * How long the recent events of an account without subscribers are kept after its latest event.
+     */
+    private Duration replayTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of accounts whose recent events are kept. Further accounts keep none until
+     * idle ones have been dropped.
+     */
+    private int maxReplayAccounts = 10_000;
+
+    /**
+     * Lifetime of a stream before the server closes it and the client reconnects.
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Number of threads delivering events to subscribers.
+     */
+    private int deliveryThreads = 4;
+
+    public int getSubscriberBufferSize() {
+        return subscriberBufferSize;
+    }
+
+    public void setSubscriberBufferSize(int subscriberBufferSize) {
+        this.subscriberBufferSize = subscriberBufferSize;
+    }
+
+    public int getReplaySize() {
+        return replaySize;
+    }
+
+    public void setReplaySize(int replaySize) {
+        this.replaySize = replaySize;
+    }
+
+    public Duration getReplayTtl() {
+        return replayTtl;
+    }
+
+    public void setReplayTtl(Duration replayTtl) {
+        this.replayTtl = replayTtl;
+    }
+
+    public int getMaxReplayAccounts() {
+        return maxReplayAccounts;
+    }
+
+    public void setMaxReplayAccounts(int maxReplayAccounts) {
+        this.maxReplayAccounts = maxReplayAccounts;
+    }
+
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    public void setStreamTimeout(Duration streamTimeout) {
+        this.streamTimeout = streamTimeout;
+    }
+
+    public int getDeliveryThreads() {
+        return deliveryThreads;
+    }
+
+    public void setDeliveryThreads(int deliveryThreads) {
+        this.deliveryThreads = deliveryThreads;
+    }
+}
@@ -0,0 +1,13 @@
+package cubeledger.event;
+
+import cubeledger.model.HoldStatus;
+
+/**
+ * Application event published by {@link cubeledger.service.AccountServiceImpl} when a hold is
+ * captured, released or expired.
+ *
+ * @param holdId the id of the hold
+ * @param status the final status of the hold
+ */
+public record HoldClosedEvent(Long holdId, HoldStatus status) {
+}
@@ -0,0 +1,12 @@
+package cubeledger.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Application event published by {@link cubeledger.service.AccountServiceImpl} when a hold is created.
+ *
+ * @param holdId the id of the hold
+ * @param expiresAt when the hold expires
+ */
+public record HoldPlacedEvent(Long holdId, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,69 @@
+package cubeledger.event;
+
+import cubeledger.model.Account;
+import cubeledger.model.Currency;
+import cubeledger.model.Transaction;
+import cubeledger.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Application event published by {@link cubeledger.service.AccountServiceImpl} for every
+ * transaction it records. The event is published inside the database transaction; listeners
+ * that must only see committed changes use {@code @TransactionalEventListener}.
+ *
+ * @param transactionId the id of the recorded transaction
+ * @param type the transaction type
+ * @param amount the transaction amount
+ * @param currency the transaction currency
+ * @param description the transaction description
+ * @param timestamp the transaction timestamp
+ * @param source the debited account, or null for deposits
+ * @param target the credited account, or null for withdrawals
+ */
+public record TransactionPostedEvent(
+        Long transactionId,
+        TransactionType type,
+        BigDecimal amount,
+        Currency currency,
+        String description,
+        LocalDateTime timestamp,
+        Leg source,
+        Leg target) {
+
+    /**
+     * Create an event from a saved transaction whose accounts carry their updated balances.
+     *
+     * @param transaction the saved transaction
+     * @return the event
+     */
+    public static TransactionPostedEvent of(Transaction transaction) {
+        return new TransactionPostedEvent(
+                transaction.getId(),
+                transaction.getType(),
+                transaction.getAmount(),
+                transaction.getCurrency(),
+                transaction.getDescription(),
+                transaction.getTimestamp(),
+                Leg.of(transaction.getSourceAccount(), transaction.getSourceAmount(), transaction.getSourceSeq()),
+                Leg.of(transaction.getTargetAccount(), transaction.getTargetAmount(), transaction.getTargetSeq())
+        );
+    }
+
+    /**
+     * One side of a posted transaction.
+     *
+     * @param accountNumber the account number
+     * @param currency the account currency
+     * @param balance the account balance after the transaction
+     * @param amount the amount posted to the account, in the account currency
+     * @param seq the sequence number of the transaction among the account's transactions
+     */
+    public record Leg(String accountNumber, Currency currency, BigDecimal balance, BigDecimal amount, Long seq) {
+
+        static Leg of(Account account, BigDecimal amount, Long seq) {
+            return account != null ? new Leg(account.getAccountNumber(), account.getCurrency(), account.getBalance(), amount, seq) : null;
+        }
+    }
+}
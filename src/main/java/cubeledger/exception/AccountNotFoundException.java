@@ -10,10 +10,20 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 public class AccountNotFoundException extends RuntimeException {
 
     public AccountNotFoundException(String accountNumber) {
-        super("Account not found with account number: " + accountNumber);
+        super(message(accountNumber));
     }
 
     public AccountNotFoundException(Long id) {
         super("Account not found with id: " + id);
     }
+
+    /**
+     * Describe a missing account without creating the exception.
+     *
+     * @param accountNumber the account number
+     * @return the message the exception would carry
+     */
+    public static String message(String accountNumber) {
+        return "Account not found with account number: " + accountNumber;
+    }
 }
@@ -0,0 +1,20 @@
+package cubeledger.exception;
+
+import cubeledger.model.HoldStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a hold is captured or released after it was already closed or has expired.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class HoldNotActiveException extends RuntimeException {
+
+    public HoldNotActiveException(Long id, HoldStatus status) {
+        super("Hold " + id + " is not active, its status is " + status);
+    }
+
+    public HoldNotActiveException(Long id) {
+        super("Hold " + id + " has expired");
+    }
+}
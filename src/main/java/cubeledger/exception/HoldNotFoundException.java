@@ -0,0 +1,15 @@
+package cubeledger.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a hold is not found.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class HoldNotFoundException extends RuntimeException {
+
+    public HoldNotFoundException(Long id) {
+        super("Hold not found with id: " + id);
+    }
+}
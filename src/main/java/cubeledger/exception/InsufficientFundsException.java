@@ -12,7 +12,19 @@ import java.math.BigDecimal;
 public class InsufficientFundsException extends RuntimeException {
 
     public InsufficientFundsException(String accountNumber, BigDecimal currentBalance, BigDecimal requiredAmount) {
-        super(String.format("Insufficient funds in account %s. Current balance: %s, Required amount: %s",
-                accountNumber, currentBalance, requiredAmount));
+        super(message(accountNumber, currentBalance, requiredAmount));
+    }
+
+    /**
+     * Describe a shortfall without creating the exception.
+     *
+     * @param accountNumber the account number
+     * @param currentBalance the available balance
+     * @param requiredAmount the amount needed
+     * @return the message the exception would carry
+     */
+    public static String message(String accountNumber, BigDecimal currentBalance, BigDecimal requiredAmount) {
+        return String.format("Insufficient funds in account %s. Current balance: %s, Required amount: %s",
+                accountNumber, currentBalance, requiredAmount);
     }
 }
@@ -4,7 +4,7 @@ import cubeledger.model.Currency;
 
 /**
  * Exception thrown when an invalid currency is used.
- * Currently, only SEK is supported.
+ * A currency is supported when it has an exchange rate.
  */
 public class InvalidCurrencyException extends RuntimeException {
 
@@ -16,7 +16,7 @@ public class InvalidCurrencyException extends RuntimeException {
      * @param requestedCurrency the currency that was requested but is not supported
      */
     public InvalidCurrencyException(Currency requestedCurrency) {
-        super("Currency " + requestedCurrency + " is not supported. Only SEK is currently supported.");
+        super("Currency " + requestedCurrency + " is not supported. Only currencies with an exchange rate can be used.");
         this.requestedCurrency = requestedCurrency;
     }
 
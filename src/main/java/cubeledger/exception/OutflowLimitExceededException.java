@@ -0,0 +1,34 @@
+package cubeledger.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Exception thrown when a withdrawal or transfer would take more out of an account than a window's limit allows.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class OutflowLimitExceededException extends RuntimeException {
+
+    public OutflowLimitExceededException(String accountNumber, String window, BigDecimal maxOutflow, BigDecimal usedOutflow,
+                                         BigDecimal requestedAmount) {
+        super(message(accountNumber, window, maxOutflow, usedOutflow, requestedAmount));
+    }
+
+    /**
+     * Describe an exceeded limit without creating the exception.
+     *
+     * @param accountNumber the account number
+     * @param window the name of the limited window
+     * @param maxOutflow the maximum outflow in the window
+     * @param usedOutflow the outflow already in the window
+     * @param requestedAmount the amount requested
+     * @return the message the exception would carry
+     */
+    public static String message(String accountNumber, String window, BigDecimal maxOutflow, BigDecimal usedOutflow,
+                                 BigDecimal requestedAmount) {
+        return String.format("Outflow limit exceeded for account %s. The %s limit is %s, already used: %s, Requested amount: %s",
+                accountNumber, window, maxOutflow, usedOutflow, requestedAmount);
+    }
+}
@@ -0,0 +1,29 @@
+package cubeledger.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a client or account exceeds its request rate.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Get how long the caller should wait before retrying.
+     *
+     * @return the time until a request would be accepted
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,15 @@
+package cubeledger.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a scheduled transfer is not found.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ScheduledTransferNotFoundException extends RuntimeException {
+
+    public ScheduledTransferNotFoundException(Long id) {
+        super("Scheduled transfer not found with id: " + id);
+    }
+}
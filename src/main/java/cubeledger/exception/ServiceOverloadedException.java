@@ -0,0 +1,20 @@
+package cubeledger.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request is shed because the service is at its concurrency limit
+ * or has too many requests queued.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(int inFlight) {
+        super("Service is overloaded, " + inFlight + " requests are already in flight. Retry later.");
+    }
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,162 @@
+package cubeledger.fx;
+
+import cubeledger.exception.InvalidCurrencyException;
+import cubeledger.exception.InvalidTransactionException;
+import cubeledger.model.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Immutable matrix of exchange rates between all {@link Currency} values, indexed by ordinal.
+ * <p>
+ * Cross rates are derived once, when the matrix is built, from rates against a common base currency
+ * and rounded to {@value #RATE_SCALE} decimals. Converting an amount is then a single array lookup and
+ * one multiplication. Converted amounts are rounded half-even to the minor units of the target currency,
+ * so the same amount, rate and currencies always give the same result.
+ */
+public final class FxRateMatrix {
+
+    /**
+     * Number of decimals of derived cross rates.
+     */
+    public static final int RATE_SCALE = 10;
+
+    /**
+     * Number of decimals of stored amounts.
+     */
+    private static final int AMOUNT_SCALE = 2;
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final int SIZE = CURRENCIES.length;
+    private static final int[] FRACTION_DIGITS = new int[SIZE];
+
+    static {
+        for (Currency currency : CURRENCIES) {
+            int digits = java.util.Currency.getInstance(currency.getCode()).getDefaultFractionDigits();
+            FRACTION_DIGITS[currency.ordinal()] = Math.min(Math.max(digits, 0), AMOUNT_SCALE);
+        }
+    }
+
+    private final BigDecimal[] rates;
+    private final boolean[] supported;
+    private final LocalDateTime loadedAt;
+
+    private FxRateMatrix(BigDecimal[] rates, boolean[] supported, LocalDateTime loadedAt) {
+        this.rates = rates;
+        this.supported = supported;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Build a matrix from rates against a common base currency.
+     *
+     * @param unitsPerBase the number of units of each currency per unit of the base currency
+     * @param loadedAt when the rates were loaded
+     * @return the matrix
+     */
+    public static FxRateMatrix of(Map<Currency, BigDecimal> unitsPerBase, LocalDateTime loadedAt) {
+        BigDecimal[] rates = new BigDecimal[SIZE * SIZE];
+        boolean[] supported = new boolean[SIZE];
+        for (Currency from : CURRENCIES) {
+            rates[index(from, from)] = BigDecimal.ONE;
+            BigDecimal fromUnits = unitsPerBase.get(from);
+            if (fromUnits == null || fromUnits.signum() <= 0) {
+                continue;
+            }
+            supported[from.ordinal()] = true;
+            for (Currency to : CURRENCIES) {
+                BigDecimal toUnits = unitsPerBase.get(to);
+                if (from != to && toUnits != null && toUnits.signum() > 0) {
+                    rates[index(from, to)] = toUnits.divide(fromUnits, RATE_SCALE, RoundingMode.HALF_EVEN);
+                }
+            }
+        }
+        return new FxRateMatrix(rates, supported, loadedAt);
+    }
+
+    /**
+     * Check whether a currency has an exchange rate.
+     *
+     * @param currency the currency
+     * @return true if amounts can be converted to and from the currency
+     */
+    public boolean isSupported(Currency currency) {
+        return currency != null && supported[currency.ordinal()];
+    }
+
+    /**
+     * Get the rate for converting between two currencies.
+     *
+     * @param from the currency to convert from
+     * @param to the currency to convert to
+     * @return the number of units of {@code to} per unit of {@code from}
+     * @throws InvalidCurrencyException if either currency has no exchange rate
+     */
+    public BigDecimal rate(Currency from, Currency to) {
+        BigDecimal rate = rates[index(from, to)];
+        if (rate == null) {
+            throw new InvalidCurrencyException(isSupported(from) ? to : from);
+        }
+        return rate;
+    }
+
+    /**
+     * Convert an amount between two currencies.
+     *
+     * @param amount the amount in {@code from}
+     * @param from the currency to convert from
+     * @param to the currency to convert to
+     * @return the amount in {@code to}, or {@code amount} itself if the currencies are the same
+     * @throws InvalidCurrencyException if either currency has no exchange rate
+     */
+    public BigDecimal convert(BigDecimal amount, Currency from, Currency to) {
+        if (from == to) {
+            return amount;
+        }
+        return amount.multiply(rate(from, to))
+                .setScale(FRACTION_DIGITS[to.ordinal()], RoundingMode.HALF_EVEN)
+                .setScale(AMOUNT_SCALE, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Convert an amount to be posted to an account in another currency. Unlike
+     * {@link #convert(BigDecimal, Currency, Currency)}, an amount that rounds to nothing is rejected,
+     * so a transaction never moves money on one side only.
+     *
+     * @param amount the positive amount in {@code from}
+     * @param from the currency to convert from
+     * @param to the currency to convert to
+     * @return the positive amount in {@code to}
+     * @throws InvalidCurrencyException if either currency has no exchange rate
+     * @throws InvalidTransactionException if the converted amount is not positive
+     */
+    public BigDecimal convertPositive(BigDecimal amount, Currency from, Currency to) {
+        BigDecimal converted = convert(amount, from, to);
+        if (converted.signum() <= 0) {
+            throw new InvalidTransactionException("Amount " + amount + " " + from + " is too small to convert to " + to);
+        }
+        return converted;
+    }
+
+    /**
+     * Get the number of decimals amounts in a currency are kept to: the currency's minor units, at
+     * most two.
+     *
+     * @param currency the currency
+     * @return the number of decimals
+     */
+    public static int fractionDigits(Currency currency) {
+        return FRACTION_DIGITS[currency.ordinal()];
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    private static int index(Currency from, Currency to) {
+        return from.ordinal() * SIZE + to.ordinal();
+    }
+}
@@ -0,0 +1,67 @@
+package cubeledger.fx;
+
+import cubeledger.model.Currency;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds the current {@link FxRateMatrix} and refreshes it from the {@code fx_rates} table in the background.
+ * <p>
+ * Readers take one snapshot per operation with {@link #getRates()}, so both legs of a transfer are
+ * converted with the same rates and posting a transaction never queries the rates table.
+ */
+@Service
+public class FxRateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxRateService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Until rates are loaded only SEK is supported, as before multi-currency support
+    private volatile FxRateMatrix rates = FxRateMatrix.of(Map.of(Currency.SEK, BigDecimal.ONE), LocalDateTime.now());
+
+    public FxRateService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get the current rates.
+     *
+     * @return an immutable snapshot of the rates
+     */
+    public FxRateMatrix getRates() {
+        return rates;
+    }
+
+    /**
+     * Reload the rates table and swap in a new matrix. If loading fails the previous rates stay in use.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${cubeledger.fx.refresh-interval:PT1M}", initialDelayString = "${cubeledger.fx.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            Map<Currency, BigDecimal> unitsPerBase = new EnumMap<>(Currency.class);
+            jdbcTemplate.query("SELECT currency, units_per_base FROM fx_rates", rs -> {
+                Currency currency = Currency.fromCode(rs.getString(1));
+                if (currency != null) {
+                    unitsPerBase.put(currency, rs.getBigDecimal(2));
+                } else {
+                    logger.warn("Ignoring exchange rate for unknown currency {}", rs.getString(1));
+                }
+            });
+            rates = FxRateMatrix.of(unitsPerBase, LocalDateTime.now());
+            logger.debug("Loaded exchange rates for {} currencies", unitsPerBase.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh exchange rates, keeping rates loaded at {}", rates.getLoadedAt(), e);
+        }
+    }
+}
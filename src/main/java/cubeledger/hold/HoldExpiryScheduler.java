@@ -0,0 +1,247 @@
+package cubeledger.hold;
+
+import cubeledger.cluster.ClusterMembership;
+import cubeledger.event.HoldClosedEvent;
+import cubeledger.event.HoldPlacedEvent;
+import cubeledger.service.AccountService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires holds at their expiry time using a {@link TimingWheel} instead of polling the holds table.
+ * <p>
+ * Active holds are loaded once at startup; after that holds are scheduled and cancelled from the
+ * events published when they are created and closed. A single ticker thread owns the wheel, so
+ * scheduling from request threads only appends to a lock-free queue. Cancelled holds are flagged
+ * and skipped when their slot comes up rather than removed from the wheel.
+ * <p>
+ * In cluster mode every member loads the active holds at startup, but a loaded hold is only
+ * expired by the member owning its account when it comes due. Holds placed after startup are
+ * expired by the member that placed them, which is normally the owner since their creation is
+ * forwarded there. If that member goes away, its holds are only on its own wheel, so the member
+ * running the hold sweeper periodically expires active holds that are overdue by more than the
+ * sweep grace period.
+ */
+@Component
+public class HoldExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpiryScheduler.class);
+
+    private final AccountService accountService;
+    private final JdbcTemplate jdbcTemplate;
+    private final HoldProperties properties;
+    private final ClusterMembership clusterMembership;
+    private final long tickMillis;
+    private final TimingWheel<Expiry> wheel;
+    private final Queue<Expiry> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Expiry> scheduled = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+
+    public HoldExpiryScheduler(AccountService accountService, DataSource dataSource, HoldProperties properties,
+                               ClusterMembership clusterMembership, MeterRegistry registry) {
+        this.accountService = accountService;
+        this.clusterMembership = clusterMembership;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setMaxRows(properties.getLoadBatchSize());
+        this.properties = properties;
+        this.tickMillis = Math.max(1, properties.getTick().toMillis());
+        this.wheel = new TimingWheel<>(properties.getWheelSize(), properties.getWheelLevels(), currentTick());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cubeledger-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("cubeledger.holds.scheduled", scheduled, Map::size)
+                .description("Number of active holds waiting for expiry")
+                .register(registry);
+    }
+
+    /**
+     * Load the active holds and start expiring them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long loaded = loadActiveHolds();
+        logger.info("Scheduled expiry of {} active holds", loaded);
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHoldPlaced(HoldPlacedEvent event) {
+        schedule(event.holdId(), null, event.expiresAt());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHoldClosed(HoldClosedEvent event) {
+        Expiry expiry = scheduled.remove(event.holdId());
+        if (expiry != null) {
+            expiry.cancelled = true;
+        }
+    }
+
+    /**
+     * Expire active holds that no member expired on time, such as holds placed on a member that has
+     * since gone away. Only the member running the hold sweeper does this.
+     */
+    @Scheduled(fixedDelayString = "${cubeledger.holds.sweep-interval:PT1M}")
+    public void sweepOverdue() {
+        if (!clusterMembership.runsJob("hold-sweeper")) {
+            return;
+        }
+        LocalDateTime overdueBefore = LocalDateTime.now().minus(properties.getSweepGracePeriod());
+        long expired = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> holdIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM holds WHERE status = 'ACTIVE' AND expires_at < ? AND id > ? ORDER BY id",
+                    Long.class, overdueBefore, afterId);
+            for (Long holdId : holdIds) {
+                try {
+                    if (accountService.expireHold(holdId)) {
+                        expired++;
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to expire overdue hold {}, retrying on the next sweep", holdId, e);
+                }
+            }
+            if (holdIds.size() < properties.getLoadBatchSize()) {
+                break;
+            }
+            afterId = holdIds.get(holdIds.size() - 1);
+        }
+        if (expired > 0) {
+            logger.info("Expired {} overdue holds", expired);
+        }
+    }
+
+    /**
+     * Get the number of holds waiting for expiry.
+     *
+     * @return the number of scheduled holds
+     */
+    public int getScheduledCount() {
+        return scheduled.size();
+    }
+
+    private long loadActiveHolds() {
+        long loaded = 0;
+        long afterId = 0;
+        while (true) {
+            List<Object[]> holds = jdbcTemplate.query(
+                    "SELECT h.id, h.expires_at, a.account_number FROM holds h JOIN accounts a ON a.id = h.account_id "
+                            + "WHERE h.status = 'ACTIVE' AND h.id > ? ORDER BY h.id",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getString(3)},
+                    afterId);
+            for (Object[] hold : holds) {
+                schedule((Long) hold[0], (String) hold[2], (LocalDateTime) hold[1]);
+            }
+            loaded += holds.size();
+            if (holds.size() < properties.getLoadBatchSize()) {
+                return loaded;
+            }
+            afterId = (Long) holds.get(holds.size() - 1)[0];
+        }
+    }
+
+    /**
+     * Schedule the expiry of a hold.
+     *
+     * @param holdId the hold id
+     * @param accountNumber the account of a hold loaded at startup, or null for a hold placed by this instance
+     * @param expiresAt when the hold expires
+     */
+    private void schedule(Long holdId, String accountNumber, LocalDateTime expiresAt) {
+        long epochMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Expiry expiry = new Expiry(holdId, accountNumber, Math.ceilDiv(epochMillis, tickMillis));
+        if (scheduled.putIfAbsent(holdId, expiry) == null) {
+            pending.add(expiry);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Expiry> due = new ArrayList<>();
+            Expiry expiry;
+            while ((expiry = pending.poll()) != null) {
+                if (!wheel.add(expiry, expiry.deadlineTick)) {
+                    due.add(expiry);
+                }
+            }
+            wheel.advanceTo(currentTick(), due::add);
+
+            for (Expiry dueExpiry : due) {
+                if (dueExpiry.cancelled) {
+                    continue;
+                }
+                if (dueExpiry.accountNumber != null && clusterMembership.remoteOwnerOf(dueExpiry.accountNumber) != null) {
+                    // Loaded by every member; the owner of the account expires it
+                    scheduled.remove(dueExpiry.holdId, dueExpiry);
+                    continue;
+                }
+                expire(dueExpiry);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Hold expiry tick failed", e);
+        }
+    }
+
+    private void expire(Expiry expiry) {
+        try {
+            accountService.expireHold(expiry.holdId);
+            scheduled.remove(expiry.holdId, expiry);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to expire hold {}, retrying in {}", expiry.holdId, properties.getRetryDelay(), e);
+            Expiry retry = new Expiry(expiry.holdId, expiry.accountNumber,
+                    currentTick() + Math.max(1, properties.getRetryDelay().toMillis() / tickMillis));
+            if (scheduled.replace(expiry.holdId, expiry, retry)) {
+                pending.add(retry);
+            }
+        }
+    }
+
+    private long currentTick() {
+        return System.currentTimeMillis() / tickMillis;
+    }
+
+    private static final class Expiry {
+        private final Long holdId;
+        private final String accountNumber;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Expiry(Long holdId, String accountNumber, long deadlineTick) {
+            this.holdId = holdId;
+            this.accountNumber = accountNumber;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
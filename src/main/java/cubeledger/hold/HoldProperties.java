@@ -0,0 +1,104 @@
+package cubeledger.hold;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for funds holds.
+ */
+@ConfigurationProperties(prefix = "cubeledger.holds")
+public class HoldProperties {
+
+    /**
+     * Resolution of hold expiry. Holds expire at most one tick after their expiry time.
+     */
+    private Duration tick = Duration.ofMillis(100);
+
+    /**
+     * Number of slots per level of the expiry timing wheel, a power of two.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Number of levels of the expiry timing wheel.
+     */
+    private int wheelLevels = 4;
+
+    /**
+     * How long to wait before retrying a hold whose expiry failed.
+     */
+    private Duration retryDelay = Duration.ofSeconds(5);
+
+    /**
+     * Number of active holds read per query when loading them at startup or sweeping overdue ones.
+     */
+    private int loadBatchSize = 10_000;
+
+    /**
+     * How often the member running the hold sweeper looks for overdue holds.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * How long a hold may be overdue before the sweeper expires it. Until then it is left to the
+     * member that scheduled its expiry.
+     */
+    private Duration sweepGracePeriod = Duration.ofSeconds(30);
+
+    public Duration getTick() {
+        return tick;
+    }
+
+    public void setTick(Duration tick) {
+        this.tick = tick;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public int getWheelLevels() {
+        return wheelLevels;
+    }
+
+    public void setWheelLevels(int wheelLevels) {
+        this.wheelLevels = wheelLevels;
+    }
+
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(Duration retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    public int getLoadBatchSize() {
+        return loadBatchSize;
+    }
+
+    public void setLoadBatchSize(int loadBatchSize) {
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    public Duration getSweepGracePeriod() {
+        return sweepGracePeriod;
+    }
+
+    public void setSweepGracePeriod(Duration sweepGracePeriod) {
+        this.sweepGracePeriod = sweepGracePeriod;
+    }
+}
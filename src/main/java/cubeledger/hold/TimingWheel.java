@@ -0,0 +1,144 @@
+package cubeledger.hold;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for scheduling a large number of timeouts.
+ * <p>
+ * Time is measured in ticks. Level 0 has one slot per tick; every higher level has slots spanning
+ * a full rotation of the level below. A timeout is placed in the lowest level whose current rotation
+ * contains its deadline, and is moved down a level when the clock reaches the start of its slot, so
+ * adding a timeout and expiring it are both O(1) regardless of how many timeouts are pending.
+ * Deadlines beyond the highest level wait in an overflow list until the top level wraps.
+ * <p>
+ * Not thread-safe; the owner must confine all calls to one thread.
+ *
+ * @param <T> the type of the scheduled items
+ */
+public final class TimingWheel<T> {
+
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final List<Timeout<T>>[][] slots;
+    private List<Timeout<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * Create a timing wheel.
+     *
+     * @param wheelSize the number of slots per level, a power of two
+     * @param levels the number of levels
+     * @param startTick the current tick
+     */
+    public TimingWheel(int wheelSize, int levels, long startTick) {
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two, was " + wheelSize);
+        }
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        if (levels < 1 || bits * levels >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid number of levels: " + levels);
+        }
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        @SuppressWarnings("unchecked")
+        List<Timeout<T>>[][] slots = (List<Timeout<T>>[][]) new List<?>[levels][wheelSize];
+        this.slots = slots;
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedule an item.
+     *
+     * @param item the item
+     * @param deadlineTick the tick at which the item expires
+     * @return false if the deadline has already passed, in which case the item is not scheduled
+     */
+    public boolean add(T item, long deadlineTick) {
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        place(new Timeout<>(item, deadlineTick));
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance the clock, expiring every item whose deadline is reached.
+     *
+     * @param tick the new current tick; ticks in the past are ignored
+     * @param expired receives the expired items in deadline order
+     */
+    public void advanceTo(long tick, Consumer<T> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+
+            // Find the highest level whose slot boundary is reached, and cascade from the top down
+            int top = 0;
+            while (top + 1 < levels && (currentTick & ((1L << (bits * (top + 1))) - 1)) == 0) {
+                top++;
+            }
+            if (top == levels - 1 && (currentTick & ((1L << (bits * levels)) - 1)) == 0 && !overflow.isEmpty()) {
+                List<Timeout<T>> waiting = overflow;
+                overflow = new ArrayList<>();
+                waiting.forEach(this::place);
+            }
+            for (int level = top; level >= 1; level--) {
+                List<Timeout<T>> slot = take(level, (int) (currentTick >>> (bits * level)) & mask);
+                if (slot != null) {
+                    slot.forEach(this::place);
+                }
+            }
+
+            List<Timeout<T>> due = take(0, (int) currentTick & mask);
+            if (due != null) {
+                size -= due.size();
+                for (Timeout<T> timeout : due) {
+                    expired.accept(timeout.item());
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of scheduled items.
+     *
+     * @return the number of items that have not expired yet
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    private void place(Timeout<T> timeout) {
+        for (int level = 0; level < levels; level++) {
+            int shift = bits * (level + 1);
+            if ((timeout.deadlineTick() >>> shift) == (currentTick >>> shift)) {
+                int index = (int) (timeout.deadlineTick() >>> (bits * level)) & mask;
+                List<Timeout<T>> slot = slots[level][index];
+                if (slot == null) {
+                    slot = new ArrayList<>();
+                    slots[level][index] = slot;
+                }
+                slot.add(timeout);
+                return;
+            }
+        }
+        overflow.add(timeout);
+    }
+
+    private List<Timeout<T>> take(int level, int index) {
+        List<Timeout<T>> slot = slots[level][index];
+        slots[level][index] = null;
+        return slot;
+    }
+
+    private record Timeout<T>(T item, long deadlineTick) {
+    }
+}
@@ -0,0 +1,92 @@
+package cubeledger.hotaccount;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for hot-account detection.
+ */
+@ConfigurationProperties(prefix = "cubeledger.hot-accounts")
+public class HotAccountProperties {
+
+    /**
+     * Whether account operations and lock waits are tracked.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of accounts each sketch tracks. Any account with more than 1/capacity of the operations
+     * in a slot is guaranteed to be tracked.
+     */
+    private int capacity = 1000;
+
+    /**
+     * Length of a time slot. Windows are made of whole slots.
+     */
+    private Duration slotDuration = Duration.ofMinutes(1);
+
+    /**
+     * Number of slots kept, which sets the longest window reported.
+     */
+    private int slots = 15;
+
+    /**
+     * Number of accounts reported per window.
+     */
+    private int top = 20;
+
+    /**
+     * Number of independently locked stripes accounts are spread over, a power of two. Each stripe
+     * tracks its share of the capacity.
+     */
+    private int stripes = 16;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public Duration getSlotDuration() {
+        return slotDuration;
+    }
+
+    public void setSlotDuration(Duration slotDuration) {
+        this.slotDuration = slotDuration;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public void setSlots(int slots) {
+        this.slots = slots;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public void setTop(int top) {
+        this.top = top;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+}
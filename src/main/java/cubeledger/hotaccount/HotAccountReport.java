@@ -0,0 +1,36 @@
+package cubeledger.hotaccount;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The busiest accounts over sliding windows of recent time slots.
+ *
+ * @param enabled whether tracking is enabled
+ * @param windows the windows, shortest first
+ */
+public record HotAccountReport(boolean enabled, List<Window> windows) {
+
+    /**
+     * The busiest accounts in one window.
+     *
+     * @param span the length of the window
+     * @param operations the number of account operations in the window
+     * @param lockWaitMicros the total time operations waited for account locks in the window
+     * @param byOperations the accounts with the most operations
+     * @param byLockWait the accounts with the most lock wait, in microseconds
+     */
+    public record Window(Duration span, long operations, long lockWaitMicros,
+                         List<HotAccount> byOperations, List<HotAccount> byLockWait) {
+    }
+
+    /**
+     * An account's estimated share of a window.
+     *
+     * @param accountNumber the account number
+     * @param estimate the estimated count, never below the true count
+     * @param maxOverestimate how far the estimate may exceed the true count
+     */
+    public record HotAccount(String accountNumber, long estimate, long maxOverestimate) {
+    }
+}
@@ -0,0 +1,190 @@
+package cubeledger.hotaccount;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Tracks the accounts with the most operations and the most lock wait over sliding windows.
+ * <p>
+ * Time is cut into fixed slots, each with its own {@link SpaceSavingSketch} of operations and of
+ * lock wait, so memory stays bounded by the number of slots times the sketch capacity however many
+ * accounts are active. A slot is reused once it falls out of the longest window; windows are
+ * reported by combining the sketches of their slots.
+ * <p>
+ * Accounts are spread by hash over independently locked stripes, each with its own slots and a
+ * share of the capacity, so request threads recording different accounts rarely wait for each
+ * other. Since an account is only ever counted in one stripe, the busiest accounts of a window are
+ * the busiest of the stripes' own top accounts.
+ */
+@Component
+public class HotAccountTracker {
+
+    private final HotAccountProperties properties;
+    private final long slotMillis;
+    private final int slotCount;
+    private final Stripe[] stripes;
+
+    public HotAccountTracker(HotAccountProperties properties) {
+        int stripeCount = properties.getStripes();
+        if (stripeCount < 1 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two, was " + stripeCount);
+        }
+        this.properties = properties;
+        this.slotMillis = Math.max(1, properties.getSlotDuration().toMillis());
+        this.slotCount = Math.max(1, properties.getSlots());
+        int stripeCapacity = Math.max(1, Math.ceilDiv(properties.getCapacity(), stripeCount));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(slotCount, stripeCapacity);
+        }
+    }
+
+    /**
+     * Record an operation on some accounts.
+     *
+     * @param waitNanos the time the operation waited for the accounts' locks, attributed to each account
+     * @param accountNumbers the accounts the operation touches; null entries are ignored
+     */
+    public void record(long waitNanos, String... accountNumbers) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long waitMicros = waitNanos / 1000;
+        long epoch = System.currentTimeMillis() / slotMillis;
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber != null) {
+                Stripe stripe = stripeOf(accountNumber);
+                synchronized (stripe) {
+                    Slot slot = stripe.currentSlot(epoch);
+                    slot.operations.offer(accountNumber, 1);
+                    if (waitMicros > 0) {
+                        slot.lockWait.offer(accountNumber, waitMicros);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Report the busiest accounts over the last slot, the last five slots and all kept slots.
+     *
+     * @param top the number of accounts per window, at least 1
+     * @return the report
+     * @throws IllegalArgumentException if top is less than 1
+     */
+    public HotAccountReport report(int top) {
+        if (top < 1) {
+            throw new IllegalArgumentException("Number of accounts per window must be positive, was " + top);
+        }
+        if (!properties.isEnabled()) {
+            return new HotAccountReport(false, List.of());
+        }
+        long epoch = System.currentTimeMillis() / slotMillis;
+        List<Integer> lengths = List.copyOf(new TreeSet<>(List.of(1, Math.min(5, slotCount), slotCount)));
+        List<WindowPart> parts = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.currentSlot(epoch);
+                for (int length : lengths) {
+                    List<Slot> window = new ArrayList<>();
+                    for (Slot slot : stripe.slots) {
+                        if (slot != null && slot.epoch > epoch - length) {
+                            window.add(slot);
+                        }
+                    }
+                    parts.add(new WindowPart(length,
+                            window.stream().mapToLong(slot -> slot.operations.getTotal()).sum(),
+                            window.stream().mapToLong(slot -> slot.lockWait.getTotal()).sum(),
+                            top(window, slot -> slot.operations, top),
+                            top(window, slot -> slot.lockWait, top)));
+                }
+            }
+        }
+
+        List<HotAccountReport.Window> windows = new ArrayList<>();
+        for (int length : lengths) {
+            List<WindowPart> window = parts.stream().filter(part -> part.length == length).toList();
+            windows.add(new HotAccountReport.Window(
+                    Duration.ofMillis(slotMillis * length),
+                    window.stream().mapToLong(WindowPart::operations).sum(),
+                    window.stream().mapToLong(WindowPart::lockWait).sum(),
+                    merge(window, WindowPart::topOperations, top),
+                    merge(window, WindowPart::topLockWait, top)));
+        }
+        return new HotAccountReport(true, windows);
+    }
+
+    /**
+     * Report the busiest accounts with the configured number of accounts per window.
+     *
+     * @return the report
+     */
+    public HotAccountReport report() {
+        return report(properties.getTop());
+    }
+
+    private Stripe stripeOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static List<HotAccountReport.HotAccount> top(List<Slot> window, Function<Slot, SpaceSavingSketch> sketch, int top) {
+        return SpaceSavingSketch.top(window.stream().map(sketch).toList(), top).stream()
+                .map(estimate -> new HotAccountReport.HotAccount(estimate.key(), estimate.weight(), estimate.error()))
+                .toList();
+    }
+
+    private static List<HotAccountReport.HotAccount> merge(List<WindowPart> window,
+                                                           Function<WindowPart, List<HotAccountReport.HotAccount>> accounts, int top) {
+        return window.stream()
+                .flatMap(part -> accounts.apply(part).stream())
+                .sorted(Comparator.comparingLong(HotAccountReport.HotAccount::estimate).reversed())
+                .limit(top)
+                .toList();
+    }
+
+    private static final class Stripe {
+        private final Slot[] slots;
+        private final int capacity;
+
+        private Stripe(int slots, int capacity) {
+            this.slots = new Slot[slots];
+            this.capacity = capacity;
+        }
+
+        private Slot currentSlot(long epoch) {
+            int index = (int) (epoch % slots.length);
+            Slot slot = slots[index];
+            if (slot == null || slot.epoch != epoch) {
+                slot = new Slot(epoch, capacity);
+                slots[index] = slot;
+            }
+            return slot;
+        }
+    }
+
+    private static final class Slot {
+        private final long epoch;
+        private final SpaceSavingSketch operations;
+        private final SpaceSavingSketch lockWait;
+
+        private Slot(long epoch, int capacity) {
+            this.epoch = epoch;
+            this.operations = new SpaceSavingSketch(capacity);
+            this.lockWait = new SpaceSavingSketch(capacity);
+        }
+    }
+
+    /**
+     * One stripe's share of a window.
+     */
+    private record WindowPart(int length, long operations, long lockWait,
+                              List<HotAccountReport.HotAccount> topOperations, List<HotAccountReport.HotAccount> topLockWait) {
+    }
+}
@@ -0,0 +1,215 @@
+package cubeledger.hotaccount;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary of the heaviest keys in a stream.
+ * <p>
+ * At most {@code capacity} keys are tracked. A new key that does not fit replaces the key with the
+ * lowest weight and inherits that weight as its overestimation error. Every key whose true weight
+ * exceeds {@code total / capacity} is guaranteed to be tracked, and the weight reported for a key
+ * exceeds its true weight by at most its error. Counters are kept in a min-heap, so an update is
+ * O(log capacity) and memory is bounded regardless of the number of distinct keys.
+ * <p>
+ * Not thread-safe.
+ */
+public final class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+    private long total;
+
+    /**
+     * Create a sketch.
+     *
+     * @param capacity the number of keys to track
+     */
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    /**
+     * Add weight to a key.
+     *
+     * @param key the key
+     * @param weight the weight to add, not negative
+     */
+    public void offer(String key, long weight) {
+        total += weight;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.weight += weight;
+            siftDown(counter.index);
+            return;
+        }
+
+        if (size < capacity) {
+            counter = new Counter(key, weight, 0);
+            counter.index = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.index);
+            return;
+        }
+
+        // Replace the lightest key; the new key may have been seen up to that many times before
+        counter = heap[0];
+        counters.remove(counter.key);
+        counter.key = key;
+        counter.error = counter.weight;
+        counter.weight += weight;
+        counters.put(key, counter);
+        siftDown(0);
+    }
+
+    /**
+     * Get the heaviest keys.
+     *
+     * @param n the maximum number of keys to return
+     * @return the keys with their estimated weights, heaviest first
+     */
+    public List<Estimate> top(int n) {
+        Counter[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, Comparator.comparingLong((Counter counter) -> counter.weight).reversed());
+        List<Estimate> top = new ArrayList<>(Math.min(n, size));
+        for (int i = 0; i < Math.min(n, size); i++) {
+            top.add(new Estimate(sorted[i].key, sorted[i].weight, sorted[i].error));
+        }
+        return top;
+    }
+
+    /**
+     * Get the estimated weight of a key.
+     *
+     * @param key the key
+     * @return the estimate, or null if the key is not tracked
+     */
+    public Estimate get(String key) {
+        Counter counter = counters.get(key);
+        return counter != null ? new Estimate(counter.key, counter.weight, counter.error) : null;
+    }
+
+    /**
+     * Get the weight of the lightest tracked key, which bounds the weight of any untracked key.
+     *
+     * @return the minimum tracked weight, or 0 while the sketch is not full
+     */
+    public long getMinWeight() {
+        return size < capacity ? 0 : heap[0].weight;
+    }
+
+    /**
+     * Get the total weight offered.
+     *
+     * @return the sum of all weights
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the heaviest keys of several sketches combined, such as sketches of consecutive time slots.
+     * <p>
+     * A key missing from a sketch may still have been seen up to that sketch's minimum weight times,
+     * so that minimum is added to both its weight and its error. The combined estimates keep the
+     * guarantee that the true weight lies between {@code weight - error} and {@code weight}.
+     *
+     * @param sketches the sketches to combine
+     * @param n the maximum number of keys to return
+     * @return the keys with their combined estimated weights, heaviest first
+     */
+    public static List<Estimate> top(List<SpaceSavingSketch> sketches, int n) {
+        Map<String, long[]> combined = new HashMap<>();
+        long missingWeight = 0;
+        for (SpaceSavingSketch sketch : sketches) {
+            long minWeight = sketch.getMinWeight();
+            for (int i = 0; i < sketch.size; i++) {
+                Counter counter = sketch.heap[i];
+                long[] estimate = combined.computeIfAbsent(counter.key, key -> new long[2]);
+                // Undo the minimum added below, since this sketch tracks the key
+                estimate[0] += counter.weight - minWeight;
+                estimate[1] += counter.error - minWeight;
+            }
+            missingWeight += minWeight;
+        }
+
+        long total = missingWeight;
+        return combined.entrySet().stream()
+                .map(entry -> new Estimate(entry.getKey(), entry.getValue()[0] + total, entry.getValue()[1] + total))
+                .sorted(Comparator.comparingLong(Estimate::weight).reversed())
+                .limit(n)
+                .toList();
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].weight <= counter.weight) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].weight < heap[child].weight) {
+                child++;
+            }
+            if (counter.weight <= heap[child].weight) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    /**
+     * Estimated weight of a key.
+     *
+     * @param key the key
+     * @param weight the estimated weight, at least the true weight
+     * @param error the maximum overestimation; the true weight is at least {@code weight - error}
+     */
+    public record Estimate(String key, long weight, long error) {
+    }
+
+    private static final class Counter {
+        private String key;
+        private long weight;
+        private long error;
+        private int index;
+
+        private Counter(String key, long weight, long error) {
+            this.key = key;
+            this.weight = weight;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package cubeledger.limits;
+
+import cubeledger.model.Currency;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for limiting how much can leave an account through withdrawals and transfers.
+ */
+@ConfigurationProperties(prefix = "cubeledger.outflow-limits")
+public class OutflowLimitProperties {
+
+    /**
+     * Whether withdrawals and transfers are checked against the outflow limits.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Currency the maximum outflows are expressed in. They are converted to each account's currency when checked.
+     */
+    private Currency currency = Currency.SEK;
+
+    /**
+     * Limited windows by name, for example hourly and daily.
+     */
+    private Map<String, Window> windows = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    public Map<String, Window> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(Map<String, Window> windows) {
+        this.windows = windows;
+    }
+
+    /**
+     * A sliding window with a maximum outflow.
+     */
+    public static class Window {
+
+        /**
+         * Length of the window.
+         */
+        private Duration length = Duration.ofHours(1);
+
+        /**
+         * Number of buckets the window is divided into. Outflow leaves the window one bucket at a time.
+         */
+        private int buckets = 12;
+
+        /**
+         * Maximum amount that can leave an account within the window.
+         */
+        private BigDecimal maxOutflow;
+
+        public Duration getLength() {
+            return length;
+        }
+
+        public void setLength(Duration length) {
+            this.length = length;
+        }
+
+        public int getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(int buckets) {
+            this.buckets = buckets;
+        }
+
+        public BigDecimal getMaxOutflow() {
+            return maxOutflow;
+        }
+
+        public void setMaxOutflow(BigDecimal maxOutflow) {
+            this.maxOutflow = maxOutflow;
+        }
+    }
+}
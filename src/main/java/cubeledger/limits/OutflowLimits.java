@@ -0,0 +1,351 @@
+package cubeledger.limits;
+
+import cubeledger.fx.FxRateMatrix;
+import cubeledger.fx.FxRateService;
+import cubeledger.model.Currency;
+import cubeledger.service.TransactionResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks how much has left each account over sliding windows and rejects withdrawals, transfers and
+ * hold captures that would exceed a window's maximum outflow.
+ * <p>
+ * Outflow is counted in memory, in a ring of buckets per window and account, so a check costs no
+ * query. Only accounts with outflow in the longest window are tracked. The counters are rebuilt from
+ * the recent transactions once the application has started, and every outflow counted since then is
+ * taken back if its transaction rolls back. An account that has already used up a window is
+ * rejected before its locks are taken; otherwise the limit is checked and the outflow counted under
+ * the account's lock, once the amount is known in the account currency.
+ * <p>
+ * The maximum outflows can be changed at runtime; the windows themselves are fixed at startup.
+ * Each instance counts only the outflow it processes, so in cluster mode an account's limits hold
+ * as long as the account is served by its owner.
+ */
+@Component
+public class OutflowLimits {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutflowLimits.class);
+
+    private static final int AMOUNT_SCALE = 2;
+
+    private final FxRateService fxRateService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Currency limitCurrency;
+    private final List<String> windowNames = new ArrayList<>();
+    private final List<OutflowLimitProperties.Window> windows = new ArrayList<>();
+    private final long longestWindowMillis;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Map<String, AccountOutflow> outflows = new ConcurrentHashMap<>();
+    private final Counter rejections;
+    private volatile BigDecimal[] maxOutflows;
+    private volatile boolean enabled;
+
+    public OutflowLimits(OutflowLimitProperties properties, FxRateService fxRateService, DataSource dataSource, MeterRegistry registry) {
+        this.fxRateService = fxRateService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.limitCurrency = properties.getCurrency();
+        this.enabled = properties.isEnabled();
+
+        long longest = 0;
+        List<BigDecimal> limits = new ArrayList<>();
+        for (Map.Entry<String, OutflowLimitProperties.Window> entry : properties.getWindows().entrySet()) {
+            OutflowLimitProperties.Window window = entry.getValue();
+            validateMaxOutflow(entry.getKey(), window.getMaxOutflow());
+            if (window.getBuckets() < 1 || window.getLength().toMillis() < window.getBuckets()) {
+                throw new IllegalArgumentException("Window " + entry.getKey() + " must have at least one bucket of at least one millisecond");
+            }
+            windowNames.add(entry.getKey());
+            windows.add(window);
+            limits.add(window.getMaxOutflow());
+            longest = Math.max(longest, window.getLength().toMillis());
+        }
+        this.longestWindowMillis = longest;
+        this.maxOutflows = limits.toArray(BigDecimal[]::new);
+
+        this.rejections = Counter.builder("cubeledger.outflow-limits.rejections")
+                .description("Number of withdrawals and transfers rejected for exceeding an outflow limit")
+                .register(registry);
+        Gauge.builder("cubeledger.outflow-limits.accounts", outflows, Map::size)
+                .description("Number of accounts with outflow in the limited windows")
+                .register(registry);
+    }
+
+    /**
+     * Rebuild the outflow of every account from the transactions in the longest window before startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (windows.isEmpty()) {
+            return;
+        }
+        long[] rows = new long[1];
+        jdbcTemplate.query("SELECT a.account_number, a.currency, t.timestamp, COALESCE(t.source_amount, t.amount) "
+                        + "FROM transactions t JOIN accounts a ON a.id = t.source_account_id "
+                        + "WHERE t.timestamp >= ? AND t.timestamp < ?",
+                rs -> {
+                    add(rs.getString(1), Currency.valueOf(rs.getString(2)), rs.getTimestamp(3).getTime(),
+                            toMinorUnits(rs.getBigDecimal(4)));
+                    rows[0]++;
+                },
+                startedAt.minus(Duration.ofMillis(longestWindowMillis)), startedAt);
+        logger.info("Rebuilt outflow limits of {} accounts from {} transactions", outflows.size(), rows[0]);
+    }
+
+    /**
+     * Check a withdrawal or transfer against the outflow already counted, before its accounts are locked.
+     * Only accounts with outflow in the windows can be rejected here; the check is repeated when the
+     * outflow is reserved.
+     *
+     * @param accountNumber the source account number
+     * @param amount the requested amount
+     * @param currency the currency of the requested amount
+     * @return the exceeded limit, or null if the request may go ahead
+     */
+    public TransactionResult.OutflowLimitExceeded check(String accountNumber, BigDecimal amount, Currency currency) {
+        AccountOutflow outflow = outflows.get(accountNumber);
+        if (!enabled || outflow == null || amount == null || amount.signum() <= 0) {
+            return null;
+        }
+        FxRateMatrix rates = fxRateService.getRates();
+        if (!rates.isSupported(currency)) {
+            return null;
+        }
+        long requested = toMinorUnits(rates.convert(amount, currency, outflow.currency));
+        TransactionResult.OutflowLimitExceeded rejection = exceeded(accountNumber, outflow, System.currentTimeMillis(), requested);
+        if (rejection != null) {
+            rejections.increment();
+        }
+        return rejection;
+    }
+
+    /**
+     * Count an outflow against the account's limits unless it would exceed one. Must be called while
+     * holding the account's lock; the outflow is taken back if the current transaction rolls back.
+     *
+     * @param accountNumber the source account number
+     * @param accountCurrency the account currency
+     * @param amount the amount leaving the account, in the account currency
+     * @return the exceeded limit, or null if the outflow was counted
+     */
+    public TransactionResult.OutflowLimitExceeded reserve(String accountNumber, Currency accountCurrency, BigDecimal amount) {
+        return count(accountNumber, accountCurrency, amount, enabled);
+    }
+
+    private TransactionResult.OutflowLimitExceeded count(String accountNumber, Currency accountCurrency, BigDecimal amount, boolean check) {
+        if (windows.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        long requested = toMinorUnits(amount);
+        TransactionResult.OutflowLimitExceeded[] rejection = new TransactionResult.OutflowLimitExceeded[1];
+        outflows.compute(accountNumber, (key, existing) -> {
+            AccountOutflow outflow = existing != null ? existing : new AccountOutflow(accountCurrency);
+            rejection[0] = check ? exceeded(accountNumber, outflow, now, requested) : null;
+            if (rejection[0] != null) {
+                return existing;
+            }
+            outflow.add(now, requested);
+            return outflow;
+        });
+        if (rejection[0] != null) {
+            rejections.increment();
+            return rejection[0];
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        outflows.computeIfPresent(accountNumber, (key, outflow) -> {
+                            outflow.add(now, -requested);
+                            return outflow;
+                        });
+                    }
+                }
+            });
+        }
+        return null;
+    }
+
+    private void add(String accountNumber, Currency accountCurrency, long timeMillis, long amount) {
+        outflows.compute(accountNumber, (key, existing) -> {
+            AccountOutflow outflow = existing != null ? existing : new AccountOutflow(accountCurrency);
+            outflow.add(timeMillis, amount);
+            return outflow;
+        });
+    }
+
+    private TransactionResult.OutflowLimitExceeded exceeded(String accountNumber, AccountOutflow outflow, long now, long requested) {
+        FxRateMatrix rates = fxRateService.getRates();
+        BigDecimal[] limits = maxOutflows;
+        long[] used = outflow.used(now);
+        for (int i = 0; i < used.length; i++) {
+            BigDecimal limit = rates.convert(limits[i], limitCurrency, outflow.currency);
+            if (used[i] + requested > toMinorUnits(limit)) {
+                return new TransactionResult.OutflowLimitExceeded(accountNumber, windowNames.get(i), limit,
+                        fromMinorUnits(used[i]), fromMinorUnits(requested));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stop tracking accounts that have no outflow left in any window.
+     */
+    @Scheduled(fixedDelayString = "${cubeledger.outflow-limits.eviction-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (String accountNumber : outflows.keySet()) {
+            outflows.computeIfPresent(accountNumber, (key, outflow) -> outflow.isEmpty(now) ? null : outflow);
+        }
+    }
+
+    /**
+     * Get the outflow of an account in each window.
+     *
+     * @param accountNumber the account number
+     * @return the outflow in the account currency by window name, empty if the account has none
+     */
+    public Map<String, BigDecimal> getUsage(String accountNumber) {
+        Map<String, BigDecimal> usage = new LinkedHashMap<>();
+        AccountOutflow outflow = outflows.get(accountNumber);
+        if (outflow != null) {
+            long[] used = outflow.used(System.currentTimeMillis());
+            for (int i = 0; i < used.length; i++) {
+                usage.put(windowNames.get(i), fromMinorUnits(used[i]));
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * Get the limited windows.
+     *
+     * @return the length, number of buckets and maximum outflow of each window, by window name
+     */
+    public Map<String, Map<String, Object>> getWindows() {
+        BigDecimal[] limits = maxOutflows;
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (int i = 0; i < windows.size(); i++) {
+            Map<String, Object> window = new LinkedHashMap<>();
+            window.put("length", windows.get(i).getLength());
+            window.put("buckets", windows.get(i).getBuckets());
+            window.put("maxOutflow", limits[i]);
+            result.put(windowNames.get(i), window);
+        }
+        return result;
+    }
+
+    /**
+     * Change the maximum outflow of a window. Takes effect for the next withdrawal or transfer.
+     *
+     * @param window the window name
+     * @param maxOutflow the new maximum outflow, in the limit currency
+     * @throws IllegalArgumentException if the window does not exist or the maximum is not positive
+     */
+    public synchronized void setMaxOutflow(String window, BigDecimal maxOutflow) {
+        int index = windowNames.indexOf(window);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown outflow limit window: " + window);
+        }
+        validateMaxOutflow(window, maxOutflow);
+        BigDecimal[] limits = Arrays.copyOf(maxOutflows, maxOutflows.length);
+        limits[index] = maxOutflow;
+        maxOutflows = limits;
+        logger.info("Maximum {} outflow set to {} {}", window, maxOutflow, limitCurrency);
+    }
+
+    public Currency getLimitCurrency() {
+        return limitCurrency;
+    }
+
+    public int getTrackedAccounts() {
+        return outflows.size();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private static void validateMaxOutflow(String window, BigDecimal maxOutflow) {
+        if (maxOutflow == null || maxOutflow.signum() <= 0) {
+            throw new IllegalArgumentException("Maximum outflow of window " + window + " must be positive");
+        }
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromMinorUnits(long amount) {
+        return BigDecimal.valueOf(amount, AMOUNT_SCALE);
+    }
+
+    /**
+     * Outflow of one account, one sum per window.
+     */
+    private final class AccountOutflow {
+
+        private final Currency currency;
+        private final SlidingWindowSum[] sums;
+
+        AccountOutflow(Currency currency) {
+            this.currency = currency;
+            this.sums = new SlidingWindowSum[windows.size()];
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] = new SlidingWindowSum(windows.get(i).getLength().toMillis(), windows.get(i).getBuckets());
+            }
+        }
+
+        synchronized void add(long timeMillis, long amount) {
+            for (SlidingWindowSum sum : sums) {
+                sum.add(timeMillis, amount);
+            }
+        }
+
+        synchronized long[] used(long nowMillis) {
+            long[] used = new long[sums.length];
+            for (int i = 0; i < sums.length; i++) {
+                used[i] = sums[i].sum(nowMillis);
+            }
+            return used;
+        }
+
+        synchronized boolean isEmpty(long nowMillis) {
+            for (SlidingWindowSum sum : sums) {
+                if (sum.sum(nowMillis) > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
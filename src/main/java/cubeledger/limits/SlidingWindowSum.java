@@ -0,0 +1,81 @@
+package cubeledger.limits;
+
+import java.util.Arrays;
+
+/**
+ * Sum of amounts over a sliding time window, kept in a ring of fixed-width buckets.
+ * <p>
+ * The window is the current bucket and the buckets before it, so an amount counts towards the sum
+ * for between one bucket width less than the window and the whole window after its time. Limits
+ * checked against the sum are therefore enforced at the granularity of a bucket. Not thread-safe.
+ */
+public final class SlidingWindowSum {
+
+    private final long bucketMillis;
+    private final long[] buckets;
+    private long currentBucket = Long.MIN_VALUE;
+    private long total;
+
+    /**
+     * Create an empty sum.
+     *
+     * @param windowMillis the length of the window in milliseconds
+     * @param bucketCount the number of buckets the window is divided into
+     */
+    public SlidingWindowSum(long windowMillis, int bucketCount) {
+        if (bucketCount < 1 || windowMillis < bucketCount) {
+            throw new IllegalArgumentException("Window must have at least one bucket of at least one millisecond");
+        }
+        this.bucketMillis = windowMillis / bucketCount;
+        this.buckets = new long[bucketCount];
+    }
+
+    /**
+     * Add an amount at a time. Amounts older than the window are ignored; negative amounts take back an earlier addition.
+     *
+     * @param timeMillis the time of the amount in epoch milliseconds
+     * @param amount the amount
+     */
+    public void add(long timeMillis, long amount) {
+        long bucket = Math.floorDiv(timeMillis, bucketMillis);
+        if (bucket > currentBucket) {
+            advanceTo(bucket);
+        } else if (bucket <= currentBucket - buckets.length) {
+            return;
+        }
+        buckets[index(bucket)] += amount;
+        total += amount;
+    }
+
+    /**
+     * Get the sum of the amounts in the window ending at a time.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the sum
+     */
+    public long sum(long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, bucketMillis);
+        if (bucket > currentBucket) {
+            advanceTo(bucket);
+        }
+        return total;
+    }
+
+    private void advanceTo(long bucket) {
+        if (currentBucket == Long.MIN_VALUE || bucket - currentBucket >= buckets.length) {
+            Arrays.fill(buckets, 0);
+            total = 0;
+        } else {
+            for (long expired = currentBucket + 1; expired <= bucket; expired++) {
+                int index = index(expired);
+                total -= buckets[index];
+                buckets[index] = 0;
+            }
+        }
+        currentBucket = bucket;
+    }
+
+    private int index(long bucket) {
+        return Math.floorMod(bucket, buckets.length);
+    }
+}
@@ -0,0 +1,120 @@
+package cubeledger.loadshedding;
+
+import cubeledger.exception.ServiceOverloadedException;
+import cubeledger.warmup.WarmupContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sheds account service calls beyond an adaptive concurrency limit.
+ * <p>
+ * When the database slows down, admitting every request only lengthens the queue for connections
+ * and row locks until all clients time out together. Instead, calls are admitted while fewer than
+ * the current limit are in flight and rejected immediately otherwise. The limit follows the observed
+ * latency through a {@link GradientLimit}, so it shrinks as soon as queueing shows up in response
+ * times and grows back when it clears. Read-only calls may only use part of the limit, so they are
+ * shed before calls that move funds. Warm-up calls are neither limited nor sampled, since their
+ * latency says nothing about the load.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Permit UNLIMITED = () -> { };
+
+    private final LoadSheddingProperties properties;
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter writeRejections;
+    private final Counter readRejections;
+
+    public AdaptiveConcurrencyLimiter(LoadSheddingProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.limit = new GradientLimit(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getRttTolerance(),
+                properties.getSmoothing(),
+                properties.getWindow().toNanos(),
+                properties.getMinWindowSamples(),
+                properties.getLongWindow(),
+                System.nanoTime());
+
+        Gauge.builder("cubeledger.loadshedding.limit", limit, GradientLimit::getLimit)
+                .description("Current concurrency limit of account service calls")
+                .register(registry);
+        Gauge.builder("cubeledger.loadshedding.inflight", inFlight, AtomicInteger::get)
+                .description("Number of account service calls in flight")
+                .register(registry);
+        this.writeRejections = Counter.builder("cubeledger.loadshedding.rejected")
+                .description("Number of account service calls rejected by load shedding")
+                .tag("priority", "write")
+                .register(registry);
+        this.readRejections = Counter.builder("cubeledger.loadshedding.rejected")
+                .description("Number of account service calls rejected by load shedding")
+                .tag("priority", "read")
+                .register(registry);
+    }
+
+    /**
+     * Admit a call.
+     *
+     * @param priority the priority of the call
+     * @return a permit that must be released when the call completes
+     * @throws ServiceOverloadedException if the call is over the limit for its priority
+     */
+    public Permit acquire(Priority priority) {
+        if (!properties.isEnabled() || WarmupContext.isActive()) {
+            return UNLIMITED;
+        }
+        int currentLimit = limit.getLimit();
+        if (priority == Priority.READ) {
+            currentLimit = Math.max(1, (int) (currentLimit * properties.getReadShare()));
+        }
+
+        int admitted;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                (priority == Priority.READ ? readRejections : writeRejections).increment();
+                throw new ServiceOverloadedException(current);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted = current + 1;
+                break;
+            }
+        }
+
+        long start = System.nanoTime();
+        return () -> {
+            inFlight.decrementAndGet();
+            long now = System.nanoTime();
+            limit.addSample(now - start, admitted, now);
+        };
+    }
+
+    /**
+     * Get the current concurrency limit.
+     *
+     * @return the maximum number of calls in flight
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * A call admitted by the limiter.
+     */
+    @FunctionalInterface
+    public interface Permit {
+
+        /**
+         * Mark the call as completed and record its latency.
+         */
+        void release();
+    }
+}
@@ -0,0 +1,119 @@
+package cubeledger.loadshedding;
+
+/**
+ * Latency-driven concurrency limit, in the style of the gradient algorithm.
+ * <p>
+ * The limit is adjusted once per sample window. The average latency of the window is compared with a
+ * long-term average: while the two are close the limit grows by a queue allowance of
+ * {@code sqrt(limit)}, and when the window is slower the limit is scaled down by the ratio of the
+ * two, but by no more than half per window. The long-term average follows the window averages
+ * slowly, so a lasting change in latency becomes the new normal, and drops faster once latency
+ * falls well below it, so that a past slowdown does not mask the next one. The limit is not raised while fewer than half of the permits are
+ * in use, since such windows say nothing about higher concurrency.
+ * <p>
+ * Thread-safe. Reading the limit is a volatile read; samples are aggregated under a lock.
+ */
+public final class GradientLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final int longWindowSamples;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRtt;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    /**
+     * Create a limit.
+     *
+     * @param initialLimit the limit to start with
+     * @param minLimit the lowest limit
+     * @param maxLimit the highest limit
+     * @param tolerance how much slower than the long-term average a window may be before the limit is reduced, at least 1
+     * @param smoothing the weight of each window's estimate in the limit, between 0 and 1
+     * @param windowNanos the minimum duration of a sample window
+     * @param minWindowSamples the minimum number of samples in a window
+     * @param longWindowSamples the number of samples the long-term average spans
+     * @param now the current time in nanoseconds
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                         long windowNanos, int minWindowSamples, int longWindowSamples, long now) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1 || smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Invalid limit configuration");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = Math.max(1, minWindowSamples);
+        this.longWindowSamples = Math.max(1, longWindowSamples);
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+        this.windowStart = now;
+    }
+
+    /**
+     * Get the current limit.
+     *
+     * @return the maximum number of requests to have in flight
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Record the latency of a completed request.
+     *
+     * @param rttNanos the latency of the request
+     * @param inFlight the number of requests in flight when it started, including itself
+     * @param now the current time in nanoseconds
+     */
+    public synchronized void addSample(long rttNanos, int inFlight, long now) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        if (now - windowStart < windowNanos || windowSamples < minWindowSamples) {
+            return;
+        }
+
+        double shortRtt = Math.max(1, (double) windowRttSum / windowSamples);
+        int maxInFlight = windowMaxInFlight;
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        update(shortRtt, maxInFlight);
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            double factor = 2.0 / (longWindowSamples + 1);
+            longRtt = longRtt * (1 - factor) + shortRtt * factor;
+        }
+        // Latency is back well below the baseline after a slowdown; let the baseline follow it down faster
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
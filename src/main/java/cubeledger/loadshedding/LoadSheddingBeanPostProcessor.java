@@ -0,0 +1,79 @@
+package cubeledger.loadshedding;
+
+import cubeledger.service.AccountServiceImpl;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts the {@link AdaptiveConcurrencyLimiter} in front of {@link AccountServiceImpl}.
+ * <p>
+ * The advice is added before the transaction advice, so a shed call is rejected before it takes a
+ * connection. Methods with a read-only {@link Transactional} annotation are {@link Priority#READ};
+ * all others, including the write operations that manage their own transactions, are
+ * {@link Priority#WRITE}. Every caller of the service is covered, including the TCP server and
+ * background jobs.
+ */
+@Component
+public class LoadSheddingBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public LoadSheddingBeanPostProcessor(ObjectProvider<AdaptiveConcurrencyLimiter> limiter) {
+        // The limiter is looked up on first use, so creating this post-processor does not create it early
+        this.advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(AccountServiceImpl.class)),
+                new LoadSheddingInterceptor(limiter));
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static final class LoadSheddingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<AdaptiveConcurrencyLimiter> limiterProvider;
+        private final Map<Method, Priority> priorities = new ConcurrentHashMap<>();
+        private volatile AdaptiveConcurrencyLimiter limiter;
+
+        private LoadSheddingInterceptor(ObjectProvider<AdaptiveConcurrencyLimiter> limiterProvider) {
+            this.limiterProvider = limiterProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            Priority priority = priorities.computeIfAbsent(invocation.getMethod(), this::priorityOf);
+            AdaptiveConcurrencyLimiter.Permit permit = limiter().acquire(priority);
+            try {
+                return invocation.proceed();
+            } finally {
+                permit.release();
+            }
+        }
+
+        private Priority priorityOf(Method method) {
+            Method implementation = AopUtils.getMostSpecificMethod(method, AccountServiceImpl.class);
+            Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(implementation, Transactional.class);
+            return transactional != null && transactional.readOnly() ? Priority.READ : Priority.WRITE;
+        }
+
+        private AdaptiveConcurrencyLimiter limiter() {
+            AdaptiveConcurrencyLimiter current = limiter;
+            if (current == null) {
+                current = limiterProvider.getObject();
+                limiter = current;
+            }
+            return current;
+        }
+    }
+}
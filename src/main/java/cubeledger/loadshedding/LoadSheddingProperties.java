@@ -0,0 +1,142 @@
+package cubeledger.loadshedding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for adaptive load shedding of account service calls.
+ */
+@ConfigurationProperties(prefix = "cubeledger.load-shedding")
+public class LoadSheddingProperties {
+
+    /**
+     * Whether account service calls are subject to the adaptive concurrency limit.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Concurrency limit to start with.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * Lowest concurrency limit.
+     */
+    private int minLimit = 4;
+
+    /**
+     * Highest concurrency limit.
+     */
+    private int maxLimit = 200;
+
+    /**
+     * How much slower than normal requests may get before the limit is reduced, as a ratio.
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * Weight of each new estimate in the limit, between 0 and 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Minimum duration of a latency sample window.
+     */
+    private Duration window = Duration.ofMillis(100);
+
+    /**
+     * Minimum number of requests in a latency sample window.
+     */
+    private int minWindowSamples = 10;
+
+    /**
+     * Number of windows the normal latency is averaged over.
+     */
+    private int longWindow = 600;
+
+    /**
+     * Share of the limit available to read-only requests.
+     */
+    private double readShare = 0.5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMinWindowSamples() {
+        return minWindowSamples;
+    }
+
+    public void setMinWindowSamples(int minWindowSamples) {
+        this.minWindowSamples = minWindowSamples;
+    }
+
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    public double getReadShare() {
+        return readShare;
+    }
+
+    public void setReadShare(double readShare) {
+        this.readShare = readShare;
+    }
+}
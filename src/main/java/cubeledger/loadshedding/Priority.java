@@ -0,0 +1,16 @@
+package cubeledger.loadshedding;
+
+/**
+ * Enum representing the priority of a request under load shedding.
+ */
+public enum Priority {
+    /**
+     * Requests that move funds; admitted up to the full limit
+     */
+    WRITE,
+
+    /**
+     * Read-only requests; admitted up to a share of the limit, so they are shed first
+     */
+    READ
+}
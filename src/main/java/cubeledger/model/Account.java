@@ -23,6 +23,10 @@ public class Account {
     @Column(nullable = false)
     private BigDecimal balance;
 
+    // Funds reserved by active holds, included in the balance but not available
+    @Column(name = "held_amount", nullable = false)
+    private BigDecimal heldAmount;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 3)
     private Currency currency;
@@ -33,12 +37,17 @@ public class Account {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Sequence number of the account's latest transaction; an account's transactions are numbered without gaps
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
     @Version
     private Long version;
 
     // Default constructor required by JPA
     public Account() {
         this.balance = BigDecimal.ZERO;
+        this.heldAmount = BigDecimal.ZERO;
         this.currency = Currency.SEK; // Default currency
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -81,6 +90,24 @@ public class Account {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public BigDecimal getHeldAmount() {
+        return heldAmount;
+    }
+
+    public void setHeldAmount(BigDecimal heldAmount) {
+        this.heldAmount = heldAmount;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Get the part of the balance that is not reserved by holds.
+     *
+     * @return the available balance
+     */
+    public BigDecimal getAvailableBalance() {
+        return balance.subtract(heldAmount);
+    }
+
     public Currency getCurrency() {
         return currency;
     }
@@ -106,6 +133,20 @@ public class Account {
         this.updatedAt = updatedAt;
     }
 
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Take the next sequence number for a transaction of this account.
+     * The account row must be locked, so no other transaction takes the same number.
+     *
+     * @return the sequence number
+     */
+    public long nextSeq() {
+        return ++lastSeq;
+    }
+
     public Long getVersion() {
         return version;
     }
@@ -134,6 +175,7 @@ public class Account {
                 "id=" + id +
                 ", accountNumber='" + accountNumber + '\'' +
                 ", balance=" + balance +
+                ", heldAmount=" + heldAmount +
                 ", currency=" + currency +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
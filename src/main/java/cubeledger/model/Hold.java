@@ -0,0 +1,162 @@
+package cubeledger.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity representing a hold that reserves funds on an account.
+ * The held amount stays part of the account balance but is not available for withdrawals
+ * or transfers until the hold is captured, released or expires.
+ */
+@Entity
+@Table(name = "holds")
+public class Hold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Refers to the account by id, so that loading a hold never loads the account without its lock
+    @Column(nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    // Amount in the account currency
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 3)
+    private Currency currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private HoldStatus status;
+
+    @Column(length = 255)
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime closedAt;
+
+    private BigDecimal capturedAmount;
+
+    private Long transactionId;
+
+    // Default constructor required by JPA
+    public Hold() {
+        this.status = HoldStatus.ACTIVE;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Hold(Account account, BigDecimal amount, LocalDateTime expiresAt, String description) {
+        this();
+        this.accountId = account.getId();
+        this.accountNumber = account.getAccountNumber();
+        this.amount = amount;
+        this.currency = account.getCurrency();
+        this.expiresAt = expiresAt;
+        this.description = description;
+    }
+
+    /**
+     * Close the hold.
+     *
+     * @param status the final status
+     */
+    public void close(HoldStatus status) {
+        this.status = status;
+        this.closedAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public BigDecimal getCapturedAmount() {
+        return capturedAmount;
+    }
+
+    public void setCapturedAmount(BigDecimal capturedAmount) {
+        this.capturedAmount = capturedAmount;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Hold hold = (Hold) o;
+        return Objects.equals(id, hold.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Hold{" +
+                "id=" + id +
+                ", accountNumber='" + accountNumber + '\'' +
+                ", amount=" + amount +
+                ", currency=" + currency +
+                ", status=" + status +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
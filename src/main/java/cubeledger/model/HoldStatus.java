@@ -0,0 +1,26 @@
+package cubeledger.model;
+
+/**
+ * Enum representing the lifecycle of a funds hold.
+ */
+public enum HoldStatus {
+    /**
+     * The funds are reserved on the account
+     */
+    ACTIVE,
+
+    /**
+     * The hold was settled and all or part of the funds were debited
+     */
+    CAPTURED,
+
+    /**
+     * The hold was cancelled and the funds are available again
+     */
+    RELEASED,
+
+    /**
+     * The hold was not captured or released before it expired
+     */
+    EXPIRED
+}
@@ -0,0 +1,118 @@
+package cubeledger.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity representing an entry in the transactional outbox.
+ * One entry is written in the same database transaction as each {@link Transaction} and
+ * carries a denormalized copy of it, so the change feed can be served without joins.
+ */
+@Entity
+@Table(name = "outbox")
+public class OutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    private String sourceAccountNumber;
+
+    private String targetAccountNumber;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 3)
+    private Currency currency;
+
+    @Column(length = 255)
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor required by JPA
+    public OutboxEntry() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public OutboxEntry(Transaction transaction) {
+        this();
+        this.transactionId = transaction.getId();
+        this.type = transaction.getType();
+        this.sourceAccountNumber = transaction.getSourceAccount() != null ? transaction.getSourceAccount().getAccountNumber() : null;
+        this.targetAccountNumber = transaction.getTargetAccount() != null ? transaction.getTargetAccount().getAccountNumber() : null;
+        this.amount = transaction.getAmount();
+        this.currency = transaction.getCurrency();
+        this.description = transaction.getDescription();
+        this.occurredAt = transaction.getTimestamp();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public String getSourceAccountNumber() {
+        return sourceAccountNumber;
+    }
+
+    public String getTargetAccountNumber() {
+        return targetAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEntry that = (OutboxEntry) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,45 @@
+package cubeledger.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Enum representing how often a scheduled transfer runs.
+ */
+public enum ScheduleFrequency {
+    /**
+     * Runs once at its first run time
+     */
+    ONCE,
+
+    /**
+     * Runs every day at the time of its first run
+     */
+    DAILY,
+
+    /**
+     * Runs every week on the weekday and time of its first run
+     */
+    WEEKLY,
+
+    /**
+     * Runs every month on the day and time of its first run, or on the last day of shorter months
+     */
+    MONTHLY;
+
+    /**
+     * Compute the time of an occurrence. Occurrences are computed from the first run rather than
+     * from the previous occurrence, so a schedule on the 31st does not drift after a short month.
+     *
+     * @param firstRunAt the time of the first run
+     * @param occurrence the number of the occurrence, 0 for the first run
+     * @return the time of the occurrence, or null if the schedule has no such occurrence
+     */
+    public LocalDateTime occurrence(LocalDateTime firstRunAt, int occurrence) {
+        return switch (this) {
+            case ONCE -> occurrence == 0 ? firstRunAt : null;
+            case DAILY -> firstRunAt.plusDays(occurrence);
+            case WEEKLY -> firstRunAt.plusWeeks(occurrence);
+            case MONTHLY -> firstRunAt.plusMonths(occurrence);
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package cubeledger.model;
+
+/**
+ * Enum representing the outcome of one attempt of a scheduled transfer.
+ */
+public enum ScheduledRunOutcome {
+    /**
+     * The transfer was posted
+     */
+    SUCCEEDED,
+
+    /**
+     * The source account had insufficient funds and the run will be retried
+     */
+    RETRYING,
+
+    /**
+     * The source account had insufficient funds on every attempt and the occurrence was skipped
+     */
+    MISSED,
+
+    /**
+     * The transfer was rejected and the schedule was stopped
+     */
+    FAILED
+}
@@ -0,0 +1,269 @@
+package cubeledger.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity representing a one-off or recurring transfer between two accounts.
+ * <p>
+ * {@code nextRunAt} is the time of the occurrence to run next and {@code dueAt} is when the next
+ * attempt is made; they differ while a run that failed for insufficient funds is being retried.
+ * A node that claims the schedule sets a lease, so that no other node runs it until the lease ends.
+ */
+@Entity
+@Table(name = "scheduled_transfers")
+public class ScheduledTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String sourceAccountNumber;
+
+    @Column(nullable = false)
+    private String targetAccountNumber;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 3)
+    private Currency currency;
+
+    @Column(length = 255)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduleFrequency frequency;
+
+    @Column(nullable = false)
+    private LocalDateTime firstRunAt;
+
+    private LocalDateTime endAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduledTransferStatus status;
+
+    // Number of the occurrence to run next, 0 for the first run
+    @Column(nullable = false)
+    private int occurrence;
+
+    @Column(nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+
+    // Number of failed attempts of the current occurrence
+    @Column(nullable = false)
+    private int attempts;
+
+    private String leaseOwner;
+
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime lastRunAt;
+
+    @Enumerated(EnumType.STRING)
+    private ScheduledRunOutcome lastOutcome;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor required by JPA
+    public ScheduledTransfer() {
+        this.status = ScheduledTransferStatus.ACTIVE;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public ScheduledTransfer(String sourceAccountNumber, String targetAccountNumber, BigDecimal amount, Currency currency,
+                             String description, ScheduleFrequency frequency, LocalDateTime firstRunAt, LocalDateTime endAt) {
+        this();
+        this.sourceAccountNumber = sourceAccountNumber;
+        this.targetAccountNumber = targetAccountNumber;
+        this.amount = amount;
+        this.currency = currency;
+        this.description = description;
+        this.frequency = frequency;
+        this.firstRunAt = firstRunAt;
+        this.endAt = endAt;
+        this.nextRunAt = firstRunAt;
+        this.dueAt = firstRunAt;
+    }
+
+    /**
+     * Check whether a node holds the lease on the current attempt.
+     *
+     * @param owner the node
+     * @param runAt the occurrence the node claimed
+     * @return true if the schedule is still active, leased to the node and at the claimed occurrence
+     */
+    public boolean isClaimedBy(String owner, LocalDateTime runAt) {
+        return status == ScheduledTransferStatus.ACTIVE && owner.equals(leaseOwner) && nextRunAt.equals(runAt);
+    }
+
+    /**
+     * Move on to the next occurrence, completing the schedule after its last one.
+     *
+     * @param outcome the outcome of the current occurrence
+     */
+    public void advance(ScheduledRunOutcome outcome) {
+        recordRun(outcome);
+        occurrence++;
+        attempts = 0;
+        LocalDateTime next = frequency.occurrence(firstRunAt, occurrence);
+        if (next == null || (endAt != null && next.isAfter(endAt))) {
+            status = ScheduledTransferStatus.COMPLETED;
+        } else {
+            nextRunAt = next;
+            dueAt = next;
+        }
+    }
+
+    /**
+     * Retry the current occurrence later.
+     *
+     * @param retryAt when to make the next attempt
+     */
+    public void retry(LocalDateTime retryAt) {
+        recordRun(ScheduledRunOutcome.RETRYING);
+        attempts++;
+        dueAt = retryAt;
+    }
+
+    /**
+     * Stop the schedule after a run that cannot succeed.
+     */
+    public void fail() {
+        recordRun(ScheduledRunOutcome.FAILED);
+        status = ScheduledTransferStatus.FAILED;
+    }
+
+    /**
+     * Cancel the schedule.
+     */
+    public void cancel() {
+        status = ScheduledTransferStatus.CANCELLED;
+        releaseLease();
+    }
+
+    private void recordRun(ScheduledRunOutcome outcome) {
+        lastRunAt = LocalDateTime.now();
+        lastOutcome = outcome;
+        releaseLease();
+    }
+
+    private void releaseLease() {
+        leaseOwner = null;
+        leaseUntil = null;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getSourceAccountNumber() {
+        return sourceAccountNumber;
+    }
+
+    public String getTargetAccountNumber() {
+        return targetAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public ScheduleFrequency getFrequency() {
+        return frequency;
+    }
+
+    public LocalDateTime getFirstRunAt() {
+        return firstRunAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public ScheduledTransferStatus getStatus() {
+        return status;
+    }
+
+    public int getOccurrence() {
+        return occurrence;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public ScheduledRunOutcome getLastOutcome() {
+        return lastOutcome;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ScheduledTransfer that = (ScheduledTransfer) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledTransfer{" +
+                "id=" + id +
+                ", sourceAccountNumber='" + sourceAccountNumber + '\'' +
+                ", targetAccountNumber='" + targetAccountNumber + '\'' +
+                ", amount=" + amount +
+                ", currency=" + currency +
+                ", frequency=" + frequency +
+                ", status=" + status +
+                ", nextRunAt=" + nextRunAt +
+                '}';
+    }
+}
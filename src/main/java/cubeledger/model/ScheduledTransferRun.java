@@ -0,0 +1,114 @@
+package cubeledger.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity recording the outcome of one attempt of a scheduled transfer.
+ */
+@Entity
+@Table(name = "scheduled_transfer_runs")
+public class ScheduledTransferRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long scheduledTransferId;
+
+    @Column(nullable = false)
+    private int occurrence;
+
+    @Column(nullable = false)
+    private int attempt;
+
+    @Column(nullable = false)
+    private LocalDateTime scheduledFor;
+
+    @Column(nullable = false)
+    private LocalDateTime executedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduledRunOutcome outcome;
+
+    private Long transactionId;
+
+    @Column(length = 1000)
+    private String error;
+
+    // Default constructor required by JPA
+    public ScheduledTransferRun() {
+    }
+
+    /**
+     * Record an attempt of the current occurrence of a schedule. Must be called before the schedule is advanced.
+     *
+     * @param schedule the schedule
+     * @param outcome the outcome
+     * @param transactionId the posted transaction, or null
+     * @param error the reason the transfer was rejected, or null
+     */
+    public ScheduledTransferRun(ScheduledTransfer schedule, ScheduledRunOutcome outcome, Long transactionId, String error) {
+        this.scheduledTransferId = schedule.getId();
+        this.occurrence = schedule.getOccurrence();
+        this.attempt = schedule.getAttempts() + 1;
+        this.scheduledFor = schedule.getNextRunAt();
+        this.executedAt = LocalDateTime.now();
+        this.outcome = outcome;
+        this.transactionId = transactionId;
+        this.error = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getScheduledTransferId() {
+        return scheduledTransferId;
+    }
+
+    public int getOccurrence() {
+        return occurrence;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public LocalDateTime getScheduledFor() {
+        return scheduledFor;
+    }
+
+    public LocalDateTime getExecutedAt() {
+        return executedAt;
+    }
+
+    public ScheduledRunOutcome getOutcome() {
+        return outcome;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ScheduledTransferRun that = (ScheduledTransferRun) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,26 @@
+package cubeledger.model;
+
+/**
+ * Enum representing the lifecycle of a scheduled transfer.
+ */
+public enum ScheduledTransferStatus {
+    /**
+     * The schedule has runs left
+     */
+    ACTIVE,
+
+    /**
+     * The schedule has made its last run
+     */
+    COMPLETED,
+
+    /**
+     * The schedule was cancelled
+     */
+    CANCELLED,
+
+    /**
+     * A run failed with an error that retrying cannot fix, such as a closed account
+     */
+    FAILED
+}
@@ -44,6 +44,26 @@ public class Transaction {
     @Column(nullable = false)
     private TransactionType type;
 
+    // Amount debited from the source account, in the source account's currency
+    @Column(name = "source_amount")
+    private BigDecimal sourceAmount;
+
+    // Amount credited to the target account, in the target account's currency
+    @Column(name = "target_amount")
+    private BigDecimal targetAmount;
+
+    // Rate applied between the currencies of the posted amounts, 1 when no conversion took place
+    @Column(name = "exchange_rate")
+    private BigDecimal exchangeRate;
+
+    // Position of the transaction among the source account's transactions
+    @Column(name = "source_seq")
+    private Long sourceSeq;
+
+    // Position of the transaction among the target account's transactions
+    @Column(name = "target_seq")
+    private Long targetSeq;
+
 
     // Default constructor required by JPA
     public Transaction() {
@@ -60,6 +80,7 @@ public class Transaction {
         this.description = description;
         // Use source account's currency if available, otherwise use default
         this.currency = (sourceAccount != null) ? sourceAccount.getCurrency() : Currency.SEK;
+        setPostedAmounts(amount);
     }
 
     public Transaction(Account sourceAccount, Account targetAccount, BigDecimal amount, Currency currency, TransactionType type, String description) {
@@ -70,6 +91,18 @@ public class Transaction {
         this.currency = currency;
         this.type = type;
         this.description = description;
+        setPostedAmounts(amount);
+    }
+
+    /**
+     * Post the transaction amount unconverted to both accounts.
+     *
+     * @param amount the transaction amount
+     */
+    private void setPostedAmounts(BigDecimal amount) {
+        this.sourceAmount = (sourceAccount != null) ? amount : null;
+        this.targetAmount = (targetAccount != null) ? amount : null;
+        this.exchangeRate = BigDecimal.ONE;
     }
 
     // Getters and setters
@@ -137,6 +170,46 @@ public class Transaction {
         this.type = type;
     }
 
+    public BigDecimal getSourceAmount() {
+        return sourceAmount;
+    }
+
+    public void setSourceAmount(BigDecimal sourceAmount) {
+        this.sourceAmount = sourceAmount;
+    }
+
+    public BigDecimal getTargetAmount() {
+        return targetAmount;
+    }
+
+    public void setTargetAmount(BigDecimal targetAmount) {
+        this.targetAmount = targetAmount;
+    }
+
+    public BigDecimal getExchangeRate() {
+        return exchangeRate;
+    }
+
+    public void setExchangeRate(BigDecimal exchangeRate) {
+        this.exchangeRate = exchangeRate;
+    }
+
+    public Long getSourceSeq() {
+        return sourceSeq;
+    }
+
+    public void setSourceSeq(Long sourceSeq) {
+        this.sourceSeq = sourceSeq;
+    }
+
+    public Long getTargetSeq() {
+        return targetSeq;
+    }
+
+    public void setTargetSeq(Long targetSeq) {
+        this.targetSeq = targetSeq;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -162,6 +235,9 @@ public class Transaction {
                 ", timestamp=" + timestamp +
                 ", description='" + description + '\'' +
                 ", type=" + type +
+                ", sourceAmount=" + sourceAmount +
+                ", targetAmount=" + targetAmount +
+                ", exchangeRate=" + exchangeRate +
                 '}';
     }
 }
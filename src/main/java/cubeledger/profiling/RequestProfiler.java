@@ -0,0 +1,120 @@
+package cubeledger.profiling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the bytes allocated and the CPU time used by the request thread for each controller handler.
+ * <p>
+ * The thread's allocation and CPU counters are read before the handler runs and after the response is
+ * written, so the figures include argument binding, the service call and serializing the result. They
+ * are recorded as distribution summaries tagged with the handler. Handlers that continue
+ * asynchronously, such as event streams, are not measured, since the rest of their work runs on other
+ * threads. While profiling is off, each request only pays for one volatile read.
+ */
+@Component
+public class RequestProfiler implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RequestProfiler.class.getName() + ".start";
+    private static final String CONTROLLER_PACKAGE = "cubeledger.controller";
+
+    private final MeterRegistry registry;
+    private final com.sun.management.ThreadMXBean threads;
+    private final Map<HandlerMethod, Summaries> summaries = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public RequestProfiler(RequestProfilingProperties properties, MeterRegistry registry) {
+        this.registry = registry;
+        this.threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isCurrentThreadCpuTimeSupported()
+                ? threadMXBean : null;
+        setEnabled(properties.isEnabled());
+    }
+
+    /**
+     * Switch profiling on or off.
+     *
+     * @param enabled whether to profile requests
+     * @throws IllegalStateException if profiling is switched on but the JVM cannot measure threads
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled) {
+            if (threads == null) {
+                throw new IllegalStateException("The JVM does not support per-thread allocation and CPU time measurement");
+            }
+            threads.setThreadAllocatedMemoryEnabled(true);
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Check whether the JVM can measure per-thread allocation and CPU time.
+     *
+     * @return true if profiling can be switched on
+     */
+    public boolean isSupported() {
+        return threads != null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (enabled && handler instanceof HandlerMethod handlerMethod
+                && handlerMethod.getBeanType().getPackageName().equals(CONTROLLER_PACKAGE)) {
+            request.setAttribute(START_ATTRIBUTE, new long[]{threads.getCurrentThreadAllocatedBytes(), threads.getCurrentThreadCpuTime()});
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.removeAttribute(START_ATTRIBUTE);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof long[] start)) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - start[0];
+        long cpuNanos = threads.getCurrentThreadCpuTime() - start[1];
+
+        Summaries handlerSummaries = summaries.computeIfAbsent((HandlerMethod) handler, this::register);
+        handlerSummaries.allocated().record(allocated);
+        handlerSummaries.cpu().record(cpuNanos / 1000.0);
+    }
+
+    private Summaries register(HandlerMethod handler) {
+        String name = handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+        return new Summaries(
+                DistributionSummary.builder("cubeledger.request.allocated")
+                        .description("Bytes allocated by the request thread while handling a request")
+                        .baseUnit("bytes")
+                        .tag("handler", name)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(registry),
+                DistributionSummary.builder("cubeledger.request.cpu")
+                        .description("CPU time used by the request thread while handling a request")
+                        .baseUnit("microseconds")
+                        .tag("handler", name)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(registry));
+    }
+
+    private record Summaries(DistributionSummary allocated, DistributionSummary cpu) {
+    }
+}
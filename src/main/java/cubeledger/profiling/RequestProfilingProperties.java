@@ -0,0 +1,23 @@
+package cubeledger.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for per-request allocation and CPU accounting.
+ */
+@ConfigurationProperties(prefix = "cubeledger.request-profiling")
+public class RequestProfilingProperties {
+
+    /**
+     * Whether request profiling is on at startup. It can be switched at runtime through /actuator/requestprofiling.
+     */
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
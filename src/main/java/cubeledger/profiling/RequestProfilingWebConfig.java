@@ -0,0 +1,23 @@
+package cubeledger.profiling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link RequestProfiler} for the API handlers.
+ */
+@Configuration
+public class RequestProfilingWebConfig implements WebMvcConfigurer {
+
+    private final RequestProfiler requestProfiler;
+
+    public RequestProfilingWebConfig(RequestProfiler requestProfiler) {
+        this.requestProfiler = requestProfiler;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestProfiler).addPathPatterns("/api/**");
+    }
+}
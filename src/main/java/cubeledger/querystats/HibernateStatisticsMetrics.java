@@ -0,0 +1,70 @@
+package cubeledger.querystats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes Hibernate's session factory statistics as meters, so query counts, plan cache
+ * efficiency and entity activity can be graphed next to the statement timers.
+ * <p>
+ * The statistics only move while hibernate.generate_statistics is on; it can be switched at
+ * runtime through the querystats endpoint.
+ */
+@Component
+public class HibernateStatisticsMetrics {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        counter(registry, "cubeledger.hibernate.queries", "Number of HQL and native queries executed", Statistics::getQueryExecutionCount);
+        counter(registry, "cubeledger.hibernate.query.plan.cache.hits", "Number of query plans found in the plan cache",
+                Statistics::getQueryPlanCacheHitCount);
+        counter(registry, "cubeledger.hibernate.query.plan.cache.misses", "Number of query plans not found in the plan cache",
+                Statistics::getQueryPlanCacheMissCount);
+        counter(registry, "cubeledger.hibernate.entities.loaded", "Number of entities loaded", Statistics::getEntityLoadCount);
+        counter(registry, "cubeledger.hibernate.entities.fetched", "Number of entities fetched lazily", Statistics::getEntityFetchCount);
+        counter(registry, "cubeledger.hibernate.statements.prepared", "Number of JDBC statements prepared",
+                Statistics::getPrepareStatementCount);
+        counter(registry, "cubeledger.hibernate.flushes", "Number of session flushes", Statistics::getFlushCount);
+        counter(registry, "cubeledger.hibernate.transactions", "Number of transactions completed", Statistics::getTransactionCount);
+
+        Gauge.builder("cubeledger.hibernate.query.plan.cache.hit.ratio", statistics, HibernateStatisticsMetrics::planCacheHitRatio)
+                .description("Share of query plan lookups found in the plan cache")
+                .register(registry);
+        Gauge.builder("cubeledger.hibernate.query.max.time", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Longest query execution time in milliseconds")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count)
+                .description(description)
+                .register(registry);
+    }
+
+    /**
+     * Get the share of query plan lookups that hit the plan cache.
+     *
+     * @param statistics the statistics
+     * @return the hit ratio, or 0 before the first lookup
+     */
+    public static double planCacheHitRatio(Statistics statistics) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long lookups = hits + statistics.getQueryPlanCacheMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+}
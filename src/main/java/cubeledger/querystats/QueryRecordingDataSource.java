@@ -0,0 +1,116 @@
+package cubeledger.querystats;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Data source whose connections time every statement they execute and report it to {@link QueryStats}.
+ * <p>
+ * Connections and statements are wrapped in dynamic proxies that pass every call through, timing
+ * only the execute methods. Unwrapping reaches the pooled data source, so pool metrics and the
+ * database health check still see the connection pool.
+ */
+class QueryRecordingDataSource extends DelegatingDataSource {
+
+    private final Supplier<QueryStats> queryStats;
+
+    QueryRecordingDataSource(DataSource targetDataSource, Supplier<QueryStats> queryStats) {
+        super(targetDataSource);
+        this.queryStats = queryStats;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryRecordingDataSource.invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private String batchSql;
+
+        private StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && args.length == 1 && args[0] instanceof String sql) {
+                batchSql = sql;
+            } else if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                        : preparedSql != null ? preparedSql : batchSql;
+                if (sql != null) {
+                    return timed(method, args, sql);
+                }
+            }
+            return QueryRecordingDataSource.invoke(statement, method, args);
+        }
+
+        private Object timed(Method method, Object[] args, String sql) throws Throwable {
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = QueryRecordingDataSource.invoke(statement, method, args);
+                failed = false;
+                return result;
+            } finally {
+                queryStats.get().record(sql, System.nanoTime() - start, failed);
+            }
+        }
+    }
+}
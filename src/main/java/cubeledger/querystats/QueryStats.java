@@ -0,0 +1,194 @@
+package cubeledger.querystats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution statistics of the SQL statements sent to the database, fed by the data source wrapper.
+ * <p>
+ * Each distinct statement, after {@link SqlRedactor redaction}, gets a count, total and maximum
+ * time, and each kind of statement on each table a timer with a histogram. Statements taking at
+ * least the slow threshold are also kept in a fixed-size ring, newest replacing oldest. Parameters
+ * bound to prepared statements are never read, so neither the statistics nor the slow log contain
+ * account numbers or amounts. Statements are looked up by their exact text first, so the redaction
+ * runs once per distinct text rather than once per execution.
+ */
+@Component
+public class QueryStats {
+
+    private static final String OVERFLOW = "(other statements)";
+
+    private final MeterRegistry registry;
+    private final long slowThresholdNanos;
+    private final int maxStatements;
+    private final Map<String, StatementStats> bySql = new ConcurrentHashMap<>();
+    private final Map<String, StatementStats> byStatement = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<SlowStatement> slowLog;
+    private final AtomicLong slowLogPosition = new AtomicLong();
+    private final Counter slowStatements;
+
+    public QueryStats(QueryStatsProperties properties, MeterRegistry registry) {
+        this.registry = registry;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.maxStatements = properties.getMaxStatements();
+        this.slowLog = new AtomicReferenceArray<>(Math.max(1, properties.getSlowLogSize()));
+        this.slowStatements = Counter.builder("cubeledger.db.statements.slow")
+                .description("Number of SQL statements that took at least the slow threshold")
+                .register(registry);
+    }
+
+    /**
+     * Record the execution of a statement.
+     *
+     * @param sql the statement text as sent to the driver
+     * @param nanos the execution time
+     * @param failed whether the execution threw
+     */
+    public void record(String sql, long nanos, boolean failed) {
+        StatementStats stats = bySql.get(sql);
+        if (stats == null) {
+            stats = statsFor(sql);
+        }
+        stats.record(nanos, failed);
+        if (nanos >= slowThresholdNanos) {
+            slowStatements.increment();
+            int slot = (int) (slowLogPosition.getAndIncrement() % slowLog.length());
+            slowLog.set(slot, new SlowStatement(stats.statement, TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0, Instant.now(), failed));
+        }
+    }
+
+    private StatementStats statsFor(String sql) {
+        String statement = SqlRedactor.redact(sql);
+        StatementStats stats = byStatement.get(statement);
+        if (stats == null) {
+            stats = byStatement.size() < maxStatements
+                    ? byStatement.computeIfAbsent(statement, key -> new StatementStats(key, timer(sql)))
+                    : byStatement.computeIfAbsent(OVERFLOW, key -> new StatementStats(key, timer("")));
+        }
+        if (bySql.size() < maxStatements) {
+            bySql.put(sql, stats);
+        }
+        return stats;
+    }
+
+    private Timer timer(String sql) {
+        return Timer.builder("cubeledger.db.statements")
+                .description("Execution time of SQL statements")
+                .tag("operation", SqlRedactor.operation(sql))
+                .tag("table", SqlRedactor.table(sql))
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Get the statements that took the most time in total.
+     *
+     * @param top the maximum number of statements
+     * @return the statements, most total time first
+     */
+    public List<StatementSummary> topStatements(int top) {
+        return byStatement.values().stream()
+                .map(StatementStats::summary)
+                .sorted(Comparator.comparingDouble(StatementSummary::totalMillis).reversed())
+                .limit(top)
+                .toList();
+    }
+
+    /**
+     * Get the slow statements still in the log.
+     *
+     * @return the slow statements, slowest first
+     */
+    public List<SlowStatement> slowStatements() {
+        List<SlowStatement> statements = new ArrayList<>();
+        for (int i = 0; i < slowLog.length(); i++) {
+            SlowStatement statement = slowLog.get(i);
+            if (statement != null) {
+                statements.add(statement);
+            }
+        }
+        statements.sort(Comparator.comparingDouble(SlowStatement::millis).reversed());
+        return statements;
+    }
+
+    /**
+     * Forget the statement statistics and the slow log. The timers keep their values.
+     */
+    public void reset() {
+        bySql.clear();
+        byStatement.clear();
+        for (int i = 0; i < slowLog.length(); i++) {
+            slowLog.set(i, null);
+        }
+    }
+
+    /**
+     * Statistics of one statement.
+     *
+     * @param statement the redacted statement
+     * @param executions the number of executions
+     * @param failures the number of executions that threw
+     * @param totalMillis the total execution time
+     * @param meanMillis the mean execution time
+     * @param maxMillis the longest execution time
+     */
+    public record StatementSummary(String statement, long executions, long failures, double totalMillis, double meanMillis,
+                                   double maxMillis) {
+    }
+
+    /**
+     * A statement that took at least the slow threshold.
+     *
+     * @param statement the redacted statement
+     * @param millis the execution time
+     * @param executedAt when the execution finished
+     * @param failed whether the execution threw
+     */
+    public record SlowStatement(String statement, double millis, Instant executedAt, boolean failed) {
+    }
+
+    private static final class StatementStats {
+
+        private final String statement;
+        private final Timer timer;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private StatementStats(String statement, Timer timer) {
+            this.statement = statement;
+            this.timer = timer;
+        }
+
+        private void record(long nanos, boolean failed) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (failed) {
+                failures.increment();
+            }
+        }
+
+        private StatementSummary summary() {
+            long count = executions.sum();
+            double total = totalNanos.sum() / 1e6;
+            return new StatementSummary(statement, count, failures.sum(), total, count == 0 ? 0 : total / count, maxNanos.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package cubeledger.querystats;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the application's data sources in a {@link QueryRecordingDataSource} unless
+ * cubeledger.query-stats.enabled is false.
+ */
+@Component
+public class QueryStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final boolean enabled;
+    private final ObjectProvider<QueryStats> queryStats;
+
+    public QueryStatsDataSourcePostProcessor(Environment environment, ObjectProvider<QueryStats> queryStats) {
+        // Read from the environment, since binding the properties this early would keep them from being post-processed
+        this.enabled = environment.getProperty("cubeledger.query-stats.enabled", Boolean.class, true);
+        this.queryStats = queryStats;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof QueryRecordingDataSource) {
+            return bean;
+        }
+        // The statistics are looked up on first use, so the meter registry is not created early
+        return new QueryRecordingDataSource(dataSource, new Supplier<>() {
+            private volatile QueryStats stats;
+
+            @Override
+            public QueryStats get() {
+                QueryStats current = stats;
+                if (current == null) {
+                    current = queryStats.getObject();
+                    stats = current;
+                }
+                return current;
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package cubeledger.querystats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for timing the SQL statements sent to the database.
+ */
+@ConfigurationProperties(prefix = "cubeledger.query-stats")
+public class QueryStatsProperties {
+
+    /**
+     * Whether statements are timed. Read at startup, since it decides whether the data source is wrapped.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements taking at least this long are kept in the slow statement log.
+     */
+    private Duration slowThreshold = Duration.ofMillis(100);
+
+    /**
+     * Number of slow statements kept. The oldest is dropped when a new one arrives.
+     */
+    private int slowLogSize = 100;
+
+    /**
+     * Maximum number of distinct statements with their own statistics. Further statements are counted together.
+     */
+    private int maxStatements = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public int getSlowLogSize() {
+        return slowLogSize;
+    }
+
+    public void setSlowLogSize(int slowLogSize) {
+        this.slowLogSize = slowLogSize;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+}
@@ -0,0 +1,67 @@
+package cubeledger.querystats;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes SQL for reporting: literals are replaced by placeholders, so account numbers and
+ * amounts written into the text never reach the statistics, and statements differing only in
+ * their values are counted together.
+ */
+public final class SqlRedactor {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+\"?([\\w.]+)\"?", Pattern.CASE_INSENSITIVE);
+
+    private SqlRedactor() {
+    }
+
+    /**
+     * Replace the literals of a statement by placeholders and collapse its whitespace and placeholder lists.
+     *
+     * @param sql the statement
+     * @return the redacted statement
+     */
+    public static String redact(String sql) {
+        String redacted = STRING_LITERAL.matcher(sql).replaceAll("?");
+        redacted = NUMBER_LITERAL.matcher(redacted).replaceAll("?");
+        redacted = PLACEHOLDER_LIST.matcher(redacted).replaceAll("(?, ...)");
+        return WHITESPACE.matcher(redacted).replaceAll(" ").trim();
+    }
+
+    /**
+     * Get the kind of a statement.
+     *
+     * @param sql the statement
+     * @return select, insert, update, delete or other
+     */
+    public static String operation(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return switch (trimmed.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> "select";
+            case "insert" -> "insert";
+            case "update" -> "update";
+            case "delete" -> "delete";
+            default -> "other";
+        };
+    }
+
+    /**
+     * Get the first table a statement reads from or writes to.
+     *
+     * @param sql the statement
+     * @return the table name in lower case, or none if it has none
+     */
+    public static String table(String sql) {
+        Matcher matcher = TABLE.matcher(sql);
+        return matcher.find() ? matcher.group(1).toLowerCase(Locale.ROOT) : "none";
+    }
+}
@@ -0,0 +1,129 @@
+package cubeledger.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for rate limiting transaction requests.
+ */
+@ConfigurationProperties(prefix = "cubeledger.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether transaction requests are rate limited.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Sustained number of transaction requests per second per account.
+     */
+    private double accountPermitsPerSecond = 20;
+
+    /**
+     * Number of transaction requests an idle account accepts at once.
+     */
+    private int accountBurst = 40;
+
+    /**
+     * Sustained number of transaction requests per second per client.
+     */
+    private double clientPermitsPerSecond = 100;
+
+    /**
+     * Number of transaction requests an idle client can make at once.
+     */
+    private int clientBurst = 200;
+
+    /**
+     * Request header through which a cluster member passes on the client of a forwarded request.
+     * It is ignored on requests from anyone else, which are limited by principal or remote address.
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Whether the client header is trusted on every request. Only for test instances that receive
+     * replayed traffic, so that it is limited per captured client rather than as one client.
+     */
+    private boolean trustClientHeader = false;
+
+    /**
+     * Maximum number of accounts and of clients tracked at once.
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * Number of independently locked partitions of the buckets, a power of two.
+     */
+    private int stripes = 64;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getAccountPermitsPerSecond() {
+        return accountPermitsPerSecond;
+    }
+
+    public void setAccountPermitsPerSecond(double accountPermitsPerSecond) {
+        this.accountPermitsPerSecond = accountPermitsPerSecond;
+    }
+
+    public int getAccountBurst() {
+        return accountBurst;
+    }
+
+    public void setAccountBurst(int accountBurst) {
+        this.accountBurst = accountBurst;
+    }
+
+    public double getClientPermitsPerSecond() {
+        return clientPermitsPerSecond;
+    }
+
+    public void setClientPermitsPerSecond(double clientPermitsPerSecond) {
+        this.clientPermitsPerSecond = clientPermitsPerSecond;
+    }
+
+    public int getClientBurst() {
+        return clientBurst;
+    }
+
+    public void setClientBurst(int clientBurst) {
+        this.clientBurst = clientBurst;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public boolean isTrustClientHeader() {
+        return trustClientHeader;
+    }
+
+    public void setTrustClientHeader(boolean trustClientHeader) {
+        this.trustClientHeader = trustClientHeader;
+    }
+
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+}
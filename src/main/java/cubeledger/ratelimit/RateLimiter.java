@@ -0,0 +1,164 @@
+package cubeledger.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keyed token-bucket rate limiter.
+ * <p>
+ * Each bucket is implemented with the generic cell rate algorithm: instead of a token count and a
+ * refill timestamp it stores a single "theoretical arrival time", the time at which the bucket would
+ * be full again. Taking a token is one read and one compare-and-set on that value, so the fast path
+ * takes no locks and allocates nothing once the bucket exists.
+ * <p>
+ * Buckets are kept in a fixed number of stripes, each a concurrent map with its own capacity. A
+ * bucket whose arrival time has passed is full and indistinguishable from a new one, so idle buckets
+ * can be evicted without changing any outcome. When a stripe is full, its idle buckets are evicted
+ * before a new bucket is added; if it is still full, keys without a bucket are rejected, so that
+ * flooding the limiter with new keys cannot switch it off.
+ * <p>
+ * Times are in nanoseconds from an arbitrary origin, as returned by {@link System#nanoTime()}.
+ */
+public final class RateLimiter {
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final int stripeCapacity;
+    private final Stripe[] stripes;
+
+    /**
+     * Create a rate limiter.
+     *
+     * @param permitsPerSecond the sustained rate per key
+     * @param burst the number of permits a key can take at once after being idle
+     * @param maxBuckets the maximum number of buckets kept across all keys
+     * @param stripes the number of stripes, a power of two
+     */
+    public RateLimiter(double permitsPerSecond, int burst, int maxBuckets, int stripes) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two, was " + stripes);
+        }
+        this.emissionInterval = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstTolerance = emissionInterval * (burst - 1);
+        this.stripeCapacity = Math.max(1, maxBuckets / stripes);
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Take a permit for a key.
+     *
+     * @param key the key
+     * @param now the current time in nanoseconds
+     * @return 0 if a permit was taken, otherwise the number of nanoseconds until one is available
+     */
+    public long tryAcquire(String key, long now) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            bucket = stripe.create(key, now);
+            if (bucket == null) {
+                return emissionInterval;
+            }
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            long wait = start - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a permit taken by {@link #tryAcquire(String, long)}, for a request that was rejected
+     * for another reason.
+     *
+     * @param key the key
+     */
+    public void refund(String key) {
+        AtomicLong bucket = stripes[spread(key.hashCode()) & (stripes.length - 1)].buckets.get(key);
+        if (bucket != null) {
+            bucket.addAndGet(-emissionInterval);
+        }
+    }
+
+    /**
+     * Remove the buckets that are full again.
+     *
+     * @param now the current time in nanoseconds
+     * @return the number of removed buckets
+     */
+    public int evictIdle(long now) {
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            evicted += stripe.evictIdle(now);
+        }
+        return evicted;
+    }
+
+    /**
+     * Get the number of buckets.
+     *
+     * @return the number of keys with a bucket
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        /**
+         * Get or add the bucket for a key.
+         *
+         * @return the bucket, or null if the stripe is full
+         */
+        private AtomicLong create(String key, long now) {
+            if (buckets.size() >= stripeCapacity) {
+                synchronized (this) {
+                    if (buckets.size() >= stripeCapacity) {
+                        evictIdle(now);
+                    }
+                }
+                if (buckets.size() >= stripeCapacity) {
+                    return buckets.get(key);
+                }
+            }
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        private int evictIdle(long now) {
+            int evicted = 0;
+            Iterator<Map.Entry<String, AtomicLong>> iterator = buckets.entrySet().iterator();
+            while (iterator.hasNext()) {
+                // A request racing with the removal may be charged to the removed bucket; it then goes uncounted
+                if (iterator.next().getValue().get() <= now) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+            return evicted;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package cubeledger.ratelimit;
+
+import cubeledger.cluster.ClusterAuthenticationFilter;
+import cubeledger.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.Duration;
+
+/**
+ * Limits transaction requests per client and per account before they reach the service layer.
+ * <p>
+ * Every request for an account queues on that account's row lock and holds a connection while it
+ * waits, so a single client hammering one account can exhaust the pool. Checking in-memory token
+ * buckets first rejects the excess requests without any database work.
+ * <p>
+ * Clients are identified by their authenticated principal, or else by remote address. A header
+ * naming the client is only trusted on requests forwarded by an authenticated cluster member, which
+ * uses it to pass on the original client, or on every request on an instance receiving replayed
+ * traffic. A request rejected for one of its accounts gives back the permits it already took.
+ */
+@Component
+public class TransactionRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final RateLimiter clientLimiter;
+    private final RateLimiter accountLimiter;
+    private final Counter clientRejections;
+    private final Counter accountRejections;
+
+    public TransactionRateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.clientLimiter = new RateLimiter(properties.getClientPermitsPerSecond(), properties.getClientBurst(),
+                properties.getMaxBuckets(), properties.getStripes());
+        this.accountLimiter = new RateLimiter(properties.getAccountPermitsPerSecond(), properties.getAccountBurst(),
+                properties.getMaxBuckets(), properties.getStripes());
+        this.clientRejections = Counter.builder("cubeledger.ratelimit.rejected")
+                .description("Number of requests rejected by rate limiting")
+                .tag("scope", "client")
+                .register(registry);
+        this.accountRejections = Counter.builder("cubeledger.ratelimit.rejected")
+                .description("Number of requests rejected by rate limiting")
+                .tag("scope", "account")
+                .register(registry);
+    }
+
+    /**
+     * Take a permit for the client making a request and for each account it touches.
+     *
+     * @param request the HTTP request
+     * @param accountNumbers the accounts the request touches
+     * @throws RateLimitExceededException if the client or one of the accounts is over its limit
+     */
+    public void check(HttpServletRequest request, String... accountNumbers) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        String client = clientOf(request);
+        long wait = clientLimiter.tryAcquire(client, now);
+        if (wait > 0) {
+            clientRejections.increment();
+            throw new RateLimitExceededException("Too many requests from client " + client, Duration.ofNanos(wait));
+        }
+
+        for (int i = 0; i < accountNumbers.length; i++) {
+            if (accountNumbers[i] == null) {
+                continue;
+            }
+            wait = accountLimiter.tryAcquire(accountNumbers[i], now);
+            if (wait > 0) {
+                clientLimiter.refund(client);
+                for (int j = 0; j < i; j++) {
+                    if (accountNumbers[j] != null) {
+                        accountLimiter.refund(accountNumbers[j]);
+                    }
+                }
+                accountRejections.increment();
+                throw new RateLimitExceededException("Too many requests for account " + accountNumbers[i], Duration.ofNanos(wait));
+            }
+        }
+    }
+
+    /**
+     * Identify the client making a request.
+     *
+     * @param request the HTTP request
+     * @return the client key
+     */
+    public String clientOf(HttpServletRequest request) {
+        if (properties.isTrustClientHeader() || request.getAttribute(ClusterAuthenticationFilter.MEMBER_ATTRIBUTE) != null) {
+            String forwardedClient = request.getHeader(properties.getClientHeader());
+            if (forwardedClient != null && !forwardedClient.isBlank()) {
+                return forwardedClient;
+            }
+        }
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : request.getRemoteAddr();
+    }
+
+    /**
+     * Check whether replayed traffic is limited the way it was when captured: rate limiting is off,
+     * or the client header is trusted, so each captured client gets its own bucket.
+     *
+     * @return true if replayed requests are limited per captured client
+     */
+    public boolean limitsPerCapturedClient() {
+        return !properties.isEnabled() || properties.isTrustClientHeader();
+    }
+
+    @Scheduled(fixedDelayString = "${cubeledger.rate-limit.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        clientLimiter.evictIdle(now);
+        accountLimiter.evictIdle(now);
+    }
+}
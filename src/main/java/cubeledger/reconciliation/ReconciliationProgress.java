@@ -0,0 +1,32 @@
+package cubeledger.reconciliation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the progress of a reconciliation run.
+ *
+ * @param runId the run id
+ * @param status the run status
+ * @param minAccountId the lowest account id covered by the run
+ * @param maxAccountId the highest account id covered by the run
+ * @param completedThrough every account id up to and including this one has been checked
+ * @param chunksCompleted the number of chunks checked by this process
+ * @param totalChunks the number of chunks this process set out to check
+ * @param accountsChecked the number of accounts checked
+ * @param mismatches the number of mismatches found
+ * @param startedAt when the run was started
+ * @param finishedAt when the run finished, or null
+ */
+public record ReconciliationProgress(
+        long runId,
+        ReconciliationStatus status,
+        long minAccountId,
+        long maxAccountId,
+        long completedThrough,
+        long chunksCompleted,
+        long totalChunks,
+        long accountsChecked,
+        long mismatches,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {
+}
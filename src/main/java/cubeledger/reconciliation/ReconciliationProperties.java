@@ -0,0 +1,135 @@
+package cubeledger.reconciliation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the balance reconciliation job.
+ */
+@ConfigurationProperties(prefix = "cubeledger.reconciliation")
+public class ReconciliationProperties {
+
+    /**
+     * Number of account ids checked per chunk.
+     */
+    private int chunkSize = 1_000;
+
+    /**
+     * Number of chunks processed in parallel.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Maximum number of chunks started per second across all workers, 0 for no limit.
+     * Lower it to run the job during business hours.
+     */
+    private double maxChunksPerSecond = 0;
+
+    /**
+     * Number of transaction rows fetched per round trip while streaming a chunk.
+     */
+    private int fetchSize = 1_000;
+
+    /**
+     * Cron expression for starting runs automatically, "-" to only start them through the actuator endpoint.
+     */
+    private String cron = "-";
+
+    /**
+     * Optional separate data source, typically a read replica, used for reading balances and transactions.
+     * When no URL is set the primary data source is used with read-only transactions.
+     */
+    private final ReadDataSource readDataSource = new ReadDataSource();
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public double getMaxChunksPerSecond() {
+        return maxChunksPerSecond;
+    }
+
+    public void setMaxChunksPerSecond(double maxChunksPerSecond) {
+        this.maxChunksPerSecond = maxChunksPerSecond;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public ReadDataSource getReadDataSource() {
+        return readDataSource;
+    }
+
+    public static class ReadDataSource {
+
+        /**
+         * JDBC URL of the read data source.
+         */
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * Maximum size of the read data source connection pool.
+         */
+        private int maximumPoolSize = 4;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package cubeledger.reconciliation;
+
+import com.zaxxer.hikari.HikariDataSource;
+import cubeledger.cluster.ClusterMembership;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies that every account balance equals the net of its transactions.
+ * <p>
+ * Instead of one ledger-wide aggregate, a run splits the account id space into fixed-size chunks
+ * and checks them in parallel on a fork-join pool. Each chunk reads its balances and streams its
+ * transactions through two index range scans inside one read-only, repeatable-read transaction, so
+ * the comparison sees a consistent snapshot without taking locks. Reads can be pointed at a replica.
+ * <p>
+ * Mismatches are written to {@code reconciliation_mismatches}. Progress is checkpointed as the
+ * highest account id below which every chunk has been checked, so a paused, failed or interrupted
+ * run resumes from its checkpoint. Chunk starts can be rate limited to bound the load on the database.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate readJdbcTemplate;
+    private final TransactionTemplate readTransactionTemplate;
+    private final HikariDataSource readDataSource;
+    private final ReconciliationProperties properties;
+    private final ClusterMembership clusterMembership;
+    private final ExecutorService coordinator;
+    private final AtomicReference<Run> currentRun = new AtomicReference<>();
+    private final AtomicLong nextChunkSlot = new AtomicLong();
+    private volatile double maxChunksPerSecond;
+
+    public ReconciliationService(DataSource dataSource, PlatformTransactionManager transactionManager, ReconciliationProperties properties,
+                                 ClusterMembership clusterMembership) {
+        this.properties = properties;
+        this.clusterMembership = clusterMembership;
+        this.maxChunksPerSecond = properties.getMaxChunksPerSecond();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+
+        ReconciliationProperties.ReadDataSource read = properties.getReadDataSource();
+        if (read.getUrl() != null && !read.getUrl().isBlank()) {
+            this.readDataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(read.getUrl())
+                    .username(read.getUsername())
+                    .password(read.getPassword())
+                    .build();
+            this.readDataSource.setMaximumPoolSize(read.getMaximumPoolSize());
+            this.readDataSource.setReadOnly(true);
+            this.readDataSource.setPoolName("cubeledger-reconciliation");
+            this.readJdbcTemplate = new JdbcTemplate(readDataSource);
+            this.readTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(readDataSource));
+        } else {
+            this.readDataSource = null;
+            this.readJdbcTemplate = new JdbcTemplate(dataSource);
+            this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        }
+        this.readJdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.readTransactionTemplate.setReadOnly(true);
+        this.readTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cubeledger-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start a reconciliation run in the background, resuming the latest unfinished run if there is one.
+     *
+     * @return the progress of the started run, or of the run already in progress
+     */
+    public synchronized ReconciliationProgress start() {
+        Run run = currentRun.get();
+        if (run != null && run.status == ReconciliationStatus.RUNNING) {
+            return run.progress();
+        }
+
+        Run next = loadUnfinishedRun();
+        if (next == null) {
+            next = createRun();
+        }
+        next.status = ReconciliationStatus.RUNNING;
+        next.pauseRequested = false;
+        saveProgress(next);
+        currentRun.set(next);
+
+        Run started = next;
+        coordinator.execute(() -> execute(started));
+        return started.progress();
+    }
+
+    /**
+     * Ask the current run to pause after the chunks that are already being checked.
+     *
+     * @return the progress of the current run, or null if there is none
+     */
+    public ReconciliationProgress pause() {
+        Run run = currentRun.get();
+        if (run == null) {
+            return null;
+        }
+        run.pauseRequested = true;
+        return run.progress();
+    }
+
+    /**
+     * Get the progress of the current or latest run.
+     *
+     * @return the progress, or null if no run was started since this process started
+     */
+    public ReconciliationProgress getProgress() {
+        Run run = currentRun.get();
+        return run != null ? run.progress() : null;
+    }
+
+    /**
+     * Change the rate limit for chunk starts, taking effect immediately.
+     *
+     * @param maxChunksPerSecond the new limit, 0 for no limit
+     */
+    public void setMaxChunksPerSecond(double maxChunksPerSecond) {
+        this.maxChunksPerSecond = Math.max(0, maxChunksPerSecond);
+    }
+
+    public double getMaxChunksPerSecond() {
+        return maxChunksPerSecond;
+    }
+
+    /**
+     * Start a run on schedule. In cluster mode, only one member starts it.
+     */
+    @Scheduled(cron = "${cubeledger.reconciliation.cron:-}")
+    public void scheduledStart() {
+        if (clusterMembership.runsJob("reconciliation")) {
+            start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Run run = currentRun.get();
+        if (run != null) {
+            run.pauseRequested = true;
+        }
+        coordinator.shutdown();
+        try {
+            coordinator.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (readDataSource != null) {
+            readDataSource.close();
+        }
+    }
+
+    private void execute(Run run) {
+        // Chunks beyond the checkpoint may have been partially reported before; they are checked again
+        jdbcTemplate.update("DELETE FROM reconciliation_mismatches WHERE run_id = ? AND account_id > ?", run.id, run.completedThrough);
+
+        long firstAccountId = run.completedThrough + 1;
+        int chunkCount = (int) Math.max(0, (run.maxAccountId - firstAccountId + run.chunkSize) / run.chunkSize);
+        run.beginSegment(firstAccountId, chunkCount);
+
+        List<Callable<Void>> tasks = new ArrayList<>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            int index = chunk;
+            tasks.add(() -> {
+                processChunk(run, index);
+                return null;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+            run.status = run.isComplete() ? ReconciliationStatus.COMPLETED : ReconciliationStatus.PAUSED;
+        } catch (ExecutionException e) {
+            logger.error("Reconciliation run {} failed", run.id, e.getCause());
+            run.status = ReconciliationStatus.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.status = ReconciliationStatus.PAUSED;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (run.status == ReconciliationStatus.COMPLETED) {
+            run.finishedAt = LocalDateTime.now();
+        }
+        saveProgress(run);
+        logger.info("Reconciliation run {} {}: {} accounts checked, {} mismatches",
+                run.id, run.status, run.accountsChecked.get(), run.mismatches.get());
+    }
+
+    private void processChunk(Run run, int chunk) {
+        if (run.pauseRequested) {
+            return;
+        }
+        throttle();
+
+        long fromId = run.segmentStart + (long) chunk * run.chunkSize;
+        long toId = Math.min(run.maxAccountId, fromId + run.chunkSize - 1);
+        List<Mismatch> mismatches = new ArrayList<>();
+        Integer accounts = readTransactionTemplate.execute(status -> checkChunk(fromId, toId, mismatches));
+
+        if (!mismatches.isEmpty()) {
+            Timestamp detectedAt = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO reconciliation_mismatches (run_id, account_id, account_number, balance, expected_balance, detected_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)",
+                    mismatches, mismatches.size(), (statement, mismatch) -> {
+                        statement.setLong(1, run.id);
+                        statement.setLong(2, mismatch.accountId());
+                        statement.setString(3, mismatch.accountNumber());
+                        statement.setBigDecimal(4, mismatch.balance());
+                        statement.setBigDecimal(5, mismatch.expectedBalance());
+                        statement.setTimestamp(6, detectedAt);
+                    });
+        }
+
+        if (run.chunkCompleted(chunk, accounts != null ? accounts : 0, mismatches.size())) {
+            saveProgress(run);
+        }
+    }
+
+    /**
+     * Compare the balances of the accounts in an id range with the net of their transactions.
+     *
+     * @return the number of accounts checked
+     */
+    private int checkChunk(long fromId, long toId, List<Mismatch> mismatches) {
+        Map<Long, Mismatch> balances = new HashMap<>();
+        readJdbcTemplate.query("SELECT id, account_number, balance FROM accounts WHERE id BETWEEN ? AND ?", rs -> {
+            balances.put(rs.getLong(1), new Mismatch(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), null));
+        }, fromId, toId);
+
+        Map<Long, BigDecimal> net = new HashMap<>();
+        readJdbcTemplate.query("SELECT source_account_id, COALESCE(source_amount, amount) FROM transactions WHERE source_account_id BETWEEN ? AND ?", rs -> {
+            net.merge(rs.getLong(1), rs.getBigDecimal(2).negate(), BigDecimal::add);
+        }, fromId, toId);
+        readJdbcTemplate.query("SELECT target_account_id, COALESCE(target_amount, amount) FROM transactions WHERE target_account_id BETWEEN ? AND ?", rs -> {
+            net.merge(rs.getLong(1), rs.getBigDecimal(2), BigDecimal::add);
+        }, fromId, toId);
+
+        for (Mismatch account : balances.values()) {
+            BigDecimal expected = net.getOrDefault(account.accountId(), BigDecimal.ZERO);
+            if (account.balance().compareTo(expected) != 0) {
+                mismatches.add(new Mismatch(account.accountId(), account.accountNumber(), account.balance(), expected));
+            }
+        }
+        return balances.size();
+    }
+
+    private void throttle() {
+        double rate = maxChunksPerSecond;
+        if (rate <= 0) {
+            return;
+        }
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextChunkSlot.getAndAccumulate(interval, (previous, step) -> Math.max(previous, System.nanoTime()) + step));
+        if (slot > now) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(slot - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Run loadUnfinishedRun() {
+        List<Run> runs = jdbcTemplate.query(
+                "SELECT id, min_account_id, max_account_id, chunk_size, completed_through, accounts_checked, mismatches, started_at " +
+                "FROM reconciliation_runs WHERE status <> ? ORDER BY id DESC",
+                (rs, rowNum) -> new Run(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getInt(4), rs.getLong(5),
+                        rs.getLong(6), rs.getLong(7), rs.getTimestamp(8).toLocalDateTime()),
+                ReconciliationStatus.COMPLETED.name());
+        return runs.isEmpty() ? null : runs.get(0);
+    }
+
+    private Run createRun() {
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT min(id) AS min_id, max(id) AS max_id FROM accounts");
+        long minId = range.get("min_id") != null ? ((Number) range.get("min_id")).longValue() : 1L;
+        long maxId = range.get("max_id") != null ? ((Number) range.get("max_id")).longValue() : 0L;
+        LocalDateTime now = LocalDateTime.now();
+
+        // Read back the generated id of this row; another member may insert a run at the same time
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO reconciliation_runs (status, min_account_id, max_account_id, chunk_size, completed_through, " +
+                    "accounts_checked, mismatches, started_at, updated_at) VALUES (?, ?, ?, ?, ?, 0, 0, ?, ?)",
+                    new String[]{"id"});
+            statement.setString(1, ReconciliationStatus.RUNNING.name());
+            statement.setLong(2, minId);
+            statement.setLong(3, maxId);
+            statement.setInt(4, properties.getChunkSize());
+            statement.setLong(5, minId - 1);
+            statement.setTimestamp(6, Timestamp.valueOf(now));
+            statement.setTimestamp(7, Timestamp.valueOf(now));
+            return statement;
+        }, keyHolder);
+        long id = keyHolder.getKeyAs(Long.class);
+        return new Run(id, minId, maxId, properties.getChunkSize(), minId - 1, 0, 0, now);
+    }
+
+    private void saveProgress(Run run) {
+        synchronized (run) {
+            jdbcTemplate.update(
+                    "UPDATE reconciliation_runs SET status = ?, completed_through = ?, accounts_checked = ?, mismatches = ?, " +
+                    "updated_at = ?, finished_at = ? WHERE id = ?",
+                    run.status.name(), run.completedThrough, run.checkpointAccounts, run.checkpointMismatches,
+                    Timestamp.valueOf(LocalDateTime.now()), run.finishedAt != null ? Timestamp.valueOf(run.finishedAt) : null, run.id);
+        }
+    }
+
+    private record Mismatch(long accountId, String accountNumber, BigDecimal balance, BigDecimal expectedBalance) {
+    }
+
+    /**
+     * In-memory state of a run. The checkpoint only advances over a contiguous prefix of checked chunks.
+     */
+    private static final class Run {
+        private final long id;
+        private final long minAccountId;
+        private final long maxAccountId;
+        private final int chunkSize;
+        private final LocalDateTime startedAt;
+        private final AtomicLong accountsChecked;
+        private final AtomicLong mismatches;
+        private volatile ReconciliationStatus status = ReconciliationStatus.RUNNING;
+        private volatile boolean pauseRequested;
+        private volatile LocalDateTime finishedAt;
+        private volatile long completedThrough;
+        private long checkpointAccounts;
+        private long checkpointMismatches;
+        private long segmentStart;
+        private int segmentChunks;
+        private BitSet completedChunks = new BitSet();
+        private int[] chunkAccounts = new int[0];
+        private int[] chunkMismatches = new int[0];
+        private final AtomicLong chunksCompleted = new AtomicLong();
+
+        private Run(long id, long minAccountId, long maxAccountId, int chunkSize, long completedThrough,
+                    long accountsChecked, long mismatches, LocalDateTime startedAt) {
+            this.id = id;
+            this.minAccountId = minAccountId;
+            this.maxAccountId = maxAccountId;
+            this.chunkSize = chunkSize;
+            this.completedThrough = completedThrough;
+            this.checkpointAccounts = accountsChecked;
+            this.checkpointMismatches = mismatches;
+            this.accountsChecked = new AtomicLong(accountsChecked);
+            this.mismatches = new AtomicLong(mismatches);
+            this.startedAt = startedAt;
+        }
+
+        private synchronized void beginSegment(long segmentStart, int segmentChunks) {
+            this.segmentStart = segmentStart;
+            this.segmentChunks = segmentChunks;
+            this.completedChunks = new BitSet(segmentChunks);
+            this.chunkAccounts = new int[segmentChunks];
+            this.chunkMismatches = new int[segmentChunks];
+            this.chunksCompleted.set(0);
+            this.accountsChecked.set(checkpointAccounts);
+            this.mismatches.set(checkpointMismatches);
+        }
+
+        /**
+         * Record a checked chunk.
+         *
+         * @return true if the checkpoint advanced
+         */
+        private synchronized boolean chunkCompleted(int chunk, int accounts, int mismatchCount) {
+            chunkAccounts[chunk] = accounts;
+            chunkMismatches[chunk] = mismatchCount;
+            completedChunks.set(chunk);
+            chunksCompleted.incrementAndGet();
+            accountsChecked.addAndGet(accounts);
+            mismatches.addAndGet(mismatchCount);
+
+            int checkpointChunk = (int) ((completedThrough + 1 - segmentStart) / chunkSize);
+            int nextPending = completedChunks.nextClearBit(checkpointChunk);
+            if (nextPending == checkpointChunk) {
+                return false;
+            }
+            for (int i = checkpointChunk; i < nextPending; i++) {
+                checkpointAccounts += chunkAccounts[i];
+                checkpointMismatches += chunkMismatches[i];
+            }
+            completedThrough = Math.min(maxAccountId, segmentStart + (long) nextPending * chunkSize - 1);
+            return true;
+        }
+
+        private synchronized boolean isComplete() {
+            return completedThrough >= maxAccountId;
+        }
+
+        private synchronized ReconciliationProgress progress() {
+            return new ReconciliationProgress(id, status, minAccountId, maxAccountId, completedThrough,
+                    chunksCompleted.get(), segmentChunks, accountsChecked.get(), mismatches.get(), startedAt, finishedAt);
+        }
+    }
+}
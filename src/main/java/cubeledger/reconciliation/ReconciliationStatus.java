@@ -0,0 +1,26 @@
+package cubeledger.reconciliation;
+
+/**
+ * Enum representing the lifecycle of a reconciliation run.
+ */
+public enum ReconciliationStatus {
+    /**
+     * The run is being processed
+     */
+    RUNNING,
+
+    /**
+     * The run was paused and can be resumed from its last checkpoint
+     */
+    PAUSED,
+
+    /**
+     * Every chunk of the run has been checked
+     */
+    COMPLETED,
+
+    /**
+     * The run stopped because of an error and can be resumed from its last checkpoint
+     */
+    FAILED
+}
@@ -36,6 +36,16 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
     Optional<Account> findByAccountNumberWithLock(@Param("accountNumber") String accountNumber);
 
+    /**
+     * Find an account by its id with a pessimistic write lock.
+     *
+     * @param id the account id
+     * @return an Optional containing the account if found, or empty if not found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdWithLock(@Param("id") Long id);
+
     /**
      * Check if an account with the given account number exists.
      *
@@ -43,4 +53,13 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      * @return true if an account with the given account number exists, false otherwise
      */
     boolean existsByAccountNumber(String accountNumber);
+
+    /**
+     * Find the id of an account by its account number.
+     *
+     * @param accountNumber the account number to search for
+     * @return an Optional containing the account id if found, or empty if not found
+     */
+    @Query("SELECT a.id FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
 }
@@ -0,0 +1,35 @@
+package cubeledger.repository;
+
+import cubeledger.model.Hold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for Hold entities.
+ */
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    /**
+     * Find the id of the account a hold belongs to, without loading the hold.
+     * Hold changes are serialized by the account lock, so callers lock the account before loading the hold.
+     *
+     * @param id the hold id
+     * @return an Optional containing the account id if the hold exists, or empty if not found
+     */
+    @Query("SELECT h.accountId FROM Hold h WHERE h.id = :id")
+    Optional<Long> findAccountIdById(@Param("id") Long id);
+
+    /**
+     * Find the number of the account a hold belongs to, without loading the hold.
+     *
+     * @param id the hold id
+     * @return an Optional containing the account number if the hold exists, or empty if not found
+     */
+    @Query("SELECT h.accountNumber FROM Hold h WHERE h.id = :id")
+    Optional<String> findAccountNumberById(@Param("id") Long id);
+}
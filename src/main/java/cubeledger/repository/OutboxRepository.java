@@ -0,0 +1,57 @@
+package cubeledger.repository;
+
+import cubeledger.model.OutboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEntry entities.
+ * Provides the sequential reads backing the change feed and the deletes used for pruning.
+ */
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEntry, Long> {
+
+    /**
+     * Find outbox entries after a watermark, in id order.
+     *
+     * @param id the watermark, exclusive
+     * @param limit the maximum number of entries to return
+     * @return the entries after the watermark
+     */
+    List<OutboxEntry> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Find the lowest outbox id.
+     *
+     * @return the lowest id, or null if the outbox is empty
+     */
+    @Query("SELECT min(o.id) FROM OutboxEntry o")
+    Long findMinId();
+
+    /**
+     * Find the highest id of the entries created before a cutoff.
+     *
+     * @param cutoff the creation time cutoff
+     * @return the highest id, or null if no entry is older than the cutoff
+     */
+    @Query("SELECT max(o.id) FROM OutboxEntry o WHERE o.createdAt < :cutoff")
+    Long findMaxIdCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Delete the entries in an id range.
+     *
+     * @param fromId the lowest id to delete, inclusive
+     * @param toId the highest id to delete, inclusive
+     * @return the number of deleted entries
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEntry o WHERE o.id >= :fromId AND o.id <= :toId")
+    int deleteByIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,66 @@
+package cubeledger.repository;
+
+import cubeledger.model.ScheduledTransfer;
+import cubeledger.model.ScheduledTransferStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ScheduledTransfer entities.
+ * Provides the locking reads used to claim due schedules without two nodes claiming the same one.
+ */
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+
+    /**
+     * Find due schedules that are not leased, skipping rows locked by other transactions.
+     * A lock timeout of -2 makes Hibernate render {@code FOR UPDATE SKIP LOCKED} on databases that
+     * support it, so concurrent claimers take disjoint batches instead of queueing on the same rows.
+     *
+     * @param status the status of the schedules to find
+     * @param now the current time
+     * @param limit the maximum number of schedules to return
+     * @return the due schedules, locked until the end of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM ScheduledTransfer s WHERE s.status = :status AND s.dueAt <= :now " +
+           "AND (s.leaseUntil IS NULL OR s.leaseUntil < :now) ORDER BY s.dueAt")
+    List<ScheduledTransfer> findDueSkipLocked(@Param("status") ScheduledTransferStatus status,
+                                              @Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Lease schedules to a node.
+     *
+     * @param ids the schedule ids
+     * @param owner the node
+     * @param leaseUntil when the lease ends
+     * @return the number of leased schedules
+     */
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.leaseOwner = :owner, s.leaseUntil = :leaseUntil WHERE s.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Find a schedule by id with a pessimistic write lock.
+     *
+     * @param id the schedule id
+     * @return an Optional containing the schedule if found, or empty if not found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScheduledTransfer s WHERE s.id = :id")
+    Optional<ScheduledTransfer> findByIdWithLock(@Param("id") Long id);
+}
@@ -0,0 +1,23 @@
+package cubeledger.repository;
+
+import cubeledger.model.ScheduledTransferRun;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for ScheduledTransferRun entities.
+ */
+@Repository
+public interface ScheduledTransferRunRepository extends JpaRepository<ScheduledTransferRun, Long> {
+
+    /**
+     * Find the runs of a schedule, newest first.
+     *
+     * @param scheduledTransferId the schedule id
+     * @param pageable pagination information
+     * @return a page of runs
+     */
+    Page<ScheduledTransferRun> findByScheduledTransferIdOrderByIdDesc(Long scheduledTransferId, Pageable pageable);
+}
@@ -1,7 +1,9 @@
 package cubeledger.repository;
 
+import cubeledger.dto.TransactionSummary;
 import cubeledger.model.Account;
 import cubeledger.model.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -86,4 +88,55 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
            "WHERE t.sourceAccount.accountNumber = :accountNumber OR t.targetAccount.accountNumber = :accountNumber " +
            "ORDER BY t.timestamp DESC")
     Page<Transaction> findByAccountNumber(@Param("accountNumber") String accountNumber, Pageable pageable);
+
+    /**
+     * Find summaries of all transactions where the account with the given account number is either the source or target.
+     * Results are selected straight into {@link TransactionSummary} records, so no entities are hydrated.
+     *
+     * @param accountNumber the account number to search for
+     * @return a list of transaction summaries involving the account, newest first
+     */
+    @Query("SELECT new cubeledger.dto.TransactionSummary(" +
+           "t.id, sa.accountNumber, ta.accountNumber, t.amount, t.currency, t.timestamp, t.description, t.type, " +
+           "CASE WHEN sa.accountNumber = :accountNumber THEN t.sourceSeq ELSE t.targetSeq END) " +
+           "FROM Transaction t LEFT JOIN t.sourceAccount sa LEFT JOIN t.targetAccount ta " +
+           "WHERE sa.accountNumber = :accountNumber OR ta.accountNumber = :accountNumber " +
+           "ORDER BY t.timestamp DESC")
+    List<TransactionSummary> findSummariesByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Find summaries of transactions where the account with the given account number is either the source or target, with pagination.
+     *
+     * @param accountNumber the account number to search for
+     * @param pageable pagination information
+     * @return a page of transaction summaries involving the account, newest first
+     */
+    @Query(value = "SELECT new cubeledger.dto.TransactionSummary(" +
+                   "t.id, sa.accountNumber, ta.accountNumber, t.amount, t.currency, t.timestamp, t.description, t.type, " +
+                   "CASE WHEN sa.accountNumber = :accountNumber THEN t.sourceSeq ELSE t.targetSeq END) " +
+                   "FROM Transaction t LEFT JOIN t.sourceAccount sa LEFT JOIN t.targetAccount ta " +
+                   "WHERE sa.accountNumber = :accountNumber OR ta.accountNumber = :accountNumber " +
+                   "ORDER BY t.timestamp DESC",
+           countQuery = "SELECT count(t) FROM Transaction t LEFT JOIN t.sourceAccount sa LEFT JOIN t.targetAccount ta " +
+                        "WHERE sa.accountNumber = :accountNumber OR ta.accountNumber = :accountNumber")
+    Page<TransactionSummary> findSummariesByAccountNumber(@Param("accountNumber") String accountNumber, Pageable pageable);
+
+    /**
+     * Find summaries of an account's transactions after a sequence number, in sequence order.
+     * Both branches of the condition are range scans of the per-account sequence indexes.
+     *
+     * @param accountId the account id
+     * @param sinceSeq the last sequence number the caller has seen
+     * @param limit the maximum number of transactions
+     * @return the transaction summaries, oldest first
+     */
+    @Query("SELECT new cubeledger.dto.TransactionSummary(" +
+           "t.id, sa.accountNumber, ta.accountNumber, t.amount, t.currency, t.timestamp, t.description, t.type, " +
+           "CASE WHEN sa.id = :accountId THEN t.sourceSeq ELSE t.targetSeq END) " +
+           "FROM Transaction t LEFT JOIN t.sourceAccount sa LEFT JOIN t.targetAccount ta " +
+           "WHERE (t.sourceAccount.id = :accountId AND t.sourceSeq > :sinceSeq) " +
+           "OR (t.targetAccount.id = :accountId AND t.targetSeq > :sinceSeq) " +
+           "ORDER BY CASE WHEN sa.id = :accountId THEN t.sourceSeq ELSE t.targetSeq END")
+    List<TransactionSummary> findSummariesByAccountIdSince(@Param("accountId") Long accountId, @Param("sinceSeq") long sinceSeq,
+                                                           Limit limit);
 }
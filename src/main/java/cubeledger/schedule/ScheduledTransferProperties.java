@@ -0,0 +1,91 @@
+package cubeledger.schedule;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for running scheduled transfers.
+ */
+@ConfigurationProperties(prefix = "cubeledger.scheduled-transfers")
+public class ScheduledTransferProperties {
+
+    /**
+     * Whether this node runs due scheduled transfers.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of due schedules claimed per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Number of threads posting transfers in parallel.
+     */
+    private int workers = 8;
+
+    /**
+     * How long a claimed batch is reserved for this node. Schedules a node fails to finish,
+     * for example because it crashed, can be claimed again once their lease ends.
+     */
+    private Duration leaseDuration = Duration.ofMinutes(5);
+
+    /**
+     * Number of attempts of a run that fails for insufficient funds before the occurrence is skipped.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * How long to wait before retrying a run that failed for insufficient funds.
+     */
+    private Duration retryDelay = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(Duration leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(Duration retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+}
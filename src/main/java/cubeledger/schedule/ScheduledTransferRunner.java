@@ -0,0 +1,211 @@
+package cubeledger.schedule;
+
+import cubeledger.exception.AccountNotFoundException;
+import cubeledger.exception.InsufficientFundsException;
+import cubeledger.exception.InvalidCurrencyException;
+import cubeledger.exception.InvalidTransactionException;
+import cubeledger.exception.OutflowLimitExceededException;
+import cubeledger.model.ScheduledRunOutcome;
+import cubeledger.model.ScheduledTransfer;
+import cubeledger.model.ScheduledTransferRun;
+import cubeledger.model.ScheduledTransferStatus;
+import cubeledger.model.Transaction;
+import cubeledger.repository.ScheduledTransferRepository;
+import cubeledger.repository.ScheduledTransferRunRepository;
+import cubeledger.service.AccountService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Posts due scheduled transfers.
+ * <p>
+ * Due schedules are claimed in batches: a short transaction selects them with
+ * {@code FOR UPDATE SKIP LOCKED} and leases them to this node, so nodes polling at the same time
+ * claim disjoint batches. The batch is then posted by a worker pool, one transaction per schedule.
+ * That transaction re-locks the schedule, checks that this node still holds the lease on the same
+ * occurrence, posts the transfer and advances the schedule, so a schedule is never run twice even
+ * if its lease ended and another node claimed it. Runs that fail for insufficient funds or an
+ * exceeded outflow limit are retried on the configured policy; runs that fail for a transient reason
+ * are picked up again when the lease ends.
+ */
+@Component
+public class ScheduledTransferRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTransferRunner.class);
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final ScheduledTransferRunRepository runRepository;
+    private final AccountService accountService;
+    private final ScheduledTransferProperties properties;
+    private final TransactionTemplate claimTemplate;
+    private final TransactionTemplate runTemplate;
+    private final ExecutorService workers;
+    private final String nodeId;
+
+    public ScheduledTransferRunner(ScheduledTransferRepository scheduledTransferRepository,
+                                   ScheduledTransferRunRepository runRepository,
+                                   AccountService accountService,
+                                   ScheduledTransferProperties properties,
+                                   PlatformTransactionManager transactionManager) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.runRepository = runRepository;
+        this.accountService = accountService;
+        this.properties = properties;
+        this.claimTemplate = new TransactionTemplate(transactionManager);
+        this.runTemplate = new TransactionTemplate(transactionManager);
+        this.runTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "cubeledger-scheduled-transfer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Claim and post due schedules until none are left.
+     */
+    @Scheduled(fixedDelayString = "${cubeledger.scheduled-transfers.poll-interval:PT1S}")
+    public void runDue() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        while (true) {
+            List<Claim> claims = claimDue();
+            if (claims.isEmpty()) {
+                return;
+            }
+
+            List<Future<?>> runs = new ArrayList<>(claims.size());
+            for (Claim claim : claims) {
+                runs.add(workers.submit(() -> run(claim)));
+            }
+            for (Future<?> run : runs) {
+                try {
+                    run.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    logger.error("Scheduled transfer run failed", e.getCause());
+                }
+            }
+
+            if (claims.size() < properties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    private List<Claim> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        return claimTemplate.execute(status -> {
+            List<ScheduledTransfer> due = scheduledTransferRepository.findDueSkipLocked(
+                    ScheduledTransferStatus.ACTIVE, now, Limit.of(properties.getBatchSize()));
+            if (due.isEmpty()) {
+                return List.of();
+            }
+            List<Long> ids = due.stream().map(ScheduledTransfer::getId).toList();
+            scheduledTransferRepository.lease(ids, nodeId, now.plus(properties.getLeaseDuration()));
+            return due.stream().map(schedule -> new Claim(schedule.getId(), schedule.getNextRunAt())).toList();
+        });
+    }
+
+    private void run(Claim claim) {
+        try {
+            runTemplate.executeWithoutResult(status -> {
+                ScheduledTransfer schedule = lockClaimed(claim);
+                if (schedule == null) {
+                    return;
+                }
+                Transaction transaction = accountService.transfer(
+                        schedule.getSourceAccountNumber(),
+                        schedule.getTargetAccountNumber(),
+                        schedule.getAmount(),
+                        schedule.getCurrency(),
+                        schedule.getDescription());
+                runRepository.save(new ScheduledTransferRun(schedule, ScheduledRunOutcome.SUCCEEDED, transaction.getId(), null));
+                schedule.advance(ScheduledRunOutcome.SUCCEEDED);
+            });
+        } catch (InsufficientFundsException | OutflowLimitExceededException e) {
+            recordRejection(claim, e, true);
+        } catch (AccountNotFoundException | InvalidCurrencyException | InvalidTransactionException e) {
+            recordRejection(claim, e, false);
+        } catch (RuntimeException e) {
+            // Leave the lease in place; the schedule is claimed again once it ends
+            logger.warn("Scheduled transfer {} failed, retrying after its lease ends", claim.id(), e);
+        }
+    }
+
+    /**
+     * Record a run whose transfer was rejected, in a new transaction since the transfer's was rolled back.
+     *
+     * @param retryable whether the run may succeed later
+     */
+    private void recordRejection(Claim claim, RuntimeException rejection, boolean retryable) {
+        runTemplate.executeWithoutResult(status -> {
+            ScheduledTransfer schedule = lockClaimed(claim);
+            if (schedule == null) {
+                return;
+            }
+            ScheduledRunOutcome outcome;
+            if (!retryable) {
+                outcome = ScheduledRunOutcome.FAILED;
+            } else if (schedule.getAttempts() + 1 < properties.getMaxAttempts()) {
+                outcome = ScheduledRunOutcome.RETRYING;
+            } else {
+                outcome = ScheduledRunOutcome.MISSED;
+            }
+            runRepository.save(new ScheduledTransferRun(schedule, outcome, null, rejection.getMessage()));
+
+            switch (outcome) {
+                case FAILED -> schedule.fail();
+                case RETRYING -> schedule.retry(LocalDateTime.now().plus(properties.getRetryDelay()));
+                default -> schedule.advance(outcome);
+            }
+        });
+        logger.info("Scheduled transfer {} was rejected: {}", claim.id(), rejection.getMessage());
+    }
+
+    /**
+     * Lock a claimed schedule for the rest of the transaction.
+     *
+     * @return the schedule, or null if it was cancelled or is no longer leased to this node for the claimed occurrence
+     */
+    private ScheduledTransfer lockClaimed(Claim claim) {
+        ScheduledTransfer schedule = scheduledTransferRepository.findByIdWithLock(claim.id()).orElse(null);
+        if (schedule == null || !schedule.isClaimedBy(nodeId, claim.runAt())) {
+            logger.debug("Scheduled transfer {} is no longer claimed by this node", claim.id());
+            return null;
+        }
+        return schedule;
+    }
+
+    private record Claim(Long id, LocalDateTime runAt) {
+    }
+}
@@ -1,12 +1,15 @@
 package cubeledger.service;
 
+import cubeledger.dto.TransactionSummary;
 import cubeledger.model.Account;
 import cubeledger.model.Currency;
+import cubeledger.model.Hold;
 import cubeledger.model.Transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -110,6 +113,46 @@ public interface AccountService {
      */
     Transaction withdraw(String accountNumber, BigDecimal amount, String description);
 
+    /**
+     * Transfer funds between accounts, returning expected rejections instead of throwing them.
+     *
+     * @param sourceAccountNumber the source account number
+     * @param targetAccountNumber the target account number
+     * @param amount the amount to transfer
+     * @param currency the currency of the transfer
+     * @param description optional description of the transfer
+     * @return the created transaction, or why the transfer was rejected
+     * @throws cubeledger.exception.InvalidTransactionException if the transaction is invalid
+     * @throws cubeledger.exception.InvalidCurrencyException if the currency is not supported
+     */
+    TransactionResult tryTransfer(String sourceAccountNumber, String targetAccountNumber, BigDecimal amount, Currency currency, String description);
+
+    /**
+     * Deposit funds into an account, returning expected rejections instead of throwing them.
+     *
+     * @param accountNumber the account number
+     * @param amount the amount to deposit
+     * @param currency the currency of the deposit
+     * @param description optional description of the deposit
+     * @return the created transaction, or why the deposit was rejected
+     * @throws cubeledger.exception.InvalidTransactionException if the transaction is invalid
+     * @throws cubeledger.exception.InvalidCurrencyException if the currency is not supported
+     */
+    TransactionResult tryDeposit(String accountNumber, BigDecimal amount, Currency currency, String description);
+
+    /**
+     * Withdraw funds from an account, returning expected rejections instead of throwing them.
+     *
+     * @param accountNumber the account number
+     * @param amount the amount to withdraw
+     * @param currency the currency of the withdrawal
+     * @param description optional description of the withdrawal
+     * @return the created transaction, or why the withdrawal was rejected
+     * @throws cubeledger.exception.InvalidTransactionException if the transaction is invalid
+     * @throws cubeledger.exception.InvalidCurrencyException if the currency is not supported
+     */
+    TransactionResult tryWithdraw(String accountNumber, BigDecimal amount, Currency currency, String description);
+
     /**
      * List all transactions for an account.
      *
@@ -129,6 +172,41 @@ public interface AccountService {
      */
     Page<Transaction> listTransactions(String accountNumber, Pageable pageable);
 
+    /**
+     * List summaries of all transactions for an account.
+     * Unlike {@link #listTransactions(String)} this does not load any entities.
+     *
+     * @param accountNumber the account number
+     * @return a list of transaction summaries, newest first
+     * @throws cubeledger.exception.AccountNotFoundException if the account is not found
+     */
+    List<TransactionSummary> listTransactionSummaries(String accountNumber);
+
+    /**
+     * List summaries of transactions for an account with pagination.
+     * Unlike {@link #listTransactions(String, Pageable)} this does not load any entities.
+     *
+     * @param accountNumber the account number
+     * @param pageable pagination information
+     * @return a page of transaction summaries, newest first
+     * @throws cubeledger.exception.AccountNotFoundException if the account is not found
+     */
+    Page<TransactionSummary> listTransactionSummaries(String accountNumber, Pageable pageable);
+
+    /**
+     * List summaries of the transactions of an account after a sequence number, for clients that
+     * already have the earlier ones. Each transaction of an account has the next sequence number
+     * of that account, without gaps, so a client can continue from the last one it received.
+     *
+     * @param accountNumber the account number
+     * @param sinceSeq the last sequence number the client has, or 0 for all transactions
+     * @param limit the maximum number of transactions to return, capped at 1000
+     * @return a list of transaction summaries, oldest first
+     * @throws cubeledger.exception.AccountNotFoundException if the account is not found
+     * @throws cubeledger.exception.InvalidTransactionException if the sequence number or limit is invalid
+     */
+    List<TransactionSummary> listTransactionSummariesSince(String accountNumber, long sinceSeq, int limit);
+
     /**
      * Create a new account with the specified currency.
      *
@@ -158,4 +236,63 @@ public interface AccountService {
      * @throws cubeledger.exception.AccountNotFoundException if the account is not found
      */
     Account getAccount(String accountNumber);
+
+    /**
+     * Reserve funds on an account until the hold is captured, released or expires.
+     *
+     * @param accountNumber the account number
+     * @param amount the amount to reserve
+     * @param currency the currency of the amount, converted to the account currency if different
+     * @param ttl how long the hold stays active if it is not captured or released
+     * @param description optional description of the hold
+     * @return the created hold
+     * @throws cubeledger.exception.AccountNotFoundException if the account is not found
+     * @throws cubeledger.exception.InsufficientFundsException if the account has insufficient available funds
+     * @throws cubeledger.exception.InvalidTransactionException if the amount or time to live is invalid
+     * @throws cubeledger.exception.InvalidCurrencyException if the currency is not supported
+     */
+    Hold createHold(String accountNumber, BigDecimal amount, Currency currency, Duration ttl, String description);
+
+    /**
+     * Settle a hold, debiting all or part of the held funds and releasing the rest.
+     *
+     * @param holdId the hold id
+     * @param amount the amount to debit in the hold currency, or null for the full held amount
+     * @param targetAccountNumber the account to credit, or null to debit the funds as a withdrawal
+     * @param description optional description of the resulting transaction
+     * @return the created transaction
+     * @throws cubeledger.exception.HoldNotFoundException if the hold is not found
+     * @throws cubeledger.exception.HoldNotActiveException if the hold is closed or has expired
+     * @throws cubeledger.exception.AccountNotFoundException if the target account is not found
+     * @throws cubeledger.exception.InvalidTransactionException if the amount exceeds the held amount
+     * @throws cubeledger.exception.OutflowLimitExceededException if the capture would exceed the account's outflow limit
+     */
+    Transaction captureHold(Long holdId, BigDecimal amount, String targetAccountNumber, String description);
+
+    /**
+     * Release a hold, making the held funds available again.
+     *
+     * @param holdId the hold id
+     * @return the released hold
+     * @throws cubeledger.exception.HoldNotFoundException if the hold is not found
+     * @throws cubeledger.exception.HoldNotActiveException if the hold is already closed
+     */
+    Hold releaseHold(Long holdId);
+
+    /**
+     * Expire a hold whose expiry time has passed. Does nothing if the hold is closed or has not expired yet.
+     *
+     * @param holdId the hold id
+     * @return true if the hold was expired by this call
+     */
+    boolean expireHold(Long holdId);
+
+    /**
+     * Get a hold by its id.
+     *
+     * @param holdId the hold id
+     * @return the hold
+     * @throws cubeledger.exception.HoldNotFoundException if the hold is not found
+     */
+    Hold getHold(Long holdId);
 }
@@ -1,74 +1,153 @@
 package cubeledger.service;
 
 import cubeledger.actuator.TransactionMetrics;
+import cubeledger.concurrency.AccountLocks;
+import cubeledger.concurrency.AccountReadCoalescer;
+import cubeledger.dto.TransactionSummary;
+import cubeledger.event.HoldClosedEvent;
+import cubeledger.event.HoldPlacedEvent;
+import cubeledger.event.TransactionPostedEvent;
 import cubeledger.exception.AccountNotFoundException;
+import cubeledger.exception.HoldNotActiveException;
+import cubeledger.exception.HoldNotFoundException;
 import cubeledger.exception.InsufficientFundsException;
 import cubeledger.exception.InvalidCurrencyException;
 import cubeledger.exception.InvalidTransactionException;
+import cubeledger.fx.FxRateMatrix;
+import cubeledger.fx.FxRateService;
+import cubeledger.limits.OutflowLimits;
 import cubeledger.model.Account;
 import cubeledger.model.Currency;
+import cubeledger.model.Hold;
+import cubeledger.model.HoldStatus;
+import cubeledger.model.OutboxEntry;
 import cubeledger.model.Transaction;
 import cubeledger.model.TransactionType;
 import cubeledger.repository.AccountRepository;
+import cubeledger.repository.HoldRepository;
+import cubeledger.repository.OutboxRepository;
 import cubeledger.repository.TransactionRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Implementation of the AccountService interface.
  * This class provides thread-safe operations for account and transaction management.
+ * <p>
+ * Operations that change balances first take the in-memory locks of their accounts and only then
+ * open a serializable transaction, so operations queued on a busy account wait without holding a
+ * database connection.
  */
 @Service
 public class AccountServiceImpl implements AccountService {
 
+    private static final int MAX_SYNC_BATCH_SIZE = 1000;
+
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final OutboxRepository outboxRepository;
+    private final HoldRepository holdRepository;
+    private final FxRateService fxRateService;
     private final TransactionMetrics transactionMetrics;
-
-    public AccountServiceImpl(AccountRepository accountRepository, TransactionRepository transactionRepository, TransactionMetrics transactionMetrics) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountLocks accountLocks;
+    private final AccountReadCoalescer accountReadCoalescer;
+    private final OutflowLimits outflowLimits;
+    private final TransactionTemplate writeTransaction;
+
+    public AccountServiceImpl(AccountRepository accountRepository, TransactionRepository transactionRepository, OutboxRepository outboxRepository,
+                              HoldRepository holdRepository, FxRateService fxRateService, TransactionMetrics transactionMetrics,
+                              ApplicationEventPublisher eventPublisher, AccountLocks accountLocks,
+                              AccountReadCoalescer accountReadCoalescer, OutflowLimits outflowLimits,
+                              PlatformTransactionManager transactionManager) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
+        this.outboxRepository = outboxRepository;
+        this.holdRepository = holdRepository;
+        this.fxRateService = fxRateService;
         this.transactionMetrics = transactionMetrics;
+        this.eventPublisher = eventPublisher;
+        this.accountLocks = accountLocks;
+        this.accountReadCoalescer = accountReadCoalescer;
+        this.outflowLimits = outflowLimits;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal getBalance(String accountNumber) {
-        Account account = findAccountByNumber(accountNumber);
+        Account account = accountReadCoalescer.read(accountNumber, () -> findAccountByNumber(accountNumber));
         return account.getBalance();
     }
 
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Transaction transfer(String sourceAccountNumber, String targetAccountNumber, BigDecimal amount, Currency currency, String description) {
-        validateAmount(amount);
-        validateCurrency(currency);
+        return tryTransfer(sourceAccountNumber, targetAccountNumber, amount, currency, description).orThrow();
+    }
+
+    @Override
+    public TransactionResult tryTransfer(String sourceAccountNumber, String targetAccountNumber, BigDecimal amount, Currency currency, String description) {
+        validateAmount(amount, currency);
+        // Reject an account that has used up its outflow limit without queueing for its lock
+        TransactionResult.OutflowLimitExceeded limitExceeded = outflowLimits.check(sourceAccountNumber, amount, currency);
+        if (limitExceeded != null) {
+            return limitExceeded;
+        }
+        return inWriteTransactionResult(() -> doTransfer(sourceAccountNumber, targetAccountNumber, amount, currency, description),
+                sourceAccountNumber, targetAccountNumber);
+    }
+
+    private TransactionResult doTransfer(String sourceAccountNumber, String targetAccountNumber, BigDecimal amount, Currency currency, String description) {
+        FxRateMatrix rates = fxRateService.getRates();
+        validateCurrency(rates, currency);
 
         if (sourceAccountNumber.equals(targetAccountNumber)) {
             throw new InvalidTransactionException("Source and target accounts cannot be the same");
         }
 
         // Use pessimistic locking to prevent concurrent modifications
-        Account sourceAccount = accountRepository.findByAccountNumberWithLock(sourceAccountNumber)
-                .orElseThrow(() -> new AccountNotFoundException(sourceAccountNumber));
+        Account sourceAccount = accountRepository.findByAccountNumberWithLock(sourceAccountNumber).orElse(null);
+        if (sourceAccount == null) {
+            return new TransactionResult.AccountNotFound(sourceAccountNumber);
+        }
+
+        Account targetAccount = accountRepository.findByAccountNumberWithLock(targetAccountNumber).orElse(null);
+        if (targetAccount == null) {
+            return new TransactionResult.AccountNotFound(targetAccountNumber);
+        }
+
+        // Convert the amount to the currency of each account
+        BigDecimal debitAmount = rates.convertPositive(amount, currency, sourceAccount.getCurrency());
+        BigDecimal creditAmount = rates.convertPositive(amount, currency, targetAccount.getCurrency());
 
-        Account targetAccount = accountRepository.findByAccountNumberWithLock(targetAccountNumber)
-                .orElseThrow(() -> new AccountNotFoundException(targetAccountNumber));
+        // Check if source account has sufficient funds that are not held
+        if (sourceAccount.getAvailableBalance().compareTo(debitAmount) < 0) {
+            return new TransactionResult.InsufficientFunds(sourceAccountNumber, sourceAccount.getAvailableBalance(), debitAmount);
+        }
 
-        // Check if source account has sufficient funds
-        if (sourceAccount.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException(sourceAccountNumber, sourceAccount.getBalance(), amount);
+        // Count the outflow against the source account's limits
+        TransactionResult.OutflowLimitExceeded limitExceeded = outflowLimits.reserve(sourceAccountNumber, sourceAccount.getCurrency(), debitAmount);
+        if (limitExceeded != null) {
+            return limitExceeded;
         }
 
         // Update account balances
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(amount));
-        targetAccount.setBalance(targetAccount.getBalance().add(amount));
+        sourceAccount.setBalance(sourceAccount.getBalance().subtract(debitAmount));
+        targetAccount.setBalance(targetAccount.getBalance().add(creditAmount));
 
         // Save updated accounts
         accountRepository.save(sourceAccount);
@@ -76,83 +155,124 @@ public class AccountServiceImpl implements AccountService {
 
         // Create and save transaction record
         Transaction transaction = new Transaction(sourceAccount, targetAccount, amount, currency, TransactionType.TRANSFER, description);
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        transaction.setSourceAmount(debitAmount);
+        transaction.setTargetAmount(creditAmount);
+        transaction.setExchangeRate(rates.rate(sourceAccount.getCurrency(), targetAccount.getCurrency()));
+        Transaction savedTransaction = recordTransaction(transaction);
 
         // Increment transfer counter
         transactionMetrics.incrementTransferCounter();
 
-        return savedTransaction;
+        return new TransactionResult.Completed(savedTransaction);
     }
 
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Transaction transfer(String sourceAccountNumber, String targetAccountNumber, BigDecimal amount, String description) {
         // Use SEK as the default currency
         return transfer(sourceAccountNumber, targetAccountNumber, amount, Currency.SEK, description);
     }
 
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Transaction deposit(String accountNumber, BigDecimal amount, Currency currency, String description) {
-        validateAmount(amount);
-        validateCurrency(currency);
+        return tryDeposit(accountNumber, amount, currency, description).orThrow();
+    }
+
+    @Override
+    public TransactionResult tryDeposit(String accountNumber, BigDecimal amount, Currency currency, String description) {
+        validateAmount(amount, currency);
+        return inWriteTransactionResult(() -> doDeposit(accountNumber, amount, currency, description), accountNumber);
+    }
+
+    private TransactionResult doDeposit(String accountNumber, BigDecimal amount, Currency currency, String description) {
+        FxRateMatrix rates = fxRateService.getRates();
+        validateCurrency(rates, currency);
 
         // Use pessimistic locking to prevent concurrent modifications
-        Account account = accountRepository.findByAccountNumberWithLock(accountNumber)
-                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+        Account account = accountRepository.findByAccountNumberWithLock(accountNumber).orElse(null);
+        if (account == null) {
+            return new TransactionResult.AccountNotFound(accountNumber);
+        }
 
-        // Update account balance
-        account.setBalance(account.getBalance().add(amount));
+        // Update account balance, converting the amount to the account currency
+        BigDecimal creditAmount = rates.convertPositive(amount, currency, account.getCurrency());
+        account.setBalance(account.getBalance().add(creditAmount));
         accountRepository.save(account);
 
         // Create and save transaction record
         Transaction transaction = new Transaction(null, account, amount, currency, TransactionType.DEPOSIT, description);
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        transaction.setTargetAmount(creditAmount);
+        transaction.setExchangeRate(rates.rate(currency, account.getCurrency()));
+        Transaction savedTransaction = recordTransaction(transaction);
 
         // Increment deposit counter
         transactionMetrics.incrementDepositCounter();
 
-        return savedTransaction;
+        return new TransactionResult.Completed(savedTransaction);
     }
 
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Transaction deposit(String accountNumber, BigDecimal amount, String description) {
         // Use SEK as the default currency
         return deposit(accountNumber, amount, Currency.SEK, description);
     }
 
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Transaction withdraw(String accountNumber, BigDecimal amount, Currency currency, String description) {
-        validateAmount(amount);
-        validateCurrency(currency);
+        return tryWithdraw(accountNumber, amount, currency, description).orThrow();
+    }
+
+    @Override
+    public TransactionResult tryWithdraw(String accountNumber, BigDecimal amount, Currency currency, String description) {
+        validateAmount(amount, currency);
+        // Reject an account that has used up its outflow limit without queueing for its lock
+        TransactionResult.OutflowLimitExceeded limitExceeded = outflowLimits.check(accountNumber, amount, currency);
+        if (limitExceeded != null) {
+            return limitExceeded;
+        }
+        return inWriteTransactionResult(() -> doWithdraw(accountNumber, amount, currency, description), accountNumber);
+    }
+
+    private TransactionResult doWithdraw(String accountNumber, BigDecimal amount, Currency currency, String description) {
+        FxRateMatrix rates = fxRateService.getRates();
+        validateCurrency(rates, currency);
 
         // Use pessimistic locking to prevent concurrent modifications
-        Account account = accountRepository.findByAccountNumberWithLock(accountNumber)
-                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+        Account account = accountRepository.findByAccountNumberWithLock(accountNumber).orElse(null);
+        if (account == null) {
+            return new TransactionResult.AccountNotFound(accountNumber);
+        }
 
-        // Check if account has sufficient funds
-        if (account.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException(accountNumber, account.getBalance(), amount);
+        // Convert the amount to the account currency
+        BigDecimal debitAmount = rates.convertPositive(amount, currency, account.getCurrency());
+
+        // Check if account has sufficient funds that are not held
+        if (account.getAvailableBalance().compareTo(debitAmount) < 0) {
+            return new TransactionResult.InsufficientFunds(accountNumber, account.getAvailableBalance(), debitAmount);
+        }
+
+        // Count the outflow against the account's limits
+        TransactionResult.OutflowLimitExceeded limitExceeded = outflowLimits.reserve(accountNumber, account.getCurrency(), debitAmount);
+        if (limitExceeded != null) {
+            return limitExceeded;
         }
 
         // Update account balance
-        account.setBalance(account.getBalance().subtract(amount));
+        account.setBalance(account.getBalance().subtract(debitAmount));
         accountRepository.save(account);
 
         // Create and save transaction record
         Transaction transaction = new Transaction(account, null, amount, currency, TransactionType.WITHDRAWAL, description);
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        transaction.setSourceAmount(debitAmount);
+        transaction.setExchangeRate(rates.rate(currency, account.getCurrency()));
+        Transaction savedTransaction = recordTransaction(transaction);
 
         // Increment withdrawal counter
         transactionMetrics.incrementWithdrawalCounter();
 
-        return savedTransaction;
+        return new TransactionResult.Completed(savedTransaction);
     }
 
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Transaction withdraw(String accountNumber, BigDecimal amount, String description) {
         // Use SEK as the default currency
         return withdraw(accountNumber, amount, Currency.SEK, description);
@@ -180,10 +300,47 @@ public class AccountServiceImpl implements AccountService {
         return transactionRepository.findByAccountNumber(accountNumber, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> listTransactionSummaries(String accountNumber) {
+        // Verify account exists
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+
+        return transactionRepository.findSummariesByAccountNumber(accountNumber);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TransactionSummary> listTransactionSummaries(String accountNumber, Pageable pageable) {
+        // Verify account exists
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+
+        return transactionRepository.findSummariesByAccountNumber(accountNumber, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> listTransactionSummariesSince(String accountNumber, long sinceSeq, int limit) {
+        if (sinceSeq < 0) {
+            throw new InvalidTransactionException("Sequence number must not be negative");
+        }
+        if (limit <= 0) {
+            throw new InvalidTransactionException("Limit must be positive");
+        }
+        Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+
+        return transactionRepository.findSummariesByAccountIdSince(accountId, sinceSeq, Limit.of(Math.min(limit, MAX_SYNC_BATCH_SIZE)));
+    }
+
     @Override
     @Transactional
     public Account createAccount(String accountNumber, Currency currency) {
-        validateCurrency(currency);
+        validateCurrency(fxRateService.getRates(), currency);
 
         // Check if account already exists
         if (accountRepository.existsByAccountNumber(accountNumber)) {
@@ -204,7 +361,263 @@ public class AccountServiceImpl implements AccountService {
     @Override
     @Transactional(readOnly = true)
     public Account getAccount(String accountNumber) {
-        return findAccountByNumber(accountNumber);
+        return accountReadCoalescer.read(accountNumber, () -> findAccountByNumber(accountNumber));
+    }
+
+    @Override
+    public Hold createHold(String accountNumber, BigDecimal amount, Currency currency, Duration ttl, String description) {
+        return inWriteTransaction(() -> doCreateHold(accountNumber, amount, currency, ttl, description), accountNumber);
+    }
+
+    private Hold doCreateHold(String accountNumber, BigDecimal amount, Currency currency, Duration ttl, String description) {
+        validateAmount(amount, currency);
+        FxRateMatrix rates = fxRateService.getRates();
+        validateCurrency(rates, currency);
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new InvalidTransactionException("Hold time to live must be positive");
+        }
+
+        // Use pessimistic locking to prevent concurrent modifications
+        Account account = accountRepository.findByAccountNumberWithLock(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+
+        // Convert the amount to the account currency
+        BigDecimal holdAmount = rates.convertPositive(amount, currency, account.getCurrency());
+
+        // Check if account has sufficient funds that are not held
+        if (account.getAvailableBalance().compareTo(holdAmount) < 0) {
+            throw new InsufficientFundsException(accountNumber, account.getAvailableBalance(), holdAmount);
+        }
+
+        // Reserve the funds
+        account.setHeldAmount(account.getHeldAmount().add(holdAmount));
+        accountRepository.save(account);
+
+        Hold hold = holdRepository.save(new Hold(account, holdAmount, LocalDateTime.now().plus(ttl), description));
+        eventPublisher.publishEvent(new HoldPlacedEvent(hold.getId(), hold.getExpiresAt()));
+        return hold;
+    }
+
+    @Override
+    public Transaction captureHold(Long holdId, BigDecimal amount, String targetAccountNumber, String description) {
+        String accountNumber = holdRepository.findAccountNumberById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException(holdId));
+        return inWriteTransaction(() -> doCaptureHold(holdId, amount, targetAccountNumber, description),
+                accountNumber, targetAccountNumber);
+    }
+
+    private Transaction doCaptureHold(Long holdId, BigDecimal amount, String targetAccountNumber, String description) {
+        Account account = lockHoldAccount(holdId);
+        Hold hold = findHoldById(holdId);
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            throw new HoldNotActiveException(holdId, hold.getStatus());
+        }
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new HoldNotActiveException(holdId);
+        }
+
+        BigDecimal captureAmount = amount != null ? amount : hold.getAmount();
+        validateAmount(captureAmount, hold.getCurrency());
+        if (captureAmount.compareTo(hold.getAmount()) > 0) {
+            throw new InvalidTransactionException("Capture amount " + captureAmount + " exceeds held amount " + hold.getAmount());
+        }
+
+        Account targetAccount = null;
+        if (targetAccountNumber != null) {
+            if (targetAccountNumber.equals(account.getAccountNumber())) {
+                throw new InvalidTransactionException("Source and target accounts cannot be the same");
+            }
+            targetAccount = accountRepository.findByAccountNumberWithLock(targetAccountNumber)
+                    .orElseThrow(() -> new AccountNotFoundException(targetAccountNumber));
+        }
+
+        // Count the captured part against the account's limits; the hold stays active if it would exceed one
+        TransactionResult.OutflowLimitExceeded limitExceeded = outflowLimits.reserve(account.getAccountNumber(), account.getCurrency(), captureAmount);
+        if (limitExceeded != null) {
+            return limitExceeded.orThrow();
+        }
+
+        // Release the whole hold and debit the captured part; the balance always covers the held amount
+        account.setHeldAmount(account.getHeldAmount().subtract(hold.getAmount()));
+        account.setBalance(account.getBalance().subtract(captureAmount));
+        accountRepository.save(account);
+
+        Transaction transaction;
+        if (targetAccount != null) {
+            FxRateMatrix rates = fxRateService.getRates();
+            BigDecimal creditAmount = rates.convertPositive(captureAmount, hold.getCurrency(), targetAccount.getCurrency());
+            targetAccount.setBalance(targetAccount.getBalance().add(creditAmount));
+            accountRepository.save(targetAccount);
+
+            transaction = new Transaction(account, targetAccount, captureAmount, hold.getCurrency(), TransactionType.TRANSFER, description);
+            transaction.setTargetAmount(creditAmount);
+            transaction.setExchangeRate(rates.rate(hold.getCurrency(), targetAccount.getCurrency()));
+            transactionMetrics.incrementTransferCounter();
+        } else {
+            transaction = new Transaction(account, null, captureAmount, hold.getCurrency(), TransactionType.WITHDRAWAL, description);
+            transactionMetrics.incrementWithdrawalCounter();
+        }
+        Transaction savedTransaction = recordTransaction(transaction);
+
+        hold.setCapturedAmount(captureAmount);
+        hold.setTransactionId(savedTransaction.getId());
+        hold.close(HoldStatus.CAPTURED);
+        eventPublisher.publishEvent(new HoldClosedEvent(holdId, HoldStatus.CAPTURED));
+        return savedTransaction;
+    }
+
+    @Override
+    public Hold releaseHold(Long holdId) {
+        String accountNumber = holdRepository.findAccountNumberById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException(holdId));
+        return inWriteTransaction(() -> doReleaseHold(holdId), accountNumber);
+    }
+
+    private Hold doReleaseHold(Long holdId) {
+        Account account = lockHoldAccount(holdId);
+        Hold hold = findHoldById(holdId);
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            throw new HoldNotActiveException(holdId, hold.getStatus());
+        }
+
+        closeHold(account, hold, HoldStatus.RELEASED);
+        return hold;
+    }
+
+    @Override
+    public boolean expireHold(Long holdId) {
+        String accountNumber = holdRepository.findAccountNumberById(holdId).orElse(null);
+        if (accountNumber == null) {
+            return false;
+        }
+        return inWriteTransaction(() -> doExpireHold(holdId), accountNumber);
+    }
+
+    private boolean doExpireHold(Long holdId) {
+        Long accountId = holdRepository.findAccountIdById(holdId).orElse(null);
+        if (accountId == null) {
+            return false;
+        }
+        Account account = accountRepository.findByIdWithLock(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+        Hold hold = findHoldById(holdId);
+        if (hold.getStatus() != HoldStatus.ACTIVE || hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            return false;
+        }
+
+        closeHold(account, hold, HoldStatus.EXPIRED);
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Hold getHold(Long holdId) {
+        return findHoldById(holdId);
+    }
+
+    /**
+     * Run a write operation in a serializable transaction while holding the locks of its accounts.
+     * The locks are taken before the transaction starts, so waiting for them does not hold a connection.
+     * A caller that is already in a transaction keeps using it. Once the transaction completes, concurrent
+     * reads of the accounts in flight are no longer shared, so later reads see the change.
+     *
+     * @param operation the operation
+     * @param accountNumbers the accounts the operation touches
+     * @return the result of the operation
+     */
+    private <T> T inWriteTransaction(Supplier<T> operation, String... accountNumbers) {
+        return accountLocks.withLocks(() -> writeTransaction.execute(status -> {
+            if (status.isNewTransaction()) {
+                transactionMetrics.timeCommit();
+            }
+            accountReadCoalescer.invalidate(accountNumbers);
+            return operation.get();
+        }), accountNumbers);
+    }
+
+    /**
+     * Run a write operation that reports expected rejections as results, like
+     * {@link #inWriteTransaction(Supplier, String...)}. A rejected operation has written nothing; its
+     * transaction is rolled back without an exception if it started here, and a caller's transaction
+     * is left for the caller to finish.
+     *
+     * @param operation the operation
+     * @param accountNumbers the accounts the operation touches
+     * @return the result of the operation
+     */
+    private TransactionResult inWriteTransactionResult(Supplier<TransactionResult> operation, String... accountNumbers) {
+        return accountLocks.withLocks(() -> writeTransaction.execute(status -> {
+            if (status.isNewTransaction()) {
+                transactionMetrics.timeCommit();
+            }
+            accountReadCoalescer.invalidate(accountNumbers);
+            TransactionResult result = operation.get();
+            if (!(result instanceof TransactionResult.Completed) && status.isNewTransaction()) {
+                status.setRollbackOnly();
+            }
+            return result;
+        }), accountNumbers);
+    }
+
+    /**
+     * Save a transaction record together with its outbox entry and notify listeners.
+     * Must be called inside the transaction that updated the account balances.
+     *
+     * @param transaction the transaction to save
+     * @return the saved transaction
+     */
+    private Transaction recordTransaction(Transaction transaction) {
+        if (transaction.getSourceAccount() != null) {
+            transaction.setSourceSeq(transaction.getSourceAccount().nextSeq());
+        }
+        if (transaction.getTargetAccount() != null) {
+            transaction.setTargetSeq(transaction.getTargetAccount().nextSeq());
+        }
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        outboxRepository.save(new OutboxEntry(savedTransaction));
+        eventPublisher.publishEvent(TransactionPostedEvent.of(savedTransaction));
+        return savedTransaction;
+    }
+
+    /**
+     * Lock the account a hold belongs to. Hold changes are serialized by this lock, so the hold
+     * must be loaded after it is taken.
+     *
+     * @param holdId the hold id
+     * @return the locked account
+     * @throws HoldNotFoundException if the hold is not found
+     */
+    private Account lockHoldAccount(Long holdId) {
+        Long accountId = holdRepository.findAccountIdById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException(holdId));
+        return accountRepository.findByIdWithLock(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+
+    /**
+     * Return the funds of an active hold to the available balance and close it.
+     *
+     * @param account the locked account of the hold
+     * @param hold the hold
+     * @param status the final status
+     */
+    private void closeHold(Account account, Hold hold, HoldStatus status) {
+        account.setHeldAmount(account.getHeldAmount().subtract(hold.getAmount()));
+        accountRepository.save(account);
+        hold.close(status);
+        eventPublisher.publishEvent(new HoldClosedEvent(hold.getId(), status));
+    }
+
+    /**
+     * Helper method to find a hold by its id.
+     *
+     * @param holdId the hold id
+     * @return the hold
+     * @throws HoldNotFoundException if the hold is not found
+     */
+    private Hold findHoldById(Long holdId) {
+        return holdRepository.findById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException(holdId));
     }
 
     /**
@@ -220,26 +633,33 @@ public class AccountServiceImpl implements AccountService {
     }
 
     /**
-     * Validate that an amount is positive.
+     * Validate that an amount is positive and has no more decimals than its currency's minor units,
+     * and at most two, so that a currency without minor units, such as JPY, never holds fractions.
      *
      * @param amount the amount to validate
-     * @throws InvalidTransactionException if the amount is not positive
+     * @param currency the currency of the amount; if null, it is rejected later and only two decimals are checked
+     * @throws InvalidTransactionException if the amount is not positive or has too many decimals
      */
-    private void validateAmount(BigDecimal amount) {
+    private void validateAmount(BigDecimal amount, Currency currency) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidTransactionException("Transaction amount must be positive");
         }
+        int fractionDigits = currency != null ? FxRateMatrix.fractionDigits(currency) : 2;
+        if (amount.stripTrailingZeros().scale() > fractionDigits) {
+            throw new InvalidTransactionException("Transaction amount must have at most " + fractionDigits + " decimals"
+                    + (currency != null ? " in " + currency : ""));
+        }
     }
 
     /**
-     * Validate that the currency is supported.
-     * Currently, only SEK is supported.
+     * Validate that the currency is supported, meaning that it has an exchange rate.
      *
+     * @param rates the exchange rates used by the operation
      * @param currency the currency to validate
      * @throws InvalidCurrencyException if the currency is not supported
      */
-    private void validateCurrency(Currency currency) {
-        if (currency != Currency.SEK) {
+    private void validateCurrency(FxRateMatrix rates, Currency currency) {
+        if (!rates.isSupported(currency)) {
             throw new InvalidCurrencyException(currency);
         }
     }
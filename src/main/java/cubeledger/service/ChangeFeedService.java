@@ -0,0 +1,127 @@
+package cubeledger.service;
+
+import cubeledger.cluster.ClusterMembership;
+import cubeledger.dto.ChangeBatchDTO;
+import cubeledger.dto.ChangeDTO;
+import cubeledger.exception.InvalidTransactionException;
+import cubeledger.model.OutboxEntry;
+import cubeledger.repository.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves the change feed from the transactional outbox and prunes old outbox entries.
+ * <p>
+ * Outbox ids are assigned when a row is inserted, not when it commits, so a reader can observe
+ * id {@code n + 1} before id {@code n} becomes visible. A batch therefore stops at the first gap
+ * in the ids unless the entry after the gap is older than the configured grace period, in which
+ * case the gap is taken to be a rolled back transaction. Consumers that resume from the returned
+ * watermark never skip a change.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterMembership clusterMembership;
+    private final Clock clock;
+
+    public ChangeFeedService(OutboxRepository outboxRepository, OutboxProperties properties, PlatformTransactionManager transactionManager,
+                             ClusterMembership clusterMembership, Clock clock) {
+        this.outboxRepository = outboxRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clusterMembership = clusterMembership;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the changes after a watermark.
+     *
+     * @param after the watermark returned by the previous request, or 0 to start from the oldest retained change
+     * @param limit the maximum number of changes to return
+     * @return a batch of changes and the watermark to continue from
+     * @throws InvalidTransactionException if the watermark or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public ChangeBatchDTO getChanges(long after, int limit) {
+        if (after < 0) {
+            throw new InvalidTransactionException("Watermark must not be negative");
+        }
+        if (limit <= 0) {
+            throw new InvalidTransactionException("Limit must be positive");
+        }
+        int batchSize = Math.min(limit, properties.getMaxBatchSize());
+
+        List<OutboxEntry> entries = outboxRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(batchSize));
+        LocalDateTime settledBefore = LocalDateTime.now(clock).minus(properties.getGapGracePeriod());
+
+        List<ChangeDTO> changes = new ArrayList<>(entries.size());
+        long watermark = after;
+        for (OutboxEntry entry : entries) {
+            boolean gap = entry.getId() != watermark + 1;
+            if (gap && entry.getCreatedAt().isAfter(settledBefore)) {
+                // A transaction holding a lower id may still commit
+                return new ChangeBatchDTO(changes, watermark, false);
+            }
+            changes.add(convertToDTO(entry));
+            watermark = entry.getId();
+        }
+        return new ChangeBatchDTO(changes, watermark, entries.size() == batchSize);
+    }
+
+    /**
+     * Delete outbox entries older than the retention period, in batches of separate transactions
+     * so that pruning never holds locks on a large range. Only the member running the outbox pruner
+     * does this.
+     */
+    @Scheduled(fixedDelayString = "${cubeledger.outbox.prune-interval:PT1M}", initialDelayString = "${cubeledger.outbox.prune-interval:PT1M}")
+    public void pruneOutbox() {
+        if (!clusterMembership.runsJob("outbox-pruner")) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.getRetention());
+        Long maxId = outboxRepository.findMaxIdCreatedBefore(cutoff);
+        Long minId = outboxRepository.findMinId();
+        if (maxId == null || minId == null) {
+            return;
+        }
+
+        long deleted = 0;
+        for (long fromId = minId; fromId <= maxId; fromId += properties.getPruneBatchSize()) {
+            long from = fromId;
+            long to = Math.min(maxId, fromId + properties.getPruneBatchSize() - 1);
+            Integer count = transactionTemplate.execute(status -> outboxRepository.deleteByIdBetween(from, to));
+            deleted += count != null ? count : 0;
+        }
+        logger.debug("Pruned {} outbox entries created before {}", deleted, cutoff);
+    }
+
+    private ChangeDTO convertToDTO(OutboxEntry entry) {
+        return new ChangeDTO(
+                entry.getId(),
+                entry.getTransactionId(),
+                entry.getType(),
+                entry.getSourceAccountNumber(),
+                entry.getTargetAccountNumber(),
+                entry.getAmount(),
+                entry.getCurrency(),
+                entry.getDescription(),
+                entry.getOccurredAt()
+        );
+    }
+}
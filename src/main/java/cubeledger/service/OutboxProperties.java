@@ -0,0 +1,65 @@
+package cubeledger.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the transactional outbox and the change feed.
+ */
+@ConfigurationProperties(prefix = "cubeledger.outbox")
+public class OutboxProperties {
+
+    /**
+     * How long outbox entries are kept before they are pruned.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Maximum number of entries deleted per pruning transaction.
+     */
+    private int pruneBatchSize = 5_000;
+
+    /**
+     * How long a gap in outbox ids is assumed to belong to a transaction that may still commit.
+     * The change feed does not move past a younger gap, so consumers never skip a late commit.
+     */
+    private Duration gapGracePeriod = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of changes returned per change feed request.
+     */
+    private int maxBatchSize = 1_000;
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public int getPruneBatchSize() {
+        return pruneBatchSize;
+    }
+
+    public void setPruneBatchSize(int pruneBatchSize) {
+        this.pruneBatchSize = pruneBatchSize;
+    }
+
+    public Duration getGapGracePeriod() {
+        return gapGracePeriod;
+    }
+
+    public void setGapGracePeriod(Duration gapGracePeriod) {
+        this.gapGracePeriod = gapGracePeriod;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+}
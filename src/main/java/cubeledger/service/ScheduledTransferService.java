@@ -0,0 +1,144 @@
+package cubeledger.service;
+
+import cubeledger.exception.AccountNotFoundException;
+import cubeledger.exception.InvalidCurrencyException;
+import cubeledger.exception.InvalidTransactionException;
+import cubeledger.exception.ScheduledTransferNotFoundException;
+import cubeledger.fx.FxRateMatrix;
+import cubeledger.fx.FxRateService;
+import cubeledger.model.Currency;
+import cubeledger.model.ScheduleFrequency;
+import cubeledger.model.ScheduledTransfer;
+import cubeledger.model.ScheduledTransferRun;
+import cubeledger.model.ScheduledTransferStatus;
+import cubeledger.repository.AccountRepository;
+import cubeledger.repository.ScheduledTransferRepository;
+import cubeledger.repository.ScheduledTransferRunRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Creates, reads and cancels scheduled transfers. The transfers themselves are posted by
+ * {@link cubeledger.schedule.ScheduledTransferRunner}.
+ */
+@Service
+public class ScheduledTransferService {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final ScheduledTransferRunRepository runRepository;
+    private final AccountRepository accountRepository;
+    private final FxRateService fxRateService;
+
+    public ScheduledTransferService(ScheduledTransferRepository scheduledTransferRepository,
+                                    ScheduledTransferRunRepository runRepository,
+                                    AccountRepository accountRepository,
+                                    FxRateService fxRateService) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.runRepository = runRepository;
+        this.accountRepository = accountRepository;
+        this.fxRateService = fxRateService;
+    }
+
+    /**
+     * Schedule a transfer. A first run time in the past makes the first run due immediately.
+     *
+     * @param sourceAccountNumber the source account number
+     * @param targetAccountNumber the target account number
+     * @param amount the amount to transfer on every run
+     * @param currency the currency of the amount
+     * @param description the description of the transfers
+     * @param frequency how often the transfer runs
+     * @param firstRunAt the time of the first run
+     * @param endAt the time after which the transfer no longer runs, or null to run until cancelled
+     * @return the scheduled transfer
+     * @throws AccountNotFoundException if either account does not exist
+     * @throws InvalidCurrencyException if the currency is not supported
+     * @throws InvalidTransactionException if the schedule is invalid
+     */
+    @Transactional
+    public ScheduledTransfer create(String sourceAccountNumber, String targetAccountNumber, BigDecimal amount, Currency currency,
+                                    String description, ScheduleFrequency frequency, LocalDateTime firstRunAt, LocalDateTime endAt) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidTransactionException("Transaction amount must be positive");
+        }
+        if (sourceAccountNumber.equals(targetAccountNumber)) {
+            throw new InvalidTransactionException("Source and target accounts must be different");
+        }
+        if (frequency == null || firstRunAt == null) {
+            throw new InvalidTransactionException("Frequency and first run time are required");
+        }
+        if (endAt != null && endAt.isBefore(firstRunAt)) {
+            throw new InvalidTransactionException("End time must not be before the first run time");
+        }
+        if (!fxRateService.getRates().isSupported(currency)) {
+            throw new InvalidCurrencyException(currency);
+        }
+        // Checked when the schedule is created, so that it does not fail on its first run
+        if (amount.stripTrailingZeros().scale() > FxRateMatrix.fractionDigits(currency)) {
+            throw new InvalidTransactionException("Transaction amount must have at most "
+                    + FxRateMatrix.fractionDigits(currency) + " decimals in " + currency);
+        }
+        if (!accountRepository.existsByAccountNumber(sourceAccountNumber)) {
+            throw new AccountNotFoundException(sourceAccountNumber);
+        }
+        if (!accountRepository.existsByAccountNumber(targetAccountNumber)) {
+            throw new AccountNotFoundException(targetAccountNumber);
+        }
+
+        return scheduledTransferRepository.save(new ScheduledTransfer(
+                sourceAccountNumber, targetAccountNumber, amount, currency, description, frequency, firstRunAt, endAt));
+    }
+
+    /**
+     * Get a scheduled transfer.
+     *
+     * @param id the schedule id
+     * @return the scheduled transfer
+     * @throws ScheduledTransferNotFoundException if the schedule does not exist
+     */
+    @Transactional(readOnly = true)
+    public ScheduledTransfer get(Long id) {
+        return scheduledTransferRepository.findById(id)
+                .orElseThrow(() -> new ScheduledTransferNotFoundException(id));
+    }
+
+    /**
+     * Cancel a scheduled transfer. A run that is in progress when the schedule is cancelled still completes.
+     *
+     * @param id the schedule id
+     * @return the cancelled schedule
+     * @throws ScheduledTransferNotFoundException if the schedule does not exist
+     * @throws InvalidTransactionException if the schedule is no longer active
+     */
+    @Transactional
+    public ScheduledTransfer cancel(Long id) {
+        ScheduledTransfer schedule = scheduledTransferRepository.findByIdWithLock(id)
+                .orElseThrow(() -> new ScheduledTransferNotFoundException(id));
+        if (schedule.getStatus() != ScheduledTransferStatus.ACTIVE) {
+            throw new InvalidTransactionException("Scheduled transfer " + id + " is " + schedule.getStatus());
+        }
+        schedule.cancel();
+        return scheduledTransferRepository.save(schedule);
+    }
+
+    /**
+     * List the runs of a scheduled transfer, newest first.
+     *
+     * @param id the schedule id
+     * @param pageable pagination information
+     * @return a page of runs
+     * @throws ScheduledTransferNotFoundException if the schedule does not exist
+     */
+    @Transactional(readOnly = true)
+    public Page<ScheduledTransferRun> listRuns(Long id, Pageable pageable) {
+        if (!scheduledTransferRepository.existsById(id)) {
+            throw new ScheduledTransferNotFoundException(id);
+        }
+        return runRepository.findByScheduledTransferIdOrderByIdDesc(id, pageable);
+    }
+}
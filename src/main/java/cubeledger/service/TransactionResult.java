@@ -0,0 +1,88 @@
+package cubeledger.service;
+
+import cubeledger.exception.AccountNotFoundException;
+import cubeledger.exception.InsufficientFundsException;
+import cubeledger.exception.OutflowLimitExceededException;
+import cubeledger.model.Transaction;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of a deposit, withdrawal or transfer.
+ * <p>
+ * Insufficient funds and unknown accounts are expected on a large share of requests, so they are
+ * returned as values instead of thrown: no stack trace is captured, and the transaction ends without
+ * unwinding through the transaction infrastructure. Invalid requests are still thrown.
+ */
+public sealed interface TransactionResult {
+
+    /**
+     * Get the transaction, throwing the exception matching a rejection.
+     *
+     * @return the transaction
+     * @throws InsufficientFundsException if the source account had insufficient funds
+     * @throws AccountNotFoundException if an account does not exist
+     * @throws OutflowLimitExceededException if the source account's outflow limit would be exceeded
+     */
+    default Transaction orThrow() {
+        return switch (this) {
+            case Completed completed -> completed.transaction();
+            case InsufficientFunds rejection ->
+                    throw new InsufficientFundsException(rejection.accountNumber(), rejection.availableBalance(), rejection.requiredAmount());
+            case AccountNotFound rejection -> throw new AccountNotFoundException(rejection.accountNumber());
+            case OutflowLimitExceeded rejection -> throw new OutflowLimitExceededException(rejection.accountNumber(), rejection.window(),
+                    rejection.maxOutflow(), rejection.usedOutflow(), rejection.requestedAmount());
+        };
+    }
+
+    /**
+     * The transaction was recorded.
+     *
+     * @param transaction the recorded transaction
+     */
+    record Completed(Transaction transaction) implements TransactionResult {
+    }
+
+    /**
+     * The source account's available balance did not cover the amount.
+     *
+     * @param accountNumber the source account number
+     * @param availableBalance the available balance in the account currency
+     * @param requiredAmount the amount needed in the account currency
+     */
+    record InsufficientFunds(String accountNumber, BigDecimal availableBalance, BigDecimal requiredAmount) implements TransactionResult {
+
+        public String message() {
+            return InsufficientFundsException.message(accountNumber, availableBalance, requiredAmount);
+        }
+    }
+
+    /**
+     * An account does not exist.
+     *
+     * @param accountNumber the missing account number
+     */
+    record AccountNotFound(String accountNumber) implements TransactionResult {
+
+        public String message() {
+            return AccountNotFoundException.message(accountNumber);
+        }
+    }
+
+    /**
+     * The amount would take the source account over the maximum outflow of a window.
+     *
+     * @param accountNumber the source account number
+     * @param window the name of the limited window
+     * @param maxOutflow the maximum outflow of the window in the account currency
+     * @param usedOutflow the outflow already in the window in the account currency
+     * @param requestedAmount the amount requested in the account currency
+     */
+    record OutflowLimitExceeded(String accountNumber, String window, BigDecimal maxOutflow, BigDecimal usedOutflow,
+                                BigDecimal requestedAmount) implements TransactionResult {
+
+        public String message() {
+            return OutflowLimitExceededException.message(accountNumber, window, maxOutflow, usedOutflow, requestedAmount);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package cubeledger.tcp;
+
+import cubeledger.model.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format shared by the TCP listener and the Java client.
+ * <p>
+ * Every frame is length-prefixed: a 4-byte big-endian length followed by that many bytes.
+ * The frame body starts with a 1-byte opcode (requests) or status (responses) and an
+ * 8-byte correlation id chosen by the client, which allows requests to be pipelined and
+ * answered out of order.
+ * <pre>
+ * DEPOSIT / WITHDRAW  : account, amount, currency, description
+ * TRANSFER            : source, target, amount, currency, description
+ * BALANCE             : account
+ * OK (mutation)       : transaction id (8), balance of the debited/credited account (8)
+ * OK (balance)        : balance (8)
+ * error statuses      : message
+ * </pre>
+ * Strings are encoded as an unsigned 2-byte length and UTF-8 bytes, with {@code 0xFFFF} meaning null.
+ * Amounts are encoded as 8-byte minor units (two decimal places), currencies as their 1-byte ordinal.
+ */
+public final class BinaryProtocol {
+
+    public static final byte OP_DEPOSIT = 1;
+    public static final byte OP_WITHDRAW = 2;
+    public static final byte OP_TRANSFER = 3;
+    public static final byte OP_BALANCE = 4;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ACCOUNT_NOT_FOUND = 1;
+    public static final byte STATUS_INSUFFICIENT_FUNDS = 2;
+    public static final byte STATUS_INVALID_REQUEST = 3;
+    public static final byte STATUS_INVALID_CURRENCY = 4;
+    public static final byte STATUS_BUSY = 5;
+    public static final byte STATUS_LIMIT_EXCEEDED = 6;
+    public static final byte STATUS_INTERNAL_ERROR = 127;
+
+    /** Size of the length prefix preceding every frame. */
+    public static final int LENGTH_PREFIX_SIZE = 4;
+
+    /** Size of the opcode/status byte and correlation id at the start of every frame body. */
+    public static final int HEADER_SIZE = 1 + 8;
+
+    private static final int AMOUNT_SCALE = 2;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Allocate a frame buffer with the length prefix and header already written.
+     *
+     * @param code the opcode or status
+     * @param correlationId the correlation id
+     * @param payloadSize the number of payload bytes that will follow
+     * @return a buffer positioned at the start of the payload
+     */
+    public static ByteBuffer allocateFrame(byte code, long correlationId, int payloadSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH_PREFIX_SIZE + HEADER_SIZE + payloadSize);
+        buffer.putInt(HEADER_SIZE + payloadSize);
+        buffer.put(code);
+        buffer.putLong(correlationId);
+        return buffer;
+    }
+
+    /**
+     * Encode a string to UTF-8 ahead of writing it, so frame sizes can be computed up front.
+     *
+     * @param value the string, may be null
+     * @return the UTF-8 bytes, or null for a null string
+     */
+    public static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("String too long for binary protocol: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Get the number of bytes an encoded string occupies on the wire.
+     *
+     * @param utf8 the bytes returned by {@link #utf8(String)}
+     * @return the encoded size
+     */
+    public static int encodedSize(byte[] utf8) {
+        return 2 + (utf8 == null ? 0 : utf8.length);
+    }
+
+    public static void putString(ByteBuffer buffer, byte[] utf8) {
+        if (utf8 == null) {
+            buffer.putShort((short) NULL_STRING);
+            return;
+        }
+        buffer.putShort((short) utf8.length);
+        buffer.put(utf8);
+    }
+
+    public static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Convert an amount to minor units.
+     *
+     * @param amount the amount
+     * @return the amount in minor units
+     * @throws ArithmeticException if the amount has more than two decimals or does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, AMOUNT_SCALE);
+    }
+
+    public static void putCurrency(ByteBuffer buffer, Currency currency) {
+        buffer.put((byte) (currency != null ? currency : Currency.SEK).ordinal());
+    }
+
+    public static Currency getCurrency(ByteBuffer buffer) {
+        int ordinal = buffer.get();
+        if (ordinal < 0 || ordinal >= CURRENCIES.length) {
+            throw new IllegalArgumentException("Unknown currency ordinal: " + ordinal);
+        }
+        return CURRENCIES[ordinal];
+    }
+}
@@ -0,0 +1,118 @@
+package cubeledger.tcp;
+
+import cubeledger.exception.AccountNotFoundException;
+import cubeledger.exception.InsufficientFundsException;
+import cubeledger.exception.InvalidCurrencyException;
+import cubeledger.exception.InvalidTransactionException;
+import cubeledger.exception.OutflowLimitExceededException;
+import cubeledger.exception.ServiceOverloadedException;
+import cubeledger.model.Account;
+import cubeledger.model.Currency;
+import cubeledger.model.Transaction;
+import cubeledger.service.AccountService;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static cubeledger.tcp.BinaryProtocol.*;
+
+/**
+ * Decodes binary request frames, dispatches them to the {@link AccountService}
+ * and encodes the response frames.
+ */
+public class TcpCommandHandler {
+
+    private final AccountService accountService;
+
+    public TcpCommandHandler(AccountService accountService) {
+        this.accountService = accountService;
+    }
+
+    /**
+     * Handle one request frame.
+     *
+     * @param frame the frame body (without the length prefix), starting at the opcode
+     * @return the complete response frame, ready to be written
+     */
+    public ByteBuffer handle(ByteBuffer frame) {
+        byte opcode = frame.get();
+        long correlationId = frame.getLong();
+        try {
+            return switch (opcode) {
+                case OP_DEPOSIT -> {
+                    String accountNumber = getString(frame);
+                    BigDecimal amount = fromMinorUnits(frame.getLong());
+                    Currency currency = getCurrency(frame);
+                    String description = getString(frame);
+                    Transaction transaction = accountService.deposit(accountNumber, amount, currency, description);
+                    yield mutationResponse(correlationId, transaction, transaction.getTargetAccount());
+                }
+                case OP_WITHDRAW -> {
+                    String accountNumber = getString(frame);
+                    BigDecimal amount = fromMinorUnits(frame.getLong());
+                    Currency currency = getCurrency(frame);
+                    String description = getString(frame);
+                    Transaction transaction = accountService.withdraw(accountNumber, amount, currency, description);
+                    yield mutationResponse(correlationId, transaction, transaction.getSourceAccount());
+                }
+                case OP_TRANSFER -> {
+                    String sourceAccountNumber = getString(frame);
+                    String targetAccountNumber = getString(frame);
+                    BigDecimal amount = fromMinorUnits(frame.getLong());
+                    Currency currency = getCurrency(frame);
+                    String description = getString(frame);
+                    Transaction transaction = accountService.transfer(sourceAccountNumber, targetAccountNumber, amount, currency, description);
+                    yield mutationResponse(correlationId, transaction, transaction.getSourceAccount());
+                }
+                case OP_BALANCE -> {
+                    BigDecimal balance = accountService.getBalance(getString(frame));
+                    ByteBuffer response = allocateFrame(STATUS_OK, correlationId, 8);
+                    response.putLong(toMinorUnits(balance));
+                    yield response.flip();
+                }
+                default -> errorResponse(STATUS_INVALID_REQUEST, correlationId, "Unknown opcode: " + opcode);
+            };
+        } catch (AccountNotFoundException e) {
+            return errorResponse(STATUS_ACCOUNT_NOT_FOUND, correlationId, e.getMessage());
+        } catch (InsufficientFundsException e) {
+            return errorResponse(STATUS_INSUFFICIENT_FUNDS, correlationId, e.getMessage());
+        } catch (OutflowLimitExceededException e) {
+            return errorResponse(STATUS_LIMIT_EXCEEDED, correlationId, e.getMessage());
+        } catch (InvalidCurrencyException e) {
+            return errorResponse(STATUS_INVALID_CURRENCY, correlationId, e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            return errorResponse(STATUS_BUSY, correlationId, e.getMessage());
+        } catch (InvalidTransactionException | IllegalArgumentException | BufferUnderflowException e) {
+            return errorResponse(STATUS_INVALID_REQUEST, correlationId, e.getMessage() != null ? e.getMessage() : "Malformed frame");
+        } catch (RuntimeException e) {
+            return errorResponse(STATUS_INTERNAL_ERROR, correlationId, "An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Build an error response frame.
+     *
+     * @param status the error status
+     * @param correlationId the correlation id of the request
+     * @param message the error message
+     * @return the complete response frame, ready to be written
+     */
+    public static ByteBuffer errorResponse(byte status, long correlationId, String message) {
+        byte[] encoded = utf8(truncate(message));
+        ByteBuffer response = allocateFrame(status, correlationId, encodedSize(encoded));
+        putString(response, encoded);
+        return response.flip();
+    }
+
+    private static ByteBuffer mutationResponse(long correlationId, Transaction transaction, Account account) {
+        ByteBuffer response = allocateFrame(STATUS_OK, correlationId, 16);
+        response.putLong(transaction.getId() != null ? transaction.getId() : 0L);
+        response.putLong(account != null ? toMinorUnits(account.getBalance()) : 0L);
+        return response.flip();
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1024 ? message.substring(0, 1024) : message;
+    }
+}
@@ -0,0 +1,283 @@
+package cubeledger.tcp;
+
+import cubeledger.service.AccountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * NIO based TCP listener speaking the {@link BinaryProtocol}.
+ * <p>
+ * A single selector thread accepts connections, splits the incoming byte stream into frames
+ * and writes responses. Decoded frames are executed on a bounded worker pool, so a client may
+ * pipeline many requests on one connection; responses are matched to requests by correlation id
+ * and can arrive in any order. Reading from a connection is paused while it has too many requests
+ * in flight, and requests that do not fit in the worker queue are answered with a busy status.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cubeledger.tcp", name = "enabled", havingValue = "true")
+public class TcpLedgerServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TcpLedgerServer.class);
+
+    private final TcpServerProperties properties;
+    private final TcpCommandHandler commandHandler;
+    private final Queue<Connection> pendingInterestUpdates = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ThreadPoolExecutor workers;
+    private Thread selectorThread;
+
+    public TcpLedgerServer(TcpServerProperties properties, AccountService accountService) {
+        this.properties = properties;
+        this.commandHandler = new TcpCommandHandler(accountService);
+    }
+
+    @Override
+    public void start() {
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(properties.getBindAddress(), properties.getPort()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start TCP listener on port " + properties.getPort(), e);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> new Thread(runnable, "cubeledger-tcp-worker-" + threadCount.incrementAndGet()));
+
+        running = true;
+        selectorThread = new Thread(this::runSelectorLoop, "cubeledger-tcp-selector");
+        selectorThread.start();
+        logger.info("Binary TCP listener started on {}:{}", properties.getBindAddress(), getLocalPort());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Binary TCP listener stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get the port the listener is bound to, which differs from the configured port when that is 0.
+     *
+     * @return the local port
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void runSelectorLoop() {
+        try {
+            while (running) {
+                selector.select();
+                applyPendingInterestUpdates();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read((Connection) key.attachment());
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write((Connection) key.attachment());
+                        }
+                    } catch (IOException e) {
+                        if (key.attachment() == null) {
+                            logger.warn("Failed to accept TCP connection: {}", e.getMessage());
+                        } else {
+                            logger.debug("Closing TCP connection after I/O error: {}", e.getMessage());
+                            close(key);
+                        }
+                    } catch (RuntimeException e) {
+                        // Only the connection that failed is closed; the others and the listener keep running
+                        if (key.attachment() == null) {
+                            logger.error("Failed to accept TCP connection", e);
+                        } else {
+                            logger.error("Closing TCP connection after unexpected error", e);
+                            close(key);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("TCP selector loop failed", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close selector", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel, properties.getMaxFrameSize());
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer buffer = connection.readBuffer;
+        if (connection.channel.read(buffer) < 0) {
+            close(connection.key);
+            return;
+        }
+
+        buffer.flip();
+        while (buffer.remaining() >= BinaryProtocol.LENGTH_PREFIX_SIZE) {
+            int length = buffer.getInt(buffer.position());
+            if (length < BinaryProtocol.HEADER_SIZE || length > properties.getMaxFrameSize()) {
+                logger.debug("Closing TCP connection after invalid frame length {}", length);
+                close(connection.key);
+                return;
+            }
+            if (buffer.remaining() < BinaryProtocol.LENGTH_PREFIX_SIZE + length) {
+                break;
+            }
+            buffer.position(buffer.position() + BinaryProtocol.LENGTH_PREFIX_SIZE);
+            byte[] frame = new byte[length];
+            buffer.get(frame);
+            dispatch(connection, ByteBuffer.wrap(frame));
+        }
+        buffer.compact();
+
+        if (connection.inFlight.get() >= properties.getMaxInFlightPerConnection()) {
+            connection.readPaused = true;
+            connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_READ);
+        }
+    }
+
+    private void dispatch(Connection connection, ByteBuffer frame) {
+        connection.inFlight.incrementAndGet();
+        try {
+            workers.execute(() -> respond(connection, commandHandler.handle(frame)));
+        } catch (RejectedExecutionException e) {
+            long correlationId = frame.getLong(1);
+            respond(connection, TcpCommandHandler.errorResponse(BinaryProtocol.STATUS_BUSY, correlationId, "Server is busy"));
+        }
+    }
+
+    private void respond(Connection connection, ByteBuffer response) {
+        connection.writeQueue.add(response);
+        connection.inFlight.decrementAndGet();
+        pendingInterestUpdates.add(connection);
+        selector.wakeup();
+    }
+
+    private void applyPendingInterestUpdates() {
+        Connection connection;
+        while ((connection = pendingInterestUpdates.poll()) != null) {
+            SelectionKey key = connection.key;
+            if (!key.isValid()) {
+                continue;
+            }
+            int ops = key.interestOps();
+            if (!connection.writeQueue.isEmpty()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            if (connection.readPaused && connection.inFlight.get() < properties.getMaxInFlightPerConnection()) {
+                connection.readPaused = false;
+                ops |= SelectionKey.OP_READ;
+            }
+            key.interestOps(ops);
+        }
+    }
+
+    private void write(Connection connection) throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = connection.writeQueue.peek()) != null) {
+            connection.channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return;
+            }
+            connection.writeQueue.poll();
+        }
+        connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_WRITE);
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            logger.debug("Failed to close TCP channel", e);
+        }
+    }
+
+    /**
+     * Per-connection state. Only the selector thread touches the read side;
+     * workers only append to the write queue.
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer;
+        private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private SelectionKey key;
+        private boolean readPaused;
+
+        private Connection(SocketChannel channel, int maxFrameSize) {
+            this.channel = channel;
+            this.readBuffer = ByteBuffer.allocate(BinaryProtocol.LENGTH_PREFIX_SIZE + maxFrameSize);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package cubeledger.tcp;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the binary TCP listener.
+ */
+@ConfigurationProperties(prefix = "cubeledger.tcp")
+public class TcpServerProperties {
+
+    /**
+     * Whether the TCP listener is started alongside the REST API.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Address to bind the listener to.
+     */
+    private String bindAddress = "0.0.0.0";
+
+    /**
+     * Port to listen on.
+     */
+    private int port = 9400;
+
+    /**
+     * Number of worker threads executing ledger operations.
+     */
+    private int workerThreads = 16;
+
+    /**
+     * Maximum number of requests waiting for a worker before new requests are rejected as busy.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum number of pipelined requests in flight per connection before reading is paused.
+     */
+    private int maxInFlightPerConnection = 256;
+
+    /**
+     * Maximum size of a single frame in bytes, excluding the length prefix.
+     */
+    private int maxFrameSize = 4096;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getBindAddress() {
+        return bindAddress;
+    }
+
+    public void setBindAddress(String bindAddress) {
+        this.bindAddress = bindAddress;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxInFlightPerConnection() {
+        return maxInFlightPerConnection;
+    }
+
+    public void setMaxInFlightPerConnection(int maxInFlightPerConnection) {
+        this.maxInFlightPerConnection = maxInFlightPerConnection;
+    }
+
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    public void setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+}
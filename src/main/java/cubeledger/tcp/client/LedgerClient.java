@@ -0,0 +1,246 @@
+package cubeledger.tcp.client;
+
+import cubeledger.model.Currency;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cubeledger.tcp.BinaryProtocol.*;
+
+/**
+ * Java client for the CubeLedger binary TCP protocol.
+ * <p>
+ * All operations are asynchronous and may be issued concurrently from any thread; requests are
+ * pipelined on a single connection and responses are matched by correlation id. A dedicated reader
+ * thread completes the returned futures. Failed operations complete exceptionally with a
+ * {@link LedgerClientException} carrying the protocol status. Once the server closes the connection,
+ * pending and later operations complete exceptionally with the reason.
+ * <pre>
+ * try (LedgerClient client = LedgerClient.connect("localhost", 9400)) {
+ *     OperationResult result = client.deposit("ACC-001", new BigDecimal("10.00"), Currency.SEK, "Bonus").join();
+ * }
+ * </pre>
+ */
+public class LedgerClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final OutputStream output;
+    private final DataInputStream input;
+    private final AtomicLong correlationIds = new AtomicLong();
+    private final Map<Long, CompletableFuture<ByteBuffer>> pending = new ConcurrentHashMap<>();
+    private final Thread readerThread;
+    private volatile IOException closedCause;
+
+    private LedgerClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.output = new BufferedOutputStream(socket.getOutputStream());
+        this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.readerThread = new Thread(this::readResponses, "cubeledger-client-reader");
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+    }
+
+    /**
+     * Connect to a CubeLedger TCP listener.
+     *
+     * @param host the host name
+     * @param port the port
+     * @return a connected client
+     * @throws IOException if the connection cannot be established
+     */
+    public static LedgerClient connect(String host, int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port));
+        return new LedgerClient(socket);
+    }
+
+    /**
+     * Deposit funds into an account.
+     *
+     * @param accountNumber the account number
+     * @param amount the amount, with at most two decimals
+     * @param currency the currency
+     * @param description optional description
+     * @return the transaction id and the new balance of the account
+     */
+    public CompletableFuture<OperationResult> deposit(String accountNumber, BigDecimal amount, Currency currency, String description) {
+        return singleAccountOperation(OP_DEPOSIT, accountNumber, amount, currency, description);
+    }
+
+    /**
+     * Withdraw funds from an account.
+     *
+     * @param accountNumber the account number
+     * @param amount the amount, with at most two decimals
+     * @param currency the currency
+     * @param description optional description
+     * @return the transaction id and the new balance of the account
+     */
+    public CompletableFuture<OperationResult> withdraw(String accountNumber, BigDecimal amount, Currency currency, String description) {
+        return singleAccountOperation(OP_WITHDRAW, accountNumber, amount, currency, description);
+    }
+
+    /**
+     * Transfer funds between accounts.
+     *
+     * @param sourceAccountNumber the source account number
+     * @param targetAccountNumber the target account number
+     * @param amount the amount, with at most two decimals
+     * @param currency the currency
+     * @param description optional description
+     * @return the transaction id and the new balance of the source account
+     */
+    public CompletableFuture<OperationResult> transfer(String sourceAccountNumber, String targetAccountNumber,
+                                                       BigDecimal amount, Currency currency, String description) {
+        byte[] source = utf8(sourceAccountNumber);
+        byte[] target = utf8(targetAccountNumber);
+        byte[] text = utf8(description);
+        long correlationId = correlationIds.incrementAndGet();
+        ByteBuffer frame = allocateFrame(OP_TRANSFER, correlationId,
+                encodedSize(source) + encodedSize(target) + 8 + 1 + encodedSize(text));
+        putString(frame, source);
+        putString(frame, target);
+        frame.putLong(toMinorUnits(amount));
+        putCurrency(frame, currency);
+        putString(frame, text);
+        return send(correlationId, frame).thenApply(LedgerClient::decodeOperationResult);
+    }
+
+    /**
+     * Get the balance of an account.
+     *
+     * @param accountNumber the account number
+     * @return the balance
+     */
+    public CompletableFuture<BigDecimal> getBalance(String accountNumber) {
+        byte[] account = utf8(accountNumber);
+        long correlationId = correlationIds.incrementAndGet();
+        ByteBuffer frame = allocateFrame(OP_BALANCE, correlationId, encodedSize(account));
+        putString(frame, account);
+        return send(correlationId, frame).thenApply(payload -> fromMinorUnits(payload.getLong()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException cause = new IOException("Client closed");
+        closedCause = cause;
+        socket.close();
+        failPending(cause);
+    }
+
+    private CompletableFuture<OperationResult> singleAccountOperation(byte opcode, String accountNumber, BigDecimal amount,
+                                                                     Currency currency, String description) {
+        byte[] account = utf8(accountNumber);
+        byte[] text = utf8(description);
+        long correlationId = correlationIds.incrementAndGet();
+        ByteBuffer frame = allocateFrame(opcode, correlationId, encodedSize(account) + 8 + 1 + encodedSize(text));
+        putString(frame, account);
+        frame.putLong(toMinorUnits(amount));
+        putCurrency(frame, currency);
+        putString(frame, text);
+        return send(correlationId, frame).thenApply(LedgerClient::decodeOperationResult);
+    }
+
+    private CompletableFuture<ByteBuffer> send(long correlationId, ByteBuffer frame) {
+        CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        IOException cause = closedCause;
+        if (cause != null) {
+            future.completeExceptionally(cause);
+            return future;
+        }
+        pending.put(correlationId, future);
+        // The connection may have closed after the check, with the pending futures already failed
+        cause = closedCause;
+        if (cause != null && pending.remove(correlationId) != null) {
+            future.completeExceptionally(cause);
+            return future;
+        }
+        try {
+            synchronized (output) {
+                output.write(frame.array(), 0, frame.position());
+                output.flush();
+            }
+        } catch (IOException e) {
+            pending.remove(correlationId);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void readResponses() {
+        try {
+            while (closedCause == null) {
+                int length = input.readInt();
+                byte[] body = new byte[length];
+                input.readFully(body);
+                ByteBuffer frame = ByteBuffer.wrap(body);
+                byte status = frame.get();
+                long correlationId = frame.getLong();
+                CompletableFuture<ByteBuffer> future = pending.remove(correlationId);
+                if (future == null) {
+                    continue;
+                }
+                if (status == STATUS_OK) {
+                    future.complete(frame);
+                } else {
+                    future.completeExceptionally(new LedgerClientException(status, getString(frame)));
+                }
+            }
+        } catch (EOFException e) {
+            connectionLost(new IOException("Connection closed by server", e));
+        } catch (IOException e) {
+            connectionLost(e);
+        } catch (RuntimeException e) {
+            connectionLost(new IOException("Invalid response from server", e));
+        }
+    }
+
+    private void connectionLost(IOException cause) {
+        if (closedCause == null) {
+            closedCause = cause;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already failed; the cause above is what callers see
+        }
+        failPending(closedCause);
+    }
+
+    private void failPending(IOException cause) {
+        for (Long correlationId : pending.keySet()) {
+            CompletableFuture<ByteBuffer> future = pending.remove(correlationId);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private static OperationResult decodeOperationResult(ByteBuffer payload) {
+        long transactionId = payload.getLong();
+        BigDecimal balance = fromMinorUnits(payload.getLong());
+        return new OperationResult(transactionId, balance);
+    }
+
+    /**
+     * Result of a successful deposit, withdrawal or transfer.
+     *
+     * @param transactionId the id of the created transaction
+     * @param balance the new balance of the credited (deposit) or debited (withdrawal, transfer) account
+     */
+    public record OperationResult(long transactionId, BigDecimal balance) {
+    }
+}
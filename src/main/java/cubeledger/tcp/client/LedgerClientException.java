@@ -0,0 +1,23 @@
+package cubeledger.tcp.client;
+
+/**
+ * Exception used to complete client futures when the server answers with an error status.
+ */
+public class LedgerClientException extends RuntimeException {
+
+    private final byte status;
+
+    public LedgerClientException(byte status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Get the protocol status returned by the server.
+     *
+     * @return one of the {@code STATUS_*} constants in {@link cubeledger.tcp.BinaryProtocol}
+     */
+    public byte getStatus() {
+        return status;
+    }
+}
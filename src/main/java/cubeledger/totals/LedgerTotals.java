@@ -0,0 +1,332 @@
+package cubeledger.totals;
+
+import cubeledger.dto.LedgerTotalsDTO;
+import cubeledger.event.TransactionPostedEvent;
+import cubeledger.model.Currency;
+import cubeledger.model.TransactionType;
+import cubeledger.tcp.BinaryProtocol;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps ledger-wide totals per currency: the sum of all account balances, and the number and volume
+ * of each type of transaction per day. Reading them costs no query, unlike summing every account.
+ * <p>
+ * Committed transactions are added to in-memory {@link RunningTotal running totals}. Every flush
+ * interval, what was added since the last flush is added to the persisted totals in one database
+ * transaction, and the persisted totals are read back. Since each instance only adds its own
+ * postings, instances in a cluster see each other's postings within a flush interval. Postings not
+ * yet flushed when an instance crashes are lost from the totals; {@link #rebuild()} recomputes them
+ * from the accounts and transactions, which is exact while no transactions are being posted.
+ * <p>
+ * The totals are rebuilt at startup when none have been persisted yet, so existing data is
+ * included. Volumes are kept in memory for the most recent days only; older days are read from the
+ * database.
+ */
+@Component
+public class LedgerTotals {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerTotals.class);
+
+    private static final int AMOUNT_SCALE = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int retainedDays;
+    private final Map<Currency, RunningTotal> balances = new ConcurrentHashMap<>();
+    private final Map<VolumeKey, Volume> volumes = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastFlush;
+
+    public LedgerTotals(LedgerTotalsProperties properties, DataSource dataSource, PlatformTransactionManager transactionManager,
+                        MeterRegistry registry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registry = registry;
+        this.enabled = properties.isEnabled();
+        this.retainedDays = Math.max(1, properties.getRetainedDays());
+    }
+
+    /**
+     * Load the persisted totals, or rebuild them if none have been persisted yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        Long persisted = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ledger_totals", Long.class);
+        if (persisted == null || persisted == 0) {
+            rebuild();
+        } else {
+            synchronized (this) {
+                refresh(Map.of());
+            }
+        }
+    }
+
+    /**
+     * Add a committed transaction to the totals.
+     *
+     * @param event the posted transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // The transaction has already committed, so a failure here must not reach the caller
+        try {
+            long amount = BinaryProtocol.toMinorUnits(event.amount());
+            TransactionPostedEvent.Leg source = event.source();
+            TransactionPostedEvent.Leg target = event.target();
+            long debit = source != null ? BinaryProtocol.toMinorUnits(source.amount() != null ? source.amount() : event.amount()) : 0;
+            long credit = target != null ? BinaryProtocol.toMinorUnits(target.amount() != null ? target.amount() : event.amount()) : 0;
+
+            Volume volume = volume(new VolumeKey(event.timestamp().toLocalDate(), event.currency(), event.type()));
+            volume.count().add(1);
+            volume.amount().add(amount);
+            if (source != null) {
+                balance(source.currency()).add(-debit);
+            }
+            if (target != null) {
+                balance(target.currency()).add(credit);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to add transaction {} to the ledger totals; rebuild them to correct the drift",
+                    event.transactionId(), e);
+        }
+    }
+
+    /**
+     * Get the totals of every currency, with the volumes of a day.
+     *
+     * @param date the day
+     * @return the totals, in currency order
+     */
+    public LedgerTotalsDTO getTotals(LocalDate date) {
+        Map<Currency, Map<TransactionType, LedgerTotalsDTO.Volume>> dayVolumes = new EnumMap<>(Currency.class);
+        if (isRetained(date)) {
+            volumes.forEach((key, volume) -> {
+                if (key.date().equals(date)) {
+                    dayVolumes.computeIfAbsent(key.currency(), currency -> new EnumMap<>(TransactionType.class))
+                            .put(key.type(), new LedgerTotalsDTO.Volume(volume.count().get(), BinaryProtocol.fromMinorUnits(volume.amount().get())));
+                }
+            });
+        } else {
+            jdbcTemplate.query("SELECT currency, type, transaction_count, volume FROM ledger_daily_volumes WHERE volume_date = ?",
+                    rs -> {
+                        dayVolumes.computeIfAbsent(Currency.valueOf(rs.getString(1)), currency -> new EnumMap<>(TransactionType.class))
+                                .put(TransactionType.valueOf(rs.getString(2)), new LedgerTotalsDTO.Volume(rs.getLong(3), rs.getBigDecimal(4)));
+                    },
+                    Date.valueOf(date));
+        }
+
+        Set<Currency> currencies = EnumSet.noneOf(Currency.class);
+        currencies.addAll(balances.keySet());
+        currencies.addAll(dayVolumes.keySet());
+        List<LedgerTotalsDTO.CurrencyTotals> result = new ArrayList<>();
+        for (Currency currency : currencies) {
+            Map<TransactionType, LedgerTotalsDTO.Volume> currencyVolumes = new EnumMap<>(TransactionType.class);
+            for (TransactionType type : TransactionType.values()) {
+                currencyVolumes.put(type, dayVolumes.getOrDefault(currency, Map.of())
+                        .getOrDefault(type, new LedgerTotalsDTO.Volume(0, BigDecimal.ZERO.setScale(AMOUNT_SCALE))));
+            }
+            RunningTotal balance = balances.get(currency);
+            result.add(new LedgerTotalsDTO.CurrencyTotals(currency, BinaryProtocol.fromMinorUnits(balance != null ? balance.get() : 0), currencyVolumes));
+        }
+        return new LedgerTotalsDTO(date, result);
+    }
+
+    /**
+     * Add what was posted since the last flush to the persisted totals, then read them back so the
+     * postings of other instances are included.
+     */
+    @Scheduled(fixedDelayString = "${cubeledger.ledger-totals.flush-interval:PT1S}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<RunningTotal, Long> flushed = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            balances.forEach((currency, total) -> {
+                long delta = unflushed(total, flushed);
+                if (delta != 0 && jdbcTemplate.update("UPDATE ledger_totals SET total_balance = total_balance + ?, updated_at = ? WHERE currency = ?",
+                        BinaryProtocol.fromMinorUnits(delta), now, currency.name()) == 0) {
+                    jdbcTemplate.update("INSERT INTO ledger_totals (currency, total_balance, updated_at) VALUES (?, ?, ?)",
+                            currency.name(), BinaryProtocol.fromMinorUnits(delta), now);
+                }
+            });
+            volumes.forEach((key, volume) -> {
+                long count = unflushed(volume.count(), flushed);
+                long amount = unflushed(volume.amount(), flushed);
+                if ((count != 0 || amount != 0) && jdbcTemplate.update("UPDATE ledger_daily_volumes "
+                                + "SET transaction_count = transaction_count + ?, volume = volume + ?, updated_at = ? "
+                                + "WHERE volume_date = ? AND currency = ? AND type = ?",
+                        count, BinaryProtocol.fromMinorUnits(amount), now, Date.valueOf(key.date()), key.currency().name(), key.type().name()) == 0) {
+                    jdbcTemplate.update("INSERT INTO ledger_daily_volumes (volume_date, currency, type, transaction_count, volume, updated_at) "
+                                    + "VALUES (?, ?, ?, ?, ?, ?)",
+                            Date.valueOf(key.date()), key.currency().name(), key.type().name(), count, BinaryProtocol.fromMinorUnits(amount), now);
+                }
+            });
+        });
+        refresh(flushed);
+        evictOldDays();
+        lastFlush = now.toLocalDateTime();
+    }
+
+    /**
+     * Recompute the totals from the account balances and the transactions of the retained days,
+     * replacing the persisted totals. Transactions posted while this runs may be counted twice.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Map<RunningTotal, Long> added = new HashMap<>();
+        balances.values().forEach(total -> added.put(total, total.added()));
+        volumes.values().forEach(volume -> {
+            added.put(volume.count(), volume.count().added());
+            added.put(volume.amount(), volume.amount().added());
+        });
+
+        LocalDate firstDay = LocalDate.now().minusDays(retainedDays - 1L);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM ledger_totals");
+            jdbcTemplate.update("INSERT INTO ledger_totals (currency, total_balance, updated_at) "
+                    + "SELECT currency, SUM(balance), ? FROM accounts GROUP BY currency", now);
+            jdbcTemplate.update("DELETE FROM ledger_daily_volumes WHERE volume_date >= ?", Date.valueOf(firstDay));
+            jdbcTemplate.update("INSERT INTO ledger_daily_volumes (volume_date, currency, type, transaction_count, volume, updated_at) "
+                    + "SELECT CAST(t.timestamp AS DATE), t.currency, t.type, COUNT(*), SUM(t.amount), ? FROM transactions t "
+                    + "WHERE t.timestamp >= ? GROUP BY CAST(t.timestamp AS DATE), t.currency, t.type",
+                    now, Timestamp.valueOf(firstDay.atStartOfDay()));
+        });
+
+        // Everything added so far is in the rebuilt totals; totals missing from them are zero
+        Set<RunningTotal> persisted = refresh(added);
+        added.forEach((total, sum) -> {
+            if (!persisted.contains(total)) {
+                total.setPersisted(0, sum);
+            }
+        });
+        lastFlush = now.toLocalDateTime();
+        logger.info("Rebuilt ledger totals of {} currencies", balances.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public LocalDateTime getLastFlush() {
+        return lastFlush;
+    }
+
+    /**
+     * Get the number of running totals with postings not yet flushed.
+     *
+     * @return the number of unflushed totals
+     */
+    public long getUnflushedCount() {
+        return balances.values().stream().filter(total -> total.added() != total.flushed()).count()
+                + volumes.values().stream().filter(volume -> volume.count().added() != volume.count().flushed()).count();
+    }
+
+    private long unflushed(RunningTotal total, Map<RunningTotal, Long> flushed) {
+        long added = total.added();
+        flushed.put(total, added);
+        return added - total.flushed();
+    }
+
+    /**
+     * Read the persisted totals into the running totals.
+     *
+     * @param flushed the additions now included in the persisted totals, by running total
+     * @return the running totals that have a persisted value
+     */
+    private Set<RunningTotal> refresh(Map<RunningTotal, Long> flushed) {
+        Set<RunningTotal> persisted = new HashSet<>();
+        jdbcTemplate.query("SELECT currency, total_balance FROM ledger_totals", rs -> {
+            RunningTotal total = balance(Currency.valueOf(rs.getString(1)));
+            total.setPersisted(BinaryProtocol.toMinorUnits(rs.getBigDecimal(2)), flushed.getOrDefault(total, total.flushed()));
+            persisted.add(total);
+        });
+        jdbcTemplate.query("SELECT volume_date, currency, type, transaction_count, volume FROM ledger_daily_volumes WHERE volume_date >= ?",
+                rs -> {
+                    Volume volume = volume(new VolumeKey(rs.getDate(1).toLocalDate(), Currency.valueOf(rs.getString(2)),
+                            TransactionType.valueOf(rs.getString(3))));
+                    volume.count().setPersisted(rs.getLong(4), flushed.getOrDefault(volume.count(), volume.count().flushed()));
+                    volume.amount().setPersisted(BinaryProtocol.toMinorUnits(rs.getBigDecimal(5)), flushed.getOrDefault(volume.amount(), volume.amount().flushed()));
+                    persisted.add(volume.count());
+                    persisted.add(volume.amount());
+                },
+                Date.valueOf(LocalDate.now().minusDays(retainedDays - 1L)));
+        return persisted;
+    }
+
+    /**
+     * Drop the volumes of days no longer retained once they are fully flushed. No postings arrive
+     * for them any more, since transactions are stamped when they are posted.
+     */
+    private void evictOldDays() {
+        volumes.entrySet().removeIf(entry -> !isRetained(entry.getKey().date())
+                && entry.getValue().count().added() == entry.getValue().count().flushed()
+                && entry.getValue().amount().added() == entry.getValue().amount().flushed());
+    }
+
+    private boolean isRetained(LocalDate date) {
+        return !date.isBefore(LocalDate.now().minusDays(retainedDays - 1L));
+    }
+
+    private RunningTotal balance(Currency currency) {
+        return balances.computeIfAbsent(currency, key -> {
+            RunningTotal total = new RunningTotal();
+            Gauge.builder("cubeledger.ledger.total.balance", total, runningTotal -> BinaryProtocol.fromMinorUnits(runningTotal.get()).doubleValue())
+                    .description("Sum of the balances of all accounts in a currency")
+                    .tag("currency", key.name())
+                    .register(registry);
+            return total;
+        });
+    }
+
+    private Volume volume(VolumeKey key) {
+        return volumes.computeIfAbsent(key, ignored -> new Volume(new RunningTotal(), new RunningTotal()));
+    }
+
+    private record VolumeKey(LocalDate date, Currency currency, TransactionType type) {
+    }
+
+    private record Volume(RunningTotal count, RunningTotal amount) {
+    }
+}
@@ -0,0 +1,51 @@
+package cubeledger.totals;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the incrementally maintained ledger-wide totals.
+ */
+@ConfigurationProperties(prefix = "cubeledger.ledger-totals")
+public class LedgerTotalsProperties {
+
+    /**
+     * Whether the totals are maintained.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the totals posted since the last flush are added to the persisted totals.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Number of most recent days whose volumes are kept in memory and rebuilt from the transactions.
+     */
+    private int retainedDays = 31;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getRetainedDays() {
+        return retainedDays;
+    }
+
+    public void setRetainedDays(int retainedDays) {
+        this.retainedDays = retainedDays;
+    }
+}
@@ -0,0 +1,62 @@
+package cubeledger.totals;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A total kept as its persisted value plus what this instance has added since the last flush.
+ * <p>
+ * Additions go to a {@link LongAdder}, so concurrent writers do not contend. The adder is never
+ * reset: a flush records how much of it has been persisted, so additions racing with a flush are
+ * never lost. The persisted value and the flushed part are swapped together, so readers always see
+ * a consistent pair.
+ */
+final class RunningTotal {
+
+    private final LongAdder added = new LongAdder();
+    private volatile Persisted persisted = new Persisted(0, 0);
+
+    void add(long amount) {
+        added.add(amount);
+    }
+
+    /**
+     * Get the current total.
+     *
+     * @return the persisted value plus what was added since it was flushed
+     */
+    long get() {
+        Persisted current = persisted;
+        return current.value + added.sum() - current.flushed;
+    }
+
+    /**
+     * Get everything added since this instance started, flushed or not.
+     *
+     * @return the sum of all additions
+     */
+    long added() {
+        return added.sum();
+    }
+
+    /**
+     * Get the part of the additions already included in the persisted value.
+     *
+     * @return the flushed additions
+     */
+    long flushed() {
+        return persisted.flushed;
+    }
+
+    /**
+     * Set the persisted value. Only called by the thread flushing or loading the totals.
+     *
+     * @param value the persisted value
+     * @param flushed the part of the additions the value includes
+     */
+    void setPersisted(long value, long flushed) {
+        persisted = new Persisted(value, flushed);
+    }
+
+    private record Persisted(long value, long flushed) {
+    }
+}
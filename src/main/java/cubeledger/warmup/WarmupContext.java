@@ -0,0 +1,37 @@
+package cubeledger.warmup;
+
+/**
+ * Marks the thread running the warm-up. Its synthetic operations are rolled back, and must also be
+ * left out of the measurements that steer the instance at runtime, such as the hot account report
+ * and the adaptive concurrency limit.
+ */
+public final class WarmupContext {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private WarmupContext() {
+    }
+
+    /**
+     * Check whether the current thread is running the warm-up.
+     *
+     * @return true while inside {@link #run(Runnable)}
+     */
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * Run warm-up work on the current thread.
+     *
+     * @param work the work
+     */
+    public static void run(Runnable work) {
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            work.run();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package cubeledger.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the startup warm-up.
+ */
+@ConfigurationProperties(prefix = "cubeledger.warmup")
+public class WarmupProperties {
+
+    /**
+     * Whether synthetic operations are run at startup before the instance reports ready.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum time spent warming up. The instance reports ready when it runs out, even if the target was not met.
+     */
+    private Duration budget = Duration.ofSeconds(30);
+
+    /**
+     * Warm-up stops once the slowest iteration of a round takes no longer than this.
+     */
+    private Duration latencyTarget = Duration.ofMillis(50);
+
+    /**
+     * Number of iterations per round. Each iteration creates two accounts, moves funds between them and reads them back.
+     */
+    private int roundSize = 20;
+
+    /**
+     * Number of pooled connections opened at once before the operations run, 0 for none.
+     */
+    private int prefillConnections = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Duration budget) {
+        this.budget = budget;
+    }
+
+    public Duration getLatencyTarget() {
+        return latencyTarget;
+    }
+
+    public void setLatencyTarget(Duration latencyTarget) {
+        this.latencyTarget = latencyTarget;
+    }
+
+    public int getRoundSize() {
+        return roundSize;
+    }
+
+    public void setRoundSize(int roundSize) {
+        this.roundSize = roundSize;
+    }
+
+    public int getPrefillConnections() {
+        return prefillConnections;
+    }
+
+    public void setPrefillConnections(int prefillConnections) {
+        this.prefillConnections = prefillConnections;
+    }
+}
@@ -0,0 +1,123 @@
+package cubeledger.warmup;
+
+import cubeledger.model.Currency;
+import cubeledger.service.AccountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up the JIT, Hibernate and the connection pool before the instance accepts traffic.
+ * <p>
+ * Spring Boot reports readiness as ACCEPTING_TRAFFIC only after all application runners have
+ * finished, so the readiness probe stays OUT_OF_SERVICE while this runner works. It first opens a
+ * batch of pooled connections at once, then runs rounds of synthetic operations through
+ * {@link AccountService}: creating two accounts, a deposit, a transfer, a withdrawal and the
+ * reads behind the account endpoints. Each iteration runs in a transaction that is rolled back, so
+ * the warm-up accounts and their transactions never become visible, and inside a
+ * {@link WarmupContext}, so they are not counted as load. Warm-up stops when the slowest
+ * iteration of a round meets the latency target, or when the time budget runs out. A failure
+ * is logged and does not prevent startup.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final AccountService accountService;
+    private final DataSource dataSource;
+    private final WarmupProperties properties;
+    private final TransactionTemplate rollbackTransaction;
+
+    public WarmupRunner(AccountService accountService, DataSource dataSource, WarmupProperties properties,
+                        PlatformTransactionManager transactionManager) {
+        this.accountService = accountService;
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.rollbackTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + properties.getBudget().toNanos();
+        try {
+            prefillConnections();
+            int rounds = 0;
+            long slowest;
+            do {
+                slowest = runRound();
+                rounds++;
+            } while (slowest > properties.getLatencyTarget().toNanos() && System.nanoTime() < deadline);
+
+            logger.info("Warm-up finished after {} rounds in {} ms, slowest iteration of the last round took {} ms",
+                    rounds, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), TimeUnit.NANOSECONDS.toMillis(slowest));
+        } catch (RuntimeException | SQLException e) {
+            logger.warn("Warm-up failed after {} ms, accepting traffic anyway",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e);
+        }
+    }
+
+    private void prefillConnections() throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < properties.getPrefillConnections(); i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Run one round of iterations.
+     *
+     * @return the duration of the slowest iteration in nanoseconds
+     */
+    private long runRound() {
+        long slowest = 0;
+        for (int i = 0; i < properties.getRoundSize(); i++) {
+            long start = System.nanoTime();
+            WarmupContext.run(() -> rollbackTransaction.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                runIteration();
+            }));
+            slowest = Math.max(slowest, System.nanoTime() - start);
+        }
+        return slowest;
+    }
+
+    private void runIteration() {
+        String source = "WARMUP-" + UUID.randomUUID();
+        String target = "WARMUP-" + UUID.randomUUID();
+        accountService.createAccount(source, Currency.SEK);
+        accountService.createAccount(target, Currency.SEK);
+
+        accountService.deposit(source, new BigDecimal("100.00"), "Warm-up deposit");
+        accountService.transfer(source, target, new BigDecimal("40.00"), "Warm-up transfer");
+        accountService.withdraw(target, new BigDecimal("10.00"), "Warm-up withdrawal");
+
+        accountService.getAccount(source);
+        accountService.getBalance(target);
+        accountService.listTransactionSummaries(source);
+    }
+}
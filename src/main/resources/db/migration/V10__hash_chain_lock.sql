@@ -0,0 +1,7 @@
+-- Create the row the transaction hasher locks while it extends the hash chain, so that
+-- cluster members never append to the chain at the same time
+CREATE TABLE hash_chain_lock (
+    id INT PRIMARY KEY
+);
+
+INSERT INTO hash_chain_lock (id) VALUES (1);
@@ -0,0 +1,3 @@
+-- Create an index for finding active holds that are overdue, swept by one cluster member
+-- in case the member that scheduled their expiry went away
+CREATE INDEX idx_holds_status_expires_at ON holds(status, expires_at);
@@ -0,0 +1,17 @@
+-- Create outbox table, written in the same transaction as each transaction record
+-- and read sequentially by the change feed
+CREATE TABLE outbox (
+    id BIGSERIAL PRIMARY KEY,
+    transaction_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    source_account_number VARCHAR(255),
+    target_account_number VARCHAR(255),
+    amount DECIMAL(19, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    description VARCHAR(255),
+    occurred_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Create index used when pruning old outbox rows
+CREATE INDEX idx_outbox_created_at ON outbox(created_at);
@@ -0,0 +1,31 @@
+-- Create reconciliation runs table, holding the progress of each run so it can be resumed
+CREATE TABLE reconciliation_runs (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    min_account_id BIGINT NOT NULL,
+    max_account_id BIGINT NOT NULL,
+    chunk_size INT NOT NULL,
+    completed_through BIGINT NOT NULL,
+    accounts_checked BIGINT NOT NULL,
+    mismatches BIGINT NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- Create reconciliation mismatches table, the report of accounts whose balance
+-- differs from the net of their transactions
+CREATE TABLE reconciliation_mismatches (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    account_number VARCHAR(255) NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL,
+    expected_balance DECIMAL(19, 2) NOT NULL,
+    detected_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (run_id) REFERENCES reconciliation_runs(id)
+);
+
+-- Create indexes for looking up runs and their mismatches
+CREATE INDEX idx_reconciliation_runs_status ON reconciliation_runs(status);
+CREATE INDEX idx_reconciliation_mismatches_run ON reconciliation_mismatches(run_id, account_id);
@@ -0,0 +1,28 @@
+-- Create transaction hashes table. Every transaction gets a position in a single
+-- ledger-wide hash chain; the hash covers the transaction and the previous hash
+CREATE TABLE transaction_hashes (
+    seq BIGINT PRIMARY KEY,
+    transaction_id BIGINT NOT NULL UNIQUE,
+    hash VARCHAR(64) NOT NULL,
+    hashed_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (transaction_id) REFERENCES transactions(id)
+);
+
+-- Create ledger blocks table, holding a Merkle root over each fixed-size run of the chain
+CREATE TABLE ledger_blocks (
+    block_number BIGINT PRIMARY KEY,
+    first_seq BIGINT NOT NULL,
+    last_seq BIGINT NOT NULL,
+    first_transaction_id BIGINT NOT NULL,
+    last_transaction_id BIGINT NOT NULL,
+    prev_hash VARCHAR(64) NOT NULL,
+    last_hash VARCHAR(64) NOT NULL,
+    merkle_root VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    verification_status VARCHAR(20) NOT NULL,
+    verified_at TIMESTAMP,
+    verification_detail VARCHAR(255)
+);
+
+-- Create index for finding blocks that still need to be verified
+CREATE INDEX idx_ledger_blocks_verification_status ON ledger_blocks(verification_status, block_number);
@@ -0,0 +1,30 @@
+-- Record the amounts posted to each account and the applied exchange rate
+ALTER TABLE transactions ADD COLUMN source_amount DECIMAL(19, 2);
+ALTER TABLE transactions ADD COLUMN target_amount DECIMAL(19, 2);
+ALTER TABLE transactions ADD COLUMN exchange_rate DECIMAL(19, 10);
+
+-- Existing transactions were all posted without conversion
+UPDATE transactions SET source_amount = amount WHERE source_account_id IS NOT NULL;
+UPDATE transactions SET target_amount = amount WHERE target_account_id IS NOT NULL;
+UPDATE transactions SET exchange_rate = 1;
+
+-- Create exchange rates table. Each rate is the number of units of the currency
+-- per unit of a common base currency; cross rates are derived from these
+CREATE TABLE fx_rates (
+    currency VARCHAR(3) PRIMARY KEY,
+    units_per_base DECIMAL(19, 10) NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Insert sample rates with SEK as the base currency
+INSERT INTO fx_rates (currency, units_per_base, updated_at)
+VALUES
+('SEK', 1.0000000000, CURRENT_TIMESTAMP),
+('USD', 0.0950000000, CURRENT_TIMESTAMP),
+('EUR', 0.0870000000, CURRENT_TIMESTAMP),
+('GBP', 0.0740000000, CURRENT_TIMESTAMP),
+('JPY', 14.2000000000, CURRENT_TIMESTAMP),
+('CAD', 0.1300000000, CURRENT_TIMESTAMP),
+('AUD', 0.1450000000, CURRENT_TIMESTAMP),
+('CHF', 0.0830000000, CURRENT_TIMESTAMP),
+('CNY', 0.6900000000, CURRENT_TIMESTAMP);
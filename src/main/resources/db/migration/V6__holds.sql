@@ -0,0 +1,25 @@
+-- Track the total amount reserved by active holds on each account
+ALTER TABLE accounts ADD COLUMN held_amount DECIMAL(19, 2) DEFAULT 0 NOT NULL;
+
+-- Create holds table. A hold reserves funds on an account until it is captured,
+-- released or expires
+CREATE TABLE holds (
+    id BIGSERIAL PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    account_number VARCHAR(255) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    description VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    closed_at TIMESTAMP,
+    captured_amount DECIMAL(19, 2),
+    transaction_id BIGINT,
+    FOREIGN KEY (account_id) REFERENCES accounts(id),
+    FOREIGN KEY (transaction_id) REFERENCES transactions(id)
+);
+
+-- Create indexes for looking up holds by account and loading active holds at startup
+CREATE INDEX idx_holds_account ON holds(account_id);
+CREATE INDEX idx_holds_status ON holds(status, id);
@@ -0,0 +1,45 @@
+-- Create scheduled transfers table. A schedule runs once or recurs from its first run;
+-- due_at is when the next attempt is made, which is later than next_run_at while a failed
+-- run is being retried. lease_owner and lease_until mark schedules claimed by a node
+CREATE TABLE scheduled_transfers (
+    id BIGSERIAL PRIMARY KEY,
+    source_account_number VARCHAR(255) NOT NULL,
+    target_account_number VARCHAR(255) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    description VARCHAR(255),
+    frequency VARCHAR(20) NOT NULL,
+    first_run_at TIMESTAMP NOT NULL,
+    end_at TIMESTAMP,
+    status VARCHAR(20) NOT NULL,
+    occurrence INT DEFAULT 0 NOT NULL,
+    next_run_at TIMESTAMP NOT NULL,
+    due_at TIMESTAMP NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    lease_owner VARCHAR(255),
+    lease_until TIMESTAMP,
+    last_run_at TIMESTAMP,
+    last_outcome VARCHAR(20),
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Create index for claiming due schedules
+CREATE INDEX idx_scheduled_transfers_due ON scheduled_transfers(status, due_at);
+
+-- Create scheduled transfer runs table recording the outcome of every attempt
+CREATE TABLE scheduled_transfer_runs (
+    id BIGSERIAL PRIMARY KEY,
+    scheduled_transfer_id BIGINT NOT NULL,
+    occurrence INT NOT NULL,
+    attempt INT NOT NULL,
+    scheduled_for TIMESTAMP NOT NULL,
+    executed_at TIMESTAMP NOT NULL,
+    outcome VARCHAR(20) NOT NULL,
+    transaction_id BIGINT,
+    error VARCHAR(1000),
+    FOREIGN KEY (scheduled_transfer_id) REFERENCES scheduled_transfers(id),
+    FOREIGN KEY (transaction_id) REFERENCES transactions(id)
+);
+
+-- Create index for listing the runs of a schedule
+CREATE INDEX idx_scheduled_transfer_runs_schedule ON scheduled_transfer_runs(scheduled_transfer_id, id);
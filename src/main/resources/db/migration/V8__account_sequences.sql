@@ -0,0 +1,27 @@
+-- Number the transactions of every account without gaps, so clients can ask for the ones after
+-- the last number they have seen. A transfer gets a number in each account; last_seq is the
+-- number of the account's latest transaction
+ALTER TABLE accounts ADD COLUMN last_seq BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE transactions ADD COLUMN source_seq BIGINT;
+ALTER TABLE transactions ADD COLUMN target_seq BIGINT;
+
+-- Number existing transactions in the order they were recorded
+UPDATE transactions SET source_seq = (
+    SELECT COUNT(*) FROM transactions p
+    WHERE (p.source_account_id = transactions.source_account_id OR p.target_account_id = transactions.source_account_id)
+      AND p.id <= transactions.id)
+WHERE source_account_id IS NOT NULL;
+
+UPDATE transactions SET target_seq = (
+    SELECT COUNT(*) FROM transactions p
+    WHERE (p.source_account_id = transactions.target_account_id OR p.target_account_id = transactions.target_account_id)
+      AND p.id <= transactions.id)
+WHERE target_account_id IS NOT NULL;
+
+UPDATE accounts SET last_seq = (
+    SELECT COUNT(*) FROM transactions t
+    WHERE t.source_account_id = accounts.id OR t.target_account_id = accounts.id);
+
+-- Create indexes for reading an account's transactions after a sequence number
+CREATE UNIQUE INDEX idx_transactions_source_seq ON transactions(source_account_id, source_seq);
+CREATE UNIQUE INDEX idx_transactions_target_seq ON transactions(target_account_id, target_seq);
@@ -0,0 +1,19 @@
+-- Ledger-wide totals, kept up to date by the application so they can be read without summing
+-- every account. Each instance adds what it has posted since its last flush, so the totals are
+-- at most one flush interval behind
+CREATE TABLE ledger_totals (
+    currency VARCHAR(3) PRIMARY KEY,
+    total_balance DECIMAL(38, 2) NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Number and volume of the transactions of each type per day and currency
+CREATE TABLE ledger_daily_volumes (
+    volume_date DATE NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    volume DECIMAL(38, 2) NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (volume_date, currency, type)
+);
@@ -1,7 +1,9 @@
 package cubeledger;
 
+import cubeledger.exception.InsufficientFundsException;
 import cubeledger.exception.InvalidCurrencyException;
 import cubeledger.model.Currency;
+import cubeledger.model.Transaction;
 import cubeledger.service.AccountService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
@@ -28,17 +31,25 @@ public class CurrencyValidationTest {
 
     @Test
     public void testCreateAccountWithNonSEKCurrency() {
-        // USD should be rejected
-        assertThrows(InvalidCurrencyException.class, () -> {
+        // USD has an exchange rate and should be accepted
+        assertDoesNotThrow(() -> {
             accountService.createAccount("TEST-USD-ACCOUNT", Currency.USD);
         });
 
-        // EUR should be rejected
-        assertThrows(InvalidCurrencyException.class, () -> {
+        // EUR has an exchange rate and should be accepted
+        assertDoesNotThrow(() -> {
             accountService.createAccount("TEST-EUR-ACCOUNT", Currency.EUR);
         });
     }
 
+    @Test
+    public void testCreateAccountWithoutCurrency() {
+        // A missing currency should be rejected
+        assertThrows(InvalidCurrencyException.class, () -> {
+            accountService.createAccount("TEST-NO-CURRENCY-ACCOUNT", null);
+        });
+    }
+
     @Test
     public void testDepositWithSEKCurrency() {
         // Create account with SEK currency
@@ -59,10 +70,11 @@ public class CurrencyValidationTest {
             accountService.createAccount("TEST-DEPOSIT-NON-SEK", Currency.SEK);
         });
 
-        // USD deposit should be rejected
-        assertThrows(InvalidCurrencyException.class, () -> {
+        // USD deposit should be converted to SEK
+        assertDoesNotThrow(() -> {
             accountService.deposit("TEST-DEPOSIT-NON-SEK", new BigDecimal("100.00"), Currency.USD, "Test deposit");
         });
+        assertEquals(new BigDecimal("1052.63"), accountService.getBalance("TEST-DEPOSIT-NON-SEK"));
     }
 
     @Test
@@ -87,9 +99,15 @@ public class CurrencyValidationTest {
             accountService.deposit("TEST-WITHDRAW-NON-SEK", new BigDecimal("200.00"), Currency.SEK, "Initial deposit");
         });
 
-        // USD withdrawal should be rejected
-        assertThrows(InvalidCurrencyException.class, () -> {
-            accountService.withdraw("TEST-WITHDRAW-NON-SEK", new BigDecimal("50.00"), Currency.USD, "Test withdrawal");
+        // USD withdrawal should be converted to SEK
+        assertDoesNotThrow(() -> {
+            accountService.withdraw("TEST-WITHDRAW-NON-SEK", new BigDecimal("10.00"), Currency.USD, "Test withdrawal");
+        });
+        assertEquals(new BigDecimal("94.74"), accountService.getBalance("TEST-WITHDRAW-NON-SEK"));
+
+        // Withdrawing more than the converted balance should be rejected
+        assertThrows(InsufficientFundsException.class, () -> {
+            accountService.withdraw("TEST-WITHDRAW-NON-SEK", new BigDecimal("10.00"), Currency.USD, "Test withdrawal");
         });
     }
 
@@ -118,10 +136,30 @@ public class CurrencyValidationTest {
             accountService.deposit("TEST-TRANSFER-SOURCE-NON-SEK", new BigDecimal("300.00"), Currency.SEK, "Initial deposit");
         });
 
-        // USD transfer should be rejected
-        assertThrows(InvalidCurrencyException.class, () -> {
+        // USD transfer should be converted to SEK on both sides
+        assertDoesNotThrow(() -> {
             accountService.transfer("TEST-TRANSFER-SOURCE-NON-SEK", "TEST-TRANSFER-TARGET-NON-SEK",
-                    new BigDecimal("100.00"), Currency.USD, "Test transfer");
+                    new BigDecimal("10.00"), Currency.USD, "Test transfer");
         });
+        assertEquals(new BigDecimal("194.74"), accountService.getBalance("TEST-TRANSFER-SOURCE-NON-SEK"));
+        assertEquals(new BigDecimal("105.26"), accountService.getBalance("TEST-TRANSFER-TARGET-NON-SEK"));
+    }
+
+    @Test
+    public void testTransferBetweenCurrencies() {
+        // Create a SEK source account and a EUR target account
+        assertDoesNotThrow(() -> {
+            accountService.createAccount("TEST-TRANSFER-SOURCE-CROSS", Currency.SEK);
+            accountService.createAccount("TEST-TRANSFER-TARGET-CROSS", Currency.EUR);
+            accountService.deposit("TEST-TRANSFER-SOURCE-CROSS", new BigDecimal("300.00"), Currency.SEK, "Initial deposit");
+        });
+
+        // SEK transfer should be credited in EUR and record the applied rate
+        Transaction transaction = accountService.transfer("TEST-TRANSFER-SOURCE-CROSS", "TEST-TRANSFER-TARGET-CROSS",
+                new BigDecimal("100.00"), Currency.SEK, "Test transfer");
+        assertEquals(new BigDecimal("100.00"), transaction.getSourceAmount());
+        assertEquals(new BigDecimal("8.70"), transaction.getTargetAmount());
+        assertEquals(0, new BigDecimal("0.087").compareTo(transaction.getExchangeRate()));
+        assertEquals(new BigDecimal("8.70"), accountService.getBalance("TEST-TRANSFER-TARGET-CROSS"));
     }
 }
@@ -0,0 +1,137 @@
+package cubeledger.actuator;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DatabaseHealthIndicatorTest {
+
+    private final AtomicInteger validations = new AtomicInteger();
+    private DatabaseHealthProperties properties;
+    private StubDataSource dataSource;
+    private boolean valid;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new DatabaseHealthProperties();
+        properties.setCacheTtl(Duration.ofMinutes(1));
+        dataSource = new StubDataSource();
+        dataSource.setMaximumPoolSize(10);
+        valid = true;
+    }
+
+    @Test
+    public void testValidationIsReusedWithinCacheTtl() {
+        // Arrange
+        DatabaseHealthIndicator indicator = new DatabaseHealthIndicator(dataSource, properties, new SimpleMeterRegistry());
+
+        // Act
+        Health first = indicator.health();
+        Health second = indicator.health();
+
+        // Assert
+        assertEquals(Status.UP, first.getStatus());
+        assertEquals(Status.UP, second.getStatus());
+        assertEquals(1, validations.get());
+    }
+
+    @Test
+    public void testValidationIsRepeatedAfterCacheTtl() {
+        // Arrange
+        properties.setCacheTtl(Duration.ZERO);
+        DatabaseHealthIndicator indicator = new DatabaseHealthIndicator(dataSource, properties, new SimpleMeterRegistry());
+
+        // Act
+        indicator.health();
+        valid = false;
+        Health health = indicator.health();
+
+        // Assert
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("Connection validation timed out", health.getDetails().get("error"));
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    public void testPoolDetailsAreReported() {
+        // Arrange
+        dataSource.pool = pool(3, 7, 0);
+        DatabaseHealthIndicator indicator = new DatabaseHealthIndicator(dataSource, properties, new SimpleMeterRegistry());
+
+        // Act
+        Health health = indicator.health();
+
+        // Assert
+        assertEquals(Status.UP, health.getStatus());
+        Map<?, ?> pool = (Map<?, ?>) health.getDetails().get("pool");
+        assertEquals(3, pool.get("active"));
+        assertEquals(7, pool.get("idle"));
+        assertEquals(0, pool.get("pending"));
+        assertEquals(10, pool.get("max"));
+        assertEquals(false, pool.get("saturated"));
+    }
+
+    @Test
+    public void testSaturatedPoolIsDegradedWithoutNewValidation() {
+        // Arrange
+        properties.setCacheTtl(Duration.ZERO);
+        DatabaseHealthIndicator indicator = new DatabaseHealthIndicator(dataSource, properties, new SimpleMeterRegistry());
+        indicator.health();
+        dataSource.pool = pool(10, 0, 4);
+
+        // Act
+        Health health = indicator.health();
+
+        // Assert
+        assertEquals(DatabaseHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(true, ((Map<?, ?>) health.getDetails().get("pool")).get("saturated"));
+        assertEquals(1, validations.get());
+    }
+
+    private static HikariPoolMXBean pool(int active, int idle, int pending) {
+        return (HikariPoolMXBean) Proxy.newProxyInstance(HikariPoolMXBean.class.getClassLoader(), new Class<?>[]{HikariPoolMXBean.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getActiveConnections" -> active;
+                    case "getIdleConnections" -> idle;
+                    case "getThreadsAwaitingConnection" -> pending;
+                    case "getTotalConnections" -> active + idle;
+                    default -> null;
+                });
+    }
+
+    /**
+     * Hikari data source handing out connections whose validation is counted, without a database.
+     */
+    private final class StubDataSource extends HikariDataSource {
+        private HikariPoolMXBean pool;
+
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "isValid" -> {
+                            validations.incrementAndGet();
+                            yield valid;
+                        }
+                        default -> null;
+                    });
+        }
+
+        @Override
+        public HikariPoolMXBean getHikariPoolMXBean() {
+            return pool;
+        }
+    }
+}
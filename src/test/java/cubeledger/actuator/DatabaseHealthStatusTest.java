@@ -0,0 +1,42 @@
+package cubeledger.actuator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class DatabaseHealthStatusTest {
+
+    @Autowired
+    private HttpCodeStatusMapper httpCodeStatusMapper;
+
+    @Autowired
+    private StatusAggregator statusAggregator;
+
+    @Test
+    public void testDegradedIsReportedWithOk() {
+        // Act
+        int statusCode = httpCodeStatusMapper.getStatusCode(DatabaseHealthIndicator.DEGRADED);
+
+        // Assert
+        assertEquals(200, statusCode);
+    }
+
+    @Test
+    public void testDegradedOutranksUpButNotDown() {
+        // Act
+        Status degraded = statusAggregator.getAggregateStatus(Set.of(Status.UP, DatabaseHealthIndicator.DEGRADED));
+        Status down = statusAggregator.getAggregateStatus(Set.of(Status.DOWN, DatabaseHealthIndicator.DEGRADED));
+
+        // Assert
+        assertEquals(DatabaseHealthIndicator.DEGRADED, degraded);
+        assertEquals(Status.DOWN, down);
+    }
+}
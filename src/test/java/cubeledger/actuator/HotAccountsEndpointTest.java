@@ -0,0 +1,25 @@
+package cubeledger.actuator;
+
+import cubeledger.hotaccount.HotAccountProperties;
+import cubeledger.hotaccount.HotAccountTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HotAccountsEndpointTest {
+
+    @Test
+    public void testTopBelowOneIsRejectedAsInvalidRequest() {
+        // Arrange
+        HotAccountsEndpoint endpoint = new HotAccountsEndpoint(new HotAccountTracker(new HotAccountProperties()));
+
+        // Act
+        InvalidEndpointRequestException exception = assertThrows(InvalidEndpointRequestException.class,
+                () -> endpoint.hotAccounts(-1));
+
+        // Assert
+        assertEquals("top must be at least 1", exception.getReason());
+    }
+}
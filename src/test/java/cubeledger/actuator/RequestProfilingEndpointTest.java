@@ -0,0 +1,52 @@
+package cubeledger.actuator;
+
+import cubeledger.profiling.RequestProfiler;
+import cubeledger.profiling.RequestProfilingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestProfilingEndpointTest {
+
+    @Test
+    public void testEnableOnUnsupportedJvmIsRejectedAsInvalidRequest() {
+        // Arrange
+        RequestProfiler requestProfiler = new RequestProfiler(new RequestProfilingProperties(), new SimpleMeterRegistry()) {
+            @Override
+            public boolean isSupported() {
+                return false;
+            }
+        };
+        RequestProfilingEndpoint endpoint = new RequestProfilingEndpoint(requestProfiler);
+
+        // Act
+        InvalidEndpointRequestException exception = assertThrows(InvalidEndpointRequestException.class,
+                () -> endpoint.control("enable"));
+
+        // Assert
+        assertEquals("The JVM does not support per-thread allocation and CPU time measurement", exception.getReason());
+        assertFalse(requestProfiler.isEnabled());
+        assertEquals(Map.of("enabled", false, "supported", false), endpoint.status());
+    }
+
+    @Test
+    public void testEnableAndDisable() {
+        // Arrange
+        RequestProfiler requestProfiler = new RequestProfiler(new RequestProfilingProperties(), new SimpleMeterRegistry());
+        RequestProfilingEndpoint endpoint = new RequestProfilingEndpoint(requestProfiler);
+
+        // Act
+        Map<String, Object> enabled = endpoint.control("enable");
+        Map<String, Object> disabled = endpoint.control("disable");
+
+        // Assert
+        assertEquals(true, enabled.get("enabled"));
+        assertEquals(false, disabled.get("enabled"));
+    }
+}
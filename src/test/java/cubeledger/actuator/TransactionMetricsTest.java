@@ -0,0 +1,110 @@
+package cubeledger.actuator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TransactionMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private TransactionMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new TransactionMetrics(registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testCountersAreIncrementedImmediatelyOutsideTransactions() {
+        // Act
+        metrics.incrementDepositCounter();
+
+        // Assert
+        assertEquals(1.0, count("cubeledger.transactions.deposit"));
+    }
+
+    @Test
+    public void testCountersAreIncrementedOnlyOnceCommitted() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        metrics.incrementTransferCounter();
+        double beforeCommit = count("cubeledger.transactions.transfer");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(0.0, beforeCommit);
+        assertEquals(1.0, count("cubeledger.transactions.transfer"));
+    }
+
+    @Test
+    public void testRolledBackOperationsAreNotCounted() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        metrics.incrementWithdrawalCounter();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals(0.0, count("cubeledger.transactions.withdrawal"));
+    }
+
+    @Test
+    public void testCommitIsTimedOnceCommitted() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        metrics.timeCommit();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(1L, registry.get("cubeledger.transactions.commit").timer().count());
+    }
+
+    @Test
+    public void testRolledBackCommitIsNotTimed() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        metrics.timeCommit();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals(0L, registry.get("cubeledger.transactions.commit").timer().count());
+    }
+
+    private double count(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    /**
+     * Complete the current transaction the way the transaction manager does.
+     */
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.beforeCommit(false);
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,96 @@
+package cubeledger.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class LedgerHashingTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+    @Test
+    public void testChainHashDependsOnPreviousHash() {
+        // Arrange
+        LedgerEntry entry = new LedgerEntry(1L, null, 2L, new BigDecimal("100.00"), "SEK", TIMESTAMP, "Deposit", "DEPOSIT", null, null, null);
+
+        // Act
+        String first = LedgerHashing.chainHash(LedgerHashing.GENESIS_HASH, entry);
+        String second = LedgerHashing.chainHash(first, entry);
+
+        // Assert
+        assertEquals(64, first.length());
+        assertEquals(first, LedgerHashing.chainHash(LedgerHashing.GENESIS_HASH, entry));
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    public void testChainHashDetectsChangedAmount() {
+        // Arrange
+        LedgerEntry original = new LedgerEntry(1L, 1L, 2L, new BigDecimal("100.00"), "SEK", TIMESTAMP, "Rent", "TRANSFER", null, null, null);
+        LedgerEntry altered = new LedgerEntry(1L, 1L, 2L, new BigDecimal("100.01"), "SEK", TIMESTAMP, "Rent", "TRANSFER", null, null, null);
+
+        // Act & Assert
+        assertNotEquals(LedgerHashing.chainHash(LedgerHashing.GENESIS_HASH, original),
+                LedgerHashing.chainHash(LedgerHashing.GENESIS_HASH, altered));
+    }
+
+    @Test
+    public void testCanonicalFormIsUnambiguous() {
+        // Arrange
+        LedgerEntry withSeparator = new LedgerEntry(1L, 1L, 2L, BigDecimal.TEN, "SEK", TIMESTAMP, "a|b", "TRANSFER", null, null, null);
+        LedgerEntry withoutDescription = new LedgerEntry(1L, 1L, 2L, BigDecimal.TEN, "SEK", TIMESTAMP, null, "TRANSFER", null, null, null);
+        LedgerEntry emptyDescription = new LedgerEntry(1L, 1L, 2L, BigDecimal.TEN, "SEK", TIMESTAMP, "", "TRANSFER", null, null, null);
+
+        // Act & Assert
+        assertNotEquals(LedgerHashing.canonicalForm(withoutDescription), LedgerHashing.canonicalForm(emptyDescription));
+        assertNotEquals(LedgerHashing.canonicalForm(withSeparator), LedgerHashing.canonicalForm(emptyDescription));
+    }
+
+    @Test
+    public void testCanonicalFormIgnoresAmountScale() {
+        // Arrange
+        LedgerEntry scaled = new LedgerEntry(1L, null, 2L, new BigDecimal("100.00"), "SEK", TIMESTAMP, null, "DEPOSIT", null, null, null);
+        LedgerEntry unscaled = new LedgerEntry(1L, null, 2L, new BigDecimal("100"), "SEK", TIMESTAMP, null, "DEPOSIT", null, null, null);
+
+        // Act & Assert
+        assertEquals(LedgerHashing.canonicalForm(scaled), LedgerHashing.canonicalForm(unscaled));
+    }
+
+    @Test
+    public void testMerkleRoot() throws Exception {
+        // Arrange
+        HexFormat hex = HexFormat.of();
+        String a = sha256Hex("a");
+        String b = sha256Hex("b");
+        String c = sha256Hex("c");
+        String ab = hashPair(a, b);
+        String cc = hashPair(c, c);
+
+        // Act & Assert
+        assertEquals(LedgerHashing.GENESIS_HASH, LedgerHashing.merkleRoot(List.of()));
+        assertEquals(a, LedgerHashing.merkleRoot(List.of(a)));
+        assertEquals(ab, LedgerHashing.merkleRoot(List.of(a, b)));
+        assertEquals(hashPair(ab, cc), LedgerHashing.merkleRoot(List.of(a, b, c)));
+        assertNotEquals(LedgerHashing.merkleRoot(List.of(a, b, c)), LedgerHashing.merkleRoot(List.of(b, a, c)));
+        assertEquals(32, hex.parseHex(LedgerHashing.merkleRoot(List.of(a, b, c))).length);
+    }
+
+    private static String sha256Hex(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String hashPair(String left, String right) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(HexFormat.of().parseHex(left));
+        digest.update(HexFormat.of().parseHex(right));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
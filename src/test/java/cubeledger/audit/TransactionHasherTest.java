@@ -0,0 +1,64 @@
+package cubeledger.audit;
+
+import cubeledger.cluster.ClusterMembership;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class TransactionHasherTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClusterMembership clusterMembership;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testLowerIdCommittingLateIsAppendedAndVerifies() {
+        // Arrange
+        AuditProperties properties = new AuditProperties();
+        properties.setBlockSize(2);
+        properties.setSettleDelay(Duration.ZERO);
+        TransactionHasher hasher = new TransactionHasher(dataSource, transactionManager, properties, clusterMembership);
+        LedgerVerifier verifier = new LedgerVerifier(dataSource, properties);
+        insertDeposit(900_002L);
+        hasher.hashPending();
+
+        // Act
+        // Committed only after the higher id was hashed
+        insertDeposit(900_001L);
+        hasher.hashPending();
+        LedgerIntegrityStatus status = verifier.verifyAll();
+
+        // Assert
+        assertTrue(chainPosition(900_001L) > chainPosition(900_002L));
+        assertEquals(0, status.failedBlocks().size());
+        assertEquals(0L, status.unchainedTransactions());
+    }
+
+    private void insertDeposit(long id) {
+        jdbcTemplate.update("INSERT INTO transactions (id, amount, timestamp, description, type, currency) VALUES (?, 10.00, ?, ?, ?, ?)",
+                id, Timestamp.valueOf(LocalDateTime.now().minusMinutes(10)), "Deposit", "DEPOSIT", "SEK");
+    }
+
+    private long chainPosition(long transactionId) {
+        return jdbcTemplate.queryForObject("SELECT seq FROM transaction_hashes WHERE transaction_id = ?", Long.class, transactionId);
+    }
+}
@@ -0,0 +1,99 @@
+package cubeledger.capture;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CaptureFormatTest {
+
+    private static final long START = 1_760_000_000_000_000L;
+
+    @Test
+    public void testRequestsRoundTrip() throws IOException {
+        // Arrange
+        byte[] transferBody = "{\"sourceAccountNumber\":\"ACC-1\",\"targetAccountNumber\":\"ACC-2\",\"amount\":12.50}".getBytes(StandardCharsets.UTF_8);
+        CapturedRequest transfer = new CapturedRequest(START + 1_500, "POST", "/api/transactions/transfer", "client-7", transferBody, 201, 3_250);
+        // Requests are written as they complete, so a later one may have started earlier
+        CapturedRequest balance = new CapturedRequest(START + 900, "GET", "/api/accounts/ACC-1?fields=balance", null, new byte[0], 200, 410);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+
+        // Act
+        try (CaptureWriter writer = new CaptureWriter(file, START)) {
+            writer.write(transfer);
+            writer.write(balance);
+        }
+        CaptureReader reader = new CaptureReader(new ByteArrayInputStream(file.toByteArray()));
+        CapturedRequest first = reader.read();
+        CapturedRequest second = reader.read();
+        CapturedRequest end = reader.read();
+
+        // Assert
+        assertEquals(START, reader.getStartMicros());
+        assertEquals(transfer.timestampMicros(), first.timestampMicros());
+        assertEquals("POST", first.method());
+        assertEquals("/api/transactions/transfer", first.path());
+        assertEquals("client-7", first.clientId());
+        assertArrayEquals(transferBody, first.body());
+        assertEquals(201, first.status());
+        assertEquals(3_250, first.latencyMicros());
+        assertEquals(balance.timestampMicros(), second.timestampMicros());
+        assertEquals("/api/accounts/ACC-1?fields=balance", second.path());
+        assertNull(second.clientId());
+        assertEquals(0, second.body().length);
+        assertNull(end);
+    }
+
+    @Test
+    public void testTruncatedRequestIsReported() throws IOException {
+        // Arrange
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (CaptureWriter writer = new CaptureWriter(file, START)) {
+            writer.write(new CapturedRequest(START, "POST", "/api/transactions/deposit", null, "{}".getBytes(StandardCharsets.UTF_8), 201, 800));
+        }
+        byte[] truncated = Arrays.copyOf(file.toByteArray(), file.size() - 2);
+
+        // Act
+        CaptureReader reader = new CaptureReader(new ByteArrayInputStream(truncated));
+
+        // Assert
+        assertThrows(EOFException.class, reader::read);
+    }
+
+    @Test
+    public void testOtherFilesAreRejected() {
+        // Arrange
+        byte[] notCapture = "type,source_account_number\n".getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> new CaptureReader(new ByteArrayInputStream(notCapture)));
+    }
+
+    @Test
+    public void testLatencyPercentiles() {
+        // Arrange
+        long[] micros = new long[1000];
+        for (int i = 0; i < micros.length; i++) {
+            micros[i] = (micros.length - i) * 1000L;
+        }
+
+        // Act
+        ReplayReport.Latencies latencies = ReplayReport.Latencies.of(micros, micros.length);
+
+        // Assert
+        assertEquals(500.0, latencies.p50());
+        assertEquals(900.0, latencies.p90());
+        assertEquals(990.0, latencies.p99());
+        assertEquals(999.0, latencies.p999());
+        assertEquals(1000.0, latencies.max());
+    }
+}
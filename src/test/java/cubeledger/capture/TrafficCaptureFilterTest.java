@@ -0,0 +1,93 @@
+package cubeledger.capture;
+
+import cubeledger.ratelimit.RateLimitProperties;
+import cubeledger.ratelimit.TransactionRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TrafficCaptureFilterTest {
+
+    private static final byte[] BODY = "{\"accountNumber\":\"ACC-1\",\"amount\":12.50}".getBytes(StandardCharsets.UTF_8);
+
+    private final List<CapturedRequest> recorded = new CopyOnWriteArrayList<>();
+    private TrafficCaptureProperties properties;
+    private TrafficRecorder trafficRecorder;
+    private TransactionRateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new TrafficCaptureProperties();
+        properties.setEnabled(true);
+        trafficRecorder = new TrafficRecorder(properties, new SimpleMeterRegistry()) {
+            @Override
+            public void record(CapturedRequest request) {
+                recorded.add(request);
+            }
+        };
+        rateLimiter = new TransactionRateLimiter(new RateLimitProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testBodiesAreNotCapturedByDefault() throws Exception {
+        // Arrange
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(trafficRecorder, properties, rateLimiter);
+
+        // Act
+        filter.doFilter(deposit(), new MockHttpServletResponse(), (request, response) ->
+                request.getInputStream().transferTo(OutputStream.nullOutputStream()));
+
+        // Assert
+        assertEquals(1, recorded.size());
+        assertEquals("/api/transactions/deposit", recorded.get(0).path());
+        assertEquals(0, recorded.get(0).body().length);
+    }
+
+    @Test
+    public void testBodiesAreCapturedWhenEnabled() throws Exception {
+        // Arrange
+        properties.setCaptureBodies(true);
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(trafficRecorder, properties, rateLimiter);
+
+        // Act
+        // The handler does not read the body, as when a request is rejected before the controller
+        filter.doFilter(deposit(), new MockHttpServletResponse(), (request, response) -> { });
+
+        // Assert
+        assertEquals(1, recorded.size());
+        assertArrayEquals(BODY, recorded.get(0).body());
+    }
+
+    @Test
+    public void testClientIsCapturedAsTheRateLimiterKnowsIt() throws Exception {
+        // Arrange
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(trafficRecorder, properties, rateLimiter);
+        MockHttpServletRequest request = deposit();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Client-Id", "spoofed");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, response) -> { });
+
+        // Assert
+        assertEquals(1, recorded.size());
+        assertEquals("10.0.0.1", recorded.get(0).clientId());
+    }
+
+    private static MockHttpServletRequest deposit() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+        request.setContentType("application/json");
+        request.setContent(BODY);
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package cubeledger.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import cubeledger.ratelimit.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TrafficReplayRunnerTest {
+
+    @Test
+    public void testTargetLimitingReplayAsOneClientIsRefused() throws Exception {
+        // Arrange
+        HttpServer target = target("{\"enabled\":false,\"limitsPerCapturedClient\":false}");
+
+        // Act & Assert
+        try {
+            assertThrows(IllegalStateException.class, () -> runner(target).checkTarget(HttpClient.newHttpClient()));
+        } finally {
+            target.stop(0);
+        }
+    }
+
+    @Test
+    public void testTargetLimitingPerCapturedClientIsAccepted() throws Exception {
+        // Arrange
+        HttpServer target = target("{\"enabled\":false,\"limitsPerCapturedClient\":true}");
+
+        // Act & Assert
+        try {
+            runner(target).checkTarget(HttpClient.newHttpClient());
+        } finally {
+            target.stop(0);
+        }
+    }
+
+    private static TrafficReplayRunner runner(HttpServer target) {
+        TrafficReplayProperties properties = new TrafficReplayProperties();
+        properties.setTargetUrl("http://localhost:" + target.getAddress().getPort());
+        return new TrafficReplayRunner(properties, new RateLimitProperties(), new ObjectMapper(), null);
+    }
+
+    // Instance answering /actuator/trafficcapture with the given status
+    private static HttpServer target(String status) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/actuator/trafficcapture", exchange -> {
+            byte[] body = status.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,42 @@
+package cubeledger.capture;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TrafficReplayerTest {
+
+    private static final long START = 1_760_000_000_000_000L;
+
+    @Test
+    public void testRequestThatCannotBeSentReleasesItsPermit() throws Exception {
+        // Arrange
+        // A space is not allowed in a URI, so building these requests fails before anything is sent
+        Path file = Files.createTempFile("capture", ".bin");
+        try (OutputStream out = Files.newOutputStream(file); CaptureWriter writer = new CaptureWriter(out, START)) {
+            writer.write(new CapturedRequest(START, "GET", "/api/accounts/ACC 1", null, new byte[0], 200, 100));
+            writer.write(new CapturedRequest(START + 10, "GET", "/api/accounts/ACC 2", null, new byte[0], 200, 100));
+        }
+        TrafficReplayer replayer = new TrafficReplayer(HttpClient.newHttpClient(), "http://localhost:1", 0, 1,
+                Duration.ofSeconds(1), "X-Client-Id");
+
+        // Act
+        ReplayReport report;
+        try {
+            report = replayer.replay(List.of(file));
+        } finally {
+            Files.delete(file);
+        }
+
+        // Assert
+        assertEquals(2L, report.requests());
+        assertEquals(2L, report.failed());
+    }
+}
@@ -0,0 +1,86 @@
+package cubeledger.cluster;
+
+import cubeledger.concurrency.AccountLockProperties;
+import cubeledger.concurrency.AccountLocks;
+import cubeledger.exception.ServiceOverloadedException;
+import cubeledger.hotaccount.HotAccountProperties;
+import cubeledger.hotaccount.HotAccountTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccountLeasesTest {
+
+    private static final Duration SHORT_WAIT = Duration.ofMillis(50);
+    private static final Duration LONG_WAIT = Duration.ofSeconds(5);
+
+    private ClusterProperties properties;
+    private AccountLocks accountLocks;
+    private AccountLeases accountLeases;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ClusterProperties();
+        AccountLockProperties lockProperties = new AccountLockProperties();
+        ClusterClient clusterClient = new ClusterClient(properties, lockProperties);
+        accountLocks = new AccountLocks(lockProperties, new HotAccountTracker(new HotAccountProperties()),
+                new ClusterMembership(properties, clusterClient), clusterClient, new SimpleMeterRegistry());
+        accountLeases = new AccountLeases(accountLocks, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testLeaseHoldsTheAccountLocksUntilReleased() {
+        // Arrange
+        String leaseId = accountLeases.acquire(List.of("ACC-1", "ACC-2"), SHORT_WAIT);
+
+        // Act & Assert
+        assertEquals(1, accountLeases.size());
+        assertThrows(ServiceOverloadedException.class, () -> lockLocally("ACC-2", SHORT_WAIT));
+
+        assertTrue(accountLeases.release(leaseId));
+        assertTrue(lockLocally("ACC-2", LONG_WAIT));
+        assertEquals(0, accountLeases.size());
+    }
+
+    @Test
+    public void testLeaseExpiresWhenNotReleased() {
+        // Arrange
+        properties.setLeaseTtl(Duration.ofMillis(100));
+        String leaseId = accountLeases.acquire(List.of("ACC-1"), SHORT_WAIT);
+
+        // Act
+        boolean lockedAfterExpiry = lockLocally("ACC-1", LONG_WAIT);
+
+        // Assert
+        assertTrue(lockedAfterExpiry);
+        assertFalse(accountLeases.release(leaseId));
+    }
+
+    @Test
+    public void testAcquireFailsWhileAccountIsLocked() {
+        // Arrange
+        String leaseId = accountLeases.acquire(List.of("ACC-1"), SHORT_WAIT);
+
+        // Act & Assert
+        assertThrows(ServiceOverloadedException.class, () -> accountLeases.acquire(List.of("ACC-1"), SHORT_WAIT));
+        assertEquals(1, accountLeases.size());
+        accountLeases.release(leaseId);
+    }
+
+    @Test
+    public void testReleasingUnknownLeaseFails() {
+        assertFalse(accountLeases.release("unknown"));
+    }
+
+    private boolean lockLocally(String accountNumber, Duration wait) {
+        return accountLocks.withLocalLocks(() -> true, wait, accountNumber);
+    }
+}
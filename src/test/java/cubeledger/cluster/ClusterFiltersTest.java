@@ -0,0 +1,193 @@
+package cubeledger.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cubeledger.concurrency.AccountLockProperties;
+import cubeledger.ratelimit.RateLimitProperties;
+import cubeledger.ratelimit.TransactionRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClusterFiltersTest {
+
+    private static final String SECRET = "cluster-secret";
+
+    private final List<String> forwarded = new ArrayList<>();
+    private ClusterProperties properties;
+    private ClusterMembership clusterMembership;
+    private ClusterForwardingFilter forwardingFilter;
+    private ClusterAuthenticationFilter authenticationFilter;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId("node-1");
+        properties.setSecret(SECRET);
+        properties.setMembers(Map.of("node-1", "http://localhost:8080", "node-2", "http://localhost:8081"));
+        properties.setMaxForwardedBodySize(DataSize.ofBytes(256));
+
+        ClusterClient clusterClient = new ClusterClient(properties, new AccountLockProperties()) {
+            @Override
+            public ResponseEntity<byte[]> forward(ClusterMember owner, HttpMethod method, String pathAndQuery,
+                                                 HttpHeaders headers, byte[] body) {
+                forwarded.add(owner.id() + " " + pathAndQuery + " " + headers.getFirst("X-Client-Id"));
+                return ResponseEntity.status(201)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"forwarded\":true}".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        clusterMembership = new ClusterMembership(properties, clusterClient);
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        forwardingFilter = new ClusterForwardingFilter(clusterMembership, clusterClient, new ObjectMapper(),
+                new TransactionRateLimiter(rateLimitProperties, new SimpleMeterRegistry()), rateLimitProperties, properties);
+        authenticationFilter = new ClusterAuthenticationFilter(properties);
+    }
+
+    @Test
+    public void testWriteForRemoteAccountIsForwardedToOwner() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = deposit(accountOwnedBy("node-2"));
+        request.setRemoteAddr("10.0.0.7");
+        // Not trusted from a client; the owner limits by the forwarding member's view of the client
+        request.addHeader("X-Client-Id", "someone-else");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        forwardingFilter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(List.of("node-2 /api/transactions/deposit 10.0.0.7"), forwarded);
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"forwarded\":true}", response.getContentAsString());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    public void testWriteForLocalAccountIsHandledLocallyWithItsBody() throws Exception {
+        // Arrange
+        String accountNumber = accountOwnedBy("node-1");
+        MockHttpServletRequest request = deposit(accountNumber);
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        forwardingFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertTrue(forwarded.isEmpty());
+        assertNotNull(chain.getRequest());
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(body.contains(accountNumber));
+    }
+
+    @Test
+    public void testForwardedRequestIsNeverForwardedAgain() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = deposit(accountOwnedBy("node-2"));
+        request.addHeader(ClusterClient.FORWARDED_BY_HEADER, "node-2");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        forwardingFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertTrue(forwarded.isEmpty());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    public void testOversizedBodyIsRejected() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+        request.setContent(("{\"accountNumber\":\"" + "A".repeat(300) + "\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        forwardingFilter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(413, response.getStatus());
+        assertTrue(forwarded.isEmpty());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    public void testInternalCallWithoutSecretIsRejected() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/internal/cluster/leases");
+        request.addHeader(ClusterClient.SECRET_HEADER, "wrong");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        authenticationFilter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    public void testForwardedRequestWithSecretIsMarkedWithMember() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = deposit("ACC-1");
+        request.addHeader(ClusterClient.FORWARDED_BY_HEADER, "node-2");
+        request.addHeader(ClusterClient.SECRET_HEADER, SECRET);
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        authenticationFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+        assertEquals("node-2", request.getAttribute(ClusterAuthenticationFilter.MEMBER_ATTRIBUTE));
+    }
+
+    @Test
+    public void testPublicRequestNeedsNoSecret() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        authenticationFilter.doFilter(deposit("ACC-1"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+
+    private String accountOwnedBy(String memberId) {
+        for (int i = 0; ; i++) {
+            String accountNumber = "ACC-" + i;
+            if (memberId.equals(clusterMembership.getRing().ownerOf(accountNumber))) {
+                return accountNumber;
+            }
+        }
+    }
+
+    private static MockHttpServletRequest deposit(String accountNumber) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(("{\"accountNumber\":\"" + accountNumber + "\",\"amount\":10.00}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,77 @@
+package cubeledger.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConsistentHashRingTest {
+
+    private static final int KEYS = 30_000;
+
+    @Test
+    public void testSameMembersGiveSameOwners() {
+        // Arrange: the member order differs, as it may between instances
+        ConsistentHashRing first = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("node-3", "node-1", "node-2"), 128);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.ownerOf("ACC-" + i), second.ownerOf("ACC-" + i));
+        }
+    }
+
+    @Test
+    public void testSpreadsKeysEvenly() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.ownerOf("ACC-" + i), 1, Integer::sum);
+        }
+
+        // Assert: every member owns within 25% of an even share
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - KEYS / 3) < KEYS / 3 / 4, "Uneven share: " + counts);
+        }
+    }
+
+    @Test
+    public void testJoiningMemberOnlyTakesKeys() {
+        // Arrange
+        ConsistentHashRing before = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), 128);
+
+        // Act
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String oldOwner = before.ownerOf("ACC-" + i);
+            String newOwner = after.ownerOf("ACC-" + i);
+            if (!oldOwner.equals(newOwner)) {
+                // Assert: keys only move to the new member, never between existing ones
+                assertEquals("node-4", newOwner);
+                moved++;
+            }
+        }
+
+        // Assert: about a quarter of the keys move
+        assertTrue(moved > KEYS / 4 * 3 / 4 && moved < KEYS / 4 * 5 / 4, "Moved " + moved);
+    }
+
+    @Test
+    public void testEmptyRingHasNoOwner() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 128);
+
+        // Act & Assert
+        assertNull(ring.ownerOf("ACC-001"));
+    }
+}
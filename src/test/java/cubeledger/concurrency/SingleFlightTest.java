@@ -0,0 +1,149 @@
+package cubeledger.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        // Arrange: the load blocks until all followers are waiting
+        SingleFlight<String, Integer> flight = new SingleFlight<>(5, TimeUnit.SECONDS);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            Future<Integer> leader = executor.submit(() -> flight.load("ACC-001", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return loads.incrementAndGet();
+            }));
+            leaderStarted.await();
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> flight.load("ACC-001", loads::incrementAndGet)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            assertEquals(1, (int) leader.get());
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, (int) follower.get());
+            }
+            assertEquals(1, loads.get());
+            assertEquals(1, flight.getLoads());
+            assertEquals(7, flight.getShared());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNextCallerLoadsAgainAfterCompletion() {
+        // Arrange
+        SingleFlight<String, Integer> flight = new SingleFlight<>(1, TimeUnit.SECONDS);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        int first = flight.load("ACC-001", loads::incrementAndGet);
+        int second = flight.load("ACC-001", loads::incrementAndGet);
+
+        // Assert: results are not cached
+        assertEquals(1, first);
+        assertEquals(2, second);
+    }
+
+    @Test
+    public void testFollowerLoadsItselfAfterMaxWait() throws Exception {
+        // Arrange: the leader never finishes within the follower's wait
+        SingleFlight<String, Integer> flight = new SingleFlight<>(50, TimeUnit.MILLISECONDS);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> flight.load("ACC-001", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return 1;
+            }));
+            leaderStarted.await();
+
+            // Act
+            int value = flight.load("ACC-001", () -> 2);
+
+            // Assert
+            assertEquals(2, value);
+            assertEquals(1, flight.getTimeouts());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFollowersGetLeaderException() throws Exception {
+        // Arrange
+        SingleFlight<String, Integer> flight = new SingleFlight<>(5, TimeUnit.SECONDS);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> leader = executor.submit(() -> flight.load("ACC-404", () -> {
+                leaderStarted.countDown();
+                await(release);
+                throw new IllegalArgumentException("Account not found");
+            }));
+            leaderStarted.await();
+
+            // Act
+            Thread releaser = new Thread(() -> {
+                sleep(100);
+                release.countDown();
+            });
+            releaser.start();
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> flight.load("ACC-404", () -> 0));
+
+            // Assert
+            assertEquals("Account not found", exception.getMessage());
+            assertEquals(1, flight.getShared());
+            releaser.join();
+            leader.cancel(true);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
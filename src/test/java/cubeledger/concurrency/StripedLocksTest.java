@@ -0,0 +1,123 @@
+package cubeledger.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StripedLocksTest {
+
+    @Test
+    public void testStripesAreSortedAndDistinct() {
+        // Arrange
+        StripedLocks locks = new StripedLocks(16);
+
+        // Act
+        int[] forward = locks.stripesFor("ACC-001", "ACC-002");
+        int[] backward = locks.stripesFor("ACC-002", "ACC-001");
+        int[] same = locks.stripesFor("ACC-001", "ACC-001", null);
+
+        // Assert: opposite transfers lock in the same order
+        assertArrayEquals(forward, backward);
+        assertTrue(forward.length == 1 || forward[0] < forward[1]);
+        assertEquals(1, same.length);
+    }
+
+    @Test
+    public void testTimesOutWithoutHoldingAnyStripe() throws Exception {
+        // Arrange: another thread holds the second stripe
+        StripedLocks locks = new StripedLocks(16);
+        int[] both = {3, 7};
+        int[] second = {7};
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                locks.tryLock(second, 1, TimeUnit.SECONDS);
+                locked.countDown();
+                done.await();
+                locks.unlock(second);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        holder.start();
+        locked.await();
+
+        // Act
+        boolean acquired = locks.tryLock(both, 50, TimeUnit.MILLISECONDS);
+
+        // Assert: the first stripe was released again
+        assertFalse(acquired);
+        AtomicBoolean firstFree = new AtomicBoolean();
+        Thread probe = new Thread(() -> {
+            try {
+                int[] first = {3};
+                firstFree.set(locks.tryLock(first, 0, TimeUnit.SECONDS));
+                if (firstFree.get()) {
+                    locks.unlock(first);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        probe.start();
+        probe.join();
+        assertTrue(firstFree.get());
+
+        done.countDown();
+        holder.join();
+        assertTrue(locks.tryLock(both, 1, TimeUnit.SECONDS));
+        locks.unlock(both);
+    }
+
+    @Test
+    public void testOppositeLockOrdersDoNotDeadlock() throws Exception {
+        // Arrange
+        StripedLocks locks = new StripedLocks(64);
+        int iterations = 10_000;
+        int[] counter = new int[1];
+        Runnable forward = () -> lockAndIncrement(locks, counter, iterations, "ACC-001", "ACC-002");
+        Runnable backward = () -> lockAndIncrement(locks, counter, iterations, "ACC-002", "ACC-001");
+
+        // Act
+        Thread first = new Thread(forward);
+        Thread second = new Thread(backward);
+        first.start();
+        second.start();
+        first.join(10_000);
+        second.join(10_000);
+
+        // Assert: both finished and the counter was only changed under the locks
+        assertEquals(2 * iterations, counter[0]);
+    }
+
+    @Test
+    public void testStripesMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(100));
+    }
+
+    private static void lockAndIncrement(StripedLocks locks, int[] counter, int iterations, String... keys) {
+        try {
+            for (int i = 0; i < iterations; i++) {
+                int[] stripes = locks.stripesFor(keys);
+                if (locks.tryLock(stripes, 5, TimeUnit.SECONDS)) {
+                    try {
+                        counter[0]++;
+                    } finally {
+                        locks.unlock(stripes);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
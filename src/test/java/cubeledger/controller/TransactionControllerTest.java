@@ -1,9 +1,14 @@
 package cubeledger.controller;
 
+import cubeledger.dto.TransactionSummary;
+import cubeledger.exception.AccountNotFoundException;
+import cubeledger.exception.InsufficientFundsException;
+import cubeledger.model.Account;
 import cubeledger.model.Currency;
 import cubeledger.model.Transaction;
 import cubeledger.model.TransactionType;
 import cubeledger.service.AccountService;
+import cubeledger.service.TransactionResult;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,9 +29,12 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +42,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
 public class TransactionControllerTest {
 
+    private static final String TRANSFER_BODY =
+            "{\"sourceAccountNumber\":\"SOURCE-ACCOUNT\",\"targetAccountNumber\":\"TARGET-ACCOUNT\",\"amount\":25.00,\"currency\":\"SEK\"}";
+
     @TestConfiguration
     static class TestConfig {
         @Bean
@@ -60,19 +71,23 @@ public class TransactionControllerTest {
     public void testListTransactions() throws Exception {
         // Arrange
         String accountNumber = "TEST-ACCOUNT";
-        List<Transaction> mockTransactions = new ArrayList<>();
+        List<TransactionSummary> mockTransactions = new ArrayList<>();
 
-        Transaction transaction = new Transaction();
-        transaction.setId(1L);
-        transaction.setAmount(new BigDecimal("100.00"));
-        transaction.setCurrency(Currency.SEK);
-        transaction.setTimestamp(LocalDateTime.now());
-        transaction.setDescription("Test transaction");
-        transaction.setType(TransactionType.DEPOSIT);
+        TransactionSummary transaction = new TransactionSummary(
+                1L,
+                null,
+                accountNumber,
+                new BigDecimal("100.00"),
+                Currency.SEK,
+                LocalDateTime.now(),
+                "Test transaction",
+                TransactionType.DEPOSIT,
+                1L
+        );
 
         mockTransactions.add(transaction);
 
-        when(accountService.listTransactions(anyString())).thenReturn(mockTransactions);
+        when(accountService.listTransactionSummaries(anyString())).thenReturn(mockTransactions);
 
         // Act & Assert
         mockMvc.perform(get("/api/transactions/account/{accountNumber}", accountNumber)
@@ -80,6 +95,192 @@ public class TransactionControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].amount").value(100.0))
                 .andExpect(jsonPath("$[0].currency").value("SEK"))
+                .andExpect(jsonPath("$[0].targetAccountNumber").value(accountNumber))
                 .andExpect(jsonPath("$[0].type").value("DEPOSIT"));
     }
+
+    @Test
+    public void testListTransactionsSinceSequenceNumber() throws Exception {
+        // Arrange
+        String accountNumber = "SYNC-ACCOUNT";
+        TransactionSummary transaction = new TransactionSummary(
+                7L,
+                accountNumber,
+                null,
+                new BigDecimal("25.00"),
+                Currency.SEK,
+                LocalDateTime.now(),
+                "Withdrawal",
+                TransactionType.WITHDRAWAL,
+                43L
+        );
+
+        when(accountService.listTransactionSummariesSince(eq(accountNumber), eq(42L), eq(50))).thenReturn(List.of(transaction));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/account/{accountNumber}", accountNumber)
+                .param("sinceSeq", "42")
+                .param("limit", "50")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].seq").value(43))
+                .andExpect(jsonPath("$[0].sourceAccountNumber").value(accountNumber))
+                .andExpect(jsonPath("$[0].type").value("WITHDRAWAL"));
+    }
+
+    @Test
+    public void testTransferCompleted() throws Exception {
+        // Arrange
+        Transaction transaction = transaction(new Account("SOURCE-ACCOUNT"), new Account("TARGET-ACCOUNT"), TransactionType.TRANSFER);
+        when(accountService.tryTransfer(eq("SOURCE-ACCOUNT"), eq("TARGET-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.Completed(transaction));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TRANSFER_BODY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(11))
+                .andExpect(jsonPath("$.sourceAccountNumber").value("SOURCE-ACCOUNT"))
+                .andExpect(jsonPath("$.targetAccountNumber").value("TARGET-ACCOUNT"))
+                .andExpect(jsonPath("$.type").value("TRANSFER"));
+    }
+
+    @Test
+    public void testTransferInsufficientFunds() throws Exception {
+        // Arrange
+        when(accountService.tryTransfer(eq("SOURCE-ACCOUNT"), eq("TARGET-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.InsufficientFunds("SOURCE-ACCOUNT", new BigDecimal("5.00"), new BigDecimal("25.00")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TRANSFER_BODY))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value(
+                        InsufficientFundsException.message("SOURCE-ACCOUNT", new BigDecimal("5.00"), new BigDecimal("25.00"))));
+    }
+
+    @Test
+    public void testTransferAccountNotFound() throws Exception {
+        // Arrange
+        when(accountService.tryTransfer(eq("SOURCE-ACCOUNT"), eq("TARGET-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.AccountNotFound("TARGET-ACCOUNT"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TRANSFER_BODY))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value(AccountNotFoundException.message("TARGET-ACCOUNT")));
+    }
+
+    @Test
+    public void testDepositCompleted() throws Exception {
+        // Arrange
+        Transaction transaction = transaction(null, new Account("DEPOSIT-ACCOUNT"), TransactionType.DEPOSIT);
+        when(accountService.tryDeposit(eq("DEPOSIT-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.Completed(transaction));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/deposit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(accountBody("DEPOSIT-ACCOUNT")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(11))
+                .andExpect(jsonPath("$.targetAccountNumber").value("DEPOSIT-ACCOUNT"))
+                .andExpect(jsonPath("$.type").value("DEPOSIT"));
+    }
+
+    @Test
+    public void testDepositInsufficientFunds() throws Exception {
+        // Arrange
+        when(accountService.tryDeposit(eq("DEPOSIT-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.InsufficientFunds("DEPOSIT-ACCOUNT", new BigDecimal("0.00"), new BigDecimal("25.00")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/deposit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(accountBody("DEPOSIT-ACCOUNT")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value(
+                        InsufficientFundsException.message("DEPOSIT-ACCOUNT", new BigDecimal("0.00"), new BigDecimal("25.00"))));
+    }
+
+    @Test
+    public void testDepositAccountNotFound() throws Exception {
+        // Arrange
+        when(accountService.tryDeposit(eq("DEPOSIT-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.AccountNotFound("DEPOSIT-ACCOUNT"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/deposit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(accountBody("DEPOSIT-ACCOUNT")))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value(AccountNotFoundException.message("DEPOSIT-ACCOUNT")));
+    }
+
+    @Test
+    public void testWithdrawCompleted() throws Exception {
+        // Arrange
+        Transaction transaction = transaction(new Account("WITHDRAW-ACCOUNT"), null, TransactionType.WITHDRAWAL);
+        when(accountService.tryWithdraw(eq("WITHDRAW-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.Completed(transaction));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/withdraw")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(accountBody("WITHDRAW-ACCOUNT")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(11))
+                .andExpect(jsonPath("$.sourceAccountNumber").value("WITHDRAW-ACCOUNT"))
+                .andExpect(jsonPath("$.type").value("WITHDRAWAL"));
+    }
+
+    @Test
+    public void testWithdrawInsufficientFunds() throws Exception {
+        // Arrange
+        when(accountService.tryWithdraw(eq("WITHDRAW-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.InsufficientFunds("WITHDRAW-ACCOUNT", new BigDecimal("5.00"), new BigDecimal("25.00")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/withdraw")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(accountBody("WITHDRAW-ACCOUNT")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value(
+                        InsufficientFundsException.message("WITHDRAW-ACCOUNT", new BigDecimal("5.00"), new BigDecimal("25.00"))));
+    }
+
+    @Test
+    public void testWithdrawAccountNotFound() throws Exception {
+        // Arrange
+        when(accountService.tryWithdraw(eq("WITHDRAW-ACCOUNT"), any(BigDecimal.class), eq(Currency.SEK), any()))
+                .thenReturn(new TransactionResult.AccountNotFound("WITHDRAW-ACCOUNT"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/withdraw")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(accountBody("WITHDRAW-ACCOUNT")))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value(AccountNotFoundException.message("WITHDRAW-ACCOUNT")));
+    }
+
+    private static String accountBody(String accountNumber) {
+        return "{\"accountNumber\":\"" + accountNumber + "\",\"amount\":25.00,\"currency\":\"SEK\"}";
+    }
+
+    private static Transaction transaction(Account source, Account target, TransactionType type) {
+        Transaction transaction = new Transaction(source, target, new BigDecimal("25.00"), Currency.SEK, type, "Test transaction");
+        transaction.setId(11L);
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
 }
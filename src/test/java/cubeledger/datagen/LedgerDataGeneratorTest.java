@@ -0,0 +1,138 @@
+package cubeledger.datagen;
+
+import cubeledger.model.Currency;
+import cubeledger.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LedgerDataGeneratorTest {
+
+    private static final LocalDateTime END = LocalDateTime.of(2025, 6, 30, 0, 0);
+
+    @Test
+    public void testBalancesAddUpAndNeverGoNegative() {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+
+        // Act
+        LedgerDataGenerator.Summary summary = new LedgerDataGenerator(properties(50, 20_000)).generate(sink, END);
+
+        // Assert
+        long[] balances = new long[50];
+        for (GeneratedTransaction transaction : sink.transactions) {
+            if (transaction.source() >= 0) {
+                balances[transaction.source()] -= transaction.amount();
+                assertTrue(balances[transaction.source()] >= 0, "balance went negative");
+            }
+            if (transaction.target() >= 0) {
+                balances[transaction.target()] += transaction.amount();
+            }
+            assertFalse(transaction.source() >= 0 && transaction.source() == transaction.target());
+        }
+        assertArrayEquals(balances, sink.balances);
+        assertEquals(20_000, summary.transactions());
+        assertEquals(20_000, summary.deposits() + summary.withdrawals() + summary.transfers());
+        assertTrue(summary.transfers() > 0 && summary.withdrawals() > 0);
+    }
+
+    @Test
+    public void testSequenceNumbersAreGaplessPerAccount() {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+
+        // Act
+        new LedgerDataGenerator(properties(20, 5_000)).generate(sink, END);
+
+        // Assert
+        long[] seqs = new long[20];
+        for (GeneratedTransaction transaction : sink.transactions) {
+            if (transaction.source() >= 0) {
+                assertEquals(++seqs[transaction.source()], transaction.sourceSeq());
+            }
+            if (transaction.target() >= 0) {
+                assertEquals(++seqs[transaction.target()], transaction.targetSeq());
+            }
+        }
+        assertArrayEquals(seqs, sink.lastSeqs);
+    }
+
+    @Test
+    public void testTimestampsAreOrderedWithinPeriod() {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+        int[] perHour = new int[24];
+
+        // Act
+        new LedgerDataGenerator(properties(10, 24_000)).generate(sink, END);
+
+        // Assert
+        LocalDateTime previous = END.minusDays(30);
+        for (GeneratedTransaction transaction : sink.transactions) {
+            assertFalse(transaction.timestamp().isBefore(previous), "timestamps went backwards");
+            previous = transaction.timestamp();
+            perHour[transaction.timestamp().getHour()]++;
+        }
+        assertTrue(previous.isBefore(END));
+        assertTrue(perHour[20] > perHour[8] * 3, "evening should be busier than morning");
+    }
+
+    @Test
+    public void testSameSeedGivesSameLedger() {
+        // Arrange
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+
+        // Act
+        new LedgerDataGenerator(properties(30, 1_000)).generate(first, END);
+        new LedgerDataGenerator(properties(30, 1_000)).generate(second, END);
+
+        // Assert
+        assertEquals(first.transactions, second.transactions);
+        assertEquals("GEN-0000000030", LedgerDataGenerator.accountNumber("GEN-", 29));
+        assertEquals(29, LedgerDataGenerator.accountIndex("GEN-", "GEN-0000000030"));
+    }
+
+    private static DataGeneratorProperties properties(int accounts, long transactions) {
+        DataGeneratorProperties properties = new DataGeneratorProperties();
+        properties.setAccounts(accounts);
+        properties.setTransactions(transactions);
+        properties.setPeriod(Duration.ofDays(30));
+        return properties;
+    }
+
+    private static class RecordingSink implements LedgerSink {
+
+        private final List<GeneratedTransaction> transactions = new ArrayList<>();
+        private long[] balances;
+        private long[] lastSeqs;
+
+        @Override
+        public void accounts(String prefix, int count, Currency currency, LocalDateTime createdAt) {
+        }
+
+        @Override
+        public void transaction(GeneratedTransaction transaction) {
+            assertTrue(transaction.type() != TransactionType.DEPOSIT || transaction.source() < 0);
+            transactions.add(transaction);
+        }
+
+        @Override
+        public void balances(long[] balances, long[] lastSeqs) {
+            this.balances = balances.clone();
+            this.lastSeqs = lastSeqs.clone();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
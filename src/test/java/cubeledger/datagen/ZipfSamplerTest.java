@@ -0,0 +1,61 @@
+package cubeledger.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ZipfSamplerTest {
+
+    @Test
+    public void testSamplesStayWithinRanks() {
+        // Arrange
+        ZipfSampler sampler = new ZipfSampler(10, 1.2);
+        SplittableRandom random = new SplittableRandom(1);
+
+        // Act & Assert
+        for (int i = 0; i < 100_000; i++) {
+            int rank = sampler.sample(random);
+            assertTrue(rank >= 1 && rank <= 10, "rank " + rank);
+        }
+    }
+
+    @Test
+    public void testLowRanksAreDrawnInProportionToTheirWeight() {
+        // Arrange
+        ZipfSampler sampler = new ZipfSampler(1000, 1.0);
+        SplittableRandom random = new SplittableRandom(2);
+        int[] counts = new int[1001];
+
+        // Act
+        for (int i = 0; i < 200_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        // Assert
+        double ratio = (double) counts[1] / counts[2];
+        assertTrue(ratio > 1.8 && ratio < 2.2, "rank 1 vs rank 2 ratio " + ratio);
+        assertTrue(counts[1] > counts[10] * 8, "rank 1 should be drawn far more often than rank 10");
+    }
+
+    @Test
+    public void testZeroExponentIsUniform() {
+        // Arrange
+        ZipfSampler sampler = new ZipfSampler(4, 0);
+        SplittableRandom random = new SplittableRandom(3);
+        int[] counts = new int[5];
+
+        // Act
+        for (int i = 0; i < 40_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        // Assert
+        assertEquals(0, counts[0]);
+        for (int rank = 1; rank <= 4; rank++) {
+            assertTrue(Math.abs(counts[rank] - 10_000) < 500, "rank " + rank + " drawn " + counts[rank] + " times");
+        }
+    }
+}
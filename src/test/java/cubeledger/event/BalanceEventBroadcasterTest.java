@@ -0,0 +1,136 @@
+package cubeledger.event;
+
+import cubeledger.dto.BalanceEventDTO;
+import cubeledger.model.Currency;
+import cubeledger.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BalanceEventBroadcasterTest {
+
+    private static final String ACCOUNT = "ACC-1";
+
+    private BalanceEventBroadcaster broadcaster;
+    private RecordingEmitter emitter;
+
+    @BeforeEach
+    public void setUp() {
+        emitter = new RecordingEmitter();
+        broadcaster = new BalanceEventBroadcaster(new BalanceEventProperties()) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    public void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    public void testResumeReplaysEventsPostedWhileNoOneWasSubscribed() throws InterruptedException {
+        // Arrange
+        broadcaster.onTransactionPosted(deposit(101, 1, "10.00"));
+        broadcaster.onTransactionPosted(deposit(102, 2, "20.00"));
+        broadcaster.onTransactionPosted(deposit(103, 3, "30.00"));
+
+        // Act
+        broadcaster.subscribe(ACCOUNT, 101L, () -> {
+            throw new AssertionError("A resumed stream must not read a snapshot");
+        });
+
+        // Assert
+        assertEquals(102L, (long) emitter.next().transactionId());
+        assertEquals(103L, (long) emitter.next().transactionId());
+        assertNull(emitter.sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testEventsPostedWhileSnapshotIsReadFollowItOnce() throws InterruptedException {
+        // Arrange
+        broadcaster.onTransactionPosted(deposit(101, 1, "10.00"));
+
+        // Act
+        broadcaster.subscribe(ACCOUNT, null, () -> {
+            // Committed after the subscriber was registered, but before the snapshot was read
+            broadcaster.onTransactionPosted(deposit(102, 2, "30.00"));
+            BalanceEventDTO snapshot = snapshot(2, "30.00");
+            // Committed after the snapshot was read
+            broadcaster.onTransactionPosted(deposit(103, 3, "60.00"));
+            return snapshot;
+        });
+        broadcaster.onTransactionPosted(deposit(104, 4, "100.00"));
+
+        // Assert
+        BalanceEventDTO first = emitter.next();
+        assertNull(first.transactionId());
+        assertEquals(2L, (long) first.seq());
+        assertEquals(103L, (long) emitter.next().transactionId());
+        assertEquals(104L, (long) emitter.next().transactionId());
+        assertNull(emitter.sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testUnknownLastEventIdFallsBackToSnapshot() throws InterruptedException {
+        // Arrange
+        broadcaster.onTransactionPosted(deposit(101, 1, "10.00"));
+
+        // Act
+        broadcaster.subscribe(ACCOUNT, 50L, () -> snapshot(1, "10.00"));
+
+        // Assert
+        BalanceEventDTO first = emitter.next();
+        assertNull(first.transactionId());
+        assertEquals(0, new BigDecimal("10.00").compareTo(first.balance()));
+        assertNull(emitter.sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    private static TransactionPostedEvent deposit(long transactionId, long seq, String balance) {
+        BigDecimal amount = new BigDecimal("10.00");
+        return new TransactionPostedEvent(transactionId, TransactionType.DEPOSIT, amount, Currency.SEK, "Deposit",
+                LocalDateTime.now(), null, new TransactionPostedEvent.Leg(ACCOUNT, Currency.SEK, new BigDecimal(balance), amount, seq));
+    }
+
+    private static BalanceEventDTO snapshot(long seq, String balance) {
+        return new BalanceEventDTO(ACCOUNT, new BigDecimal(balance), Currency.SEK, null, seq, null, null, null, null,
+                LocalDateTime.now());
+    }
+
+    /**
+     * Records the events sent to the stream instead of writing them to a response.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<BalanceEventDTO> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof BalanceEventDTO event) {
+                    sent.add(event);
+                }
+            }
+        }
+
+        private BalanceEventDTO next() throws InterruptedException {
+            BalanceEventDTO event = sent.poll(5, TimeUnit.SECONDS);
+            if (event == null) {
+                throw new AssertionError("No event was sent");
+            }
+            return event;
+        }
+    }
+}
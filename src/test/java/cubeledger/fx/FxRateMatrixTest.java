@@ -0,0 +1,89 @@
+package cubeledger.fx;
+
+import cubeledger.exception.InvalidCurrencyException;
+import cubeledger.exception.InvalidTransactionException;
+import cubeledger.model.Currency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FxRateMatrixTest {
+
+    private FxRateMatrix rates;
+
+    @BeforeEach
+    public void setup() {
+        rates = FxRateMatrix.of(Map.of(
+                Currency.SEK, BigDecimal.ONE,
+                Currency.USD, new BigDecimal("0.095"),
+                Currency.EUR, new BigDecimal("0.087"),
+                Currency.JPY, new BigDecimal("14.2")
+        ), LocalDateTime.now());
+    }
+
+    @Test
+    public void testSameCurrencyReturnsAmount() {
+        BigDecimal amount = new BigDecimal("100.00");
+        assertSame(amount, rates.convert(amount, Currency.SEK, Currency.SEK));
+        assertEquals(BigDecimal.ONE, rates.rate(Currency.USD, Currency.USD));
+    }
+
+    @Test
+    public void testConvertFromBase() {
+        assertEquals(new BigDecimal("9.50"), rates.convert(new BigDecimal("100.00"), Currency.SEK, Currency.USD));
+    }
+
+    @Test
+    public void testCrossRate() {
+        // Arrange & Act
+        BigDecimal rate = rates.rate(Currency.USD, Currency.EUR);
+
+        // Assert
+        assertEquals(new BigDecimal("0.9157894737"), rate);
+        assertEquals(new BigDecimal("91.58"), rates.convert(new BigDecimal("100.00"), Currency.USD, Currency.EUR));
+    }
+
+    @Test
+    public void testConvertRoundsHalfEvenToMinorUnits() {
+        // 0.05 SEK is 0.00475 USD, 0.15 SEK is 0.01425 USD
+        assertEquals(new BigDecimal("0.00"), rates.convert(new BigDecimal("0.05"), Currency.SEK, Currency.USD));
+        assertEquals(new BigDecimal("0.01"), rates.convert(new BigDecimal("0.15"), Currency.SEK, Currency.USD));
+
+        // JPY has no minor units
+        assertEquals(new BigDecimal("1427.00"), rates.convert(new BigDecimal("100.50"), Currency.SEK, Currency.JPY));
+    }
+
+    @Test
+    public void testFractionDigits() {
+        assertEquals(2, FxRateMatrix.fractionDigits(Currency.SEK));
+        assertEquals(2, FxRateMatrix.fractionDigits(Currency.USD));
+        assertEquals(0, FxRateMatrix.fractionDigits(Currency.JPY));
+    }
+
+    @Test
+    public void testConvertPositiveRejectsAmountsRoundingToZero() {
+        // 0.03 SEK is 0.426 JPY, which has no minor units
+        assertThrows(InvalidTransactionException.class, () -> rates.convertPositive(new BigDecimal("0.03"), Currency.SEK, Currency.JPY));
+        assertThrows(InvalidTransactionException.class, () -> rates.convertPositive(new BigDecimal("0.05"), Currency.SEK, Currency.USD));
+
+        assertEquals(new BigDecimal("1.00"), rates.convertPositive(new BigDecimal("0.10"), Currency.SEK, Currency.JPY));
+    }
+
+    @Test
+    public void testUnsupportedCurrency() {
+        assertTrue(rates.isSupported(Currency.EUR));
+        assertFalse(rates.isSupported(Currency.GBP));
+        assertFalse(rates.isSupported(null));
+        assertThrows(InvalidCurrencyException.class, () -> rates.convert(BigDecimal.TEN, Currency.SEK, Currency.GBP));
+        assertThrows(InvalidCurrencyException.class, () -> rates.rate(Currency.GBP, Currency.SEK));
+    }
+}
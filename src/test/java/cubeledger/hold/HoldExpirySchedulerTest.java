@@ -0,0 +1,57 @@
+package cubeledger.hold;
+
+import cubeledger.model.Account;
+import cubeledger.model.Currency;
+import cubeledger.model.HoldStatus;
+import cubeledger.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class HoldExpirySchedulerTest {
+
+    @Autowired
+    private HoldExpiryScheduler holdExpiryScheduler;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testSweepExpiresOverdueHoldsNotOnThisWheel() {
+        // Arrange
+        // Holds inserted directly, as if placed on a member that went away before expiring them
+        Account account = accountService.createAccount("SWEEP-ACCOUNT", Currency.SEK);
+        accountService.deposit("SWEEP-ACCOUNT", new BigDecimal("100.00"), Currency.SEK, "Funding");
+        long overdue = insertHold(account, LocalDateTime.now().minusHours(1));
+        long recent = insertHold(account, LocalDateTime.now().minusSeconds(1));
+        jdbcTemplate.update("UPDATE accounts SET held_amount = 20.00 WHERE id = ?", account.getId());
+
+        // Act
+        holdExpiryScheduler.sweepOverdue();
+
+        // Assert: the recently expired hold is left to the member that scheduled it
+        assertEquals(HoldStatus.EXPIRED, accountService.getHold(overdue).getStatus());
+        assertEquals(HoldStatus.ACTIVE, accountService.getHold(recent).getStatus());
+        assertEquals(0, new BigDecimal("10.00").compareTo(accountService.getAccount("SWEEP-ACCOUNT").getHeldAmount()));
+    }
+
+    private long insertHold(Account account, LocalDateTime expiresAt) {
+        Timestamp createdAt = Timestamp.valueOf(expiresAt.minusMinutes(5));
+        jdbcTemplate.update(
+                "INSERT INTO holds (account_id, account_number, amount, currency, status, created_at, expires_at) " +
+                "VALUES (?, ?, 10.00, 'SEK', 'ACTIVE', ?, ?)",
+                account.getId(), account.getAccountNumber(), createdAt, Timestamp.valueOf(expiresAt));
+        return jdbcTemplate.queryForObject("SELECT max(id) FROM holds WHERE account_id = ?", Long.class, account.getId());
+    }
+}
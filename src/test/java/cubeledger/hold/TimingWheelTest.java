@@ -0,0 +1,89 @@
+package cubeledger.hold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testExpiresOnDeadlineTick() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(8, 3, 100);
+        List<String> expired = new ArrayList<>();
+        wheel.add("a", 103);
+
+        // Act & Assert
+        wheel.advanceTo(102, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advanceTo(103, expired::add);
+        assertEquals(List.of("a"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testPastDeadlineIsRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 3, 100);
+        assertFalse(wheel.add("a", 100));
+        assertFalse(wheel.add("b", 50));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCascadesThroughLevelsAndOverflow() {
+        // Arrange: 8 slots and 2 levels cover 64 ticks, so the last deadlines start in the overflow list
+        TimingWheel<Long> wheel = new TimingWheel<>(8, 2, 5);
+        long[] deadlines = {6, 7, 8, 13, 16, 63, 64, 65, 69, 70, 127, 128, 200, 511, 1000};
+        for (long deadline : deadlines) {
+            assertTrue(wheel.add(deadline, deadline));
+        }
+
+        // Act
+        List<Long> expiredAt = new ArrayList<>();
+        List<Long> expired = new ArrayList<>();
+        for (long tick = 6; tick <= 1000; tick++) {
+            long now = tick;
+            wheel.advanceTo(now, item -> {
+                expired.add(item);
+                expiredAt.add(now);
+            });
+        }
+
+        // Assert: every item expires exactly on its deadline, in order
+        assertEquals(deadlines.length, expired.size());
+        for (int i = 0; i < deadlines.length; i++) {
+            assertEquals(deadlines[i], (long) expired.get(i));
+            assertEquals(deadlines[i], (long) expiredAt.get(i));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testAddAfterAdvancing() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(4, 3, 0);
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(37, expired::add);
+
+        // Act
+        wheel.add("a", 38);
+        wheel.add("b", 52);
+        wheel.advanceTo(51, expired::add);
+
+        // Assert
+        assertEquals(List.of("a"), expired);
+        wheel.advanceTo(60, expired::add);
+        assertEquals(List.of("a", "b"), expired);
+    }
+
+    @Test
+    public void testWheelSizeMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(10, 3, 0));
+    }
+}
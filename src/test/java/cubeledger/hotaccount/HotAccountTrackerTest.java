@@ -0,0 +1,52 @@
+package cubeledger.hotaccount;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HotAccountTrackerTest {
+
+    @Test
+    public void testBusiestAccountsAreMergedAcrossStripes() throws Exception {
+        // Arrange
+        HotAccountProperties properties = new HotAccountProperties();
+        properties.setSlotDuration(Duration.ofHours(1));
+        properties.setStripes(4);
+        HotAccountTracker tracker = new HotAccountTracker(properties);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    tracker.record(0, "ACC-" + (i % 10), "ACC-HOT");
+                }
+            }));
+        }
+
+        // Act
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        HotAccountReport report = tracker.report(3);
+
+        // Assert
+        HotAccountReport.Window window = report.windows().get(0);
+        assertEquals(8000L, window.operations());
+        assertEquals(3, window.byOperations().size());
+        assertEquals(new HotAccountReport.HotAccount("ACC-HOT", 4000, 0), window.byOperations().get(0));
+        assertEquals(400L, window.byOperations().get(1).estimate());
+    }
+
+    @Test
+    public void testTopBelowOneIsRejected() {
+        // Arrange
+        HotAccountTracker tracker = new HotAccountTracker(new HotAccountProperties());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tracker.report(-1));
+    }
+}
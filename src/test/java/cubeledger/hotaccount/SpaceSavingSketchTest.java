@@ -0,0 +1,95 @@
+package cubeledger.hotaccount;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpaceSavingSketchTest {
+
+    @Test
+    public void testCountsExactlyWhileNotFull() {
+        // Arrange
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+
+        // Act
+        sketch.offer("ACC-001", 3);
+        sketch.offer("ACC-002", 1);
+        sketch.offer("ACC-001", 2);
+
+        // Assert
+        List<SpaceSavingSketch.Estimate> top = sketch.top(10);
+        assertEquals(2, top.size());
+        assertEquals(new SpaceSavingSketch.Estimate("ACC-001", 5, 0), top.get(0));
+        assertEquals(new SpaceSavingSketch.Estimate("ACC-002", 1, 0), top.get(1));
+        assertEquals(6, sketch.getTotal());
+        assertEquals(0, sketch.getMinWeight());
+    }
+
+    @Test
+    public void testNewKeyReplacesLightestKey() {
+        // Arrange
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer("ACC-001", 5);
+        sketch.offer("ACC-002", 2);
+
+        // Act
+        sketch.offer("ACC-003", 1);
+
+        // Assert: the new key inherits the evicted weight as its error
+        assertNull(sketch.get("ACC-002"));
+        assertEquals(new SpaceSavingSketch.Estimate("ACC-003", 3, 2), sketch.get("ACC-003"));
+        assertEquals(3, sketch.getMinWeight());
+    }
+
+    @Test
+    public void testFindsHeavyHittersInSkewedStream() {
+        // Arrange: three hot accounts among many cold ones
+        SpaceSavingSketch sketch = new SpaceSavingSketch(50);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            int roll = random.nextInt(100);
+            String key = roll < 20 ? "HOT-1" : roll < 30 ? "HOT-2" : roll < 35 ? "HOT-3" : "COLD-" + random.nextInt(10_000);
+            sketch.offer(key, 1);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        // Assert: the hot accounts come first and every estimate brackets the true count
+        List<SpaceSavingSketch.Estimate> top = sketch.top(3);
+        assertEquals(List.of("HOT-1", "HOT-2", "HOT-3"), top.stream().map(SpaceSavingSketch.Estimate::key).toList());
+        for (SpaceSavingSketch.Estimate estimate : sketch.top(50)) {
+            long count = exact.get(estimate.key());
+            assertTrue(estimate.weight() >= count);
+            assertTrue(estimate.weight() - estimate.error() <= count);
+        }
+    }
+
+    @Test
+    public void testCombinesSketches() {
+        // Arrange: ACC-002 is evicted from the first sketch but heavy in the second
+        SpaceSavingSketch first = new SpaceSavingSketch(2);
+        first.offer("ACC-001", 10);
+        first.offer("ACC-002", 1);
+        first.offer("ACC-003", 2);
+        SpaceSavingSketch second = new SpaceSavingSketch(2);
+        second.offer("ACC-002", 8);
+
+        // Act
+        List<SpaceSavingSketch.Estimate> top = SpaceSavingSketch.top(List.of(first, second), 10);
+
+        // Assert: a key missing from a sketch is charged that sketch's minimum as weight and error
+        assertEquals(new SpaceSavingSketch.Estimate("ACC-002", 11, 3), top.get(0));
+        assertEquals(new SpaceSavingSketch.Estimate("ACC-001", 10, 0), top.get(1));
+        assertNotNull(top.stream().filter(estimate -> estimate.key().equals("ACC-003")).findFirst().orElse(null));
+    }
+}
@@ -0,0 +1,66 @@
+package cubeledger.limits;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SlidingWindowSumTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    public void testSumsAmountsWithinWindow() {
+        // Arrange
+        SlidingWindowSum sum = new SlidingWindowSum(60 * MINUTE, 12);
+
+        // Act
+        sum.add(0, 100);
+        sum.add(10 * MINUTE, 250);
+        sum.add(59 * MINUTE, 50);
+
+        // Assert
+        assertEquals(400, sum.sum(59 * MINUTE));
+    }
+
+    @Test
+    public void testAmountsLeaveWindowOneBucketAtATime() {
+        // Arrange
+        SlidingWindowSum sum = new SlidingWindowSum(60 * MINUTE, 12);
+        sum.add(0, 100);
+        sum.add(10 * MINUTE, 250);
+
+        // Act & Assert
+        assertEquals(350, sum.sum(59 * MINUTE));
+        assertEquals(250, sum.sum(60 * MINUTE));
+        assertEquals(250, sum.sum(69 * MINUTE));
+        assertEquals(0, sum.sum(70 * MINUTE));
+    }
+
+    @Test
+    public void testIdleLongerThanWindowClearsSum() {
+        // Arrange
+        SlidingWindowSum sum = new SlidingWindowSum(60 * MINUTE, 12);
+        sum.add(0, 100);
+
+        // Act
+        sum.add(1000 * MINUTE, 30);
+
+        // Assert
+        assertEquals(30, sum.sum(1000 * MINUTE));
+    }
+
+    @Test
+    public void testOlderAmountsCountOnlyWithinWindow() {
+        // Arrange
+        SlidingWindowSum sum = new SlidingWindowSum(60 * MINUTE, 12);
+        sum.add(100 * MINUTE, 10);
+
+        // Act
+        sum.add(90 * MINUTE, 20);
+        sum.add(30 * MINUTE, 40);
+        sum.add(100 * MINUTE, -10);
+
+        // Assert
+        assertEquals(20, sum.sum(100 * MINUTE));
+    }
+}
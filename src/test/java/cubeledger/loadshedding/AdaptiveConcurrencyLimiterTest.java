@@ -0,0 +1,62 @@
+package cubeledger.loadshedding;
+
+import cubeledger.exception.ServiceOverloadedException;
+import cubeledger.warmup.WarmupContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        LoadSheddingProperties properties = new LoadSheddingProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(1);
+        // Every sample updates the limit, fully
+        properties.setWindow(Duration.ZERO);
+        properties.setMinWindowSamples(1);
+        properties.setSmoothing(1.0);
+        return new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testWarmupCallsAreNotLimited() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        limiter.acquire(Priority.WRITE);
+
+        // Act & Assert
+        WarmupContext.run(() -> limiter.acquire(Priority.WRITE));
+        assertThrows(ServiceOverloadedException.class, () -> limiter.acquire(Priority.WRITE));
+    }
+
+    @Test
+    public void testWarmupCallsAreNotSampled() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+
+        // Act
+        WarmupContext.run(() -> runConcurrently(limiter, 2));
+        int afterWarmup = limiter.getLimit();
+        runConcurrently(limiter, 2);
+
+        // Assert
+        assertEquals(4, afterWarmup);
+        assertTrue(limiter.getLimit() > 4);
+    }
+
+    private static void runConcurrently(AdaptiveConcurrencyLimiter limiter, int calls) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            permits.add(limiter.acquire(Priority.WRITE));
+        }
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::release);
+    }
+}
@@ -0,0 +1,91 @@
+package cubeledger.loadshedding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GradientLimitTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    private long now;
+
+    private GradientLimit limit(int initialLimit) {
+        // One sample per window, so every sample updates the limit
+        return new GradientLimit(initialLimit, 4, 200, 1.5, 0.2, 0, 1, 100, now);
+    }
+
+    private void sample(GradientLimit limit, long rttMillis, int inFlight) {
+        now += MILLI;
+        limit.addSample(rttMillis * MILLI, inFlight, now);
+    }
+
+    @Test
+    public void testGrowsWhileLatencyIsStable() {
+        // Arrange
+        GradientLimit limit = limit(20);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            sample(limit, 10, limit.getLimit());
+        }
+
+        // Assert
+        assertTrue(limit.getLimit() > 20, "limit was " + limit.getLimit());
+    }
+
+    @Test
+    public void testShrinksWhenLatencyRises() {
+        // Arrange: establish a 10ms baseline at full utilization
+        GradientLimit limit = limit(50);
+        for (int i = 0; i < 20; i++) {
+            sample(limit, 10, limit.getLimit());
+        }
+        int before = limit.getLimit();
+
+        // Act: the database slows down fivefold
+        for (int i = 0; i < 20; i++) {
+            sample(limit, 50, limit.getLimit());
+        }
+
+        // Assert
+        assertTrue(limit.getLimit() < before / 2, "limit went from " + before + " to " + limit.getLimit());
+    }
+
+    @Test
+    public void testDoesNotGrowWhenUnderused() {
+        GradientLimit limit = limit(20);
+        for (int i = 0; i < 50; i++) {
+            sample(limit, 10, 2);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void testStaysWithinBounds() {
+        // Arrange
+        GradientLimit limit = new GradientLimit(20, 10, 30, 1.5, 0.2, 0, 1, 100, now);
+
+        // Act & Assert: a massive slowdown stops at the minimum
+        sample(limit, 1, 20);
+        for (int i = 0; i < 15; i++) {
+            sample(limit, 1_000, limit.getLimit());
+        }
+        assertEquals(10, limit.getLimit());
+
+        // Stable latency stops at the maximum
+        GradientLimit growing = new GradientLimit(20, 10, 30, 1.5, 0.2, 0, 1, 100, now);
+        for (int i = 0; i < 100; i++) {
+            sample(growing, 10, growing.getLimit());
+        }
+        assertEquals(30, growing.getLimit());
+    }
+
+    @Test
+    public void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(10, 0, 100, 1.5, 0.2, 0, 1, 100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(10, 4, 100, 0.5, 0.2, 0, 1, 100, 0));
+    }
+}
@@ -0,0 +1,83 @@
+package cubeledger.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ScheduledTransferTest {
+
+    private static final LocalDateTime JAN_31 = LocalDateTime.of(2025, 1, 31, 0, 0);
+
+    private ScheduledTransfer schedule(ScheduleFrequency frequency, LocalDateTime endAt) {
+        return new ScheduledTransfer("ACC-001", "ACC-002", new BigDecimal("100.00"), Currency.SEK,
+                "Rent", frequency, JAN_31, endAt);
+    }
+
+    @Test
+    public void testMonthlyOccurrencesDoNotDrift() {
+        // Arrange
+        ScheduledTransfer schedule = schedule(ScheduleFrequency.MONTHLY, null);
+
+        // Act & Assert: February is clamped to its last day, March is back on the 31st
+        schedule.advance(ScheduledRunOutcome.SUCCEEDED);
+        assertEquals(LocalDateTime.of(2025, 2, 28, 0, 0), schedule.getNextRunAt());
+        schedule.advance(ScheduledRunOutcome.SUCCEEDED);
+        assertEquals(LocalDateTime.of(2025, 3, 31, 0, 0), schedule.getNextRunAt());
+        assertEquals(ScheduledTransferStatus.ACTIVE, schedule.getStatus());
+    }
+
+    @Test
+    public void testOneOffCompletesAfterItsRun() {
+        ScheduledTransfer schedule = schedule(ScheduleFrequency.ONCE, null);
+        schedule.advance(ScheduledRunOutcome.SUCCEEDED);
+        assertEquals(ScheduledTransferStatus.COMPLETED, schedule.getStatus());
+        assertEquals(ScheduledRunOutcome.SUCCEEDED, schedule.getLastOutcome());
+    }
+
+    @Test
+    public void testRecurringCompletesAfterEndTime() {
+        // Arrange
+        ScheduledTransfer schedule = schedule(ScheduleFrequency.DAILY, JAN_31.plusDays(1));
+
+        // Act
+        schedule.advance(ScheduledRunOutcome.SUCCEEDED);
+        schedule.advance(ScheduledRunOutcome.SUCCEEDED);
+
+        // Assert
+        assertEquals(ScheduledTransferStatus.COMPLETED, schedule.getStatus());
+        assertEquals(2, schedule.getOccurrence());
+    }
+
+    @Test
+    public void testRetryKeepsOccurrenceAndDelaysNextAttempt() {
+        // Arrange
+        ScheduledTransfer schedule = schedule(ScheduleFrequency.WEEKLY, null);
+        LocalDateTime retryAt = JAN_31.plusHours(1);
+
+        // Act
+        schedule.retry(retryAt);
+
+        // Assert
+        assertEquals(JAN_31, schedule.getNextRunAt());
+        assertEquals(retryAt, schedule.getDueAt());
+        assertEquals(1, schedule.getAttempts());
+
+        // A later success resets the attempts and moves on a week
+        schedule.advance(ScheduledRunOutcome.SUCCEEDED);
+        assertEquals(0, schedule.getAttempts());
+        assertEquals(JAN_31.plusWeeks(1), schedule.getDueAt());
+    }
+
+    @Test
+    public void testCancelledScheduleIsNotClaimed() {
+        ScheduledTransfer schedule = schedule(ScheduleFrequency.DAILY, null);
+        schedule.cancel();
+        assertFalse(schedule.isClaimedBy("node", JAN_31));
+        assertNull(schedule.getLeaseOwner());
+    }
+}
@@ -0,0 +1,69 @@
+package cubeledger.querystats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlRedactorTest {
+
+    @Test
+    public void testRedactReplacesLiterals() {
+        // Arrange
+        String sql = "select * from accounts where account_number = 'ACC-1001' and balance > 250.50 and id <> -3";
+
+        // Act
+        String redacted = SqlRedactor.redact(sql);
+
+        // Assert
+        assertEquals("select * from accounts where account_number = ? and balance > ? and id <> ?", redacted);
+    }
+
+    @Test
+    public void testRedactKeepsNumbersInIdentifiers() {
+        // Arrange
+        String sql = "select a1_0.id, a1_0.last_seq from accounts a1_0 where a1_0.id = ?";
+
+        // Act
+        String redacted = SqlRedactor.redact(sql);
+
+        // Assert
+        assertEquals(sql, redacted);
+    }
+
+    @Test
+    public void testRedactCollapsesPlaceholderListsAndWhitespace() {
+        // Arrange
+        String sql = "select id\n  from transactions\n where id in (?, ?, ?)\n   or id in (1, 2)";
+
+        // Act
+        String redacted = SqlRedactor.redact(sql);
+
+        // Assert
+        assertEquals("select id from transactions where id in (?, ...) or id in (?, ...)", redacted);
+    }
+
+    @Test
+    public void testRedactHandlesEscapedQuotes() {
+        // Arrange
+        String sql = "insert into accounts (account_number) values ('O''Brien')";
+
+        // Act
+        String redacted = SqlRedactor.redact(sql);
+
+        // Assert
+        assertEquals("insert into accounts (account_number) values (?)", redacted);
+    }
+
+    @Test
+    public void testOperationAndTable() {
+        // Act & Assert
+        assertEquals("select", SqlRedactor.operation("  SELECT t1_0.id FROM transactions t1_0"));
+        assertEquals("transactions", SqlRedactor.table("  SELECT t1_0.id FROM transactions t1_0"));
+        assertEquals("insert", SqlRedactor.operation("insert into outbox_events (id) values (?)"));
+        assertEquals("outbox_events", SqlRedactor.table("insert into outbox_events (id) values (?)"));
+        assertEquals("update", SqlRedactor.operation("update accounts set balance=? where id=?"));
+        assertEquals("accounts", SqlRedactor.table("update accounts set balance=? where id=?"));
+        assertEquals("other", SqlRedactor.operation("call next value for seq"));
+        assertEquals("none", SqlRedactor.table("call next value for seq"));
+    }
+}
@@ -0,0 +1,90 @@
+package cubeledger.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testBurstThenSustainedRate() {
+        // Arrange: 10 permits per second with a burst of 5
+        RateLimiter limiter = new RateLimiter(10, 5, 100, 4);
+        long now = 1_000 * SECOND;
+
+        // Act & Assert: the burst is accepted at once, the next request has to wait one interval
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("ACC-001", now));
+        }
+        assertEquals(SECOND / 10, limiter.tryAcquire("ACC-001", now));
+
+        // After one interval exactly one more permit is available
+        assertEquals(0, limiter.tryAcquire("ACC-001", now + SECOND / 10));
+        assertTrue(limiter.tryAcquire("ACC-001", now + SECOND / 10) > 0);
+    }
+
+    @Test
+    public void testKeysAreLimitedIndependently() {
+        RateLimiter limiter = new RateLimiter(1, 1, 100, 4);
+        assertEquals(0, limiter.tryAcquire("ACC-001", 0));
+        assertTrue(limiter.tryAcquire("ACC-001", 0) > 0);
+        assertEquals(0, limiter.tryAcquire("ACC-002", 0));
+    }
+
+    @Test
+    public void testEvictsOnlyRefilledBuckets() {
+        // Arrange
+        RateLimiter limiter = new RateLimiter(1, 2, 100, 4);
+        limiter.tryAcquire("idle", 0);
+        limiter.tryAcquire("busy", 0);
+        limiter.tryAcquire("busy", 0);
+
+        // Act: at 1s "idle" is full again, "busy" is still refilling
+        int evicted = limiter.evictIdle(SECOND);
+
+        // Assert
+        assertEquals(1, evicted);
+        assertEquals(1, limiter.size());
+        assertEquals(0, limiter.tryAcquire("busy", SECOND));
+        assertTrue(limiter.tryAcquire("busy", SECOND) > 0);
+    }
+
+    @Test
+    public void testFullStripeRejectsNewKeys() {
+        // Arrange: one stripe holding a single bucket that is still refilling
+        RateLimiter limiter = new RateLimiter(1, 1, 1, 1);
+        limiter.tryAcquire("first", 0);
+
+        // Act & Assert: a new key is rejected rather than let through untracked, and the tracked key is still limited
+        assertTrue(limiter.tryAcquire("second", 0) > 0);
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire("first", 0) > 0);
+
+        // Once the tracked bucket has refilled, it is evicted to make room
+        assertEquals(0, limiter.tryAcquire("second", SECOND));
+    }
+
+    @Test
+    public void testRefundGivesBackPermit() {
+        // Arrange
+        RateLimiter limiter = new RateLimiter(1, 2, 100, 4);
+        limiter.tryAcquire("ACC-001", 0);
+        limiter.tryAcquire("ACC-001", 0);
+
+        // Act
+        limiter.refund("ACC-001");
+
+        // Assert
+        assertEquals(0, limiter.tryAcquire("ACC-001", 0));
+        assertTrue(limiter.tryAcquire("ACC-001", 0) > 0);
+    }
+
+    @Test
+    public void testStripesMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 1, 100, 3));
+    }
+}
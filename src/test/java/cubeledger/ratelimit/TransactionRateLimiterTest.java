@@ -0,0 +1,106 @@
+package cubeledger.ratelimit;
+
+import cubeledger.cluster.ClusterAuthenticationFilter;
+import cubeledger.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TransactionRateLimiterTest {
+
+    private RateLimitProperties properties;
+    private TransactionRateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new RateLimitProperties();
+        properties.setClientPermitsPerSecond(1);
+        properties.setClientBurst(2);
+        properties.setAccountPermitsPerSecond(1);
+        properties.setAccountBurst(1);
+        rateLimiter = new TransactionRateLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testClientHeaderFromClientIsIgnored() {
+        // Arrange
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("X-Client-Id", "spoofed");
+
+        // Act & Assert
+        assertEquals("10.0.0.1", rateLimiter.clientOf(request));
+    }
+
+    @Test
+    public void testClientHeaderFromClusterMemberIsTrusted() {
+        // Arrange
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Client-Id", "10.0.0.1");
+        request.setAttribute(ClusterAuthenticationFilter.MEMBER_ATTRIBUTE, "node-2");
+
+        // Act & Assert
+        assertEquals("10.0.0.1", rateLimiter.clientOf(request));
+    }
+
+    @Test
+    public void testClientHeaderIsTrustedOnReplayTarget() {
+        // Arrange
+        properties.setTrustClientHeader(true);
+        MockHttpServletRequest request = request("10.0.0.9");
+        request.addHeader("X-Client-Id", "10.0.0.1");
+
+        // Act & Assert
+        assertEquals("10.0.0.1", rateLimiter.clientOf(request));
+    }
+
+    @Test
+    public void testChangingClientHeaderDoesNotEscapeLimit() {
+        // Arrange
+        rateLimiter.check(withClientId("10.0.0.1", "a"));
+        rateLimiter.check(withClientId("10.0.0.1", "b"));
+
+        // Act & Assert
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.check(withClientId("10.0.0.1", "c")));
+    }
+
+    @Test
+    public void testAccountRejectionRefundsClientPermit() {
+        // Arrange: the account allows one request, the client two
+        rateLimiter.check(request("10.0.0.1"), "ACC-001");
+
+        // Act: rejected for the account, so the client's permit is given back
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.check(request("10.0.0.1"), "ACC-001"));
+
+        // Assert: the client still has its second permit
+        rateLimiter.check(request("10.0.0.1"), "ACC-002");
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.check(request("10.0.0.1"), "ACC-003"));
+    }
+
+    @Test
+    public void testAccountRejectionRefundsEarlierAccounts() {
+        // Arrange
+        rateLimiter.check(request("10.0.0.1"), "ACC-002");
+
+        // Act: ACC-001 passes, ACC-002 is over its limit
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.check(request("10.0.0.2"), "ACC-001", "ACC-002"));
+
+        // Assert: ACC-001 was not charged for the rejected request
+        rateLimiter.check(request("10.0.0.3"), "ACC-001");
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    private static MockHttpServletRequest withClientId(String remoteAddress, String clientId) {
+        MockHttpServletRequest request = request(remoteAddress);
+        request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+}
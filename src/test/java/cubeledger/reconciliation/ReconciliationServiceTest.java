@@ -0,0 +1,46 @@
+package cubeledger.reconciliation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest
+public class ReconciliationServiceTest {
+
+    private static final long OTHER_RUN_ID = 1_000_000L;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testStartReturnsIdOfTheRunItCreated() {
+        // Arrange
+        // A finished run with a higher id, as if another member inserted it right after this one
+        jdbcTemplate.update("UPDATE reconciliation_runs SET status = ?", ReconciliationStatus.COMPLETED.name());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(
+                "INSERT INTO reconciliation_runs (id, status, min_account_id, max_account_id, chunk_size, completed_through, " +
+                "accounts_checked, mismatches, started_at, updated_at) VALUES (?, ?, 1, 0, 100, 0, 0, 0, ?, ?)",
+                OTHER_RUN_ID, ReconciliationStatus.COMPLETED.name(), now, now);
+
+        // Act
+        ReconciliationProgress progress = reconciliationService.start();
+
+        // Assert
+        assertNotEquals(OTHER_RUN_ID, progress.runId());
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM reconciliation_runs WHERE id = ? AND started_at >= ?",
+                Long.class, progress.runId(), now);
+        assertEquals(1L, (long) rows);
+    }
+}
@@ -0,0 +1,312 @@
+package cubeledger.schedule;
+
+import cubeledger.limits.OutflowLimits;
+import cubeledger.model.Currency;
+import cubeledger.model.ScheduleFrequency;
+import cubeledger.model.ScheduledRunOutcome;
+import cubeledger.model.ScheduledTransfer;
+import cubeledger.model.ScheduledTransferRun;
+import cubeledger.model.ScheduledTransferStatus;
+import cubeledger.repository.ScheduledTransferRepository;
+import cubeledger.repository.ScheduledTransferRunRepository;
+import cubeledger.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// The runner under test is created per test; the application's own runner is disabled and the
+// schedules live in a database of their own, so that nothing else claims them
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:scheduledtransfers",
+        "cubeledger.scheduled-transfers.enabled=false"
+})
+public class ScheduledTransferRunnerTest {
+
+    private static final AtomicInteger accounts = new AtomicInteger();
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Autowired
+    private ScheduledTransferRunRepository runRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private OutflowLimits outflowLimits;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ScheduledTransferProperties properties;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ScheduledTransferProperties();
+        properties.setWorkers(2);
+        properties.setMaxAttempts(2);
+        properties.setRetryDelay(Duration.ZERO);
+    }
+
+    @Test
+    public void testDueScheduleIsClaimedAndRun() {
+        // Arrange
+        String source = account("1000.00");
+        String target = account("0.00");
+        ScheduledTransfer schedule = schedule(source, target, "250.00", ScheduleFrequency.DAILY);
+        ScheduledTransferRunner runner = runner();
+
+        // Act
+        try {
+            runner.runDue();
+        } finally {
+            runner.shutdown();
+        }
+
+        // Assert
+        ScheduledTransfer result = scheduledTransferRepository.findById(schedule.getId()).orElseThrow();
+        assertEquals(ScheduledTransferStatus.ACTIVE, result.getStatus());
+        assertEquals(1, result.getOccurrence());
+        assertEquals(schedule.getNextRunAt().plusDays(1), result.getDueAt());
+        assertNull(result.getLeaseOwner());
+        List<ScheduledTransferRun> runs = runs(schedule);
+        assertEquals(1, runs.size());
+        assertEquals(ScheduledRunOutcome.SUCCEEDED, runs.get(0).getOutcome());
+        assertNotNull(runs.get(0).getTransactionId());
+        assertEquals(0, new BigDecimal("750.00").compareTo(accountService.getBalance(source)));
+        assertEquals(0, new BigDecimal("250.00").compareTo(accountService.getBalance(target)));
+    }
+
+    @Test
+    public void testDueSchedulesAreClaimedInBatchesUntilNoneAreLeft() {
+        // Arrange
+        properties.setBatchSize(2);
+        String source = account("1000.00");
+        String target = account("0.00");
+        List<ScheduledTransfer> schedules = List.of(
+                schedule(source, target, "10.00"),
+                schedule(source, target, "20.00"),
+                schedule(source, target, "30.00"),
+                schedule(source, target, "40.00"),
+                schedule(source, target, "50.00"));
+        ScheduledTransferRunner runner = runner();
+
+        // Act
+        try {
+            runner.runDue();
+        } finally {
+            runner.shutdown();
+        }
+
+        // Assert
+        for (ScheduledTransfer schedule : schedules) {
+            assertEquals(List.of(ScheduledRunOutcome.SUCCEEDED), outcomes(schedule));
+        }
+        assertEquals(0, new BigDecimal("150.00").compareTo(accountService.getBalance(target)));
+    }
+
+    @Test
+    public void testScheduleLeasedToAnotherNodeIsClaimedOnlyAfterTheLeaseEnds() {
+        // Arrange
+        ScheduledTransfer schedule = schedule(account("1000.00"), account("0.00"), "100.00");
+        lease(schedule, "other-node", LocalDateTime.now().plusMinutes(5));
+        ScheduledTransferRunner runner = runner();
+
+        try {
+            // Act & Assert: skipped while the other node holds the lease
+            runner.runDue();
+            assertEquals(List.of(), outcomes(schedule));
+            assertEquals("other-node", scheduledTransferRepository.findById(schedule.getId()).orElseThrow().getLeaseOwner());
+
+            // Act & Assert: claimed and run once the lease has ended
+            lease(schedule, "other-node", LocalDateTime.now().minusSeconds(1));
+            runner.runDue();
+            assertEquals(List.of(ScheduledRunOutcome.SUCCEEDED), outcomes(schedule));
+        } finally {
+            runner.shutdown();
+        }
+    }
+
+    @Test
+    public void testTransientFailureIsRetriedByAnotherNodeAfterTheLeaseEnds() {
+        // Arrange
+        String source = account("1000.00");
+        ScheduledTransfer schedule = schedule(source, account("0.00"), "100.00", ScheduleFrequency.DAILY);
+        ScheduledTransferRunner failing = runner(failingOnce(accountService));
+        ScheduledTransferRunner other = runner();
+
+        try {
+            // Act & Assert: the failed run records nothing and keeps its lease
+            failing.runDue();
+            failing.runDue();
+            assertEquals(List.of(), outcomes(schedule));
+            String failedOwner = scheduledTransferRepository.findById(schedule.getId()).orElseThrow().getLeaseOwner();
+            assertNotNull(failedOwner);
+            other.runDue();
+            assertEquals(List.of(), outcomes(schedule));
+
+            // Act & Assert: once the lease ends another node claims the same occurrence and runs it once
+            lease(schedule, failedOwner, LocalDateTime.now().minusSeconds(1));
+            other.runDue();
+            failing.runDue();
+            assertEquals(List.of(ScheduledRunOutcome.SUCCEEDED), outcomes(schedule));
+            ScheduledTransfer result = scheduledTransferRepository.findById(schedule.getId()).orElseThrow();
+            assertEquals(1, result.getOccurrence());
+            assertNull(result.getLeaseOwner());
+            assertEquals(0, new BigDecimal("900.00").compareTo(accountService.getBalance(source)));
+        } finally {
+            failing.shutdown();
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testInsufficientFundsIsRetriedThenMissed() {
+        // Arrange
+        String source = account("50.00");
+        ScheduledTransfer schedule = schedule(source, account("0.00"), "100.00", ScheduleFrequency.DAILY);
+        ScheduledTransferRunner runner = runner();
+
+        // Act
+        try {
+            runner.runDue();
+            runner.runDue();
+        } finally {
+            runner.shutdown();
+        }
+
+        // Assert: the missed occurrence is skipped and the schedule moves on to the next one
+        ScheduledTransfer result = scheduledTransferRepository.findById(schedule.getId()).orElseThrow();
+        assertEquals(List.of(ScheduledRunOutcome.RETRYING, ScheduledRunOutcome.MISSED), outcomes(schedule));
+        assertEquals(ScheduledTransferStatus.ACTIVE, result.getStatus());
+        assertEquals(1, result.getOccurrence());
+        assertEquals(0, result.getAttempts());
+        assertEquals(schedule.getNextRunAt().plusDays(1), result.getDueAt());
+        assertEquals(0, new BigDecimal("50.00").compareTo(accountService.getBalance(source)));
+    }
+
+    @Test
+    public void testRunThatCannotSucceedFailsTheSchedule() {
+        // Arrange
+        ScheduledTransfer schedule = schedule(account("1000.00"), "SCHED-MISSING", "100.00", ScheduleFrequency.DAILY);
+        ScheduledTransferRunner runner = runner();
+
+        // Act
+        try {
+            runner.runDue();
+            runner.runDue();
+        } finally {
+            runner.shutdown();
+        }
+
+        // Assert
+        ScheduledTransfer result = scheduledTransferRepository.findById(schedule.getId()).orElseThrow();
+        assertEquals(ScheduledTransferStatus.FAILED, result.getStatus());
+        assertEquals(List.of(ScheduledRunOutcome.FAILED), outcomes(schedule));
+        assertNotNull(runs(schedule).get(0).getError());
+    }
+
+    @Test
+    public void testRunOverOutflowLimitIsRetriedThenMissed() {
+        // Arrange
+        String source = account("1000.00");
+        ScheduledTransfer schedule = schedule(source, account("0.00"), "600.00");
+        ScheduledTransferRunner runner = runner();
+        BigDecimal maxOutflow = (BigDecimal) outflowLimits.getWindows().get("hourly").get("maxOutflow");
+        outflowLimits.setMaxOutflow("hourly", new BigDecimal("500.00"));
+
+        // Act
+        try {
+            runner.runDue();
+            runner.runDue();
+        } finally {
+            outflowLimits.setMaxOutflow("hourly", maxOutflow);
+            runner.shutdown();
+        }
+
+        // Assert
+        ScheduledTransfer result = scheduledTransferRepository.findById(schedule.getId()).orElseThrow();
+        assertEquals(ScheduledTransferStatus.COMPLETED, result.getStatus());
+        assertEquals(ScheduledRunOutcome.MISSED, result.getLastOutcome());
+        assertEquals(List.of(ScheduledRunOutcome.RETRYING, ScheduledRunOutcome.MISSED), outcomes(schedule));
+        assertNull(runs(schedule).get(0).getTransactionId());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(accountService.getBalance(source)));
+    }
+
+    private ScheduledTransferRunner runner() {
+        return runner(accountService);
+    }
+
+    private ScheduledTransferRunner runner(AccountService service) {
+        return new ScheduledTransferRunner(scheduledTransferRepository, runRepository, service, properties, transactionManager);
+    }
+
+    // Account service whose first transfer fails as if its locks could not be taken
+    private static AccountService failingOnce(AccountService delegate) {
+        AtomicInteger transfers = new AtomicInteger();
+        return (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(), new Class<?>[]{AccountService.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("transfer") && transfers.getAndIncrement() == 0) {
+                        throw new CannotAcquireLockException("Lock wait timed out");
+                    }
+                    try {
+                        return method.invoke(delegate, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void lease(ScheduledTransfer schedule, String owner, LocalDateTime leaseUntil) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                scheduledTransferRepository.lease(List.of(schedule.getId()), owner, leaseUntil));
+    }
+
+    private String account(String balance) {
+        String accountNumber = "SCHED-" + accounts.incrementAndGet();
+        accountService.createAccount(accountNumber, Currency.SEK);
+        BigDecimal amount = new BigDecimal(balance);
+        if (amount.signum() > 0) {
+            accountService.deposit(accountNumber, amount, Currency.SEK, "Funding");
+        }
+        return accountNumber;
+    }
+
+    private ScheduledTransfer schedule(String source, String target, String amount) {
+        return schedule(source, target, amount, ScheduleFrequency.ONCE);
+    }
+
+    private ScheduledTransfer schedule(String source, String target, String amount, ScheduleFrequency frequency) {
+        return scheduledTransferRepository.save(new ScheduledTransfer(source, target, new BigDecimal(amount), Currency.SEK,
+                "Scheduled", frequency, LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS), null));
+    }
+
+    // Runs of a schedule, oldest first
+    private List<ScheduledTransferRun> runs(ScheduledTransfer schedule) {
+        return runRepository.findByScheduledTransferIdOrderByIdDesc(schedule.getId(), Pageable.unpaged()).getContent()
+                .reversed();
+    }
+
+    private List<ScheduledRunOutcome> outcomes(ScheduledTransfer schedule) {
+        return runs(schedule).stream().map(ScheduledTransferRun::getOutcome).toList();
+    }
+}
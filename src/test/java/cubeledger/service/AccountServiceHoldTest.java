@@ -0,0 +1,92 @@
+package cubeledger.service;
+
+import cubeledger.exception.InvalidTransactionException;
+import cubeledger.exception.OutflowLimitExceededException;
+import cubeledger.limits.OutflowLimits;
+import cubeledger.model.Currency;
+import cubeledger.model.Hold;
+import cubeledger.model.HoldStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class AccountServiceHoldTest {
+
+    private static final String WINDOW = "hourly";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private OutflowLimits outflowLimits;
+
+    private BigDecimal maxOutflow;
+
+    @BeforeEach
+    public void setUp() {
+        maxOutflow = (BigDecimal) outflowLimits.getWindows().get(WINDOW).get("maxOutflow");
+        outflowLimits.setMaxOutflow(WINDOW, new BigDecimal("100.00"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outflowLimits.setMaxOutflow(WINDOW, maxOutflow);
+    }
+
+    @Test
+    public void testCaptureOverOutflowLimitIsRejected() {
+        // Arrange
+        accountService.createAccount("HOLD-LIMIT-1", Currency.SEK);
+        accountService.deposit("HOLD-LIMIT-1", new BigDecimal("500.00"), Currency.SEK, "Funding");
+        accountService.withdraw("HOLD-LIMIT-1", new BigDecimal("60.00"), Currency.SEK, "Within limit");
+        Hold hold = accountService.createHold("HOLD-LIMIT-1", new BigDecimal("50.00"), Currency.SEK, Duration.ofMinutes(5), "Bet");
+
+        // Act & Assert
+        assertThrows(OutflowLimitExceededException.class,
+                () -> accountService.captureHold(hold.getId(), null, null, "Settle"));
+        assertEquals(HoldStatus.ACTIVE, accountService.getHold(hold.getId()).getStatus());
+        assertEquals(0, new BigDecimal("440.00").compareTo(accountService.getBalance("HOLD-LIMIT-1")));
+    }
+
+    @Test
+    public void testCaptureWithinOutflowLimitCountsAgainstIt() {
+        // Arrange
+        accountService.createAccount("HOLD-LIMIT-2", Currency.SEK);
+        accountService.deposit("HOLD-LIMIT-2", new BigDecimal("500.00"), Currency.SEK, "Funding");
+        Hold hold = accountService.createHold("HOLD-LIMIT-2", new BigDecimal("80.00"), Currency.SEK, Duration.ofMinutes(5), "Bet");
+
+        // Act
+        accountService.captureHold(hold.getId(), null, null, "Settle");
+
+        // Assert
+        assertThrows(OutflowLimitExceededException.class,
+                () -> accountService.withdraw("HOLD-LIMIT-2", new BigDecimal("30.00"), Currency.SEK, "Over limit"));
+        assertEquals(0, new BigDecimal("420.00").compareTo(accountService.getBalance("HOLD-LIMIT-2")));
+    }
+
+    @Test
+    public void testFractionalYenIsRejected() {
+        // Arrange
+        accountService.createAccount("HOLD-JPY", Currency.JPY);
+        accountService.deposit("HOLD-JPY", new BigDecimal("500"), Currency.JPY, "Funding");
+        Hold hold = accountService.createHold("HOLD-JPY", new BigDecimal("80"), Currency.JPY, Duration.ofMinutes(5), "Bet");
+
+        // Act & Assert
+        assertThrows(InvalidTransactionException.class,
+                () -> accountService.deposit("HOLD-JPY", new BigDecimal("10.5"), Currency.JPY, "Fractional"));
+        assertThrows(InvalidTransactionException.class,
+                () -> accountService.createHold("HOLD-JPY", new BigDecimal("0.5"), Currency.JPY, Duration.ofMinutes(5), "Fractional"));
+        assertThrows(InvalidTransactionException.class,
+                () -> accountService.captureHold(hold.getId(), new BigDecimal("79.50"), null, "Fractional"));
+        assertEquals(0, new BigDecimal("500").compareTo(accountService.getBalance("HOLD-JPY")));
+    }
+}
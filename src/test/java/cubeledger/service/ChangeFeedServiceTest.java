@@ -0,0 +1,93 @@
+package cubeledger.service;
+
+import cubeledger.cluster.ClusterMembership;
+import cubeledger.dto.ChangeBatchDTO;
+import cubeledger.model.Account;
+import cubeledger.model.Currency;
+import cubeledger.model.OutboxEntry;
+import cubeledger.model.Transaction;
+import cubeledger.model.TransactionType;
+import cubeledger.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class ChangeFeedServiceTest {
+
+    private static final Duration GRACE_PERIOD = Duration.ofSeconds(5);
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClusterMembership clusterMembership;
+
+    private OutboxEntry first;
+    private OutboxEntry third;
+
+    @BeforeEach
+    public void setUp() {
+        // The middle entry is removed, as if its transaction had rolled back or not committed yet
+        first = outboxRepository.save(entry(1L));
+        OutboxEntry second = outboxRepository.save(entry(2L));
+        third = outboxRepository.save(entry(3L));
+        outboxRepository.delete(second);
+    }
+
+    @Test
+    public void testBatchStopsAtGapWithinGracePeriod() {
+        // Arrange
+        ChangeFeedService service = serviceAt(third.getCreatedAt().plus(GRACE_PERIOD).minusSeconds(1));
+
+        // Act
+        ChangeBatchDTO batch = service.getChanges(first.getId() - 1, 10);
+
+        // Assert
+        assertEquals(1, batch.changes().size());
+        assertEquals((long) first.getId(), batch.watermark());
+        assertEquals(false, batch.hasMore());
+    }
+
+    @Test
+    public void testBatchSkipsGapAfterGracePeriod() {
+        // Arrange
+        ChangeFeedService service = serviceAt(third.getCreatedAt().plus(GRACE_PERIOD).plusSeconds(1));
+
+        // Act
+        ChangeBatchDTO batch = service.getChanges(first.getId() - 1, 10);
+
+        // Assert
+        assertEquals(2, batch.changes().size());
+        assertEquals((long) third.getId(), (long) batch.changes().get(1).id());
+        assertEquals((long) third.getId(), batch.watermark());
+    }
+
+    private ChangeFeedService serviceAt(LocalDateTime now) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setGapGracePeriod(GRACE_PERIOD);
+        Clock clock = Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        return new ChangeFeedService(outboxRepository, properties, transactionManager, clusterMembership, clock);
+    }
+
+    private static OutboxEntry entry(long transactionId) {
+        Transaction transaction = new Transaction(null, new Account("FEED-ACCOUNT"), new BigDecimal("10.00"), Currency.SEK,
+                TransactionType.DEPOSIT, "Deposit");
+        transaction.setId(transactionId);
+        transaction.setTimestamp(LocalDateTime.now());
+        return new OutboxEntry(transaction);
+    }
+}
@@ -0,0 +1,83 @@
+package cubeledger.tcp;
+
+import cubeledger.exception.AccountNotFoundException;
+import cubeledger.model.Account;
+import cubeledger.model.Currency;
+import cubeledger.model.Transaction;
+import cubeledger.model.TransactionType;
+import cubeledger.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import static cubeledger.tcp.BinaryProtocol.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+public class TcpCommandHandlerTest {
+
+    private AccountService accountService;
+    private TcpCommandHandler handler;
+
+    @BeforeEach
+    public void setup() {
+        accountService = Mockito.mock(AccountService.class);
+        handler = new TcpCommandHandler(accountService);
+    }
+
+    @Test
+    public void testDeposit() {
+        // Arrange
+        Account account = new Account("ACC-001", Currency.SEK);
+        account.setBalance(new BigDecimal("150.00"));
+        Transaction transaction = new Transaction(null, account, new BigDecimal("50.00"), Currency.SEK, TransactionType.DEPOSIT, "Bonus");
+        transaction.setId(42L);
+        when(accountService.deposit("ACC-001", new BigDecimal("50.00"), Currency.SEK, "Bonus")).thenReturn(transaction);
+
+        byte[] accountNumber = utf8("ACC-001");
+        byte[] description = utf8("Bonus");
+        ByteBuffer request = allocateFrame(OP_DEPOSIT, 7L, encodedSize(accountNumber) + 8 + 1 + encodedSize(description));
+        putString(request, accountNumber);
+        request.putLong(5000L);
+        putCurrency(request, Currency.SEK);
+        putString(request, description);
+
+        // Act
+        ByteBuffer response = handler.handle(stripLengthPrefix(request));
+
+        // Assert
+        assertEquals(HEADER_SIZE + 16, response.getInt());
+        assertEquals(STATUS_OK, response.get());
+        assertEquals(7L, response.getLong());
+        assertEquals(42L, response.getLong());
+        assertEquals(15000L, response.getLong());
+    }
+
+    @Test
+    public void testBalanceOfUnknownAccount() {
+        // Arrange
+        when(accountService.getBalance("NOPE")).thenThrow(new AccountNotFoundException("NOPE"));
+
+        byte[] accountNumber = utf8("NOPE");
+        ByteBuffer request = allocateFrame(OP_BALANCE, 9L, encodedSize(accountNumber));
+        putString(request, accountNumber);
+
+        // Act
+        ByteBuffer response = handler.handle(stripLengthPrefix(request));
+
+        // Assert
+        response.getInt();
+        assertEquals(STATUS_ACCOUNT_NOT_FOUND, response.get());
+        assertEquals(9L, response.getLong());
+        assertEquals("Account not found with account number: NOPE", getString(response));
+    }
+
+    private static ByteBuffer stripLengthPrefix(ByteBuffer frame) {
+        byte[] body = new byte[frame.position() - LENGTH_PREFIX_SIZE];
+        System.arraycopy(frame.array(), LENGTH_PREFIX_SIZE, body, 0, body.length);
+        return ByteBuffer.wrap(body);
+    }
+}
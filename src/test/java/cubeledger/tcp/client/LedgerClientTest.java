@@ -0,0 +1,55 @@
+package cubeledger.tcp.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LedgerClientTest {
+
+    @Test
+    public void testPendingOperationFailsWhenServerCloses() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             LedgerClient client = LedgerClient.connect("localhost", server.getLocalPort());
+             Socket connection = server.accept()) {
+            // Arrange
+            CompletableFuture<BigDecimal> balance = client.getBalance("ACC-001");
+
+            // Act
+            connection.close();
+
+            // Assert
+            assertFailsWith("Connection closed by server", balance);
+        }
+    }
+
+    @Test
+    public void testOperationAfterServerClosedFailsFast() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             LedgerClient client = LedgerClient.connect("localhost", server.getLocalPort())) {
+            // Arrange
+            CompletableFuture<BigDecimal> first = client.getBalance("ACC-001");
+            server.accept().close();
+            assertFailsWith("Connection closed by server", first);
+
+            // Act
+            CompletableFuture<BigDecimal> second = client.getBalance("ACC-001");
+
+            // Assert
+            assertFailsWith("Connection closed by server", second);
+        }
+    }
+
+    private static void assertFailsWith(String message, CompletableFuture<?> future) {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals(message, exception.getCause().getMessage());
+    }
+}
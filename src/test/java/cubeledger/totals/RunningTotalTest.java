@@ -0,0 +1,72 @@
+package cubeledger.totals;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RunningTotalTest {
+
+    @Test
+    public void testAdditionsCountOnTopOfPersistedValue() {
+        // Arrange
+        RunningTotal total = new RunningTotal();
+        total.setPersisted(10_000, 0);
+
+        // Act
+        total.add(2_500);
+        total.add(-1_000);
+
+        // Assert
+        assertEquals(11_500, total.get());
+        assertEquals(1_500, total.added() - total.flushed());
+    }
+
+    @Test
+    public void testFlushedAdditionsAreNotCountedTwice() {
+        // Arrange
+        RunningTotal total = new RunningTotal();
+        total.setPersisted(10_000, 0);
+        total.add(2_500);
+        long flushed = total.added();
+
+        // Act
+        total.add(300);
+        // The persisted value now includes the 2 500 that were flushed, and another instance's 700
+        total.setPersisted(13_200, flushed);
+
+        // Assert
+        assertEquals(13_500, total.get());
+        assertEquals(300, total.added() - total.flushed());
+    }
+
+    @Test
+    public void testConcurrentAdditionsAreNotLost() throws InterruptedException {
+        // Arrange
+        RunningTotal total = new RunningTotal();
+        Thread[] writers = new Thread[4];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    total.add(1);
+                }
+            });
+        }
+
+        // Act
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        long persisted = 0;
+        for (int flush = 0; flush < 50; flush++) {
+            long added = total.added();
+            persisted += added - total.flushed();
+            total.setPersisted(persisted, added);
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // Assert
+        assertEquals(400_000, total.get());
+    }
+}